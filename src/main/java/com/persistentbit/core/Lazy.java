@@ -1,19 +1,27 @@
 package com.persistentbit.core;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 /**
  * A Lazy Value Supplier.
  * When the lazy supplier is first called, the value is retrieved from the provide Supplier.
- * Once it has a value, than the value will be reused in the next calls to {@link #get()}
+ * Once it has a value, than the value will be reused in the next calls to {@link #get()}<br>
+ * Reading an initialized value does not take a lock and
+ * the master supplier is released after use, so it can be garbage collected.<br>
+ * Use {@link #expiring(Duration, Supplier)} or {@link #refreshAhead(Duration, Duration, Executor, Supplier)}
+ * for a value that has to be reloaded after some time.
  *
  * @see Supplier
  */
 public class Lazy<T> implements Supplier<T>{
 
-  private final Supplier<T> supplier;
-  private       T           value;
-  private       boolean     gotValue;
+  private static final Object noValue = new Object();
+
+  private          Supplier<T> supplier;
+  private volatile Object      value = noValue;
 
   /**
    * Init with the master supplier
@@ -31,11 +39,154 @@ public class Lazy<T> implements Supplier<T>{
    * @return The lazy value
    */
   @Override
-  public synchronized T get() {
-	if(gotValue == false) {
-	  value = supplier.get();
-	  gotValue = true;
+  @SuppressWarnings("unchecked")
+  public T get() {
+	Object v = value;
+	if(v == noValue) {
+	  synchronized(this) {
+		v = value;
+		if(v == noValue) {
+		  v = supplier.get();
+		  value = v;
+		  supplier = null;
+		}
+	  }
+	}
+	return (T) v;
+  }
+
+  /**
+   * @return true if the value is already retrieved from the master supplier
+   */
+  public boolean isInitialized() {
+	return value != noValue;
+  }
+
+  /**
+   * Create a lazy value that is retrieved again when it is older than the time to live
+   *
+   * @param timeToLive How long a value is reused
+   * @param supplier   The master supplier
+   * @param <T>        The value type
+   *
+   * @return The expiring lazy value
+   */
+  public static <T> Expiring<T> expiring(Duration timeToLive, Supplier<T> supplier) {
+	return new Expiring<>(timeToLive, Duration.ZERO, null, supplier);
+  }
+
+  /**
+   * Create an expiring lazy value that is reloaded in the background before it expires.<br>
+   * The first {@link #get()} within refreshBefore of the expiry time starts the reload on the executor
+   * and returns the current value.
+   * Only when the value is expired before the reload is done, {@link #get()} waits for a new value.
+   * When the background reload throws an exception, the current value is kept until it expires.
+   *
+   * @param timeToLive    How long a value is reused
+   * @param refreshBefore How long before the expiry the reload is started
+   * @param executor      The executor for the background reload
+   * @param supplier      The master supplier
+   * @param <T>           The value type
+   *
+   * @return The refresh-ahead lazy value
+   */
+  public static <T> Expiring<T> refreshAhead(Duration timeToLive, Duration refreshBefore, Executor executor,
+											 Supplier<T> supplier
+  ) {
+	if(executor == null) {
+	  throw new IllegalArgumentException("executor is null");
+	}
+	if(refreshBefore.compareTo(timeToLive) > 0) {
+	  throw new IllegalArgumentException("refreshBefore " + refreshBefore + " is longer than timeToLive " + timeToLive);
+	}
+	return new Expiring<>(timeToLive, refreshBefore, executor, supplier);
+  }
+
+  /**
+   * A lazy value that expires after a time to live.
+   * Reading a value that did not expire does not take a lock.
+   *
+   * @see #expiring(Duration, Supplier)
+   * @see #refreshAhead(Duration, Duration, Executor, Supplier)
+   */
+  public static final class Expiring<T> implements Supplier<T>{
+
+	private static final class Loaded<T>{
+
+	  final T    value;
+	  final long loadedNanos;
+
+	  Loaded(T value, long loadedNanos) {
+		this.value = value;
+		this.loadedNanos = loadedNanos;
+	  }
+	}
+
+	private final    Supplier<T>   supplier;
+	private final    long          ttlNanos;
+	private final    long          refreshAfterNanos;
+	private final    Executor      executor;
+	private final    AtomicBoolean refreshing = new AtomicBoolean();
+	private volatile Loaded<T>     loaded;
+
+	private Expiring(Duration timeToLive, Duration refreshBefore, Executor executor, Supplier<T> supplier) {
+	  if(timeToLive.isNegative() || timeToLive.isZero()) {
+		throw new IllegalArgumentException("timeToLive must be positive: " + timeToLive);
+	  }
+	  if(refreshBefore.isNegative()) {
+		throw new IllegalArgumentException("refreshBefore can't be negative: " + refreshBefore);
+	  }
+	  this.supplier = supplier;
+	  this.ttlNanos = timeToLive.toNanos();
+	  this.refreshAfterNanos = ttlNanos - refreshBefore.toNanos();
+	  this.executor = executor;
+	}
+
+	@Override
+	public T get() {
+	  Loaded<T> current = loaded;
+	  long      now     = System.nanoTime();
+	  if(current != null) {
+		long age = now - current.loadedNanos;
+		if(age < ttlNanos) {
+		  if(executor != null && age >= refreshAfterNanos && refreshing.compareAndSet(false, true)) {
+			refresh();
+		  }
+		  return current.value;
+		}
+	  }
+	  synchronized(this) {
+		current = loaded;
+		if(current == null || System.nanoTime() - current.loadedNanos >= ttlNanos) {
+		  current = new Loaded<>(supplier.get(), System.nanoTime());
+		  loaded = current;
+		}
+		return current.value;
+	  }
+	}
+
+	private void refresh() {
+	  try {
+		executor.execute(() -> {
+		  try {
+			Loaded<T> next = new Loaded<>(supplier.get(), System.nanoTime());
+			synchronized(this) {
+			  loaded = next;
+			}
+		  } finally {
+			refreshing.set(false);
+		  }
+		});
+	  } catch(RuntimeException e) {
+		refreshing.set(false);
+	  }
+	}
+
+	/**
+	 * Forget the current value, so the next {@link #get()} retrieves a new value
+	 */
+	public void invalidate() {
+	  loaded = null;
 	}
-	return value;
   }
 }
@@ -30,6 +30,7 @@ public final class ModuleCore {
                 .logIf(LogEntryException.class, DefaultLogPrinter.forLogEntryException(format))
                 .logIf(LogEntryFunction.class, DefaultLogPrinter.forLogEntryFunction(format))
                 .logIf(LogEntryMessage.class, DefaultLogPrinter.forLogEntryMessage(format))
+                .logIf(LogEntrySummary.class, DefaultLogPrinter.forLogEntrySummary(format))
                 //Exceptions
                 .logIf(LoggedException.class, LoggedException.createExceptionPrinter(format))
                 .logIf(Throwable.class, new DefaultExceptionPrinter(format))
@@ -1,5 +1,8 @@
 package com.persistentbit.core.collections;
 
+import com.persistentbit.core.sketches.HyperLogLog;
+import com.persistentbit.core.sketches.QuantileSketch;
+import com.persistentbit.core.sketches.TopK;
 import com.persistentbit.core.tuples.Tuple2;
 
 import java.util.Comparator;
@@ -90,11 +93,31 @@ public abstract class AbstractPStreamDelegate<T> implements PStream<T>{
 	return getDelegate().sorted();
   }
 
+  @Override
+  public PStreamSortedExternal<T> sortedExternal(Comparator<? super T> comp, ElementCodec<T> codec, int memoryBudget) {
+	return getDelegate().sortedExternal(comp, codec, memoryBudget);
+  }
+
   @Override
   public PStream<T> reversed() {
 	return getDelegate().reversed();
   }
 
+  @Override
+  public Iterator<T> reverseIterator() {
+	return getDelegate().reverseIterator();
+  }
+
+  @Override
+  public <A, R> R collect(PCollector<? super T, A, R> collector) {
+	return getDelegate().collect(collector);
+  }
+
+  @Override
+  public <A, R> R collectParallel(PCollector<? super T, A, R> collector) {
+	return getDelegate().collectParallel(collector);
+  }
+
   @Override
   public PStream<T> plusAll(Iterable<? extends T> iter) {
 	return getDelegate().plusAll(iter);
@@ -151,6 +174,23 @@ public abstract class AbstractPStreamDelegate<T> implements PStream<T>{
 	return getDelegate().groupByOrdered(keyGen, valGen);
   }
 
+  @Override
+  public <K> PMultiMap<K, T> groupByMulti(Function<? super T, ? extends K> keyGen) {
+	return getDelegate().groupByMulti(keyGen);
+  }
+
+  @Override
+  public <K, V> PMultiMap<K, V> groupByMulti(Function<? super T, ? extends K> keyGen,
+											 Function<? super T, ? extends V> valGen
+  ) {
+	return getDelegate().groupByMulti(keyGen, valGen);
+  }
+
+  @Override
+  public <K> PBag<K> countBy(Function<? super T, ? extends K> keyGen) {
+	return getDelegate().countBy(keyGen);
+  }
+
   @Override
   public PStream<T> plus(T value) {
 	return getDelegate().plus(value);
@@ -262,6 +302,11 @@ public abstract class AbstractPStreamDelegate<T> implements PStream<T>{
 	return getDelegate().pset();
   }
 
+  @Override
+  public PBag<T> pbag() {
+	return getDelegate().pbag();
+  }
+
   @Override
   public POrderedSet<T> porderedset() {
 	return getDelegate().porderedset();
@@ -354,6 +399,21 @@ public abstract class AbstractPStreamDelegate<T> implements PStream<T>{
 	return getDelegate().peek(consumer);
   }
 
+  @Override
+  public HyperLogLog countDistinctApprox() {
+	return getDelegate().countDistinctApprox();
+  }
+
+  @Override
+  public <K> TopK<K> topK(int k, Function<? super T, ? extends K> keyFn) {
+	return getDelegate().topK(k, keyFn);
+  }
+
+  @Override
+  public QuantileSketch quantilesApprox(ToDoubleFunction<? super T> mapper) {
+	return getDelegate().quantilesApprox(mapper);
+  }
+
   @Override
   public PStream<T> filterNotContainedIn(PStream<? extends T> others) {
 	return getDelegate().filterNotContainedIn(others);
@@ -0,0 +1,212 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * An immutable view on one committed version of a {@link DurablePMapStore}.<br>
+ * Lookups and iteration read the HAMT nodes directly from the memory mapped store file.
+ * Operations that create a new map (put, removeKey, filter,...) return an in-memory {@link PMap}:
+ * use the {@link DurablePMapStore} to create a new durable version.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ *
+ * @author Peter Muys
+ * @see DurablePMapStore
+ * @since 19/10/2026
+ */
+public final class DurablePMap<K, V> extends AbstractPStreamDirect<Tuple2<K, V>, PMap<K, V>>
+	implements IPMap<K, V>{
+
+	private final DurablePMapStore<K, V> store;
+	final         MappedFile             file;
+	private final long                   version;
+	final         long                   root;
+	final         long                   size;
+	final         long                   commitOffset;
+	private final long                   prevCommitOffset;
+	private final long                   timestamp;
+
+	DurablePMap(DurablePMapStore<K, V> store, MappedFile file, long version, long root, long size, long commitOffset,
+				long prevCommitOffset, long timestamp
+	) {
+		this.store = store;
+		this.file = file;
+		this.version = version;
+		this.root = root;
+		this.size = size;
+		this.commitOffset = commitOffset;
+		this.prevCommitOffset = prevCommitOffset;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * @return The version number of this map in the store
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return The commit time in milliseconds since the epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Get the version committed before this version
+	 *
+	 * @return The previous version or an empty Optional for the first version or after a compaction
+	 */
+	public Optional<DurablePMap<K, V>> previous() {
+		return prevCommitOffset == 0
+			? Optional.empty()
+			: Optional.of(store.readCommit(file, prevCommitOffset));
+	}
+
+	/**
+	 * Copy this version to an in-memory map
+	 *
+	 * @return The PMap with all entries of this version
+	 */
+	public PMap<K, V> pmap() {
+		return PMap.<K, V>empty().plusAll(this);
+	}
+
+	@SuppressWarnings("unchecked")
+	private long findEntry(Object key) {
+		byte[] keyBytes;
+		try {
+			keyBytes = DurablePMapStore.encode(store.keyCodec, (K) key);
+		} catch(ClassCastException e) {
+			return 0;
+		}
+		return DurablePMapStore.find(file, root, DurablePMapStore.hash(keyBytes), keyBytes);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return findEntry(key) != 0;
+	}
+
+	@Override
+	public V getOrDefault(Object key, V notFound) {
+		long entry = findEntry(key);
+		return entry == 0 ? notFound : store.readValue(file, entry);
+	}
+
+	@Override
+	public V get(Object key) {
+		return getOrDefault(key, null);
+	}
+
+	@Override
+	public Optional<V> getOpt(Object key) {
+		return Optional.ofNullable(get(key));
+	}
+
+	@Override
+	public PMap<K, V> put(K key, V val) {
+		return pmap().put(key, val);
+	}
+
+	@Override
+	public PMap<K, V> removeKey(Object key) {
+		return pmap().removeKey(key);
+	}
+
+	@Override
+	public <K2, V2> PMap<K2, V2> mapKeyValues(Function<? super Tuple2<K, V>, ? extends Tuple2<K2, V2>> items) {
+		return pmap().mapKeyValues(items);
+	}
+
+	@Override
+	public <M> PMap<K, M> mapValues(Function<? super V, ? extends M> mapper) {
+		return pmap().mapValues(mapper);
+	}
+
+	@Override
+	public PStream<K> keys() {
+		return map(e -> e._1);
+	}
+
+	@Override
+	public PStream<V> values() {
+		return map(e -> e._2);
+	}
+
+	@Override
+	public Iterator<Tuple2<K, V>> iterator() {
+		Iterator<Long> entries = DurablePMapStore.entries(file, root);
+		return new Iterator<Tuple2<K, V>>(){
+			@Override
+			public boolean hasNext() {
+				return entries.hasNext();
+			}
+
+			@Override
+			public Tuple2<K, V> next() {
+				long entry = entries.next();
+				return new PMapEntry<>(store.readKey(file, entry), store.readValue(file, entry));
+			}
+		};
+	}
+
+	@Override
+	protected PMap<K, V> toImpl(PStream<Tuple2<K, V>> lazy) {
+		return PMap.<K, V>empty().plusAll(lazy);
+	}
+
+	@Override
+	public int size() {
+		return (int) size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof IPMap == false) {
+			return false;
+		}
+		IPMap other = (IPMap) o;
+		if(other.size() != size()) {
+			return false;
+		}
+		for(Tuple2<K, V> entry : this) {
+			if(other.containsKey(entry._1) == false || Objects.equals(entry._2, other.get(entry._1)) == false) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Same hashCode as a {@link PMap} with the same entries
+	 */
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for(Tuple2<K, V> entry : this) {
+			h += Objects.hashCode(entry._1) ^ Objects.hashCode(entry._2);
+		}
+		return h;
+	}
+
+	@Override
+	public String toString() {
+		return "DurablePMap[version " + version + ", " + limit(100).toString(", ") + (size > 100 ? "..." : "") + "]";
+	}
+}
@@ -0,0 +1,951 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.exceptions.RtIOException;
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A durable persistent map stored in a single append-only file.<br>
+ * Every {@link #put(Object, Object)}, {@link #putAll(Iterable)} or {@link #removeKey(Object)}
+ * appends the new entry and the changed HAMT nodes to the file, followed by a commit record.
+ * Nothing in the file is ever overwritten except the header, so every committed version stays
+ * readable as an immutable {@link DurablePMap} view.<br>
+ * Reads go through a memory mapping of the file. Opening a store only reads the header and
+ * the last commit record, independent of the number of entries or versions.<br>
+ * Commits from multiple threads are synced with one fsync for the whole group (group commit):
+ * a write method returns when its version is durable.<br>
+ * {@link #compact()} rewrites the file with only the latest version.<br>
+ * Keys and values are encoded with an {@link ElementCodec}. Keys are compared and hashed on
+ * their encoded bytes, so the key codec must always produce the same bytes for equal keys.
+ * <pre>{@code
+ * try(DurablePMapStore<String, Long> store = DurablePMapStore.open(file, ElementCodec.forString(), ElementCodec.forLong())) {
+ *     store.put("peter", 10L);
+ *     DurablePMap<String, Long> snapshot = store.latest();
+ *     store.removeKey("peter");
+ *     snapshot.get("peter");  // still 10
+ * }
+ * }</pre>
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ *
+ * @author Peter Muys
+ * @see DurablePMap
+ * @since 19/10/2026
+ */
+public final class DurablePMapStore<K, V> implements AutoCloseable{
+
+	static final long magic          = 0x50424D4150303032L;
+	static final int  headerSize     = 4096;
+	static final int  slotSize       = 64;
+	static final byte typeEntry      = 1;
+	static final byte typeNode       = 2;
+	static final byte typeCollision  = 3;
+	static final byte typeCommit     = 4;
+	static final int  commitSize     = 1 + 5 * 8;
+	static final int  flushThreshold = 16 * 1024 * 1024;
+
+	/**
+	 * Positional access to the records in the file
+	 */
+	interface Source{
+
+		ByteBuffer buf(long offset);
+
+		int pos(long offset);
+	}
+
+	private final File            file;
+	final         ElementCodec<K> keyCodec;
+	final         ElementCodec<V> valueCodec;
+	private final boolean         syncOnCommit;
+	private final ReentrantLock   writeLock = new ReentrantLock();
+	private final Object          syncLock  = new Object();
+
+	private volatile MappedFile        mappedFile;
+	private volatile DurablePMap<K, V> head;
+	private volatile boolean           closed;
+	//Latest version in the header, guarded by syncLock
+	private          long              syncedVersion;
+	//Sequence number of the last header write, guarded by syncLock
+	private          long              headerSeq;
+
+	//Records of the write in progress, starting at file offset pendingStart. Guarded by writeLock.
+	private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+	private long       pendingStart;
+	private long       curRoot;
+	private long       curSize;
+	private boolean    changed;
+	private boolean    added;
+
+	private final Source writeSource = new Source(){
+		@Override
+		public ByteBuffer buf(long offset) {
+			return offset >= pendingStart ? pending : mappedFile.buf(offset);
+		}
+
+		@Override
+		public int pos(long offset) {
+			return offset >= pendingStart ? (int) (offset - pendingStart) : mappedFile.pos(offset);
+		}
+	};
+
+	private DurablePMapStore(File file, ElementCodec<K> keyCodec, ElementCodec<V> valueCodec,
+							 boolean syncOnCommit
+	) throws IOException {
+		this.file = file;
+		this.keyCodec = keyCodec;
+		this.valueCodec = valueCodec;
+		this.syncOnCommit = syncOnCommit;
+		FileChannel channel = FileChannel.open(file.toPath(),
+			StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE
+		);
+		try {
+			if(channel.size() < headerSize) {
+				ByteBuffer init = ByteBuffer.allocate(headerSize);
+				writeFully(channel, init, 0);
+				writeHeader(channel, 0, 0, 0, headerSize);
+				channel.force(true);
+			}
+			ByteBuffer header = ByteBuffer.allocate(2 * slotSize);
+			while(header.hasRemaining()) {
+				if(channel.read(header, header.position()) < 0) {
+					throw new EOFException("Can't read the header of " + file);
+				}
+			}
+			long[] slot0 = readSlot(header, 0);
+			long[] slot1 = readSlot(header, slotSize);
+			long[] slot  = slot0 == null || (slot1 != null && slot1[0] > slot0[0]) ? slot1 : slot0;
+			if(slot == null) {
+				throw new IOException("Not a durable map file or corrupt header: " + file);
+			}
+			if(channel.size() > slot[3]) {
+				//Drop the records of commits that were not synced
+				channel.truncate(slot[3]);
+			}
+			this.mappedFile = new MappedFile(channel, slot[3]);
+			this.pendingStart = slot[3];
+			this.head = slot[2] == 0
+				? new DurablePMap<>(this, mappedFile, slot[1], 0, 0, 0, 0, 0)
+				: readCommit(mappedFile, slot[2]);
+			this.syncedVersion = head.getVersion();
+			this.headerSeq = slot[0];
+		} catch(IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Open or create a store that syncs every commit to disk.
+	 *
+	 * @param file       The store file
+	 * @param keyCodec   The codec for the keys
+	 * @param valueCodec The codec for the values
+	 * @param <K>        The type of the keys
+	 * @param <V>        The type of the values
+	 *
+	 * @return The store
+	 *
+	 * @see #open(File, ElementCodec, ElementCodec, boolean)
+	 */
+	public static <K, V> DurablePMapStore<K, V> open(File file, ElementCodec<K> keyCodec, ElementCodec<V> valueCodec) {
+		return open(file, keyCodec, valueCodec, true);
+	}
+
+	/**
+	 * Open or create a store.<br>
+	 * When syncOnCommit is false, commits are written to the file but not forced to disk.
+	 * The file stays consistent when the process crashes,
+	 * but after an operating system crash or power loss the header can be on disk without the records it refers to:
+	 * the file can be corrupt and is not guaranteed to open.
+	 *
+	 * @param file         The store file
+	 * @param keyCodec     The codec for the keys
+	 * @param valueCodec   The codec for the values
+	 * @param syncOnCommit Force the commits to disk before returning from a write
+	 * @param <K>          The type of the keys
+	 * @param <V>          The type of the values
+	 *
+	 * @return The store
+	 */
+	public static <K, V> DurablePMapStore<K, V> open(File file, ElementCodec<K> keyCodec, ElementCodec<V> valueCodec,
+													 boolean syncOnCommit
+	) {
+		try {
+			return new DurablePMapStore<>(file, keyCodec, valueCodec, syncOnCommit);
+		} catch(IOException e) {
+			throw new RtIOException("Can't open durable map " + file, e);
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return The latest committed version of the map
+	 */
+	public DurablePMap<K, V> latest() {
+		return head;
+	}
+
+	/**
+	 * Get all the versions in the file, starting with the latest.
+	 *
+	 * @return The versions
+	 */
+	public PStream<DurablePMap<K, V>> versions() {
+		DurablePMap<K, V> start = head;
+		return PStream.from(() -> new Iterator<DurablePMap<K, V>>(){
+			Optional<DurablePMap<K, V>> next = Optional.of(start);
+
+			@Override
+			public boolean hasNext() {
+				return next.isPresent();
+			}
+
+			@Override
+			public DurablePMap<K, V> next() {
+				DurablePMap<K, V> res = next.orElseThrow(NoSuchElementException::new);
+				next = res.previous();
+				return res;
+			}
+		});
+	}
+
+	/**
+	 * Get a version of the map
+	 *
+	 * @param version The version number
+	 *
+	 * @return The version or an empty Optional when it is not in the file
+	 */
+	public Optional<DurablePMap<K, V>> version(long version) {
+		return versions().find(v -> v.getVersion() == version);
+	}
+
+	/**
+	 * Commit a new version with the key added or replaced
+	 *
+	 * @param key   The key
+	 * @param value The value
+	 *
+	 * @return The new version
+	 */
+	public DurablePMap<K, V> put(K key, V value) {
+		return write(() -> putEntry(key, value));
+	}
+
+	/**
+	 * Commit one new version with all the entries added or replaced
+	 *
+	 * @param entries The entries
+	 *
+	 * @return The new version
+	 */
+	public DurablePMap<K, V> putAll(Iterable<? extends Tuple2<K, V>> entries) {
+		return write(() -> {
+			for(Tuple2<K, V> entry : entries) {
+				putEntry(entry._1, entry._2);
+			}
+		});
+	}
+
+	/**
+	 * Commit a new version without the key.<br>
+	 * When the key is not in the map, no new version is created.
+	 *
+	 * @param key The key to remove
+	 *
+	 * @return The new version
+	 */
+	public DurablePMap<K, V> removeKey(K key) {
+		return write(() -> {
+			byte[] keyBytes = encode(keyCodec, key);
+			int    hash     = hash(keyBytes);
+			long   newRoot  = remove(curRoot, 0, hash, keyBytes);
+			if(newRoot != curRoot) {
+				curRoot = newRoot;
+				curSize--;
+				changed = true;
+			}
+		});
+	}
+
+	private DurablePMap<K, V> write(RtIOException.IOExceptionCodeNoResult code) {
+		DurablePMap<K, V> res;
+		writeLock.lock();
+		try {
+			checkOpen();
+			curRoot = head.root;
+			curSize = head.size;
+			changed = false;
+			try {
+				code.run();
+				if(changed == false) {
+					return head;
+				}
+				res = appendCommit();
+			} catch(IOException e) {
+				pending.clear();
+				throw new RtIOException("Error writing to " + file, e);
+			} catch(RuntimeException e) {
+				pending.clear();
+				throw e;
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		sync(res);
+		return res;
+	}
+
+	/**
+	 * Rewrite the file with only the latest version.<br>
+	 * Existing {@link DurablePMap} views of older versions stay readable.
+	 *
+	 * @return The latest version in the compacted file
+	 */
+	public DurablePMap<K, V> compact() {
+		writeLock.lock();
+		try {
+			checkOpen();
+			synchronized(syncLock) {
+				DurablePMap<K, V> cur     = head;
+				MappedFile        old     = mappedFile;
+				File              tmp     = new File(file.getPath() + ".compact");
+				FileChannel       channel = FileChannel.open(tmp.toPath(),
+					StandardOpenOption.READ, StandardOpenOption.WRITE,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
+				);
+				long              root;
+				long              commitOff;
+				try {
+					writeFully(channel, ByteBuffer.allocate(headerSize), 0);
+					mappedFile = new MappedFile(channel, headerSize);
+					pending.clear();
+					pendingStart = headerSize;
+					root = copy(old, cur.root);
+					commitOff = reserve(commitSize);
+					pending.put(typeCommit)
+						.putLong(cur.getVersion()).putLong(root).putLong(cur.size).putLong(0).putLong(cur.getTimestamp());
+					flushPending();
+					writeHeader(channel, headerSeq + 1, cur.getVersion(), commitOff, commitOff + commitSize);
+					channel.force(true);
+					old.mapAll();
+					Files.move(tmp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE
+					);
+					old.channel.close();
+				} catch(IOException | RuntimeException e) {
+					mappedFile = old;
+					pending.clear();
+					pendingStart = old.getLength();
+					channel.close();
+					tmp.delete();
+					throw e;
+				}
+				head = new DurablePMap<>(this, mappedFile, cur.getVersion(), root, cur.size, commitOff, 0, cur.getTimestamp());
+				syncedVersion = head.getVersion();
+				headerSeq++;
+				return head;
+			}
+		} catch(IOException e) {
+			throw new RtIOException("Error compacting " + file, e);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Sync and close the file.<br>
+	 * Views created before closing stay readable.
+	 */
+	@Override
+	public void close() {
+		writeLock.lock();
+		try {
+			if(closed) {
+				return;
+			}
+			sync(head);
+			MappedFile f = mappedFile;
+			f.channel.force(true);
+			f.mapAll();
+			closed = true;
+			try {
+				//Drop the zeros added by growing the mapping
+				f.channel.truncate(f.getLength());
+			} catch(IOException e) {
+				//Not possible on all platforms with a mapped file: the next open truncates the file
+			}
+			f.channel.close();
+		} catch(IOException e) {
+			throw new RtIOException("Error closing " + file, e);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private void checkOpen() {
+		if(closed) {
+			throw new IllegalStateException("DurablePMapStore is closed: " + file);
+		}
+	}
+
+	/**
+	 * Make the version durable.<br>
+	 * The first thread that gets the sync lock syncs all commits written so far, so the threads
+	 * waiting for the lock find their version already synced.
+	 */
+	private void sync(DurablePMap<K, V> version) {
+		synchronized(syncLock) {
+			if(syncedVersion >= version.getVersion()) {
+				return;
+			}
+			DurablePMap<K, V> target  = head;
+			FileChannel       channel = target.file.channel;
+			try {
+				if(syncOnCommit) {
+					channel.force(false);
+				}
+				writeHeader(channel, headerSeq + 1, target.getVersion(), target.commitOffset, target.commitOffset + commitSize);
+				if(syncOnCommit) {
+					channel.force(false);
+				}
+			} catch(IOException e) {
+				throw new RtIOException("Error syncing " + file, e);
+			}
+			headerSeq++;
+			syncedVersion = target.getVersion();
+		}
+	}
+
+	private DurablePMap<K, V> appendCommit() throws IOException {
+		DurablePMap<K, V> prev    = head;
+		long              version = prev.getVersion() + 1;
+		long              time    = System.currentTimeMillis();
+		long              off     = reserve(commitSize);
+		pending.put(typeCommit)
+			.putLong(version).putLong(curRoot).putLong(curSize).putLong(prev.commitOffset).putLong(time);
+		flushPending();
+		DurablePMap<K, V> res = new DurablePMap<>(this, mappedFile, version, curRoot, curSize, off, prev.commitOffset, time);
+		head = res;
+		return res;
+	}
+
+	DurablePMap<K, V> readCommit(MappedFile f, long offset) {
+		ByteBuffer b = f.buf(offset);
+		int        p = f.pos(offset);
+		if(b.get(p) != typeCommit) {
+			throw new IllegalStateException("No commit record at " + offset + " in " + file);
+		}
+		return new DurablePMap<>(this, f, b.getLong(p + 1), b.getLong(p + 9), b.getLong(p + 17), offset,
+			b.getLong(p + 25), b.getLong(p + 33)
+		);
+	}
+
+	private void putEntry(K key, V value) throws IOException {
+		byte[] keyBytes = encode(keyCodec, key);
+		byte[] valBytes = encode(valueCodec, value);
+		int    hash     = hash(keyBytes);
+		long   entry    = appendEntry(hash, keyBytes, valBytes);
+		added = false;
+		curRoot = insert(curRoot, 0, hash, keyBytes, entry);
+		if(added) {
+			curSize++;
+		}
+		changed = true;
+	}
+
+
+	//*************  HAMT NODES ON DISK
+
+	private long insert(long off, int shift, int hash, byte[] key, long entry) throws IOException {
+		if(off == 0) {
+			added = true;
+			return entry;
+		}
+		ByteBuffer b = writeSource.buf(off);
+		int        p = writeSource.pos(off);
+		switch(b.get(p)) {
+			case typeNode: {
+				int    bitmap   = b.getInt(p + 1);
+				int    bit      = 1 << ((hash >>> shift) & 0x01f);
+				int    idx      = Integer.bitCount(bitmap & (bit - 1));
+				long[] children = readOffsets(b, p + 5, Integer.bitCount(bitmap));
+				if((bitmap & bit) == 0) {
+					added = true;
+					return appendNode(bitmap | bit, insertAt(children, idx, entry));
+				}
+				children[idx] = insert(children[idx], shift + 5, hash, key, entry);
+				return appendNode(bitmap, children);
+			}
+			case typeEntry:
+				if(keyEquals(writeSource, off, hash, key)) {
+					return entry;
+				}
+				added = true;
+				return merge(shift, off, b.getInt(p + 1), entry, hash);
+			case typeCollision: {
+				int collisionHash = b.getInt(p + 1);
+				if(collisionHash != hash) {
+					added = true;
+					return merge(shift, off, collisionHash, entry, hash);
+				}
+				long[] entries = readOffsets(b, p + 9, b.getInt(p + 5));
+				for(int i = 0; i < entries.length; i++) {
+					if(keyEquals(writeSource, entries[i], hash, key)) {
+						entries[i] = entry;
+						return appendCollision(hash, entries);
+					}
+				}
+				added = true;
+				return appendCollision(hash, insertAt(entries, entries.length, entry));
+			}
+			default:
+				throw corrupt(off);
+		}
+	}
+
+	private long merge(int shift, long off1, int hash1, long off2, int hash2) throws IOException {
+		if(hash1 == hash2) {
+			return appendCollision(hash1, new long[]{off1, off2});
+		}
+		int i1 = (hash1 >>> shift) & 0x01f;
+		int i2 = (hash2 >>> shift) & 0x01f;
+		if(i1 == i2) {
+			return appendNode(1 << i1, new long[]{merge(shift + 5, off1, hash1, off2, hash2)});
+		}
+		return appendNode((1 << i1) | (1 << i2), i1 < i2 ? new long[]{off1, off2} : new long[]{off2, off1});
+	}
+
+	/**
+	 * Remove a key from a sub tree
+	 *
+	 * @return The new sub tree, 0 when it is empty or off when the key is not found
+	 */
+	private long remove(long off, int shift, int hash, byte[] key) throws IOException {
+		if(off == 0) {
+			return 0;
+		}
+		ByteBuffer b = writeSource.buf(off);
+		int        p = writeSource.pos(off);
+		switch(b.get(p)) {
+			case typeNode: {
+				int bitmap = b.getInt(p + 1);
+				int bit    = 1 << ((hash >>> shift) & 0x01f);
+				if((bitmap & bit) == 0) {
+					return off;
+				}
+				int    idx      = Integer.bitCount(bitmap & (bit - 1));
+				long[] children = readOffsets(b, p + 5, Integer.bitCount(bitmap));
+				long   child    = remove(children[idx], shift + 5, hash, key);
+				if(child == children[idx]) {
+					return off;
+				}
+				if(child == 0) {
+					children = removeAt(children, idx);
+					bitmap &= ~bit;
+					if(children.length == 0) {
+						return 0;
+					}
+				}
+				else {
+					children[idx] = child;
+				}
+				if(children.length == 1 && type(children[0]) != typeNode) {
+					//A single entry or collision can move up
+					return children[0];
+				}
+				return appendNode(bitmap, children);
+			}
+			case typeEntry:
+				return keyEquals(writeSource, off, hash, key) ? 0 : off;
+			case typeCollision: {
+				if(b.getInt(p + 1) != hash) {
+					return off;
+				}
+				long[] entries = readOffsets(b, p + 9, b.getInt(p + 5));
+				for(int i = 0; i < entries.length; i++) {
+					if(keyEquals(writeSource, entries[i], hash, key)) {
+						if(entries.length == 2) {
+							return entries[1 - i];
+						}
+						return appendCollision(hash, removeAt(entries, i));
+					}
+				}
+				return off;
+			}
+			default:
+				throw corrupt(off);
+		}
+	}
+
+	private long copy(MappedFile from, long off) throws IOException {
+		if(off == 0) {
+			return 0;
+		}
+		ByteBuffer b = from.buf(off);
+		int        p = from.pos(off);
+		switch(b.get(p)) {
+			case typeEntry: {
+				int        keyLength = b.getInt(p + 5);
+				int        length    = 13 + keyLength + b.getInt(p + 9 + keyLength);
+				long       res       = reserve(length);
+				ByteBuffer src       = b.duplicate();
+				src.limit(p + length).position(p);
+				pending.put(src);
+				return res;
+			}
+			case typeNode: {
+				long[] children = readOffsets(b, p + 5, Integer.bitCount(b.getInt(p + 1)));
+				int    bitmap   = b.getInt(p + 1);
+				for(int i = 0; i < children.length; i++) {
+					children[i] = copy(from, children[i]);
+				}
+				return appendNode(bitmap, children);
+			}
+			case typeCollision: {
+				int    hash    = b.getInt(p + 1);
+				long[] entries = readOffsets(b, p + 9, b.getInt(p + 5));
+				for(int i = 0; i < entries.length; i++) {
+					entries[i] = copy(from, entries[i]);
+				}
+				return appendCollision(hash, entries);
+			}
+			default:
+				throw corrupt(off);
+		}
+	}
+
+	private byte type(long off) {
+		return writeSource.buf(off).get(writeSource.pos(off));
+	}
+
+	private IllegalStateException corrupt(long off) {
+		return new IllegalStateException("Corrupt record at " + off + " in " + file);
+	}
+
+	private static long[] readOffsets(ByteBuffer b, int pos, int count) {
+		long[] res = new long[count];
+		for(int i = 0; i < count; i++) {
+			res[i] = b.getLong(pos + i * 8);
+		}
+		return res;
+	}
+
+	private static long[] insertAt(long[] arr, int idx, long value) {
+		long[] res = new long[arr.length + 1];
+		System.arraycopy(arr, 0, res, 0, idx);
+		res[idx] = value;
+		System.arraycopy(arr, idx, res, idx + 1, arr.length - idx);
+		return res;
+	}
+
+	private static long[] removeAt(long[] arr, int idx) {
+		long[] res = new long[arr.length - 1];
+		System.arraycopy(arr, 0, res, 0, idx);
+		System.arraycopy(arr, idx + 1, res, idx, res.length - idx);
+		return res;
+	}
+
+	//*************  READING
+
+	/**
+	 * Find the entry record for a key
+	 *
+	 * @return The offset of the entry or 0 when not found
+	 */
+	static long find(Source src, long root, int hash, byte[] key) {
+		long off   = root;
+		int  shift = 0;
+		while(off != 0) {
+			ByteBuffer b = src.buf(off);
+			int        p = src.pos(off);
+			switch(b.get(p)) {
+				case typeNode:
+					int bitmap = b.getInt(p + 1);
+					int bit = 1 << ((hash >>> shift) & 0x01f);
+					if((bitmap & bit) == 0) {
+						return 0;
+					}
+					off = b.getLong(p + 5 + 8 * Integer.bitCount(bitmap & (bit - 1)));
+					shift += 5;
+					break;
+				case typeEntry:
+					return keyEquals(src, off, hash, key) ? off : 0;
+				case typeCollision:
+					if(b.getInt(p + 1) != hash) {
+						return 0;
+					}
+					int count = b.getInt(p + 5);
+					for(int i = 0; i < count; i++) {
+						long entry = b.getLong(p + 9 + 8 * i);
+						if(keyEquals(src, entry, hash, key)) {
+							return entry;
+						}
+					}
+					return 0;
+				default:
+					throw new IllegalStateException("Corrupt record at " + off);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Iterate all entry offsets in a tree
+	 */
+	static Iterator<Long> entries(Source src, long root) {
+		return new Iterator<Long>(){
+			long[] stack = new long[64];
+			int    top   = root == 0 ? 0 : push(root);
+
+			private int push(long off) {
+				if(top == stack.length) {
+					long[] ns = new long[stack.length * 2];
+					System.arraycopy(stack, 0, ns, 0, top);
+					stack = ns;
+				}
+				stack[top++] = off;
+				return top;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return top > 0;
+			}
+
+			@Override
+			public Long next() {
+				while(top > 0) {
+					long       off = stack[--top];
+					ByteBuffer b   = src.buf(off);
+					int        p   = src.pos(off);
+					switch(b.get(p)) {
+						case typeEntry:
+							return off;
+						case typeNode:
+							for(int i = Integer.bitCount(b.getInt(p + 1)) - 1; i >= 0; i--) {
+								push(b.getLong(p + 5 + 8 * i));
+							}
+							break;
+						case typeCollision:
+							for(int i = b.getInt(p + 5) - 1; i >= 0; i--) {
+								push(b.getLong(p + 9 + 8 * i));
+							}
+							break;
+						default:
+							throw new IllegalStateException("Corrupt record at " + off);
+					}
+				}
+				throw new NoSuchElementException();
+			}
+		};
+	}
+
+	private static boolean keyEquals(Source src, long entry, int hash, byte[] key) {
+		ByteBuffer b = src.buf(entry);
+		int        p = src.pos(entry);
+		if(b.getInt(p + 1) != hash || b.getInt(p + 5) != key.length) {
+			return false;
+		}
+		for(int i = 0; i < key.length; i++) {
+			if(b.get(p + 9 + i) != key[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	K readKey(Source src, long entry) {
+		ByteBuffer b = src.buf(entry);
+		int        p = src.pos(entry);
+		return decode(keyCodec, b, p + 9, b.getInt(p + 5));
+	}
+
+	V readValue(Source src, long entry) {
+		ByteBuffer b         = src.buf(entry);
+		int        p         = src.pos(entry);
+		int        keyLength = b.getInt(p + 5);
+		return decode(valueCodec, b, p + 13 + keyLength, b.getInt(p + 9 + keyLength));
+	}
+
+	//*************  ENCODING
+
+	static int hash(byte[] bytes) {
+		//FNV-1a, followed by the murmur3 finalizer to spread the bits over all trie levels
+		int h = 0x811c9dc5;
+		for(byte v : bytes) {
+			h ^= v & 0xff;
+			h *= 0x01000193;
+		}
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	static <T> byte[] encode(ElementCodec<T> codec, T value) {
+		try {
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			DataOutputStream      out  = new DataOutputStream(bout);
+			codec.write(out, value);
+			out.flush();
+			return bout.toByteArray();
+		} catch(IOException e) {
+			throw new RtIOException("Can't encode " + value, e);
+		}
+	}
+
+	private static <T> T decode(ElementCodec<T> codec, ByteBuffer b, int pos, int length) {
+		byte[] bytes = new byte[length];
+		for(int i = 0; i < length; i++) {
+			bytes[i] = b.get(pos + i);
+		}
+		try {
+			return codec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+		} catch(IOException e) {
+			throw new RtIOException("Can't decode record", e);
+		}
+	}
+
+	//*************  WRITING
+
+	/**
+	 * Reserve space in the pending buffer for a record that does not cross a chunk boundary
+	 *
+	 * @param length The length of the record
+	 *
+	 * @return The file offset of the record
+	 */
+	private long reserve(int length) throws IOException {
+		if(length > MappedFile.chunkSize) {
+			throw new IllegalArgumentException("Record too large: " + length + " bytes");
+		}
+		if(pending.position() >= flushThreshold) {
+			flushPending();
+		}
+		long off     = pendingStart + pending.position();
+		long inChunk = off & MappedFile.chunkMask;
+		if(inChunk + length > MappedFile.chunkSize) {
+			int padding = (int) (MappedFile.chunkSize - inChunk);
+			ensureCapacity(padding);
+			pending.position(pending.position() + padding);
+			off += padding;
+		}
+		ensureCapacity(length);
+		return off;
+	}
+
+	private void ensureCapacity(int length) {
+		if(pending.remaining() >= length) {
+			return;
+		}
+		ByteBuffer res = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + length));
+		pending.flip();
+		res.put(pending);
+		pending = res;
+	}
+
+	private void flushPending() throws IOException {
+		pending.flip();
+		long pos = pendingStart;
+		while(pending.hasRemaining()) {
+			pos += mappedFile.channel.write(pending, pos);
+		}
+		pending.clear();
+		pendingStart = pos;
+		mappedFile.setLength(pos);
+	}
+
+	private long appendEntry(int hash, byte[] key, byte[] value) throws IOException {
+		long off = reserve(13 + key.length + value.length);
+		pending.put(typeEntry).putInt(hash).putInt(key.length).put(key).putInt(value.length).put(value);
+		return off;
+	}
+
+	private long appendNode(int bitmap, long[] children) throws IOException {
+		long off = reserve(5 + children.length * 8);
+		pending.put(typeNode).putInt(bitmap);
+		for(long child : children) {
+			pending.putLong(child);
+		}
+		return off;
+	}
+
+	private long appendCollision(int hash, long[] entries) throws IOException {
+		long off = reserve(9 + entries.length * 8);
+		pending.put(typeCollision).putInt(hash).putInt(entries.length);
+		for(long entry : entries) {
+			pending.putLong(entry);
+		}
+		return off;
+	}
+
+	//*************  HEADER
+
+	/**
+	 * Write a header slot.<br>
+	 * Every header write has the next sequence number and goes to the other slot than the previous write,
+	 * so a torn header write always leaves the previous header intact.
+	 * The versions can't be used for this: a group commit can skip versions.
+	 */
+	private static void writeHeader(FileChannel channel, long seq, long version, long commitOffset, long length) throws
+		IOException {
+		ByteBuffer slot = ByteBuffer.allocate(slotSize);
+		slot.putLong(magic).putLong(seq).putLong(version).putLong(commitOffset).putLong(length);
+		CRC32 crc = new CRC32();
+		crc.update(slot.array(), 0, 40);
+		slot.putLong(crc.getValue());
+		slot.clear();
+		writeFully(channel, slot, (seq & 1) * slotSize);
+	}
+
+	/**
+	 * @return sequence number, version, commit offset and file length or null when the slot is not valid
+	 */
+	private static long[] readSlot(ByteBuffer header, int base) {
+		if(header.getLong(base) != magic) {
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(header.array(), base, 40);
+		if(crc.getValue() != header.getLong(base + 40)) {
+			return null;
+		}
+		return new long[]{
+			header.getLong(base + 8), header.getLong(base + 16), header.getLong(base + 24), header.getLong(base + 32)
+		};
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buf, long pos) throws IOException {
+		while(buf.hasRemaining()) {
+			pos += channel.write(buf, pos);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DurablePMapStore[" + file + ", version " + head.getVersion() + (closed ? ", closed" : "") + "]";
+	}
+}
@@ -0,0 +1,151 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.utils.Interner;
+
+import java.io.*;
+
+/**
+ * Encodes and decodes PStream elements to and from a binary stream.<br>
+ * Used by PStream operations that need to move elements out of the java heap,
+ * like {@link PStream#sortedExternal(java.util.Comparator, ElementCodec, int)}.<br>
+ * Implementations should be stateless, so that one codec instance can be shared.
+ *
+ * @param <T> The type of the elements
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public interface ElementCodec<T>{
+
+	/**
+	 * Write a value to the output
+	 *
+	 * @param out   The destination
+	 * @param value The value to write
+	 *
+	 * @throws IOException On write errors
+	 */
+	void write(DataOutput out, T value) throws IOException;
+
+	/**
+	 * Read a value written with {@link #write(DataOutput, Object)}
+	 *
+	 * @param in The source
+	 *
+	 * @return The value read
+	 *
+	 * @throws IOException On read errors
+	 */
+	T read(DataInput in) throws IOException;
+
+
+	static ElementCodec<Integer> forInt() {
+		return new ElementCodec<Integer>(){
+			@Override
+			public void write(DataOutput out, Integer value) throws IOException {
+				out.writeInt(value);
+			}
+
+			@Override
+			public Integer read(DataInput in) throws IOException {
+				return in.readInt();
+			}
+		};
+	}
+
+	static ElementCodec<Long> forLong() {
+		return new ElementCodec<Long>(){
+			@Override
+			public void write(DataOutput out, Long value) throws IOException {
+				out.writeLong(value);
+			}
+
+			@Override
+			public Long read(DataInput in) throws IOException {
+				return in.readLong();
+			}
+		};
+	}
+
+	/**
+	 * Codec for non null Strings of any length.
+	 *
+	 * @return The String codec
+	 */
+	static ElementCodec<String> forString() {
+		return new ElementCodec<String>(){
+			@Override
+			public void write(DataOutput out, String value) throws IOException {
+				byte[] bytes = value.getBytes("UTF-8");
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
+			@Override
+			public String read(DataInput in) throws IOException {
+				byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+				return new String(bytes, "UTF-8");
+			}
+		};
+	}
+
+	/**
+	 * Codec using java serialization for every element.<br>
+	 * Works for any {@link Serializable} element (including null), but is a lot slower
+	 * and bigger than a dedicated codec.
+	 *
+	 * @param <T> The type of the elements
+	 *
+	 * @return The codec
+	 */
+	static <T> ElementCodec<T> serializable() {
+		return new ElementCodec<T>(){
+			@Override
+			public void write(DataOutput out, T value) throws IOException {
+				ByteArrayOutputStream bout = new ByteArrayOutputStream();
+				try(ObjectOutputStream oout = new ObjectOutputStream(bout)) {
+					oout.writeObject(value);
+				}
+				byte[] bytes = bout.toByteArray();
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public T read(DataInput in) throws IOException {
+				byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+				try(ObjectInputStream oin = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+					return (T) oin.readObject();
+				} catch(ClassNotFoundException e) {
+					throw new IOException("Can't deserialize element", e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Codec that interns every value it reads, so that equal decoded values share one instance.
+	 *
+	 * @param codec    The codec for reading and writing
+	 * @param interner The interner for the decoded values
+	 * @param <T>      The type of the elements
+	 *
+	 * @return The interning codec
+	 */
+	static <T> ElementCodec<T> interning(ElementCodec<T> codec, Interner<T> interner) {
+		return new ElementCodec<T>(){
+			@Override
+			public void write(DataOutput out, T value) throws IOException {
+				codec.write(out, value);
+			}
+
+			@Override
+			public T read(DataInput in) throws IOException {
+				return interner.intern(codec.read(in));
+			}
+		};
+	}
+}
@@ -0,0 +1,339 @@
+package com.persistentbit.core.collections;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Estimate of the heap retained by a {@link PList}, {@link PMap} or {@link PSet}.<br>
+ * Walks the internal trie nodes and reports the retained bytes, the number of nodes of each kind,
+ * the trie depth and the fill factor of the nodes.
+ * When another version of the collection is given, the bytes shared with that version
+ * are reported as well.<br>
+ * Node sizes are estimated for a 64-bit JVM with compressed references.
+ * Element sizes come from a pluggable {@link Estimator}.
+ * Every node and element is counted only once, even when it is referenced multiple times.
+ * <pre>{@code
+ * PList<Long> v1 = ...;
+ * PList<Long> v2 = v1.put(10, 0L);
+ * Footprint fp = Footprint.of(v2, Footprint.Estimator.standard(), v1);
+ * fp.getUnsharedBytes();    // bytes added by the put
+ * }</pre>
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class Footprint{
+
+	static final int objectHeader = 12;
+	static final int arrayHeader  = 16;
+	static final int reference    = 4;
+
+	/**
+	 * Estimates the heap size of one element
+	 */
+	@FunctionalInterface
+	public interface Estimator{
+
+		/**
+		 * @param element The non null element
+		 *
+		 * @return The number of bytes of the element
+		 */
+		long sizeOf(Object element);
+
+		/**
+		 * @return An estimator that does not count elements
+		 */
+		static Estimator ignore() {
+			return e -> 0;
+		}
+
+		/**
+		 * @param bytes The size of every element
+		 *
+		 * @return An estimator that gives every element the same size
+		 */
+		static Estimator fixed(long bytes) {
+			return e -> bytes;
+		}
+
+		/**
+		 * Estimator for boxed primitives and Strings.
+		 * Other objects are counted as an object without fields.
+		 *
+		 * @return The estimator
+		 */
+		static Estimator standard() {
+			return e -> {
+				if(e instanceof String) {
+					//Compact Latin-1 string: object with hash, coder and value fields + byte array
+					return objectSize(1, 2) + align(arrayHeader + ((String) e).length());
+				}
+				if(e instanceof Long || e instanceof Double) {
+					return align(objectHeader + 8);
+				}
+				return align(objectHeader + 4);
+			};
+		}
+	}
+
+	private final long                  nodeBytes;
+	private final long                  elementBytes;
+	private final long                  sharedBytes;
+	private final int                   elementCount;
+	private final int                   depth;
+	private final long                  usedSlots;
+	private final long                  slotCapacity;
+	private final PMap<String, Integer> nodeCounts;
+
+	private Footprint(Walker w) {
+		this.nodeBytes = w.nodeBytes;
+		this.elementBytes = w.elementBytes;
+		this.sharedBytes = w.sharedBytes;
+		this.elementCount = w.elementCount;
+		this.depth = w.maxDepth;
+		this.usedSlots = w.usedSlots;
+		this.slotCapacity = w.slotCapacity;
+		PMap<String, Integer> counts = PMap.empty();
+		for(Map.Entry<String, int[]> e : w.nodeCounts.entrySet()) {
+			counts = counts.put(e.getKey(), e.getValue()[0]);
+		}
+		this.nodeCounts = counts;
+	}
+
+	public static Footprint of(PList<?> list) {
+		return of(list, Estimator.standard());
+	}
+
+	public static Footprint of(PList<?> list, Estimator estimator) {
+		return of(list, estimator, null);
+	}
+
+	/**
+	 * Get the footprint of a list and the bytes shared with another list
+	 *
+	 * @param list      The list to measure
+	 * @param estimator The element size estimator
+	 * @param other     The other list (ex. an older version) or null
+	 *
+	 * @return The footprint
+	 */
+	public static Footprint of(PList<?> list, Estimator estimator, PList<?> other) {
+		Walker w = new Walker(estimator, other == null ? null : walkOther(other::walk));
+		list.walk(w);
+		return new Footprint(w);
+	}
+
+	public static Footprint of(PMap<?, ?> map) {
+		return of(map, Estimator.standard());
+	}
+
+	public static Footprint of(PMap<?, ?> map, Estimator estimator) {
+		return of(map, estimator, null);
+	}
+
+	/**
+	 * Get the footprint of a map and the bytes shared with another map
+	 *
+	 * @param map       The map to measure
+	 * @param estimator The key and value size estimator
+	 * @param other     The other map (ex. an older version) or null
+	 *
+	 * @return The footprint
+	 */
+	public static Footprint of(PMap<?, ?> map, Estimator estimator, PMap<?, ?> other) {
+		Walker w = new Walker(estimator, other == null ? null : walkOther(other::walk));
+		map.walk(w);
+		return new Footprint(w);
+	}
+
+	public static Footprint of(PSet<?> set) {
+		return of(set, Estimator.standard());
+	}
+
+	public static Footprint of(PSet<?> set, Estimator estimator) {
+		return of(set, estimator, null);
+	}
+
+	/**
+	 * Get the footprint of a set and the bytes shared with another set
+	 *
+	 * @param set       The set to measure
+	 * @param estimator The element size estimator
+	 * @param other     The other set (ex. an older version) or null
+	 *
+	 * @return The footprint
+	 */
+	public static Footprint of(PSet<?> set, Estimator estimator, PSet<?> other) {
+		Walker w = new Walker(estimator, other == null ? null : walkOther(other::walk));
+		set.walk(w);
+		return new Footprint(w);
+	}
+
+	private static IdentityHashMap<Object, Boolean> walkOther(Consumer<Walker> walk) {
+		Walker w = new Walker(Estimator.ignore(), null);
+		walk.accept(w);
+		return w.visited;
+	}
+
+	/**
+	 * @return The estimated number of bytes retained by the collection, including the elements
+	 */
+	public long getRetainedBytes() {
+		return nodeBytes + elementBytes;
+	}
+
+	/**
+	 * @return The estimated number of bytes of the collection objects and nodes
+	 */
+	public long getNodeBytes() {
+		return nodeBytes;
+	}
+
+	/**
+	 * @return The estimated number of bytes of the elements
+	 */
+	public long getElementBytes() {
+		return elementBytes;
+	}
+
+	/**
+	 * @return The retained bytes that are also retained by the other collection
+	 */
+	public long getSharedBytes() {
+		return sharedBytes;
+	}
+
+	/**
+	 * @return The retained bytes that are not retained by the other collection
+	 */
+	public long getUnsharedBytes() {
+		return getRetainedBytes() - sharedBytes;
+	}
+
+	/**
+	 * @return The number of distinct elements (for maps: keys and values)
+	 */
+	public int getElementCount() {
+		return elementCount;
+	}
+
+	/**
+	 * @return The number of nodes for every kind of node
+	 */
+	public PMap<String, Integer> getNodeCounts() {
+		return nodeCounts;
+	}
+
+	/**
+	 * @return The number of node levels in the deepest path
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return The used slots in the trie nodes divided by the available slots, 0 when there are no trie nodes
+	 */
+	public double getFillFactor() {
+		return slotCapacity == 0 ? 0 : (double) usedSlots / slotCapacity;
+	}
+
+	@Override
+	public String toString() {
+		return "Footprint[retained=" + getRetainedBytes() + ", nodes=" + nodeBytes + ", elements=" + elementBytes
+			+ ", shared=" + sharedBytes + ", depth=" + depth + ", fill=" + String.format("%.2f", getFillFactor())
+			+ ", counts=" + nodeCounts + "]";
+	}
+
+	static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	/**
+	 * Estimated size of an object
+	 *
+	 * @param references The number of reference fields
+	 * @param ints       The number of int fields
+	 *
+	 * @return The size in bytes
+	 */
+	static long objectSize(int references, int ints) {
+		return align(objectHeader + references * reference + ints * 4);
+	}
+
+	/**
+	 * Estimated size of an Object array
+	 *
+	 * @param length The length of the array
+	 *
+	 * @return The size in bytes
+	 */
+	static long arraySize(int length) {
+		return align(arrayHeader + length * reference);
+	}
+
+	/**
+	 * Visitor for the internal structure of the collections.
+	 */
+	static final class Walker{
+
+		private final Estimator                       estimator;
+		private final IdentityHashMap<Object, Boolean> shared;
+		private final IdentityHashMap<Object, Boolean> visited    = new IdentityHashMap<>();
+		private final Map<String, int[]>              nodeCounts = new HashMap<>();
+		private       long                            nodeBytes;
+		private       long                            elementBytes;
+		private       long                            sharedBytes;
+		private       int                             elementCount;
+		private       int                             maxDepth;
+		private       long                            usedSlots;
+		private       long                            slotCapacity;
+
+		Walker(Estimator estimator, IdentityHashMap<Object, Boolean> shared) {
+			this.estimator = estimator;
+			this.shared = shared;
+		}
+
+		/**
+		 * Visit a node
+		 *
+		 * @param node     The node object
+		 * @param kind     The kind of node for the report
+		 * @param bytes    The estimated size of the node, including its arrays
+		 * @param used     The number of used slots, for trie nodes
+		 * @param capacity The number of available slots, 0 for nodes that are not trie nodes
+		 * @param depth    The depth of the node, the root is at depth 1
+		 *
+		 * @return true when the node was not visited before and the children must be visited
+		 */
+		boolean node(Object node, String kind, long bytes, int used, int capacity, int depth) {
+			if(node == null || visited.put(node, Boolean.TRUE) != null) {
+				return false;
+			}
+			nodeCounts.computeIfAbsent(kind, k -> new int[1])[0]++;
+			nodeBytes += bytes;
+			if(shared != null && shared.containsKey(node)) {
+				sharedBytes += bytes;
+			}
+			usedSlots += used;
+			slotCapacity += capacity;
+			maxDepth = Math.max(maxDepth, depth);
+			return true;
+		}
+
+		void element(Object element) {
+			if(element == null || visited.put(element, Boolean.TRUE) != null) {
+				return;
+			}
+			long bytes = estimator.sizeOf(element);
+			elementCount++;
+			elementBytes += bytes;
+			if(shared != null && shared.containsKey(element)) {
+				sharedBytes += bytes;
+			}
+		}
+	}
+}
@@ -84,9 +84,10 @@ public abstract class LList<E> extends AbstractIPList<E, LList<E>> implements Se
   @SuppressWarnings("unchecked")
   public LList<E> cons(E item) {
 
-	LList<E> r = LList.empty.prepend(item);
-	for(E v : this.lazy().reversed()) {
-	  r = r.prepend(v);
+	LList<E>    r    = LList.empty.prepend(item);
+	Iterator<E> iter = reverseIterator();
+	while(iter.hasNext()) {
+	  r = r.prepend(iter.next());
 	}
 	return r;
   }
@@ -0,0 +1,123 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.exceptions.RtIOException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Read-only memory mapping of an append-only file, used by {@link DurablePMapStore}.<br>
+ * The file is mapped in chunks of 1GB. Records never cross a chunk boundary, so
+ * a record can always be read with absolute gets on one chunk buffer.<br>
+ * The mapping grows on demand when a record beyond the mapped part is read.
+ * The last chunk is mapped in steps that double in size, starting at 1MB,
+ * so a growing file is not re-mapped after every commit.
+ * Mapping beyond the end of the file extends the file with zeros:
+ * {@link DurablePMapStore} truncates the file to the committed length when it is opened or closed.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+final class MappedFile implements DurablePMapStore.Source{
+
+	static final int  chunkBits = 30;
+	static final long chunkSize = 1L << chunkBits;
+	static final long chunkMask = chunkSize - 1;
+	static final long minStep   = 1L << 20;
+
+	final FileChannel channel;
+
+	private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+	//Length of the file with complete records that is covered by the chunks
+	private volatile long               mapped;
+	//End of the mapped chunks, can be beyond the end of the file
+	private          long               capacity;
+	//Length of the file that contains complete records
+	private volatile long               length;
+
+	MappedFile(FileChannel channel, long length) {
+		this.channel = channel;
+		this.length = length;
+	}
+
+	long getLength() {
+		return length;
+	}
+
+	void setLength(long length) {
+		this.length = length;
+	}
+
+	/**
+	 * Get the chunk buffer containing the record at the given offset
+	 *
+	 * @param offset The file offset of the record
+	 *
+	 * @return The buffer to use with absolute gets at {@link #pos(long)}
+	 */
+	@Override
+	public ByteBuffer buf(long offset) {
+		if(offset >= mapped) {
+			remap(offset);
+		}
+		return chunks[(int) (offset >>> chunkBits)];
+	}
+
+	@Override
+	public int pos(long offset) {
+		return (int) (offset & chunkMask);
+	}
+
+	/**
+	 * Map the complete readable length, so that reading no longer needs the channel.
+	 */
+	void mapAll() {
+		if(length > mapped) {
+			remap(length - 1);
+		}
+	}
+
+	/**
+	 * @return The needed size rounded up to a power of 2 between {@link #minStep} and {@link #chunkSize}
+	 */
+	private static long stepSize(long needed) {
+		if(needed <= minStep) {
+			return minStep;
+		}
+		return Math.min(chunkSize, Long.highestOneBit(needed - 1) << 1);
+	}
+
+	private synchronized void remap(long offset) {
+		long len = length;
+		if(offset < mapped) {
+			return;
+		}
+		if(offset >= len) {
+			throw new IllegalStateException("Offset " + offset + " is beyond the file length " + len);
+		}
+		if(len <= capacity) {
+			//The new records are already in the mapped chunks
+			mapped = len;
+			return;
+		}
+		try {
+			int                count = (int) ((len - 1) >>> chunkBits) + 1;
+			MappedByteBuffer[] res   = Arrays.copyOf(chunks, count);
+			long               end   = 0;
+			for(int i = (int) (capacity >>> chunkBits); i < count; i++) {
+				long start = ((long) i) << chunkBits;
+				long size  = i < count - 1 ? chunkSize : stepSize(len - start);
+				res[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+				end = start + size;
+			}
+			chunks = res;
+			capacity = end;
+			mapped = len;
+		} catch(IOException e) {
+			throw new RtIOException("Can't map file", e);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package com.persistentbit.core.collections;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Allocates the direct memory slabs for {@link OffHeapPList}s.<br>
+ * The {@link #managed()} arena lets the garbage collector release a slab
+ * when no list uses it anymore, through the Cleaner of the direct {@link ByteBuffer}.<br>
+ * An arena created with {@link #create()} is a region: it releases all its slabs at once in {@link #close()}
+ * and never before.
+ * After closing, all lists using the arena throw an {@link IllegalStateException} on access.
+ * Only close an arena when no other thread is still reading lists from that arena.
+ *
+ * @author Peter Muys
+ * @see OffHeapPList
+ * @since 19/10/2026
+ */
+public final class OffHeapArena implements AutoCloseable{
+
+	private static final Logger       log     = Logger.getLogger(OffHeapArena.class.getName());
+	private static final OffHeapArena managed = new OffHeapArena(false);
+
+	private final    boolean                explicit;
+	private final    Queue<ByteBuffer>      buffers   = new ConcurrentLinkedQueue<>();
+	private final    AtomicLong             allocated = new AtomicLong();
+	private volatile boolean                closed;
+
+	private OffHeapArena(boolean explicit) {
+		this.explicit = explicit;
+	}
+
+	/**
+	 * Get the shared arena where slabs are released by the garbage collector
+	 *
+	 * @return The managed arena
+	 */
+	public static OffHeapArena managed() {
+		return managed;
+	}
+
+	/**
+	 * Create a new arena where all slabs are released with {@link #close()}.<br>
+	 * The arena keeps every slab it allocated until it is closed, also the slabs that no list version uses anymore.
+	 * Every {@link OffHeapPList#put(int, Object)} copies a slab, so the memory of an explicit arena
+	 * grows with the number of updates, not with the size of the lists.
+	 * Use an explicit arena for lists that are built and dropped together,
+	 * and the {@link #managed()} arena for lists that are updated for a long time.
+	 *
+	 * @return The new arena
+	 */
+	public static OffHeapArena create() {
+		return new OffHeapArena(true);
+	}
+
+	ByteBuffer allocate(int bytes) {
+		checkOpen();
+		ByteBuffer buf = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+		allocated.addAndGet(bytes);
+		if(explicit) {
+			buffers.add(buf);
+		}
+		return buf;
+	}
+
+	void checkOpen() {
+		if(closed) {
+			throw new IllegalStateException("OffHeapArena is closed");
+		}
+	}
+
+	/**
+	 * @return The total number of bytes allocated in this arena
+	 */
+	public long getAllocatedBytes() {
+		return allocated.get();
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Release all the memory allocated in this arena.<br>
+	 * Does nothing for the {@link #managed()} arena.
+	 */
+	@Override
+	public void close() {
+		if(explicit == false || closed) {
+			return;
+		}
+		closed = true;
+		ByteBuffer buf;
+		while((buf = buffers.poll()) != null) {
+			free(buf);
+		}
+	}
+
+	/**
+	 * Free the memory of a direct buffer without waiting for the garbage collector.
+	 * Falls back to the garbage collector when the runtime does not allow it.
+	 */
+	private static void free(ByteBuffer buf) {
+		try {
+			//Java 9+
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method   invoke      = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field    theUnsafe   = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			invoke.invoke(theUnsafe.get(null), buf);
+			return;
+		} catch(NoSuchMethodException e) {
+			//Java 8: try the cleaner of the buffer
+		} catch(Exception e) {
+			log.log(Level.FINE, "Can't free direct buffer", e);
+			return;
+		}
+		try {
+			Method cleanerMethod = buf.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buf);
+			if(cleaner != null) {
+				Method clean = cleaner.getClass().getMethod("clean");
+				clean.setAccessible(true);
+				clean.invoke(cleaner);
+			}
+		} catch(Exception e) {
+			log.log(Level.FINE, "Can't free direct buffer", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "OffHeapArena[" + (explicit ? "explicit" : "managed") + ", allocated=" + allocated.get()
+			+ (closed ? ", closed" : "") + "]";
+	}
+}
@@ -0,0 +1,412 @@
+package com.persistentbit.core.collections;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Persistent vector that stores fixed-width records outside the java heap.<br>
+ * Records are encoded with a {@link RecordCodec} in direct {@link ByteBuffer} slabs.
+ * The slabs are the leaves of a 32-way trie like the one in {@link PList}, so versions share
+ * all slabs that are not modified.<br>
+ * {@link #put(int, Object)} copies the slab with the modified record.
+ * {@link #plus(Object)} writes in the tail slab without copying, unless another version already
+ * used that position in the slab.<br>
+ * Memory is allocated in an {@link OffHeapArena}: released by the garbage collector for the
+ * {@link OffHeapArena#managed()} arena or explicitly with {@link OffHeapArena#close()}.
+ *
+ * @param <T> The type of the elements
+ *
+ * @author Peter Muys
+ * @see RecordCodec
+ * @see OffHeapArena
+ * @since 19/10/2026
+ */
+public final class OffHeapPList<T> extends AbstractIPList<T, OffHeapPList<T>>{
+
+	public static final int defaultSlabRecords = 1024;
+
+	private final Context<T> ctx;
+	private final int        cnt;
+	//Trie with the full slabs
+	private final int        shift;
+	private final Node       root;
+	private final int        slabCount;
+	//The last slab with tailCount records
+	private final Slab       tail;
+	private final int        tailCount;
+
+	private OffHeapPList(Context<T> ctx, int cnt, int shift, Node root, int slabCount, Slab tail, int tailCount) {
+		this.ctx = ctx;
+		this.cnt = cnt;
+		this.shift = shift;
+		this.root = root;
+		this.slabCount = slabCount;
+		this.tail = tail;
+		this.tailCount = tailCount;
+	}
+
+	/**
+	 * Create an empty list in the managed arena
+	 *
+	 * @param codec The record codec
+	 * @param <T>   The type of the elements
+	 *
+	 * @return The empty list
+	 */
+	public static <T> OffHeapPList<T> empty(RecordCodec<T> codec) {
+		return empty(codec, OffHeapArena.managed());
+	}
+
+	public static <T> OffHeapPList<T> empty(RecordCodec<T> codec, OffHeapArena arena) {
+		return empty(codec, arena, defaultSlabRecords);
+	}
+
+	/**
+	 * Create an empty list
+	 *
+	 * @param codec       The record codec
+	 * @param arena       The arena for allocating slabs
+	 * @param slabRecords The number of records in a slab: a power of 2 &gt;= 32
+	 * @param <T>         The type of the elements
+	 *
+	 * @return The empty list
+	 */
+	public static <T> OffHeapPList<T> empty(RecordCodec<T> codec, OffHeapArena arena, int slabRecords) {
+		if(slabRecords < 32 || Integer.bitCount(slabRecords) != 1) {
+			throw new IllegalArgumentException("slabRecords must be a power of 2 >= 32: " + slabRecords);
+		}
+		if(codec.recordSize() < 1) {
+			throw new IllegalArgumentException("recordSize must be > 0: " + codec.recordSize());
+		}
+		return new Context<>(codec, arena, slabRecords).empty;
+	}
+
+	public static <T> OffHeapPList<T> from(RecordCodec<T> codec, Iterable<? extends T> iter) {
+		return empty(codec).plusAll(iter);
+	}
+
+	public RecordCodec<T> getCodec() {
+		return ctx.codec;
+	}
+
+	public OffHeapArena getArena() {
+		return ctx.arena;
+	}
+
+	private int tailOffset() {
+		return cnt - tailCount;
+	}
+
+	private Slab slabFor(int index) {
+		if(index >= tailOffset()) {
+			return tail;
+		}
+		int  s    = index >>> ctx.slabBits;
+		Node node = root;
+		for(int level = shift; level > 0; level -= 5) {
+			node = (Node) node.array[(s >>> level) & 0x01f];
+		}
+		return (Slab) node.array[s & 0x01f];
+	}
+
+	@Override
+	public T get(int index) {
+		if(index < 0 || index >= cnt) {
+			throw new IndexOutOfBoundsException("index " + index);
+		}
+		ctx.arena.checkOpen();
+		return ctx.codec.read(slabFor(index).buffer, (index & ctx.slabMask) * ctx.recordSize);
+	}
+
+	@Override
+	public OffHeapPList<T> plus(T value) {
+		ctx.arena.checkOpen();
+		if(tail != null && tailCount < ctx.slabRecords) {
+			if(tail.used.compareAndSet(tailCount, tailCount + 1)) {
+				//Nobody used this position in the tail slab yet
+				ctx.write(tail, tailCount, value);
+				return new OffHeapPList<>(ctx, cnt + 1, shift, root, slabCount, tail, tailCount + 1);
+			}
+			Slab newTail = ctx.copy(tail, tailCount, tailCount + 1);
+			ctx.write(newTail, tailCount, value);
+			return new OffHeapPList<>(ctx, cnt + 1, shift, root, slabCount, newTail, tailCount + 1);
+		}
+		Node newRoot  = root;
+		int  newShift = shift;
+		if(tail != null) {
+			//Push the full tail in the trie
+			if(slabCount == (1 << (shift + 5))) {
+				newRoot = new Node();
+				newRoot.array[0] = root;
+				newRoot.array[1] = newPath(shift, tail);
+				newShift += 5;
+			}
+			else {
+				newRoot = pushSlab(shift, root, slabCount, tail);
+			}
+		}
+		Slab newTail = ctx.allocate(1);
+		ctx.write(newTail, 0, value);
+		return new OffHeapPList<>(ctx, cnt + 1, newShift, newRoot, tail == null ? slabCount : slabCount + 1, newTail, 1);
+	}
+
+	private static Node pushSlab(int level, Node parent, int s, Slab slab) {
+		Node ret      = new Node(parent.array.clone());
+		int  subIndex = (s >>> level) & 0x01f;
+		if(level == 0) {
+			ret.array[subIndex] = slab;
+		}
+		else {
+			Node child = (Node) parent.array[subIndex];
+			ret.array[subIndex] = child != null ? pushSlab(level - 5, child, s, slab) : newPath(level - 5, slab);
+		}
+		return ret;
+	}
+
+	private static Node newPath(int level, Slab slab) {
+		Node ret = new Node();
+		ret.array[0] = level == 0 ? slab : newPath(level - 5, slab);
+		return ret;
+	}
+
+	@Override
+	public OffHeapPList<T> plusAll(Iterable<? extends T> iter) {
+		OffHeapPList<T> res = this;
+		for(T v : iter) {
+			res = res.plus(v);
+		}
+		return res;
+	}
+
+	/**
+	 * Create a new list with the element at the given index replaced.<br>
+	 * The slab with the element is copied.
+	 *
+	 * @param index The index of the element (0 &lt;= index &lt;= size)
+	 * @param value The new value
+	 *
+	 * @return The new list
+	 */
+	@Override
+	public OffHeapPList<T> put(int index, T value) {
+		if(index < 0 || index > cnt) {
+			throw new IndexOutOfBoundsException("index " + index);
+		}
+		if(index == cnt) {
+			return plus(value);
+		}
+		ctx.arena.checkOpen();
+		if(index >= tailOffset()) {
+			Slab newTail = ctx.copy(tail, tailCount, tailCount);
+			ctx.write(newTail, index - tailOffset(), value);
+			return new OffHeapPList<>(ctx, cnt, shift, root, slabCount, newTail, tailCount);
+		}
+		int  s       = index >>> ctx.slabBits;
+		Slab newSlab = ctx.copy(slabFor(index), ctx.slabRecords, ctx.slabRecords);
+		ctx.write(newSlab, index & ctx.slabMask, value);
+		return new OffHeapPList<>(ctx, cnt, shift, setSlab(shift, root, s, newSlab), slabCount, tail, tailCount);
+	}
+
+	private static Node setSlab(int level, Node node, int s, Slab slab) {
+		Node ret      = new Node(node.array.clone());
+		int  subIndex = (s >>> level) & 0x01f;
+		ret.array[subIndex] = level == 0 ? slab : setSlab(level - 5, (Node) node.array[subIndex], s, slab);
+		return ret;
+	}
+
+	@Override
+	public OffHeapPList<T> dropLast() {
+		if(cnt == 0) {
+			throw new IllegalStateException("Can't dropLast on an empty OffHeapPList");
+		}
+		if(cnt == 1) {
+			return ctx.empty;
+		}
+		if(tailCount > 1) {
+			return new OffHeapPList<>(ctx, cnt - 1, shift, root, slabCount, tail, tailCount - 1);
+		}
+		//The last full slab in the trie becomes the tail
+		Slab newTail  = slabFor(cnt - 2);
+		Node newRoot  = popSlab(shift, root, slabCount - 1);
+		int  newShift = shift;
+		if(newRoot == null) {
+			newRoot = new Node();
+		}
+		if(shift > 0 && newRoot.array[1] == null) {
+			newRoot = (Node) newRoot.array[0];
+			newShift -= 5;
+		}
+		return new OffHeapPList<>(ctx, cnt - 1, newShift, newRoot, slabCount - 1, newTail, ctx.slabRecords);
+	}
+
+	private static Node popSlab(int level, Node node, int s) {
+		int subIndex = (s >>> level) & 0x01f;
+		if(level > 0) {
+			Node newChild = popSlab(level - 5, (Node) node.array[subIndex], s);
+			if(newChild == null && subIndex == 0) {
+				return null;
+			}
+			Node ret = new Node(node.array.clone());
+			ret.array[subIndex] = newChild;
+			return ret;
+		}
+		if(subIndex == 0) {
+			return null;
+		}
+		Node ret = new Node(node.array.clone());
+		ret.array[subIndex] = null;
+		return ret;
+	}
+
+	@Override
+	public Optional<T> lastOpt() {
+		return cnt == 0 ? Optional.empty() : Optional.ofNullable(get(cnt - 1));
+	}
+
+	@Override
+	public Optional<T> headOpt() {
+		return cnt == 0 ? Optional.empty() : Optional.ofNullable(get(0));
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>(){
+			int i;
+			Slab slab;
+
+			@Override
+			public boolean hasNext() {
+				return i < cnt;
+			}
+
+			@Override
+			public T next() {
+				if(i >= cnt) {
+					throw new NoSuchElementException();
+				}
+				ctx.arena.checkOpen();
+				int inSlab = i & ctx.slabMask;
+				if(slab == null || inSlab == 0) {
+					slab = slabFor(i);
+				}
+				i++;
+				return ctx.codec.read(slab.buffer, inSlab * ctx.recordSize);
+			}
+		};
+	}
+
+	@Override
+	public PStream<T> lazy() {
+		return new AbstractPStreamLazy<T>(){
+			@Override
+			public Iterator<T> iterator() {
+				return OffHeapPList.this.iterator();
+			}
+
+			@Override
+			public int size() {
+				return cnt;
+			}
+		};
+	}
+
+	@Override
+	protected OffHeapPList<T> toImpl(PStream<T> lazy) {
+		return ctx.empty.plusAll(lazy);
+	}
+
+	@Override
+	public OffHeapPList<T> clear() {
+		return ctx.empty;
+	}
+
+	@Override
+	public int size() {
+		return cnt;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return cnt == 0;
+	}
+
+	/**
+	 * @return The number of off-heap bytes used by the records in this list
+	 */
+	public long getDataBytes() {
+		return (long) cnt * ctx.recordSize;
+	}
+
+	@Override
+	public String toString() {
+		return "OffHeapPList[" + limit(100).toString(", ") + (cnt > 100 ? "..." : "") + "]";
+	}
+
+	/**
+	 * The settings shared by all versions of a list
+	 */
+	private static final class Context<T>{
+
+		final RecordCodec<T>  codec;
+		final OffHeapArena    arena;
+		final int             recordSize;
+		final int             slabRecords;
+		final int             slabBits;
+		final int             slabMask;
+		final OffHeapPList<T> empty;
+
+		Context(RecordCodec<T> codec, OffHeapArena arena, int slabRecords) {
+			this.codec = codec;
+			this.arena = arena;
+			this.recordSize = codec.recordSize();
+			this.slabRecords = slabRecords;
+			this.slabBits = Integer.numberOfTrailingZeros(slabRecords);
+			this.slabMask = slabRecords - 1;
+			this.empty = new OffHeapPList<>(this, 0, 0, new Node(), 0, null, 0);
+		}
+
+		Slab allocate(int used) {
+			return new Slab(arena.allocate(slabRecords * recordSize), used);
+		}
+
+		Slab copy(Slab slab, int records, int used) {
+			Slab       res = allocate(used);
+			ByteBuffer src = slab.buffer.duplicate();
+			src.position(0).limit(records * recordSize);
+			res.buffer.duplicate().put(src);
+			return res;
+		}
+
+		void write(Slab slab, int index, T value) {
+			codec.write(slab.buffer, index * recordSize, value);
+		}
+	}
+
+	private static final class Slab{
+
+		final ByteBuffer    buffer;
+		//Number of records claimed by a version of the list
+		final AtomicInteger used;
+
+		Slab(ByteBuffer buffer, int used) {
+			this.buffer = buffer;
+			this.used = new AtomicInteger(used);
+		}
+	}
+
+	private static final class Node{
+
+		final Object[] array;
+
+		Node(Object[] array) {
+			this.array = array;
+		}
+
+		Node() {
+			this.array = new Object[32];
+		}
+	}
+}
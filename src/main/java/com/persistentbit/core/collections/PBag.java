@@ -0,0 +1,286 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A Persistent multiset: a collection of elements with an occurrence count for every distinct element.<br>
+ * Elements are stored once in a {@link PMap} with their count, so adding and removing elements is O(log n),
+ * independent of the number of occurrences.<br>
+ * Bulk operations like {@link #plusAll(Iterable)} and {@link PStream#pbag()} count with mutable primitive
+ * counters first, so every distinct element is only updated once in the underlying PMap.<br>
+ * Iterating a PBag returns every element as many times as it occurs.
+ *
+ * @param <T> The type of the elements
+ *
+ * @author Peter Muys
+ * @see PMultiMap
+ * @since 19/10/2026
+ */
+public final class PBag<T> extends AbstractPStreamDirect<T, PBag<T>> implements Serializable{
+
+	private static final PBag<Object> sEmpty = new PBag<>(PMap.empty(), 0);
+
+	private final PMap<T, Integer> counts;
+	private final int              size;
+
+	private PBag(PMap<T, Integer> counts, int size) {
+		this.counts = counts;
+		this.size = size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> PBag<T> empty() {
+		return (PBag<T>) sEmpty;
+	}
+
+	@SafeVarargs
+	public static <T> PBag<T> val(T... elements) {
+		return PBag.<T>empty().plusAll(PStream.val(elements));
+	}
+
+	public static <T> PBag<T> from(Iterable<? extends T> iter) {
+		return PBag.<T>empty().plusAll(iter);
+	}
+
+	/**
+	 * Count elements in a new PBag, using a mutable map with primitive counters.
+	 */
+	static <E, T> PBag<T> count(PBag<T> base, Iterable<E> elements, Function<? super E, ? extends T> keyGen) {
+		Map<T, int[]> added = new HashMap<>();
+		for(E e : elements) {
+			added.computeIfAbsent(keyGen.apply(e), k -> new int[1])[0]++;
+		}
+		if(added.isEmpty()) {
+			return base;
+		}
+		PMap<T, Integer> newCounts = base.counts;
+		int              newSize   = base.size;
+		for(Map.Entry<T, int[]> entry : added.entrySet()) {
+			int n = entry.getValue()[0];
+			newCounts = newCounts.put(entry.getKey(), base.occurrences(entry.getKey()) + n);
+			newSize += n;
+		}
+		return new PBag<>(newCounts, newSize);
+	}
+
+	@Override
+	public PBag<T> plus(T value) {
+		return plus(value, 1);
+	}
+
+	/**
+	 * Add an element multiple times
+	 *
+	 * @param value       The element to add
+	 * @param occurrences The number of times to add the element (&gt;=0)
+	 *
+	 * @return The new PBag
+	 */
+	public PBag<T> plus(T value, int occurrences) {
+		if(occurrences < 0) {
+			throw new IllegalArgumentException("occurrences must be >= 0: " + occurrences);
+		}
+		if(occurrences == 0) {
+			return this;
+		}
+		return new PBag<>(counts.put(value, occurrences(value) + occurrences), size + occurrences);
+	}
+
+	@Override
+	public PBag<T> plusAll(Iterable<? extends T> iter) {
+		return count(this, iter, Function.identity());
+	}
+
+	/**
+	 * Merge the elements of this bag with the elements of another bag, adding up the counts.
+	 *
+	 * @param other The other bag
+	 *
+	 * @return The merged bag
+	 */
+	public PBag<T> merge(PBag<T> other) {
+		if(other.size > size) {
+			return other.merge(this);
+		}
+		PMap<T, Integer> newCounts = counts;
+		for(Tuple2<T, Integer> entry : other.counts) {
+			newCounts = newCounts.put(entry._1, occurrences(entry._1) + entry._2);
+		}
+		return new PBag<>(newCounts, size + other.size);
+	}
+
+	/**
+	 * Remove one occurrence of an element
+	 *
+	 * @param value The element to remove
+	 *
+	 * @return The new PBag
+	 */
+	public PBag<T> minus(Object value) {
+		return minus(value, 1);
+	}
+
+	/**
+	 * Remove occurrences of an element.<br>
+	 * When there are fewer occurrences, the element is removed completely.
+	 *
+	 * @param value       The element to remove
+	 * @param occurrences The number of occurrences to remove (&gt;=0)
+	 *
+	 * @return The new PBag
+	 */
+	@SuppressWarnings("unchecked")
+	public PBag<T> minus(Object value, int occurrences) {
+		if(occurrences < 0) {
+			throw new IllegalArgumentException("occurrences must be >= 0: " + occurrences);
+		}
+		int current = occurrences(value);
+		if(current == 0 || occurrences == 0) {
+			return this;
+		}
+		if(occurrences >= current) {
+			return new PBag<>(counts.removeKey(value), size - current);
+		}
+		return new PBag<>(counts.put((T) value, current - occurrences), size - occurrences);
+	}
+
+	/**
+	 * Get the number of times an element occurs in this bag
+	 *
+	 * @param value The element
+	 *
+	 * @return The count, 0 when not found
+	 */
+	public int occurrences(Object value) {
+		Integer c = counts.getOrDefault(value, null);
+		return c == null ? 0 : c;
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		return counts.containsKey(value);
+	}
+
+	/**
+	 * @return A stream with every distinct element once
+	 */
+	public PStream<T> distinctElements() {
+		return counts.keys();
+	}
+
+	/**
+	 * @return The number of distinct elements
+	 */
+	public int distinctSize() {
+		return counts.size();
+	}
+
+	/**
+	 * Get the elements of this bag with their count
+	 *
+	 * @return The PMap from element to count
+	 */
+	public PMap<T, Integer> asMap() {
+		return counts;
+	}
+
+	/**
+	 * @return The total number of elements, counting every occurrence
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public PBag<T> pbag() {
+		return this;
+	}
+
+	@Override
+	public PSet<T> pset() {
+		return new PSet<>(counts.mapKeyValues(t -> Tuple2.of(t._1, t._1)));
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>(){
+			Iterator<Tuple2<T, Integer>> iter = counts.iterator();
+			T   value;
+			int left;
+
+			@Override
+			public boolean hasNext() {
+				while(left == 0) {
+					if(iter.hasNext() == false) {
+						return false;
+					}
+					Tuple2<T, Integer> entry = iter.next();
+					value = entry._1;
+					left = entry._2;
+				}
+				return true;
+			}
+
+			@Override
+			public T next() {
+				if(hasNext() == false) {
+					throw new NoSuchElementException();
+				}
+				left--;
+				return value;
+			}
+		};
+	}
+
+	@Override
+	public PStream<T> lazy() {
+		return new AbstractPStreamLazy<T>(){
+			@Override
+			public Iterator<T> iterator() {
+				return PBag.this.iterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	protected PBag<T> toImpl(PStream<T> lazy) {
+		return PBag.<T>empty().plusAll(lazy);
+	}
+
+	@Override
+	public PBag<T> clear() {
+		return empty();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof PBag == false) {
+			return false;
+		}
+		PBag other = (PBag) o;
+		return other.size == size && counts.equals(other.counts);
+	}
+
+	@Override
+	public int hashCode() {
+		return counts.hashCode();
+	}
+}
@@ -0,0 +1,306 @@
+package com.persistentbit.core.collections;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A persistent set of small non negative ints, stored as a bitmask of long words.<br>
+ * contains is O(1).
+ * plus and minus copy the words, which is cheap for the dense small int key spaces
+ * this set is meant for.<br>
+ * {@link #union(PBitSet)}, {@link #intersection(PBitSet)} and {@link #difference(PBitSet)}
+ * combine 64 elements per operation.<br>
+ * The elements are iterated in ascending order.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class PBitSet extends AbstractPStreamDirect<Integer, PBitSet> implements IPSet<Integer>{
+
+	private static final long[]  emptyWords = new long[0];
+	private static final PBitSet sEmpty     = new PBitSet(emptyWords, 0);
+
+	//Never has trailing zero words, so equal sets have equal arrays
+	private final long[] words;
+	private final int    size;
+
+	private PBitSet(long[] words, int size) {
+		this.words = words;
+		this.size = size;
+	}
+
+	public static PBitSet empty() {
+		return sEmpty;
+	}
+
+	public static PBitSet val(int... elements) {
+		int max = -1;
+		for(int v : elements) {
+			max = Math.max(max, checkElement(v));
+		}
+		if(max < 0) {
+			return sEmpty;
+		}
+		long[] words = new long[(max >>> 6) + 1];
+		for(int v : elements) {
+			words[v >>> 6] |= 1L << v;
+		}
+		return create(words);
+	}
+
+	/**
+	 * Create a set with all the ints from start (inclusive) until end (exclusive)
+	 *
+	 * @param start The first element
+	 * @param end   The element after the last element
+	 *
+	 * @return The new set
+	 */
+	public static PBitSet range(int start, int end) {
+		checkElement(start);
+		if(end <= start) {
+			return sEmpty;
+		}
+		long[] words = new long[((end - 1) >>> 6) + 1];
+		for(int w = start >>> 6; w < words.length; w++) {
+			long word = -1L;
+			if(w == (start >>> 6)) {
+				word &= -1L << start;
+			}
+			if(w == words.length - 1) {
+				word &= -1L >>> (63 - ((end - 1) & 63));
+			}
+			words[w] = word;
+		}
+		return create(words);
+	}
+
+	private static int checkElement(int value) {
+		if(value < 0) {
+			throw new IllegalArgumentException("PBitSet elements can't be negative: " + value);
+		}
+		return value;
+	}
+
+	private static PBitSet create(long[] words) {
+		int length = words.length;
+		while(length > 0 && words[length - 1] == 0) {
+			length--;
+		}
+		if(length == 0) {
+			return sEmpty;
+		}
+		if(length != words.length) {
+			words = Arrays.copyOf(words, length);
+		}
+		int size = 0;
+		for(long w : words) {
+			size += Long.bitCount(w);
+		}
+		return new PBitSet(words, size);
+	}
+
+	public boolean contains(int value) {
+		int w = value >>> 6;
+		return value >= 0 && w < words.length && (words[w] & (1L << value)) != 0;
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		return value instanceof Integer && contains(((Integer) value).intValue());
+	}
+
+	public PBitSet plus(int value) {
+		checkElement(value);
+		if(contains(value)) {
+			return this;
+		}
+		int    w        = value >>> 6;
+		long[] newWords = Arrays.copyOf(words, Math.max(words.length, w + 1));
+		newWords[w] |= 1L << value;
+		return new PBitSet(newWords, size + 1);
+	}
+
+	@Override
+	public PBitSet plus(Integer value) {
+		if(value == null) {
+			throw new IllegalArgumentException("PBitSet can't contain null");
+		}
+		return plus(value.intValue());
+	}
+
+	@Override
+	public PBitSet plusAll(Iterable<? extends Integer> iter) {
+		if(iter instanceof PBitSet) {
+			return union((PBitSet) iter);
+		}
+		PBitSet res = this;
+		for(Integer v : iter) {
+			res = res.plus(v);
+		}
+		return res;
+	}
+
+	public PBitSet minus(int value) {
+		if(contains(value) == false) {
+			return this;
+		}
+		long[] newWords = words.clone();
+		newWords[value >>> 6] &= ~(1L << value);
+		return create(newWords);
+	}
+
+	public PBitSet union(PBitSet other) {
+		if(other.size == 0 || other == this) {
+			return this;
+		}
+		if(size == 0) {
+			return other;
+		}
+		long[] longest  = words.length >= other.words.length ? words : other.words;
+		long[] shortest = longest == words ? other.words : words;
+		long[] res      = longest.clone();
+		for(int t = 0; t < shortest.length; t++) {
+			res[t] |= shortest[t];
+		}
+		return create(res);
+	}
+
+	public PBitSet intersection(PBitSet other) {
+		long[] res = Arrays.copyOf(words, Math.min(words.length, other.words.length));
+		for(int t = 0; t < res.length; t++) {
+			res[t] &= other.words[t];
+		}
+		return create(res);
+	}
+
+	/**
+	 * Create a new set with the elements of this set that are not in the other set
+	 *
+	 * @param other The elements to remove
+	 *
+	 * @return The new set
+	 */
+	public PBitSet difference(PBitSet other) {
+		long[] res = words.clone();
+		for(int t = 0; t < Math.min(res.length, other.words.length); t++) {
+			res[t] &= ~other.words[t];
+		}
+		return create(res);
+	}
+
+	@Override
+	public Optional<Integer> min() {
+		return words.length == 0 ? Optional.empty() : Optional.of(nextSetBit(0));
+	}
+
+	@Override
+	public Optional<Integer> max() {
+		if(words.length == 0) {
+			return Optional.empty();
+		}
+		int last = words.length - 1;
+		return Optional.of((last << 6) + 63 - Long.numberOfLeadingZeros(words[last]));
+	}
+
+	/**
+	 * Get the next element in this set
+	 *
+	 * @param from The first element to check
+	 *
+	 * @return The first element greater or equal than from or -1 when there is none
+	 */
+	public int nextSetBit(int from) {
+		from = Math.max(from, 0);
+		int w = from >>> 6;
+		if(w >= words.length) {
+			return -1;
+		}
+		long word = words[w] & (-1L << from);
+		while(true) {
+			if(word != 0) {
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if(++w == words.length) {
+				return -1;
+			}
+			word = words[w];
+		}
+	}
+
+	@Override
+	public Iterator<Integer> iterator() {
+		return new Iterator<Integer>(){
+			private int next = nextSetBit(0);
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public Integer next() {
+				if(next < 0) {
+					throw new NoSuchElementException();
+				}
+				int res = next;
+				next = nextSetBit(next + 1);
+				return res;
+			}
+		};
+	}
+
+	@Override
+	protected PBitSet toImpl(PStream<Integer> lazy) {
+		return empty().plusAll(lazy);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public PBitSet distinct() {
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof PBitSet) {
+			return Arrays.equals(words, ((PBitSet) o).words);
+		}
+		if(o instanceof IPSet == false) {
+			return false;
+		}
+		IPSet other = (IPSet) o;
+		if(size != other.size()) {
+			return false;
+		}
+		for(Integer v : this) {
+			if(other.contains(v) == false) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for(int v = nextSetBit(0); v >= 0; v = nextSetBit(v + 1)) {
+			h += v;
+		}
+		return h;
+	}
+}
@@ -10,6 +10,7 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * A IPList based on a java byte array byte[]
@@ -116,6 +117,26 @@ public final class PByteList extends AbstractIPList<Byte, PByteList> implements
 		return new PByteList(newData);
 	}
 
+	@Override
+	public Iterator<Byte> reverseIterator() {
+		return new Iterator<Byte>(){
+			int index = data.length - 1;
+
+			@Override
+			public boolean hasNext() {
+				return index >= 0;
+			}
+
+			@Override
+			public Byte next() {
+				if(index < 0) {
+					throw new NoSuchElementException();
+				}
+				return data[index--];
+			}
+		};
+	}
+
 	@Override
 	public Iterator<Byte> iterator() {
 		return new Iterator<Byte>(){
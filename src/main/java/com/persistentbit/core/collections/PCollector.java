@@ -0,0 +1,251 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * A mutable accumulation strategy for the {@link PStream#collect(PCollector)} terminal.<br>
+ * The supplier creates a mutable container, the accumulator adds an element to a container,
+ * the combiner merges 2 containers and the finisher converts the container to the result.<br>
+ * Because containers can be combined, every collector can also be used with
+ * {@link PStream#collectParallel(PCollector)}.
+ * The combiner must be associative and must add the elements of the second container after
+ * the elements of the first container.<br>
+ * {@link #toPList()} accumulates in a transient {@link PList.Builder}.
+ * There is no transient builder for PSet and PMap yet: the set and map collectors accumulate in
+ * java.util hash containers so that {@link PStream#collectParallel(PCollector)} can combine them,
+ * and copy them to the persistent result in the finisher.
+ * For a sequential stream, {@link PStream#pset()} and {@link PStream#porderedset()} add the elements
+ * directly to the persistent set, without the extra container.
+ * <pre>{@code
+ * PMap<Integer, PList<String>> byLength = words.collect(PCollector.groupingBy(String::length));
+ * }</pre>
+ *
+ * @param <T> The type of the elements
+ * @param <A> The type of the mutable container
+ * @param <R> The type of the result
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public interface PCollector<T, A, R>{
+
+	Supplier<A> supplier();
+
+	BiConsumer<A, T> accumulator();
+
+	BinaryOperator<A> combiner();
+
+	Function<A, R> finisher();
+
+
+	/**
+	 * Create a new collector
+	 *
+	 * @param supplier    Creates a new empty container
+	 * @param accumulator Adds an element to a container
+	 * @param combiner    Combines 2 containers, the result can be one of the 2 containers
+	 * @param finisher    Creates the result from a container
+	 * @param <T>         The type of the elements
+	 * @param <A>         The type of the container
+	 * @param <R>         The type of the result
+	 *
+	 * @return The new collector
+	 */
+	static <T, A, R> PCollector<T, A, R> of(Supplier<A> supplier, BiConsumer<A, T> accumulator,
+											BinaryOperator<A> combiner, Function<A, R> finisher
+	) {
+		Objects.requireNonNull(supplier, "supplier");
+		Objects.requireNonNull(accumulator, "accumulator");
+		Objects.requireNonNull(combiner, "combiner");
+		Objects.requireNonNull(finisher, "finisher");
+		return new PCollector<T, A, R>(){
+			@Override
+			public Supplier<A> supplier() {
+				return supplier;
+			}
+
+			@Override
+			public BiConsumer<A, T> accumulator() {
+				return accumulator;
+			}
+
+			@Override
+			public BinaryOperator<A> combiner() {
+				return combiner;
+			}
+
+			@Override
+			public Function<A, R> finisher() {
+				return finisher;
+			}
+		};
+	}
+
+	static <T, A> PCollector<T, A, A> of(Supplier<A> supplier, BiConsumer<A, T> accumulator,
+										 BinaryOperator<A> combiner
+	) {
+		return of(supplier, accumulator, combiner, Function.identity());
+	}
+
+	/**
+	 * Use a java.util.stream {@link Collector} as a PCollector.
+	 *
+	 * @param collector The java collector
+	 * @param <T>       The type of the elements
+	 * @param <A>       The type of the container
+	 * @param <R>       The type of the result
+	 *
+	 * @return The PCollector
+	 */
+	static <T, A, R> PCollector<T, A, R> from(Collector<T, A, R> collector) {
+		return of(collector.supplier(), collector.accumulator(), collector.combiner(), collector.finisher());
+	}
+
+	/**
+	 * Create a new collector that maps the elements before collecting them
+	 *
+	 * @param mapper     The element mapper
+	 * @param downstream The collector for the mapped elements
+	 * @param <T>        The type of the elements
+	 * @param <U>        The type of the mapped elements
+	 * @param <A>        The type of the container
+	 * @param <R>        The type of the result
+	 *
+	 * @return The new collector
+	 */
+	static <T, U, A, R> PCollector<T, A, R> mapping(Function<? super T, ? extends U> mapper,
+													PCollector<? super U, A, R> downstream
+	) {
+		BiConsumer<A, ? super U> acc = downstream.accumulator();
+		return of(downstream.supplier(), (a, v) -> acc.accept(a, mapper.apply(v)),
+				  downstream.combiner(), downstream.finisher());
+	}
+
+	static <T> PCollector<T, PList.Builder<T>, PList<T>> toPList() {
+		return of(PList::builder, PList.Builder::add, PList.Builder::addAll, PList.Builder::build);
+	}
+
+	static <T> PCollector<T, Set<T>, PSet<T>> toPSet() {
+		return of(HashSet::new, Set::add, (a, b) -> {
+			a.addAll(b);
+			return a;
+		}, s -> PSet.<T>empty().plusAll(s));
+	}
+
+	static <T> PCollector<T, Set<T>, POrderedSet<T>> toPOrderedSet() {
+		return of(LinkedHashSet::new, Set::add, (a, b) -> {
+			a.addAll(b);
+			return a;
+		}, s -> POrderedSet.<T>empty().plusAll(s));
+	}
+
+	/**
+	 * Collect the elements in a PMap.<br>
+	 * When 2 elements have the same key, the value of the last element is used.
+	 *
+	 * @param keyGen The key for an element
+	 * @param valGen The value for an element
+	 * @param <T>    The type of the elements
+	 * @param <K>    The type of the keys
+	 * @param <V>    The type of the values
+	 *
+	 * @return The new collector
+	 */
+	static <T, K, V> PCollector<T, Map<K, V>, PMap<K, V>> toPMap(Function<? super T, ? extends K> keyGen,
+																  Function<? super T, ? extends V> valGen
+	) {
+		return of(HashMap::new, (m, v) -> m.put(keyGen.apply(v), valGen.apply(v)), (a, b) -> {
+			a.putAll(b);
+			return a;
+		}, m -> {
+			PMap<K, V> res = PMap.empty();
+			for(Map.Entry<K, V> e : m.entrySet()) {
+				res = res.put(e.getKey(), e.getValue());
+			}
+			return res;
+		});
+	}
+
+	static <K, V> PCollector<Tuple2<K, V>, Map<K, V>, PMap<K, V>> toPMap() {
+		return toPMap(t -> t._1, t -> t._2);
+	}
+
+	/**
+	 * Group the elements in a PMap with a PList of elements for every key.<br>
+	 * The elements in the lists are in encounter order.
+	 *
+	 * @param keyGen The key for an element
+	 * @param <T>    The type of the elements
+	 * @param <K>    The type of the keys
+	 *
+	 * @return The new collector
+	 */
+	static <T, K> PCollector<T, Map<K, PList.Builder<T>>, PMap<K, PList<T>>> groupingBy(
+		Function<? super T, ? extends K> keyGen
+	) {
+		return groupingBy(keyGen, toPList());
+	}
+
+	/**
+	 * Group the elements in a PMap, collecting the elements for every key with a downstream collector.
+	 *
+	 * @param keyGen     The key for an element
+	 * @param downstream The collector for the elements with the same key
+	 * @param <T>        The type of the elements
+	 * @param <K>        The type of the keys
+	 * @param <A>        The type of the downstream container
+	 * @param <R>        The type of the downstream result
+	 *
+	 * @return The new collector
+	 */
+	static <T, K, A, R> PCollector<T, Map<K, A>, PMap<K, R>> groupingBy(Function<? super T, ? extends K> keyGen,
+																		PCollector<? super T, A, R> downstream
+	) {
+		Supplier<A>              supplier    = downstream.supplier();
+		BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+		BinaryOperator<A>        combiner    = downstream.combiner();
+		Function<A, R>           finisher    = downstream.finisher();
+		return of(HashMap::new, (m, v) -> {
+			A container = m.computeIfAbsent(keyGen.apply(v), k -> supplier.get());
+			accumulator.accept(container, v);
+		}, (a, b) -> {
+			for(Map.Entry<K, A> e : b.entrySet()) {
+				a.merge(e.getKey(), e.getValue(), combiner);
+			}
+			return a;
+		}, m -> {
+			PMap<K, R> res = PMap.empty();
+			for(Map.Entry<K, A> e : m.entrySet()) {
+				res = res.put(e.getKey(), finisher.apply(e.getValue()));
+			}
+			return res;
+		});
+	}
+
+	static <T> PCollector<T, StringJoiner, String> joining(String sep) {
+		return joining("", sep, "");
+	}
+
+	/**
+	 * Join the String value of the elements.<br>
+	 * null elements are joined as "null".
+	 *
+	 * @param left  The prefix of the result
+	 * @param sep   The separator between 2 elements
+	 * @param right The suffix of the result
+	 * @param <T>   The type of the elements
+	 *
+	 * @return The new collector
+	 */
+	static <T> PCollector<T, StringJoiner, String> joining(String left, String sep, String right) {
+		return of(() -> new StringJoiner(sep, left, right), (j, v) -> j.add(String.valueOf(v)),
+				  StringJoiner::merge, StringJoiner::toString);
+	}
+}
@@ -0,0 +1,317 @@
+package com.persistentbit.core.collections;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A Persistent double-ended queue.<br>
+ * Implemented as a front {@link LList} with the first elements and a
+ * reversed rear {@link LList} with the last elements.<br>
+ * When one side runs empty, the other side is split in 2 halves,
+ * giving amortized O(1) add and remove at both ends.<br>
+ * The amortized bound only holds for linear use, where every version is only updated once.
+ * An old version keeps its unsplit sides: removing from the empty side of the same version again
+ * splits the other side again, O(n) for every call.
+ *
+ * @author Peter Muys
+ * @see PQueue
+ * @since 19/10/2026
+ */
+public final class PDeque<T> extends AbstractPStreamDirect<T, PDeque<T>> implements Serializable{
+
+	private static final PDeque<Object> sEmpty = new PDeque<>(LList.empty(), 0, LList.empty(), 0);
+
+	private final LList<T> front;
+	private final int      frontSize;
+	private final LList<T> rear;
+	private final int      rearSize;
+
+	private PDeque(LList<T> front, int frontSize, LList<T> rear, int rearSize) {
+		this.front = front;
+		this.frontSize = frontSize;
+		this.rear = rear;
+		this.rearSize = rearSize;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> PDeque<T> empty() {
+		return (PDeque<T>) sEmpty;
+	}
+
+	@SafeVarargs
+	public static <T> PDeque<T> val(T... elements) {
+		return PDeque.<T>empty().plusAll(PStream.val(elements));
+	}
+
+	public static <T> PDeque<T> from(Iterable<? extends T> iter) {
+		return PDeque.<T>empty().plusAll(iter);
+	}
+
+	/**
+	 * Create a new PDeque, splitting one side when the other side is empty
+	 */
+	private static <T> PDeque<T> create(LList<T> front, int frontSize, LList<T> rear, int rearSize) {
+		if(frontSize == 0 && rearSize == 0) {
+			return empty();
+		}
+		if(frontSize == 0 && rearSize > 1) {
+			//rear is in reversed order
+			Object[] arr = toArray(rear, rearSize, true);
+			int      h   = rearSize / 2;
+			return new PDeque<>(listFrom(arr, 0, h, true), h, listFrom(arr, h, rearSize, false), rearSize - h);
+		}
+		if(rearSize == 0 && frontSize > 1) {
+			Object[] arr = toArray(front, frontSize, false);
+			int      h   = frontSize / 2;
+			return new PDeque<>(listFrom(arr, 0, h, true), h, listFrom(arr, h, frontSize, false), frontSize - h);
+		}
+		return new PDeque<>(front, frontSize, rear, rearSize);
+	}
+
+	private static <T> Object[] toArray(LList<T> list, int size, boolean reversed) {
+		Object[] arr = new Object[size];
+		int      i   = 0;
+		for(T v : list) {
+			arr[reversed ? size - 1 - i : i] = v;
+			i++;
+		}
+		return arr;
+	}
+
+	/**
+	 * Create an LList from a range in an array.
+	 *
+	 * @param asFront true to have arr[from] as head, false to have arr[to-1] as head
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> LList<T> listFrom(Object[] arr, int from, int to, boolean asFront) {
+		LList<T> res = LList.empty();
+		if(asFront) {
+			for(int t = to - 1; t >= from; t--) {
+				res = res.prepend((T) arr[t]);
+			}
+		}
+		else {
+			for(int t = from; t < to; t++) {
+				res = res.prepend((T) arr[t]);
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Add an element at the end of this deque
+	 *
+	 * @param value The value to add
+	 *
+	 * @return The new deque
+	 */
+	@Override
+	public PDeque<T> plus(T value) {
+		return create(front, frontSize, rear.prepend(value), rearSize + 1);
+	}
+
+	/**
+	 * Add an element at the front of this deque
+	 *
+	 * @param value The value to add
+	 *
+	 * @return The new deque
+	 */
+	public PDeque<T> plusFirst(T value) {
+		return create(front.prepend(value), frontSize + 1, rear, rearSize);
+	}
+
+	@Override
+	public PDeque<T> plusAll(Iterable<? extends T> iter) {
+		LList<T> newRear = rear;
+		int      added   = 0;
+		for(T v : iter) {
+			newRear = newRear.prepend(v);
+			added++;
+		}
+		if(added == 0) {
+			return this;
+		}
+		return create(front, frontSize, newRear, rearSize + added);
+	}
+
+	@Override
+	public Optional<T> headOpt() {
+		if(isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(head());
+	}
+
+	@Override
+	public T head() {
+		if(frontSize > 0) {
+			return front.iterator().next();
+		}
+		if(rearSize > 0) {
+			return rear.iterator().next();
+		}
+		throw new NoSuchElementException("head of empty PDeque");
+	}
+
+	@Override
+	public Optional<T> lastOpt() {
+		if(isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(last());
+	}
+
+	/**
+	 * Get the last element of this deque
+	 *
+	 * @return The last element
+	 *
+	 * @throws NoSuchElementException when the deque is empty
+	 */
+	public T last() {
+		if(rearSize > 0) {
+			return rear.iterator().next();
+		}
+		if(frontSize > 0) {
+			return front.iterator().next();
+		}
+		throw new NoSuchElementException("last of empty PDeque");
+	}
+
+	/**
+	 * Remove the first element of this deque
+	 *
+	 * @return The new deque without the first element
+	 *
+	 * @throws IllegalStateException when the deque is empty
+	 */
+	@Override
+	public PDeque<T> tail() {
+		if(frontSize > 0) {
+			return create(front.tail(), frontSize - 1, rear, rearSize);
+		}
+		if(rearSize > 0) {
+			return create(front, frontSize, rear.tail(), rearSize - 1);
+		}
+		throw new IllegalStateException("Tail of empty PDeque");
+	}
+
+	/**
+	 * Remove the last element of this deque
+	 *
+	 * @return The new deque without the last element
+	 *
+	 * @throws IllegalStateException when the deque is empty
+	 */
+	@Override
+	public PDeque<T> dropLast() {
+		if(rearSize > 0) {
+			return create(front, frontSize, rear.tail(), rearSize - 1);
+		}
+		if(frontSize > 0) {
+			return create(front.tail(), frontSize - 1, rear, rearSize);
+		}
+		throw new IllegalStateException("dropLast of empty PDeque");
+	}
+
+	@Override
+	public Optional<T> beforeLastOpt() {
+		if(size() < 2) {
+			return Optional.empty();
+		}
+		return dropLast().lastOpt();
+	}
+
+	@Override
+	public PDeque<T> reversed() {
+		return create(rear, rearSize, front, frontSize);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>(){
+			Iterator<T> current = front.iterator();
+			boolean inFront = true;
+
+			@Override
+			public boolean hasNext() {
+				if(current.hasNext()) {
+					return true;
+				}
+				if(inFront) {
+					inFront = false;
+					current = rear.reversed().iterator();
+					return current.hasNext();
+				}
+				return false;
+			}
+
+			@Override
+			public T next() {
+				if(hasNext() == false) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
+			}
+		};
+	}
+
+	@Override
+	public PStream<T> lazy() {
+		return new AbstractPStreamLazy<T>(){
+			@Override
+			public Iterator<T> iterator() {
+				return PDeque.this.iterator();
+			}
+
+			@Override
+			public int size() {
+				return PDeque.this.size();
+			}
+		};
+	}
+
+	@Override
+	protected PDeque<T> toImpl(PStream<T> lazy) {
+		return PDeque.<T>empty().plusAll(lazy);
+	}
+
+	@Override
+	public PDeque<T> clear() {
+		return empty();
+	}
+
+	@Override
+	public int size() {
+		return frontSize + rearSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof PDeque == false) {
+			return false;
+		}
+		PDeque other = (PDeque) o;
+		if(other.size() != size()) {
+			return false;
+		}
+		return lazy().equals(other);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+}
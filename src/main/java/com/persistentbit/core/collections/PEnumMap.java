@@ -0,0 +1,198 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A persistent map with enum constants as keys.<br>
+ * The values are stored in an array indexed by the ordinal of the key,
+ * the keys in the map are a {@link PEnumSet}.<br>
+ * get and containsKey are O(1).
+ * put and removeKey copy the value array, which has one slot for every enum constant.<br>
+ * The entries are iterated in ordinal order of the keys.
+ * Keys can't be null, values can be null.
+ *
+ * @param <K> The enum type of the keys
+ * @param <V> The type of the values
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class PEnumMap<K extends Enum<K>, V> extends AbstractPStreamDirect<Tuple2<K, V>, PEnumMap<K, V>>
+	implements IPMap<K, V>{
+
+	private final PEnumSet<K> keys;
+	private final Object[]    values;
+
+	private PEnumMap(PEnumSet<K> keys, Object[] values) {
+		this.keys = keys;
+		this.values = values;
+	}
+
+	public static <K extends Enum<K>, V> PEnumMap<K, V> empty(Class<K> keyType) {
+		return new PEnumMap<>(PEnumSet.empty(keyType), new Object[keyType.getEnumConstants().length]);
+	}
+
+	public Class<K> getKeyType() {
+		return keys.getEnumType();
+	}
+
+	@Override
+	public PEnumMap<K, V> put(K key, V val) {
+		PEnumSet<K> newKeys = keys.plus(key);
+		int         idx     = key.ordinal();
+		if(newKeys == keys && values[idx] == val) {
+			return this;
+		}
+		Object[] newValues = values.clone();
+		newValues[idx] = val;
+		return new PEnumMap<>(newKeys, newValues);
+	}
+
+	@Override
+	public PEnumMap<K, V> plus(Tuple2<K, V> value) {
+		return put(value._1, value._2);
+	}
+
+	@Override
+	public PEnumMap<K, V> plusAll(Iterable<? extends Tuple2<K, V>> iter) {
+		PEnumMap<K, V> res = this;
+		for(Tuple2<K, V> t : iter) {
+			res = res.plus(t);
+		}
+		return res;
+	}
+
+	@Override
+	public PEnumMap<K, V> removeKey(Object key) {
+		if(keys.contains(key) == false) {
+			return this;
+		}
+		Object[] newValues = values.clone();
+		newValues[((Enum<?>) key).ordinal()] = null;
+		return new PEnumMap<>(keys.minus(key), newValues);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return keys.contains(key);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(Object key, V notFound) {
+		return keys.contains(key) ? (V) values[((Enum<?>) key).ordinal()] : notFound;
+	}
+
+	@Override
+	public V get(Object key) {
+		return getOrDefault(key, null);
+	}
+
+	@Override
+	public Optional<V> getOpt(Object key) {
+		return Optional.ofNullable(get(key));
+	}
+
+	@Override
+	public <M> PEnumMap<K, M> mapValues(Function<? super V, ? extends M> mapper) {
+		Object[] newValues = new Object[values.length];
+		for(K key : keys) {
+			newValues[key.ordinal()] = mapper.apply(get(key));
+		}
+		return new PEnumMap<>(keys, newValues);
+	}
+
+	@Override
+	public <K2, V2> PMap<K2, V2> mapKeyValues(Function<? super Tuple2<K, V>, ? extends Tuple2<K2, V2>> items) {
+		PMap<K2, V2> res = PMap.empty();
+		return with(res, (r, t) -> r.plus(items.apply(t)));
+	}
+
+	@Override
+	public PEnumSet<K> keys() {
+		return keys;
+	}
+
+	@Override
+	public PStream<V> values() {
+		return map(e -> e._2);
+	}
+
+	@Override
+	public Iterator<Tuple2<K, V>> iterator() {
+		Iterator<K> keyIter = keys.iterator();
+		return new Iterator<Tuple2<K, V>>(){
+			@Override
+			public boolean hasNext() {
+				return keyIter.hasNext();
+			}
+
+			@Override
+			public Tuple2<K, V> next() {
+				K key = keyIter.next();
+				return new PMapEntry<>(key, get(key));
+			}
+		};
+	}
+
+	@Override
+	protected PEnumMap<K, V> toImpl(PStream<Tuple2<K, V>> lazy) {
+		return new PEnumMap<K, V>(PEnumSet.empty(getKeyType()), new Object[values.length]).plusAll(lazy);
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		if(value instanceof Tuple2 == false) {
+			return false;
+		}
+		Tuple2 entry = (Tuple2) value;
+		return keys.contains(entry._1) && Objects.equals(get(entry._1), entry._2);
+	}
+
+	@Override
+	public int size() {
+		return keys.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return keys.isEmpty();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof IPMap == false) {
+			return false;
+		}
+		IPMap other = (IPMap) o;
+		if(other.size() != size()) {
+			return false;
+		}
+		for(K key : keys) {
+			if(other.containsKey(key) == false || Objects.equals(get(key), other.get(key)) == false) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Same hashCode as a {@link PMap} with the same entries
+	 */
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for(K key : keys) {
+			h += Objects.hashCode(key) ^ Objects.hashCode(get(key));
+		}
+		return h;
+	}
+}
@@ -0,0 +1,174 @@
+package com.persistentbit.core.collections;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A persistent set of enum constants, stored as a {@link PBitSet} of the ordinals.<br>
+ * contains, plus and minus are O(1) for enums with at most 64 constants.
+ * Union, intersection and difference combine 64 constants per operation.<br>
+ * The elements are iterated in ordinal order.
+ * A PEnumSet can't contain null.
+ *
+ * @param <E> The enum type
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class PEnumSet<E extends Enum<E>> extends AbstractPStreamDirect<E, PEnumSet<E>> implements IPSet<E>{
+
+	private final Class<E> type;
+	private final E[]      constants;
+	private final PBitSet  ordinals;
+
+	private PEnumSet(Class<E> type, E[] constants, PBitSet ordinals) {
+		this.type = type;
+		this.constants = constants;
+		this.ordinals = ordinals;
+	}
+
+	public static <E extends Enum<E>> PEnumSet<E> empty(Class<E> type) {
+		return new PEnumSet<>(type, type.getEnumConstants(), PBitSet.empty());
+	}
+
+	public static <E extends Enum<E>> PEnumSet<E> allOf(Class<E> type) {
+		E[] constants = type.getEnumConstants();
+		return new PEnumSet<>(type, constants, PBitSet.range(0, constants.length));
+	}
+
+	@SafeVarargs
+	public static <E extends Enum<E>> PEnumSet<E> val(E first, E... others) {
+		PEnumSet<E> res = empty(first.getDeclaringClass()).plus(first);
+		for(E v : others) {
+			res = res.plus(v);
+		}
+		return res;
+	}
+
+	public static <E extends Enum<E>> PEnumSet<E> from(Class<E> type, Iterable<? extends E> elements) {
+		return empty(type).plusAll(elements);
+	}
+
+	private PEnumSet<E> withOrdinals(PBitSet newOrdinals) {
+		return newOrdinals == ordinals ? this : new PEnumSet<>(type, constants, newOrdinals);
+	}
+
+	public Class<E> getEnumType() {
+		return type;
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		return type.isInstance(value) && ordinals.contains(((Enum<?>) value).ordinal());
+	}
+
+	@Override
+	public PEnumSet<E> plus(E value) {
+		E element = type.cast(Objects.requireNonNull(value, "PEnumSet can't contain null"));
+		return withOrdinals(ordinals.plus(element.ordinal()));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public PEnumSet<E> plusAll(Iterable<? extends E> iter) {
+		if(iter instanceof PEnumSet && ((PEnumSet) iter).type == type) {
+			return union((PEnumSet<E>) iter);
+		}
+		PEnumSet<E> res = this;
+		for(E v : iter) {
+			res = res.plus(v);
+		}
+		return res;
+	}
+
+	public PEnumSet<E> minus(Object value) {
+		return contains(value) ? withOrdinals(ordinals.minus(((Enum<?>) value).ordinal())) : this;
+	}
+
+	public PEnumSet<E> union(PEnumSet<E> other) {
+		return withOrdinals(ordinals.union(other.ordinals));
+	}
+
+	public PEnumSet<E> intersection(PEnumSet<E> other) {
+		return withOrdinals(ordinals.intersection(other.ordinals));
+	}
+
+	public PEnumSet<E> difference(PEnumSet<E> other) {
+		return withOrdinals(ordinals.difference(other.ordinals));
+	}
+
+	/**
+	 * @return A new set with all the constants of the enum that are not in this set
+	 */
+	public PEnumSet<E> complement() {
+		return withOrdinals(PBitSet.range(0, constants.length).difference(ordinals));
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		Iterator<Integer> iter = ordinals.iterator();
+		return new Iterator<E>(){
+			@Override
+			public boolean hasNext() {
+				return iter.hasNext();
+			}
+
+			@Override
+			public E next() {
+				return constants[iter.next()];
+			}
+		};
+	}
+
+	@Override
+	protected PEnumSet<E> toImpl(PStream<E> lazy) {
+		return empty(type).plusAll(lazy);
+	}
+
+	@Override
+	public int size() {
+		return ordinals.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return ordinals.isEmpty();
+	}
+
+	@Override
+	public PEnumSet<E> distinct() {
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof PEnumSet && ((PEnumSet) o).type == type) {
+			return ordinals.equals(((PEnumSet) o).ordinals);
+		}
+		if(o instanceof IPSet == false) {
+			return false;
+		}
+		IPSet other = (IPSet) o;
+		if(size() != other.size()) {
+			return false;
+		}
+		for(E v : this) {
+			if(other.contains(v) == false) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for(E v : this) {
+			h += v.hashCode();
+		}
+		return h;
+	}
+}
@@ -1,6 +1,8 @@
 package com.persistentbit.core.collections;
 
 
+import com.persistentbit.core.utils.Interner;
+
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -82,8 +84,20 @@ public class PList<T> extends AbstractIPList<T, PList<T>> implements Serializabl
 	}
 
 	public static <V> PList<V> from(Iterable<V> iter) {
-		PList<V> res = PList.empty();
-		return res.plusAll(iter);
+		return PList.<V>builder().addAll(iter).build();
+	}
+
+	/**
+	 * Create a transient builder for a new PList.
+	 *
+	 * @param <T> The type of the elements
+	 *
+	 * @return A new empty builder
+	 *
+	 * @see Builder
+	 */
+	public static <T> Builder<T> builder() {
+		return new Builder<>();
 	}
 
 
@@ -113,6 +127,11 @@ public class PList<T> extends AbstractIPList<T, PList<T>> implements Serializabl
 			return PList.this.rangedIterator(start, end);
 		}
 
+		@Override
+		public Iterator<T> reverseIterator() {
+			return PList.this.reversedRangedIterator(start, end);
+		}
+
 		@Override
 		public PList<T> plist() {
 			return PList.this;
@@ -162,11 +181,88 @@ public class PList<T> extends AbstractIPList<T, PList<T>> implements Serializabl
 	}
 
 
+	@Override
+	public Iterator<T> reverseIterator() {
+		return reversedRangedIterator(0, size());
+	}
+
+	/**
+	 * Iterate the elements from index end - 1 down to index start.<br>
+	 * Walks the trie one leaf array at a time, starting with the tail.
+	 *
+	 * @param start The first index (inclusive)
+	 * @param end   The last index (exclusive)
+	 *
+	 * @return The reverse iterator
+	 */
+	public Iterator<T> reversedRangedIterator(final int start, final int end) {
+		return new Iterator<T>(){
+			int i = end - 1;
+			int base = i & ~0x01f;
+			Object[] array = (i >= start) ? arrayFor(i) : null;
+
+			@Override
+			public boolean hasNext() {
+				return i >= start;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if(i < start) {
+					throw new NoSuchElementException();
+				}
+				if(i < base) {
+					base -= 32;
+					array = arrayFor(i);
+				}
+				return (T) array[i-- & 0x01f];
+			}
+		};
+	}
+
 	@Override
 	public int size() {
 		return cnt;
 	}
 
+	/**
+	 * Visit the internal structure for {@link Footprint}
+	 */
+	void walk(Footprint.Walker w) {
+		if(w.node(this, "PList", Footprint.objectSize(2, 3), 0, 0, 0) == false) {
+			return;
+		}
+		walkNode(w, root, shift, 1);
+		if(w.node(tail, "PList.tail", Footprint.arraySize(tail.length), 0, 0, 1)) {
+			for(Object element : tail) {
+				w.element(element);
+			}
+		}
+	}
+
+	private static void walkNode(Footprint.Walker w, Node node, int level, int depth) {
+		int used = 0;
+		for(Object child : node.array) {
+			if(child != null || level == 0) {
+				used++;
+			}
+		}
+		if(w.node(node, "PList.Node", Footprint.objectSize(1, 0) + Footprint.arraySize(node.array.length), used,
+			node.array.length, depth
+		) == false) {
+			return;
+		}
+		for(Object child : node.array) {
+			if(level == 0) {
+				w.element(child);
+			}
+			else if(child != null) {
+				walkNode(w, (Node) child, level - 5, depth + 1);
+			}
+		}
+	}
+
 	private Object[] arrayFor(int i) {
 		if(i < 0 || i > cnt) {
 			throw new IndexOutOfBoundsException(" index " + i);
@@ -485,6 +581,117 @@ public class PList<T> extends AbstractIPList<T, PList<T>> implements Serializabl
 		this.tailOffset = v.tailOffset;
 	}
 
+	private Object readResolve() {
+		return Interner.onDeserialization(this);
+	}
+
+	/**
+	 * Transient builder for a PList.<br>
+	 * Elements are appended in place in full 32 element leaves,
+	 * the tree nodes are only created once in {@link #build()}.<br>
+	 * Building a PList with a builder does not create the intermediate PList versions
+	 * that repeated {@link PList#plus(Object)} calls create.<br>
+	 * A builder is not thread safe, but it can still be used after calling {@link #build()}.
+	 *
+	 * @param <T> The type of the elements
+	 */
+	public static final class Builder<T>{
+
+		private final ArrayList<Node> leaves = new ArrayList<>();
+		private       Object[]        tail   = new Object[32];
+		private       int             tailSize;
+
+		private Builder() {
+		}
+
+		public Builder<T> add(T value) {
+			if(tailSize == 32) {
+				leaves.add(new Node(tail));
+				tail = new Object[32];
+				tailSize = 0;
+			}
+			tail[tailSize++] = value;
+			return this;
+		}
+
+		public Builder<T> addAll(Iterable<? extends T> values) {
+			for(T v : values) {
+				add(v);
+			}
+			return this;
+		}
+
+		/**
+		 * Append all the elements of another builder.<br>
+		 * When the elements of this builder fill complete leaves,
+		 * the leaves of the other builder are shared instead of copied.
+		 *
+		 * @param other The other builder
+		 *
+		 * @return This builder
+		 */
+		@SuppressWarnings("unchecked")
+		public Builder<T> addAll(Builder<? extends T> other) {
+			if(other.tailSize == 0) {
+				return this;
+			}
+			if(tailSize == 0 || tailSize == 32) {
+				if(tailSize == 32) {
+					leaves.add(new Node(tail));
+				}
+				leaves.addAll(other.leaves);
+				tail = Arrays.copyOf(other.tail, 32);
+				tailSize = other.tailSize;
+				return this;
+			}
+			for(Node leaf : other.leaves) {
+				for(Object v : leaf.array) {
+					add((T) v);
+				}
+			}
+			for(int t = 0; t < other.tailSize; t++) {
+				add((T) other.tail[t]);
+			}
+			return this;
+		}
+
+		public int size() {
+			return leaves.size() * 32 + tailSize;
+		}
+
+		/**
+		 * @return A new PList with all the added elements
+		 */
+		public PList<T> build() {
+			int cnt = size();
+			if(cnt == 0) {
+				return empty();
+			}
+			int leafCount = leaves.size();
+			int shift     = 5;
+			while(leafCount > (1 << shift)) {
+				shift += 5;
+			}
+			Node root = emtpyNode;
+			if(leafCount > 0) {
+				List<Node> level = leaves;
+				for(int l = 5; l <= shift; l += 5) {
+					List<Node> parents = new ArrayList<>((level.size() + 31) / 32);
+					for(int t = 0; t < level.size(); t += 32) {
+						Node parent = new Node();
+						for(int i = t; i < Math.min(t + 32, level.size()); i++) {
+							parent.array[i - t] = level.get(i);
+						}
+						parents.add(parent);
+					}
+					level = parents;
+				}
+				root = level.get(0);
+			}
+			return new PList<>(cnt, shift, root, Arrays.copyOf(tail, tailSize));
+		}
+	}
+
 	private static final class Node implements Serializable{
 
 		private final Object[] array;
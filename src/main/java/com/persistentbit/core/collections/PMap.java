@@ -3,6 +3,9 @@ package com.persistentbit.core.collections;
 
 import com.persistentbit.core.tuples.Tuple2;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
 import java.util.function.Function;
@@ -21,14 +24,15 @@ import java.util.logging.Logger;
  * the terms of this license.
  * You must not remove this notice, or any other, from this software.
  */
-public class PMap<K, V> extends AbstractPStreamDirect<Tuple2<K, V>, PMap<K, V>> implements IPMap<K, V>{
+public class PMap<K, V> extends AbstractPStreamDirect<Tuple2<K, V>, PMap<K, V>> implements IPMap<K, V>, Serializable{
 
   private static final Logger log       = Logger.getLogger(PMap.class.getName());
   private static final Object sNullKey  = new Object();
   private static final PMap   sEmpty    = new PMap(0, null);
   private static final Object sNotFound = new Object();
-  final int     size;
-  final MapNode root;
+  //Next ones should be final but can't because of Serializable
+  int     size;
+  MapNode root;
 
 
   public PMap() {
@@ -274,6 +278,95 @@ public class PMap<K, V> extends AbstractPStreamDirect<Tuple2<K, V>, PMap<K, V>>
 	return size;
   }
 
+  /*
+   * The trie layout depends on the hashCode of the keys, which is not always the same in another jvm,
+   * so the entries are written and the trie is rebuilt when reading.
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+	out.writeInt(size);
+	for(Tuple2<K, V> entry : this) {
+	  out.writeObject(entry._1);
+	  out.writeObject(entry._2);
+	}
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+	int        readSize = in.readInt();
+	PMap<K, V> map      = empty();
+	for(int t = 0; t < readSize; t++) {
+	  map = map.put((K) in.readObject(), (V) in.readObject());
+	}
+	this.size = map.size;
+	this.root = map.root;
+  }
+
+  /**
+   * Visit the nodes, keys and values for {@link Footprint}
+   */
+  void walk(Footprint.Walker w) {
+	if(w.node(this, "PMap", Footprint.objectSize(1, 1), 0, 0, 0)) {
+	  walkNode(w, root, 1);
+	}
+  }
+
+  private static void walkNode(Footprint.Walker w, MapNode node, int depth) {
+	if(node instanceof BitmapIndexedNode) {
+	  BitmapIndexedNode b = (BitmapIndexedNode) node;
+	  if(w.node(node, "BitmapIndexedNode", Footprint.objectSize(1, 1) + Footprint.arraySize(b.array.length),
+				Integer.bitCount(b.bitmap), 32, depth
+	  )) {
+		walkPairs(w, b.array, b.array.length, depth);
+	  }
+	}
+	else if(node instanceof ArrayNode) {
+	  ArrayNode a = (ArrayNode) node;
+	  if(w.node(node, "ArrayNode", Footprint.objectSize(1, 1) + Footprint.arraySize(a.array.length), a.count, 32,
+				depth
+	  )) {
+		for(MapNode child : a.array) {
+		  if(child != null) {
+			walkNode(w, child, depth + 1);
+		  }
+		}
+	  }
+	}
+	else if(node instanceof HashCollisionNode) {
+	  HashCollisionNode h = (HashCollisionNode) node;
+	  if(w.node(node, "HashCollisionNode", Footprint.objectSize(1, 2) + Footprint.arraySize(h.array.length), 0, 0,
+				depth
+	  )) {
+		walkPairs(w, h.array, 2 * h.count, depth);
+	  }
+	}
+  }
+
+  private static void walkPairs(Footprint.Walker w, Object[] array, int length, int depth) {
+	for(int i = 0; i < length; i += 2) {
+	  Object key = array[i];
+	  if(key == null && array[i + 1] instanceof MapNode) {
+		walkNode(w, (MapNode) array[i + 1], depth + 1);
+	  }
+	  else {
+		w.element(key == sNullKey ? null : key);
+		w.element(array[i + 1]);
+	  }
+	}
+  }
+
+  /**
+   * The hashCode is the sum of the entry hashes, so it does not depend on the
+   * internal node layout or iteration order.
+   */
+  @Override
+  public int hashCode() {
+	int h = 0;
+	for(Tuple2<K, V> entry : this) {
+	  h += Objects.hashCode(entry._1) ^ Objects.hashCode(entry._2);
+	}
+	return h;
+  }
+
   interface MapNode extends Serializable{
 
 	MapNode assoc(int shift, int hash, Object key, Object val, Box addedLeaf);
@@ -48,7 +48,7 @@ public class PMapMap<K, V> extends AbstractMap<K, V> implements PStreamable<Tupl
 
 	@Override
 	public V get(Object key) {
-		return getOrDefault(key, null);
+		return master.get(key);
 	}
 
 	@Override
@@ -0,0 +1,361 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A Persistent map from a key to multiple values.<br>
+ * A PMultiMap is list-valued ({@link #empty()}: values are kept in insertion order and duplicates are allowed)
+ * or set-valued ({@link #emptySetValued()}: duplicate values for a key are ignored).<br>
+ * {@link #put(Object, Object)} and {@link #get(Object)} are O(log n).
+ * {@link #remove(Object, Object)} is O(log n) for a set-valued map and O(values for the key) for a list-valued map:
+ * the value is found with a linear search. A value in the back half of the list is removed by dropping
+ * and adding back the values after it, so removing the last value of a key is O(log n).<br>
+ * Bulk operations like {@link #plusAll(Iterable)} and {@link PStream#groupByMulti(Function)} first group
+ * the new values per key, so every key is only updated once in the underlying {@link PMap}.<br>
+ * As a PStream, a PMultiMap is a stream of (key,value) tuples.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ *
+ * @author Peter Muys
+ * @see PBag
+ * @since 19/10/2026
+ */
+public final class PMultiMap<K, V> extends AbstractPStreamDirect<Tuple2<K, V>, PMultiMap<K, V>> implements Serializable{
+
+	private static final PMultiMap<Object, Object> sEmptyList = new PMultiMap<>(false, PMap.empty(), 0);
+	private static final PMultiMap<Object, Object> sEmptySet  = new PMultiMap<>(true, PMap.empty(), 0);
+
+	private final boolean             setValued;
+	//values are a PList or a PSet, depending on setValued
+	private final PMap<K, PStream<V>> map;
+	private final int                 size;
+
+	private PMultiMap(boolean setValued, PMap<K, PStream<V>> map, int size) {
+		this.setValued = setValued;
+		this.map = map;
+		this.size = size;
+	}
+
+	/**
+	 * Create an empty list-valued PMultiMap
+	 *
+	 * @param <K> The type of the keys
+	 * @param <V> The type of the values
+	 *
+	 * @return The empty PMultiMap
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PMultiMap<K, V> empty() {
+		return (PMultiMap<K, V>) sEmptyList;
+	}
+
+	/**
+	 * Create an empty set-valued PMultiMap
+	 *
+	 * @param <K> The type of the keys
+	 * @param <V> The type of the values
+	 *
+	 * @return The empty PMultiMap
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PMultiMap<K, V> emptySetValued() {
+		return (PMultiMap<K, V>) sEmptySet;
+	}
+
+	/**
+	 * Group elements in a new PMultiMap, using a mutable map to collect the values for every key.
+	 */
+	static <T, K, V> PMultiMap<K, V> group(PMultiMap<K, V> base, Iterable<T> elements,
+										   Function<? super T, ? extends K> keyGen,
+										   Function<? super T, ? extends V> valGen
+	) {
+		Map<K, List<V>> groups = new LinkedHashMap<>();
+		for(T e : elements) {
+			groups.computeIfAbsent(keyGen.apply(e), k -> new ArrayList<>()).add(valGen.apply(e));
+		}
+		if(groups.isEmpty()) {
+			return base;
+		}
+		PMap<K, PStream<V>> newMap  = base.map;
+		int                 newSize = base.size;
+		for(Map.Entry<K, List<V>> entry : groups.entrySet()) {
+			PStream<V> values    = base.map.getOrDefault(entry.getKey(), null);
+			int        oldCount  = values == null ? 0 : values.size();
+			PStream<V> newValues = (values == null ? base.emptyValues() : values).plusAll(entry.getValue());
+			newMap = newMap.put(entry.getKey(), newValues);
+			newSize += newValues.size() - oldCount;
+		}
+		return new PMultiMap<>(base.setValued, newMap, newSize);
+	}
+
+	private PStream<V> emptyValues() {
+		return setValued ? PSet.empty() : PList.empty();
+	}
+
+	/**
+	 * @return true if this is a set-valued PMultiMap.
+	 */
+	public boolean isSetValued() {
+		return setValued;
+	}
+
+	/**
+	 * Add a value for a key.
+	 *
+	 * @param key   The key
+	 * @param value The value to add
+	 *
+	 * @return The new PMultiMap or this PMultiMap when set-valued and the value is already present
+	 */
+	public PMultiMap<K, V> put(K key, V value) {
+		PStream<V> values = map.getOrDefault(key, null);
+		if(values == null) {
+			return new PMultiMap<>(setValued, map.put(key, emptyValues().plus(value)), size + 1);
+		}
+		PStream<V> newValues = values.plus(value);
+		if(newValues.size() == values.size()) {
+			return this;
+		}
+		return new PMultiMap<>(setValued, map.put(key, newValues), size + 1);
+	}
+
+	/**
+	 * Add multiple values for a key
+	 *
+	 * @param key    The key
+	 * @param values The values to add
+	 *
+	 * @return The new PMultiMap
+	 */
+	public PMultiMap<K, V> putAll(K key, Iterable<? extends V> values) {
+		return group(this, values, v -> key, Function.identity());
+	}
+
+	@Override
+	public PMultiMap<K, V> plus(Tuple2<K, V> value) {
+		return put(value._1, value._2);
+	}
+
+	@Override
+	public PMultiMap<K, V> plusAll(Iterable<? extends Tuple2<K, V>> iter) {
+		return group(this, iter, t -> t._1, t -> t._2);
+	}
+
+	/**
+	 * Remove a value for a key.<br>
+	 * For a list-valued PMultiMap, only the first occurrence of the value is removed.<br>
+	 * When there are no more values for the key, the key is removed.
+	 *
+	 * @param key   The key
+	 * @param value The value to remove
+	 *
+	 * @return The new PMultiMap or this PMultiMap if the value was not found
+	 */
+	@SuppressWarnings("unchecked")
+	public PMultiMap<K, V> remove(Object key, Object value) {
+		PStream<V> values = map.getOrDefault(key, null);
+		if(values == null) {
+			return this;
+		}
+		PStream<V> newValues;
+		if(setValued) {
+			newValues = ((PSet<V>) values).minus(value);
+		}
+		else {
+			PList<V> list  = (PList<V>) values;
+			int      index = list.indexOf(value);
+			if(index < 0) {
+				return this;
+			}
+			newValues = removeAt(list, index);
+		}
+		if(newValues.size() == values.size()) {
+			return this;
+		}
+		PMap<K, PStream<V>> newMap = newValues.isEmpty()
+			? map.removeKey(key)
+			: map.put((K) key, newValues);
+		return new PMultiMap<>(setValued, newMap, size - 1);
+	}
+
+	/**
+	 * Remove the element at an index.<br>
+	 * In the back half of the list, only the elements after the index are dropped and added back.
+	 * In the front half, the list is rebuilt.
+	 */
+	private static <V> PList<V> removeAt(PList<V> list, int index) {
+		int size = list.size();
+		if(index < size / 2) {
+			return list.subList(0, index).plusAll(list.rangedIterator(index + 1, size));
+		}
+		PList<V> res = list;
+		for(int t = index; t < size; t++) {
+			res = res.dropLast();
+		}
+		return res.plusAll(list.rangedIterator(index + 1, size));
+	}
+
+	/**
+	 * Remove a key with all its values
+	 *
+	 * @param key The key to remove
+	 *
+	 * @return The new PMultiMap
+	 */
+	public PMultiMap<K, V> removeKey(Object key) {
+		PStream<V> values = map.getOrDefault(key, null);
+		if(values == null) {
+			return this;
+		}
+		return new PMultiMap<>(setValued, map.removeKey(key), size - values.size());
+	}
+
+	/**
+	 * Get the values for a key.<br>
+	 * The result is a {@link PList} for a list-valued map and a {@link PSet} for a set-valued map.
+	 *
+	 * @param key The key
+	 *
+	 * @return The values, empty when the key is not found
+	 */
+	public PStream<V> get(Object key) {
+		PStream<V> values = map.getOrDefault(key, null);
+		return values == null ? emptyValues() : values;
+	}
+
+	public boolean containsKey(Object key) {
+		return map.containsKey(key);
+	}
+
+	/**
+	 * Check if the given value is one of the values for the key
+	 *
+	 * @param key   The key
+	 * @param value The value
+	 *
+	 * @return true if found
+	 */
+	public boolean containsEntry(Object key, Object value) {
+		PStream<V> values = map.getOrDefault(key, null);
+		return values != null && values.contains(value);
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		if(value instanceof Tuple2 == false) {
+			return false;
+		}
+		Tuple2 t = (Tuple2) value;
+		return containsEntry(t._1, t._2);
+	}
+
+	public PStream<K> keys() {
+		return map.keys();
+	}
+
+	/**
+	 * @return The number of distinct keys
+	 */
+	public int keyCount() {
+		return map.size();
+	}
+
+	/**
+	 * Get this PMultiMap as a PMap with a PList or PSet of values for every key.
+	 *
+	 * @return The PMap
+	 */
+	public PMap<K, PStream<V>> asMap() {
+		return map;
+	}
+
+	/**
+	 * @return The total number of values for all keys
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Iterator<Tuple2<K, V>> iterator() {
+		return new Iterator<Tuple2<K, V>>(){
+			Iterator<Tuple2<K, PStream<V>>> keyIter = map.iterator();
+			K           key;
+			Iterator<V> valueIter = Collections.emptyIterator();
+
+			@Override
+			public boolean hasNext() {
+				while(valueIter.hasNext() == false) {
+					if(keyIter.hasNext() == false) {
+						return false;
+					}
+					Tuple2<K, PStream<V>> entry = keyIter.next();
+					key = entry._1;
+					valueIter = entry._2.iterator();
+				}
+				return true;
+			}
+
+			@Override
+			public Tuple2<K, V> next() {
+				if(hasNext() == false) {
+					throw new NoSuchElementException();
+				}
+				return Tuple2.of(key, valueIter.next());
+			}
+		};
+	}
+
+	@Override
+	public PStream<Tuple2<K, V>> lazy() {
+		return new AbstractPStreamLazy<Tuple2<K, V>>(){
+			@Override
+			public Iterator<Tuple2<K, V>> iterator() {
+				return PMultiMap.this.iterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	protected PMultiMap<K, V> toImpl(PStream<Tuple2<K, V>> lazy) {
+		return clear().plusAll(lazy);
+	}
+
+	@Override
+	public PMultiMap<K, V> clear() {
+		return setValued ? emptySetValued() : empty();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof PMultiMap == false) {
+			return false;
+		}
+		PMultiMap other = (PMultiMap) o;
+		return other.setValued == setValued && other.size == size && map.equals(other.map);
+	}
+
+	@Override
+	public int hashCode() {
+		return map.hashCode();
+	}
+}
@@ -1,6 +1,7 @@
 package com.persistentbit.core.collections;
 
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -141,6 +142,11 @@ public class POrderedSet<T> extends AbstractPStreamDirect<T, POrderedSet<T>> imp
 
   @Override
   public int hashCode() {
-	return map.hashCode();
+	//Same as PSet: the sum of the element hashes
+	int h = 0;
+	for(T v : this) {
+	  h += Objects.hashCode(v);
+	}
+	return h;
   }
 }
@@ -0,0 +1,331 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A Persistent priority queue, implemented as a pairing heap.<br>
+ * {@link #head()} (find min) and {@link #plus(Object)} are O(1),
+ * {@link #tail()} (delete min) is amortized O(log n).<br>
+ * The amortized bound only holds when the queue is used linearly: every version is only updated once,
+ * like in a loop that replaces the queue with its tail.
+ * The cost of a tail() is not saved in the version it is called on, so calling tail() again on the same
+ * version (or on versions created from it with plus) pays the cost again: up to O(n) for every call.<br>
+ * Iterating this queue returns the elements in priority order, smallest first.
+ *
+ * @author Peter Muys
+ * @see PQueue
+ * @since 19/10/2026
+ */
+public final class PPriorityQueue<T> extends AbstractPStreamDirect<T, PPriorityQueue<T>> implements Serializable{
+
+	@SuppressWarnings("unchecked")
+	private static final PPriorityQueue<Object> sEmpty =
+		new PPriorityQueue<>((Comparator<Object>) (Comparator) NaturalOrder.inst, null, 0);
+
+	//Next ones should be final but can't because of Serializable
+	private Comparator<? super T> comp;
+	private Node<T>               root;
+	private int                   size;
+
+	private PPriorityQueue(Comparator<? super T> comp, Node<T> root, int size) {
+		this.comp = comp;
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Create an empty priority queue using the natural order of the {@link Comparable} elements
+	 *
+	 * @param <T> The type of the elements
+	 *
+	 * @return The empty queue
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Comparable<? super T>> PPriorityQueue<T> empty() {
+		return (PPriorityQueue<T>) (PPriorityQueue) sEmpty;
+	}
+
+	/**
+	 * Create an empty priority queue
+	 *
+	 * @param comp The comparator: smallest elements have the highest priority
+	 * @param <T>  The type of the elements
+	 *
+	 * @return The empty queue
+	 */
+	public static <T> PPriorityQueue<T> empty(Comparator<? super T> comp) {
+		return new PPriorityQueue<>(Objects.requireNonNull(comp, "comp"), null, 0);
+	}
+
+	@SafeVarargs
+	public static <T extends Comparable<? super T>> PPriorityQueue<T> val(T... elements) {
+		return PPriorityQueue.<T>empty().plusAll(PStream.val(elements));
+	}
+
+	public static <T extends Comparable<? super T>> PPriorityQueue<T> from(Iterable<? extends T> iter) {
+		return PPriorityQueue.<T>empty().plusAll(iter);
+	}
+
+	public Comparator<? super T> getComparator() {
+		return comp;
+	}
+
+	@Override
+	public PPriorityQueue<T> plus(T value) {
+		return new PPriorityQueue<>(comp, meld(root, new Node<>(value, LList.empty()), comp), size + 1);
+	}
+
+	/**
+	 * Add all elements to this queue.<br>
+	 * The new elements are first combined in a heap of their own,
+	 * using pairwise melding rounds (O(n)), and then melded with this queue.
+	 *
+	 * @param iter The elements to add
+	 *
+	 * @return The new queue
+	 */
+	@Override
+	public PPriorityQueue<T> plusAll(Iterable<? extends T> iter) {
+		List<Node<T>> nodes = new ArrayList<>();
+		for(T v : iter) {
+			nodes.add(new Node<>(v, LList.empty()));
+		}
+		int added = nodes.size();
+		if(added == 0) {
+			return this;
+		}
+		while(nodes.size() > 1) {
+			List<Node<T>> next = new ArrayList<>((nodes.size() + 1) / 2);
+			for(int t = 0; t < nodes.size(); t += 2) {
+				next.add(t + 1 < nodes.size() ? meld(nodes.get(t), nodes.get(t + 1), comp) : nodes.get(t));
+			}
+			nodes = next;
+		}
+		return new PPriorityQueue<>(comp, meld(root, nodes.get(0), comp), size + added);
+	}
+
+	/**
+	 * Merge the elements of this queue with the elements of another queue.<br>
+	 * The comparator of this queue is used for the result.
+	 *
+	 * @param other The other queue
+	 *
+	 * @return The merged queue
+	 */
+	public PPriorityQueue<T> merge(PPriorityQueue<T> other) {
+		if(other.comp.equals(comp) == false) {
+			return plusAll(other);
+		}
+		return new PPriorityQueue<>(comp, meld(root, other.root, comp), size + other.size);
+	}
+
+	/**
+	 * Get the element with the highest priority (the smallest element).
+	 *
+	 * @return The smallest element
+	 *
+	 * @throws NoSuchElementException when the queue is empty
+	 */
+	@Override
+	public T head() {
+		if(root == null) {
+			throw new NoSuchElementException("head of empty PPriorityQueue");
+		}
+		return root.value;
+	}
+
+	@Override
+	public Optional<T> headOpt() {
+		return root == null ? Optional.empty() : Optional.ofNullable(root.value);
+	}
+
+	/**
+	 * Remove the element with the highest priority (the smallest element).<br>
+	 * Amortized O(log n) when the queue is used linearly, O(n) in the worst case.
+	 *
+	 * @return The new queue
+	 *
+	 * @throws IllegalStateException when the queue is empty
+	 */
+	@Override
+	public PPriorityQueue<T> tail() {
+		if(root == null) {
+			throw new IllegalStateException("Tail of empty PPriorityQueue");
+		}
+		return new PPriorityQueue<>(comp, mergePairs(root.children, comp), size - 1);
+	}
+
+	/**
+	 * Get the smallest element and the queue without the smallest element.
+	 *
+	 * @return Optional Tuple2 of the smallest element and the rest of the queue.
+	 * Empty when the queue is empty.
+	 */
+	public Optional<Tuple2<T, PPriorityQueue<T>>> dequeue() {
+		if(root == null) {
+			return Optional.empty();
+		}
+		return Optional.of(Tuple2.of(root.value, tail()));
+	}
+
+	private static <T> Node<T> meld(Node<T> a, Node<T> b, Comparator<? super T> comp) {
+		if(a == null) {
+			return b;
+		}
+		if(b == null) {
+			return a;
+		}
+		if(comp.compare(a.value, b.value) <= 0) {
+			return new Node<>(a.value, a.children.prepend(b));
+		}
+		return new Node<>(b.value, b.children.prepend(a));
+	}
+
+	/**
+	 * Two-pass pairing: meld the children in pairs from left to right,
+	 * then meld the results from right to left.
+	 */
+	private static <T> Node<T> mergePairs(LList<Node<T>> children, Comparator<? super T> comp) {
+		List<Node<T>>     pairs = new ArrayList<>();
+		Iterator<Node<T>> iter  = children.iterator();
+		while(iter.hasNext()) {
+			Node<T> first = iter.next();
+			pairs.add(iter.hasNext() ? meld(first, iter.next(), comp) : first);
+		}
+		Node<T> res = null;
+		for(int t = pairs.size() - 1; t >= 0; t--) {
+			res = meld(pairs.get(t), res, comp);
+		}
+		return res;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>(){
+			Node<T> current = root;
+
+			@Override
+			public boolean hasNext() {
+				return current != null;
+			}
+
+			@Override
+			public T next() {
+				if(current == null) {
+					throw new NoSuchElementException();
+				}
+				T res = current.value;
+				current = mergePairs(current.children, comp);
+				return res;
+			}
+		};
+	}
+
+	@Override
+	public PStream<T> lazy() {
+		return new AbstractPStreamLazy<T>(){
+			@Override
+			public Iterator<T> iterator() {
+				return PPriorityQueue.this.iterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	protected PPriorityQueue<T> toImpl(PStream<T> lazy) {
+		return new PPriorityQueue<T>(comp, null, 0).plusAll(lazy);
+	}
+
+	@Override
+	public PPriorityQueue<T> clear() {
+		return new PPriorityQueue<>(comp, null, 0);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof PPriorityQueue == false) {
+			return false;
+		}
+		PPriorityQueue other = (PPriorityQueue) o;
+		if(other.size != size) {
+			return false;
+		}
+		return lazy().equals(other);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.writeObject(comp);
+		out.writeInt(size);
+		for(T v : this) {
+			out.writeObject(v);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+		Comparator<? super T> readComp = (Comparator<? super T>) in.readObject();
+		int                   readSize = in.readInt();
+		List<T>               elements = new ArrayList<>(readSize);
+		for(int t = 0; t < readSize; t++) {
+			elements.add((T) in.readObject());
+		}
+		PPriorityQueue<T> q = new PPriorityQueue<T>(readComp, null, 0).plusAll(elements);
+		this.comp = q.comp;
+		this.root = q.root;
+		this.size = q.size;
+	}
+
+	private static final class Node<T>{
+
+		final T              value;
+		final LList<Node<T>> children;
+
+		Node(T value, LList<Node<T>> children) {
+			this.value = value;
+			this.children = children;
+		}
+	}
+
+	private static final class NaturalOrder implements Comparator<Comparable<Object>>, Serializable{
+
+		static final NaturalOrder inst = new NaturalOrder();
+
+		@Override
+		public int compare(Comparable<Object> a, Comparable<Object> b) {
+			return a.compareTo(b);
+		}
+
+		private Object readResolve() {
+			return inst;
+		}
+	}
+}
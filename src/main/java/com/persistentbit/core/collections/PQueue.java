@@ -0,0 +1,225 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A Persistent FIFO Queue.<br>
+ * Implemented as a banker's queue: a front {@link LList} to take elements from and
+ * a reversed rear {@link LList} to add elements to.<br>
+ * When the front is empty, the rear is reversed into the new front,
+ * giving amortized O(1) {@link #plus(Object)} and {@link #tail()}.
+ * That bound assumes linear use, where every version is only updated once.
+ * The reversed rear is not saved in the version tail() is called on:
+ * calling tail() again on an old version with 1 element in front reverses the whole rear again, O(n) per call.<br>
+ * Unlike {@link PStream#tail()} on a lazy stream, {@link #tail()} really drops the
+ * first element, so it can be garbage collected.
+ *
+ * @author Peter Muys
+ * @see PDeque
+ * @see PPriorityQueue
+ * @since 19/10/2026
+ */
+public final class PQueue<T> extends AbstractPStreamDirect<T, PQueue<T>> implements Serializable{
+
+	private static final PQueue<Object> sEmpty = new PQueue<>(LList.empty(), LList.empty(), 0);
+
+	//Invariant: front is only empty when the queue is empty
+	private final LList<T> front;
+	private final LList<T> rear;
+	private final int      size;
+
+	private PQueue(LList<T> front, LList<T> rear, int size) {
+		this.front = front;
+		this.rear = rear;
+		this.size = size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> PQueue<T> empty() {
+		return (PQueue<T>) sEmpty;
+	}
+
+	@SafeVarargs
+	public static <T> PQueue<T> val(T... elements) {
+		return PQueue.<T>empty().plusAll(PStream.val(elements));
+	}
+
+	public static <T> PQueue<T> from(Iterable<? extends T> iter) {
+		return PQueue.<T>empty().plusAll(iter);
+	}
+
+	private static <T> PQueue<T> create(LList<T> front, LList<T> rear, int size) {
+		if(front.isEmpty()) {
+			if(rear.isEmpty()) {
+				return empty();
+			}
+			return new PQueue<>(rear.reversed(), LList.empty(), size);
+		}
+		return new PQueue<>(front, rear, size);
+	}
+
+	/**
+	 * Add an element to the end of this queue
+	 *
+	 * @param value The value to add
+	 *
+	 * @return The new queue
+	 */
+	@Override
+	public PQueue<T> plus(T value) {
+		return create(front, rear.prepend(value), size + 1);
+	}
+
+	/**
+	 * Add all elements to the end of this queue.<br>
+	 * The elements are collected in a single list before
+	 * creating the new queue instance.
+	 *
+	 * @param iter The elements to add
+	 *
+	 * @return The new queue
+	 */
+	@Override
+	public PQueue<T> plusAll(Iterable<? extends T> iter) {
+		LList<T> newRear = rear;
+		int      added   = 0;
+		for(T v : iter) {
+			newRear = newRear.prepend(v);
+			added++;
+		}
+		if(added == 0) {
+			return this;
+		}
+		return create(front, newRear, size + added);
+	}
+
+	/**
+	 * Remove the first element from this queue
+	 *
+	 * @return The new queue without the first element
+	 *
+	 * @throws IllegalStateException when the queue is empty
+	 */
+	@Override
+	public PQueue<T> tail() {
+		if(size == 0) {
+			throw new IllegalStateException("Tail of empty PQueue");
+		}
+		return create(front.tail(), rear, size - 1);
+	}
+
+	/**
+	 * Get the first element and the queue without the first element.
+	 *
+	 * @return Optional Tuple2 of the first element and the rest of the queue.
+	 * Empty when the queue is empty.
+	 */
+	public Optional<Tuple2<T, PQueue<T>>> dequeue() {
+		if(size == 0) {
+			return Optional.empty();
+		}
+		return Optional.of(Tuple2.of(head(), tail()));
+	}
+
+	@Override
+	public Optional<T> headOpt() {
+		return front.headOpt();
+	}
+
+	@Override
+	public T head() {
+		if(size == 0) {
+			throw new NoSuchElementException("head of empty PQueue");
+		}
+		return front.iterator().next();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>(){
+			Iterator<T> current = front.iterator();
+			boolean inFront = true;
+
+			@Override
+			public boolean hasNext() {
+				if(current.hasNext()) {
+					return true;
+				}
+				if(inFront) {
+					inFront = false;
+					current = rear.reversed().iterator();
+					return current.hasNext();
+				}
+				return false;
+			}
+
+			@Override
+			public T next() {
+				if(hasNext() == false) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
+			}
+		};
+	}
+
+	@Override
+	public PStream<T> lazy() {
+		return new AbstractPStreamLazy<T>(){
+			@Override
+			public Iterator<T> iterator() {
+				return PQueue.this.iterator();
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	protected PQueue<T> toImpl(PStream<T> lazy) {
+		return PQueue.<T>empty().plusAll(lazy);
+	}
+
+	@Override
+	public PQueue<T> clear() {
+		return empty();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof PQueue == false) {
+			return false;
+		}
+		PQueue other = (PQueue) o;
+		if(other.size != size) {
+			return false;
+		}
+		return lazy().equals(other);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+}
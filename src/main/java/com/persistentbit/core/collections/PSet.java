@@ -1,6 +1,7 @@
 package com.persistentbit.core.collections;
 
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -55,6 +56,18 @@ public class PSet<T> extends AbstractPStreamDirect<T, PSet<T>> implements IPSet<
 		return new PSet<>(map.put(value, value));
 	}
 
+	/**
+	 * Create a new PSet without the given value
+	 *
+	 * @param value The value to remove
+	 *
+	 * @return The new PSet or this PSet if the value is not in the set
+	 */
+	public PSet<T> minus(Object value) {
+		PMap<T, T> newMap = map.removeKey(value);
+		return newMap == map ? this : new PSet<>(newMap);
+	}
+
 	@Override
 	public PStream<T> lazy() {
 		return new AbstractPStreamLazy<T>(){
@@ -86,6 +99,15 @@ public class PSet<T> extends AbstractPStreamDirect<T, PSet<T>> implements IPSet<
 		return map.size();
 	}
 
+	/**
+	 * Visit the internal structure for {@link Footprint}
+	 */
+	void walk(Footprint.Walker w) {
+		if(w.node(this, "PSet", Footprint.objectSize(1, 0), 0, 0, 0)) {
+			map.walk(w);
+		}
+	}
+
 	@Override
 	public boolean isEmpty() {
 		return map.isEmpty();
@@ -126,15 +148,34 @@ public class PSet<T> extends AbstractPStreamDirect<T, PSet<T>> implements IPSet<
 		if(o == this) {
 			return true;
 		}
-		if(o instanceof PSet == false) {
+		if(o instanceof PSet) {
+			return map.equals(((PSet) o).map);
+		}
+		//Equal to the other set implementations (PEnumSet, PBitSet, POrderedSet) with the same elements
+		if(o instanceof IPSet == false) {
 			return false;
 		}
-		PSet other = (PSet) o;
-		return map.equals(other.map);
+		IPSet other = (IPSet) o;
+		if(size() != other.size()) {
+			return false;
+		}
+		for(T v : this) {
+			if(other.contains(v) == false) {
+				return false;
+			}
+		}
+		return true;
 	}
 
+	/**
+	 * The hashCode is the sum of the element hashes, like {@link java.util.Set#hashCode()}.
+	 */
 	@Override
 	public int hashCode() {
-		return map.hashCode();
+		int h = 0;
+		for(T v : this) {
+			h += Objects.hashCode(v);
+		}
+		return h;
 	}
 }
@@ -1,6 +1,9 @@
 package com.persistentbit.core.collections;
 
 
+import com.persistentbit.core.sketches.HyperLogLog;
+import com.persistentbit.core.sketches.QuantileSketch;
+import com.persistentbit.core.sketches.TopK;
 import com.persistentbit.core.tuples.Tuple2;
 
 import java.util.*;
@@ -101,6 +104,11 @@ public interface PStream<T> extends Iterable<T>{
 						}
 					};
 				}
+
+				@Override
+				public Iterator<T> reverseIterator() {
+					return PStreamReversed.arrayReverse(arr);
+				}
 			};
 		}
 		return PList.<T>empty().plusAll(iter).lazy();
@@ -138,6 +146,11 @@ public interface PStream<T> extends Iterable<T>{
 					}
 				};
 			}
+
+			@Override
+			public Iterator<T> reverseIterator() {
+				return PStreamReversed.arrayReverse(fixed);
+			}
 		};
 	}
 
@@ -350,6 +363,24 @@ public interface PStream<T> extends Iterable<T>{
 	 */
 	PStream<T> sorted();
 
+	/**
+	 * Create a new sorted PStream for streams that are too big to sort in memory.<br>
+	 * The elements are read in runs of at most memoryBudget elements.<br>
+	 * Every run is sorted in memory and written to a temporary file using the provided codec.<br>
+	 * The sorted runs are merged lazily while iterating the resulting PStream.<br>
+	 * The result is not cached: every iteration of the returned stream sorts this stream again.<br>
+	 * Temporary files are deleted when the iteration is done or when the returned
+	 * stream is closed.<br>
+	 * The sort is stable, just like {@link #sorted(Comparator)}.
+	 *
+	 * @param comp         The comparator to compare the items
+	 * @param codec        The codec used to write and read the items to the temporary files
+	 * @param memoryBudget The maximum number of items kept in memory for one sorted run
+	 *
+	 * @return A new lazy sorted {@link PStreamSortedExternal}
+	 */
+	PStreamSortedExternal<T> sortedExternal(Comparator<? super T> comp, ElementCodec<T> codec, int memoryBudget);
+
 	/**
 	 * Reverse the order of all elements in this PStream
 	 *
@@ -357,6 +388,15 @@ public interface PStream<T> extends Iterable<T>{
 	 */
 	PStream<T> reversed();
 
+	/**
+	 * Iterate the elements from the last to the first, without creating a reversed PStream.<br>
+	 * Random access sources like {@link PList}, {@link PByteList} and arrays iterate backwards in place.
+	 * Other sources are buffered in chunks before the first element is returned.
+	 *
+	 * @return An iterator from the last to the first element
+	 */
+	Iterator<T> reverseIterator();
+
 	/**
 	 * Check if this PStream contains the provided object
 	 *
@@ -459,6 +499,42 @@ public interface PStream<T> extends Iterable<T>{
 												   Function<? super T, ? extends V> valGen
 	);
 
+	/**
+	 * Group the elements in this PStream in a list-valued {@link PMultiMap}.<br>
+	 * The values are collected per key before adding them to the PMultiMap,
+	 * so every key is only added once.
+	 *
+	 * @param keyGen The key generator
+	 * @param <K>    The type of the key
+	 *
+	 * @return The PMultiMap
+	 */
+	<K> PMultiMap<K, T> groupByMulti(Function<? super T, ? extends K> keyGen);
+
+	/**
+	 * Same as {@link #groupByMulti(Function)}, but with a generated value for every element.
+	 *
+	 * @param keyGen The key generator
+	 * @param valGen The value generator
+	 * @param <K>    The type of the key
+	 * @param <V>    The type of the value
+	 *
+	 * @return The PMultiMap
+	 */
+	<K, V> PMultiMap<K, V> groupByMulti(Function<? super T, ? extends K> keyGen,
+										Function<? super T, ? extends V> valGen
+	);
+
+	/**
+	 * Count the number of occurrences of every generated key in a {@link PBag}
+	 *
+	 * @param keyGen The key generator
+	 * @param <K>    The type of the key
+	 *
+	 * @return The PBag with the keys
+	 */
+	<K> PBag<K> countBy(Function<? super T, ? extends K> keyGen);
+
 	/**
 	 * Create a new PStream with the provided item added
 	 *
@@ -700,6 +776,13 @@ public interface PStream<T> extends Iterable<T>{
 	 */
 	PSet<T> pset();
 
+	/**
+	 * Create a {@link PBag} with all the elements in this stream
+	 *
+	 * @return The PBag
+	 */
+	PBag<T> pbag();
+
 	/**
 	 * Convert this PStream to a Persistent Ordered Set
 	 *
@@ -722,6 +805,40 @@ public interface PStream<T> extends Iterable<T>{
 	 */
 	PStream<T> duplicates();
 
+	/**
+	 * Approximate the number of distinct elements in this PStream
+	 * using a {@link HyperLogLog} sketch with the default precision.<br>
+	 * Unlike {@link #distinct()}, the memory used does not grow with the number of distinct elements.<br>
+	 * The resulting sketch can be merged with sketches for other streams.
+	 *
+	 * @return The sketch: use {@link HyperLogLog#estimate()} for the count
+	 */
+	HyperLogLog countDistinctApprox();
+
+	/**
+	 * Find the approximate k most frequent keys in this PStream
+	 * using a Space-Saving {@link TopK} sketch.<br>
+	 * The resulting sketch can be merged with sketches for other streams.
+	 *
+	 * @param k     The number of keys to find
+	 * @param keyFn Get the key for an element
+	 * @param <K>   The type of the keys
+	 *
+	 * @return The sketch: use {@link TopK#top()} for the most frequent keys
+	 */
+	<K> TopK<K> topK(int k, Function<? super T, ? extends K> keyFn);
+
+	/**
+	 * Approximate the quantiles of a numeric value of the elements in this PStream
+	 * using a KLL {@link QuantileSketch}.<br>
+	 * The resulting sketch can be merged with sketches for other streams.
+	 *
+	 * @param mapper Maps an element to a double value
+	 *
+	 * @return The sketch: use {@link QuantileSketch#quantile(double)} for the quantiles
+	 */
+	QuantileSketch quantilesApprox(ToDoubleFunction<? super T> mapper);
+
 	/**
 	 * @return A Persistent Linked List version of this PStream
 	 */
@@ -749,6 +866,36 @@ public interface PStream<T> extends Iterable<T>{
 	 */
 	Optional<T> join(BinaryOperator<T> joiner);
 
+	/**
+	 * Collect all elements in a mutable container provided by a {@link PCollector}
+	 * and convert the container to the result.
+	 *
+	 * @param collector The collector
+	 * @param <A>       The type of the mutable container
+	 * @param <R>       The type of the result
+	 *
+	 * @return The result of the collector
+	 *
+	 * @see PCollector
+	 */
+	<A, R> R collect(PCollector<? super T, A, R> collector);
+
+	/**
+	 * Collect all elements in parallel.<br>
+	 * The elements are read in chunks, every chunk is accumulated in its own container
+	 * using the common ForkJoinPool and the containers are combined in encounter order.<br>
+	 * The collector functions must be thread safe, but the containers are never shared between threads.
+	 *
+	 * @param collector The collector
+	 * @param <A>       The type of the mutable container
+	 * @param <R>       The type of the result
+	 *
+	 * @return The result of the collector
+	 *
+	 * @see #collect(PCollector)
+	 */
+	<A, R> R collectParallel(PCollector<? super T, A, R> collector);
+
 	/**
 	 * Flatten this stream.
 	 *
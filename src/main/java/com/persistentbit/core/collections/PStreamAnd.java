@@ -44,6 +44,11 @@ public class PStreamAnd<T> extends AbstractPStreamLazy<T>{
 	return new PStreamAnd<>(right.reversed(), left.reversed());
   }
 
+  @Override
+  public Iterator<T> reverseIterator() {
+	return new PStreamAnd<>(right.reversed(), left.reversed()).iterator();
+  }
+
   @Override
   public String toString() {
 	return left + ".plusAll(" + right + ")";
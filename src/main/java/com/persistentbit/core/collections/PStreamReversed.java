@@ -1,17 +1,27 @@
 package com.persistentbit.core.collections;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
+ * A lazy reversed view on a PStream.<br>
+ * Iterating uses {@link PStream#reverseIterator()} of the master stream,
+ * so random access sources are not copied.
+ * Other sources are copied to a PList on the first iteration,
+ * and that copy is reused for the next iterations.
+ *
  * User: petermuys
  * Date: 6/07/16
  * Time: 21:32
  */
 public class PStreamReversed<T> extends AbstractPStreamLazy<T>{
 
+  static final int chunkSize = 512;
+
   private final PStream<T> master;
-  private       List<T>    rev;
+  private       PList<T>   rev;
 
   public PStreamReversed(PStream<T> master) {
 	this.master = master;
@@ -21,14 +31,39 @@ public class PStreamReversed<T> extends AbstractPStreamLazy<T>{
 
   @Override
   public synchronized Iterator<T> iterator() {
-	if(master instanceof PStreamReversed) {
-	  return ((PStreamReversed<T>) master).master.iterator();
+	if(rev != null) {
+	  return rev.reverseIterator();
 	}
-	if(rev == null) {
-	  rev = master.list();
+	Iterator<T> iter = master.reverseIterator();
+	if(iter instanceof BufferedReverse == false) {
+	  return iter;
 	}
+	//The buffered reverse did not read the master yet: copy it once instead
+	rev = master.plist();
+	return rev.reverseIterator();
+  }
+
+  @Override
+  public Iterator<T> reverseIterator() {
+	return master.iterator();
+  }
+
+  @Override
+  public PStream<T> reversed() {
+	return master;
+  }
+
+  /**
+   * Iterate an array from the last to the first element
+   *
+   * @param array The array
+   * @param <T>   The element type
+   *
+   * @return The reverse iterator
+   */
+  static <T> Iterator<T> arrayReverse(Object[] array) {
 	return new Iterator<T>(){
-	  int i = rev.size() - 1;
+	  int i = array.length - 1;
 
 	  @Override
 	  public boolean hasNext() {
@@ -36,14 +71,78 @@ public class PStreamReversed<T> extends AbstractPStreamLazy<T>{
 	  }
 
 	  @Override
+	  @SuppressWarnings("unchecked")
 	  public T next() {
-		T res = rev.get(i);
-		i--;
-		return res;
+		if(i < 0) {
+		  throw new NoSuchElementException();
+		}
+		return (T) array[i--];
 	  }
 	};
   }
 
+  /**
+   * Reverse an iterator by buffering all elements in fixed size chunks.<br>
+   * The source is read on the first call to hasNext or next.
+   *
+   * @param source The forward iterator
+   * @param <T>    The element type
+   *
+   * @return The reverse iterator
+   */
+  static <T> Iterator<T> bufferedReverse(Iterator<T> source) {
+	return new BufferedReverse<>(source);
+  }
+
+  private static final class BufferedReverse<T> implements Iterator<T>{
+
+	private final Iterator<T> source;
+	private List<Object[]>    chunks;
+	private Object[]          chunk;
+	private int               index;
+
+	BufferedReverse(Iterator<T> source) {
+	  this.source = source;
+	}
+
+	private void fill() {
+	  chunks = new ArrayList<>();
+	  chunk = new Object[chunkSize];
+	  index = 0;
+	  while(source.hasNext()) {
+		if(index == chunkSize) {
+		  chunks.add(chunk);
+		  chunk = new Object[chunkSize];
+		  index = 0;
+		}
+		chunk[index++] = source.next();
+	  }
+	}
+
+	@Override
+	public boolean hasNext() {
+	  if(chunks == null) {
+		fill();
+	  }
+	  return index > 0 || chunks.isEmpty() == false;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T next() {
+	  if(hasNext() == false) {
+		throw new NoSuchElementException();
+	  }
+	  if(index == 0) {
+		chunk = chunks.remove(chunks.size() - 1);
+		index = chunkSize;
+	  }
+	  T res = (T) chunk[--index];
+	  chunk[index] = null;
+	  return res;
+	}
+  }
+
   @Override
   public String toString() {
 	return "reversed(" + master + ")";
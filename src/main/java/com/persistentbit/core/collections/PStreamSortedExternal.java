@@ -0,0 +1,368 @@
+package com.persistentbit.core.collections;
+
+import com.persistentbit.core.exceptions.RtIOException;
+
+import java.io.*;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A lazy sorted PStream that does not need to keep all elements in memory.<br>
+ * Every call to {@link #iterator()} reads the master stream in runs of at most
+ * memoryBudget elements. Every run is sorted in memory and spilled to a temporary file.<br>
+ * The runs are then merged while iterating the result.<br>
+ * When all the elements fit in 1 run, no files are created.<br>
+ * The sorted result is not kept: every iteration and every terminal operation
+ * reads and sorts the master stream again.
+ * Collect the result (for example with {@link #plist()}) when it is needed more than once.
+ * {@link #size()} and {@link #isEmpty()} use the master stream and don't sort.<br>
+ * The temporary files are deleted when the iterator is exhausted,
+ * when the iterator is closed or when this stream is closed.
+ * The files of an iterator that is dropped before that are deleted after the iterator is garbage collected,
+ * or else when the JVM exits.
+ *
+ * @author Peter Muys
+ * @see PStream#sortedExternal(Comparator, ElementCodec, int)
+ * @since 19/10/2026
+ */
+public class PStreamSortedExternal<T> extends AbstractPStreamLazy<T> implements AutoCloseable{
+
+	/**
+	 * Maximum number of runs merged at the same time.<br>
+	 * When there are more runs, they are first merged into bigger runs.
+	 */
+	static final int maxMergeFanIn = 64;
+
+	private static final int ioBufferSize = 64 * 1024;
+
+	/**
+	 * Deletes the run files of merge iterators that are garbage collected before they were closed.
+	 */
+	private static final class AbandonedRuns{
+
+		static final ReferenceQueue<Object> queue   = new ReferenceQueue<>();
+		//Keeps the phantom references reachable until they are enqueued
+		static final Set<Closeable>         pending = ConcurrentHashMap.newKeySet();
+
+		static {
+			Thread t = new Thread(() -> {
+				while(true) {
+					try {
+						((Closeable) queue.remove()).close();
+					} catch(InterruptedException e) {
+						return;
+					} catch(IOException | RuntimeException ignored) {
+						//Nothing more we can do for these files
+					}
+				}
+			}, "PStreamSortedExternal cleaner");
+			t.setDaemon(true);
+			t.start();
+		}
+	}
+
+	private final PStream<T>            master;
+	private final Comparator<? super T> comp;
+	private final ElementCodec<T>       codec;
+	private final int                   memoryBudget;
+	private final File                  tempDirectory;
+	private final Set<Runs>             openRuns = new HashSet<>();
+
+	public PStreamSortedExternal(PStream<T> master, Comparator<? super T> comp, ElementCodec<T> codec,
+								 int memoryBudget
+	) {
+		this(master, comp, codec, memoryBudget, null);
+	}
+
+	private PStreamSortedExternal(PStream<T> master, Comparator<? super T> comp, ElementCodec<T> codec,
+								  int memoryBudget, File tempDirectory
+	) {
+		if(memoryBudget < 1) {
+			throw new IllegalArgumentException("memoryBudget must be > 0: " + memoryBudget);
+		}
+		this.master = Objects.requireNonNull(master, "master");
+		this.comp = Objects.requireNonNull(comp, "comp");
+		this.codec = Objects.requireNonNull(codec, "codec");
+		this.memoryBudget = memoryBudget;
+		this.tempDirectory = tempDirectory;
+	}
+
+	/**
+	 * Get a new sorted stream that writes its temporary files in the given directory.
+	 *
+	 * @param directory The directory for the temporary files or null for the default temporary-file directory
+	 *
+	 * @return The new sorted stream
+	 */
+	public PStreamSortedExternal<T> withTempDirectory(File directory) {
+		return new PStreamSortedExternal<>(master, comp, codec, memoryBudget, directory);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		Iterator<T> source = master.iterator();
+		List<T>     run    = readRun(source);
+		if(source.hasNext() == false) {
+			return Collections.unmodifiableList(run).iterator();
+		}
+		MergeIterator merge = new MergeIterator();
+		try {
+			merge.spill(run);
+			run = null;
+			while(source.hasNext()) {
+				merge.spill(readRun(source));
+			}
+			merge.start();
+			return merge;
+		} catch(IOException e) {
+			merge.close();
+			throw new RtIOException("Error while spilling sorted runs", e);
+		} catch(RuntimeException e) {
+			merge.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public int size() {
+		return master.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return master.isEmpty();
+	}
+
+	/**
+	 * Close all iterators of this stream that are not yet exhausted,
+	 * deleting their temporary files.
+	 */
+	@Override
+	public void close() {
+		List<Runs> toClose;
+		synchronized(openRuns) {
+			toClose = new ArrayList<>(openRuns);
+		}
+		toClose.forEach(Runs::close);
+	}
+
+	private List<T> readRun(Iterator<T> source) {
+		List<T> run = new ArrayList<>();
+		while(run.size() < memoryBudget && source.hasNext()) {
+			run.add(source.next());
+		}
+		run.sort(comp);
+		return run;
+	}
+
+	private static void deleteFile(File file) {
+		//noinspection ResultOfMethodCallIgnored
+		file.delete();
+	}
+
+	/**
+	 * Reads the elements of one sorted run file.
+	 */
+	private final class RunReader implements Closeable{
+
+		final int order;
+		final File            file;
+		final DataInputStream in;
+		int remaining;
+		T   current;
+
+		RunReader(int order, File file) throws IOException {
+			this.order = order;
+			this.file = file;
+			this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), ioBufferSize));
+			this.remaining = in.readInt();
+		}
+
+		boolean advance() throws IOException {
+			if(remaining == 0) {
+				current = null;
+				return false;
+			}
+			remaining--;
+			current = codec.read(in);
+			return true;
+		}
+
+		@Override
+		public void close() {
+			try {
+				in.close();
+			} catch(IOException ignored) {
+				//we are only reading, nothing to lose
+			}
+			deleteFile(file);
+		}
+	}
+
+	/**
+	 * The run files and open readers of one {@link MergeIterator}.<br>
+	 * This is a phantom reference to the iterator, so the files are also deleted
+	 * when the iterator is garbage collected without being closed.
+	 */
+	private final class Runs extends PhantomReference<Object> implements Closeable{
+
+		final List<File>      files   = new ArrayList<>();
+		final List<RunReader> readers = new ArrayList<>();
+		private boolean closed;
+
+		Runs(MergeIterator iterator) {
+			super(iterator, AbandonedRuns.queue);
+			AbandonedRuns.pending.add(this);
+			synchronized(openRuns) {
+				openRuns.add(this);
+			}
+		}
+
+		File newFile() throws IOException {
+			File file = File.createTempFile("pstream-sort-", ".run", tempDirectory);
+			file.deleteOnExit();
+			files.add(file);
+			return file;
+		}
+
+		@Override
+		public void close() {
+			synchronized(this) {
+				if(closed) {
+					return;
+				}
+				closed = true;
+			}
+			readers.forEach(RunReader::close);
+			readers.clear();
+			files.forEach(PStreamSortedExternal::deleteFile);
+			files.clear();
+			clear();
+			AbandonedRuns.pending.remove(this);
+			synchronized(openRuns) {
+				openRuns.remove(this);
+			}
+		}
+	}
+
+	/**
+	 * K-way merge over the run files.<br>
+	 * Ties are resolved on run order, so the sort is stable like {@link PStream#sorted(Comparator)}.
+	 */
+	private final class MergeIterator implements Iterator<T>, AutoCloseable{
+
+		private final Runs                     runs     = new Runs(this);
+		private final List<File>               runFiles = runs.files;
+		private final List<RunReader>          readers  = runs.readers;
+		private       PriorityQueue<RunReader> queue;
+
+		void spill(List<T> sortedRun) throws IOException {
+			File file = newRunFile();
+			try(DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file), ioBufferSize))) {
+				out.writeInt(sortedRun.size());
+				for(T v : sortedRun) {
+					codec.write(out, v);
+				}
+			}
+		}
+
+		private File newRunFile() throws IOException {
+			return runs.newFile();
+		}
+
+		void start() throws IOException {
+			List<File> files = new ArrayList<>(runFiles);
+			while(files.size() > maxMergeFanIn) {
+				//The merged run contains the oldest elements: keep it in front for a stable sort
+				List<File> first  = files.subList(0, maxMergeFanIn);
+				File       merged = mergeToFile(first);
+				first.clear();
+				files.add(0, merged);
+			}
+			queue = openQueue(files);
+		}
+
+		private PriorityQueue<RunReader> openQueue(List<File> files) throws IOException {
+			PriorityQueue<RunReader> pq = new PriorityQueue<>(Math.max(1, files.size()), (a, b) -> {
+				int c = comp.compare(a.current, b.current);
+				return c != 0 ? c : Integer.compare(a.order, b.order);
+			});
+			for(int t = 0; t < files.size(); t++) {
+				RunReader reader = new RunReader(t, files.get(t));
+				readers.add(reader);
+				if(reader.advance()) {
+					pq.add(reader);
+				}
+			}
+			return pq;
+		}
+
+		private File mergeToFile(List<File> files) throws IOException {
+			PriorityQueue<RunReader> pq     = openQueue(files);
+			List<RunReader>          opened = new ArrayList<>(pq);
+			File                     result = newRunFile();
+			try(DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(result), ioBufferSize))) {
+				int count = 0;
+				for(RunReader r : opened) {
+					count += r.remaining + 1;
+				}
+				out.writeInt(count);
+				while(pq.isEmpty() == false) {
+					RunReader r = pq.poll();
+					codec.write(out, r.current);
+					if(r.advance()) {
+						pq.add(r);
+					}
+				}
+			} finally {
+				readers.removeIf(r -> files.contains(r.file) && closeReader(r));
+			}
+			return result;
+		}
+
+		private boolean closeReader(RunReader r) {
+			r.close();
+			return true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return runs.closed == false && queue.isEmpty() == false;
+		}
+
+		@Override
+		public T next() {
+			if(hasNext() == false) {
+				throw new NoSuchElementException();
+			}
+			RunReader r   = queue.poll();
+			T         res = r.current;
+			try {
+				if(r.advance()) {
+					queue.add(r);
+				}
+			} catch(IOException e) {
+				close();
+				throw new RtIOException("Error reading sorted run " + r.file, e);
+			}
+			if(queue.isEmpty()) {
+				close();
+			}
+			return res;
+		}
+
+		@Override
+		public void close() {
+			runs.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "sortedExternal(" + master + ")";
+	}
+}
@@ -1,8 +1,14 @@
 package com.persistentbit.core.collections;
 
+import com.persistentbit.core.sketches.HyperLogLog;
+import com.persistentbit.core.sketches.QuantileSketch;
+import com.persistentbit.core.sketches.TopK;
 import com.persistentbit.core.tuples.Tuple2;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.*;
 import java.util.stream.Stream;
 
@@ -241,7 +247,7 @@ public interface PStreamWithDefaults<T> extends PStream<T>{
 	default PList<T> plist() {
 		if(isInfinite()) { throw new InfinitePStreamException();}
 
-		return new PList<T>().plusAll(this);
+		return collect(PCollector.toPList());
 	}
 
 	@Override
@@ -271,6 +277,14 @@ public interface PStreamWithDefaults<T> extends PStream<T>{
 		};
 	}
 
+	@Override
+	default PStreamSortedExternal<T> sortedExternal(Comparator<? super T> comp, ElementCodec<T> codec,
+													int memoryBudget
+	) {
+		if(isInfinite()) { throw new InfinitePStreamException(); }
+		return new PStreamSortedExternal<>(this, comp, codec, memoryBudget);
+	}
+
 	@Override
 	default PStream<T> plusAll(Iterable<? extends T> iter) {
 		if(isInfinite()) { throw new InfinitePStreamException(); }
@@ -327,15 +341,7 @@ public interface PStreamWithDefaults<T> extends PStream<T>{
 	default <K> PMap<K, PList<T>> groupBy(Function<? super T, ? extends K> keyGen) {
 		if(isInfinite()) { throw new InfinitePStreamException(); }
 
-		PMap<K, PList<T>> r         = PMap.empty();
-		PList<T>          emptyList = PList.empty();
-		for(T v : this) {
-			K        k = keyGen.apply(v);
-			PList<T> l = r.getOrDefault(k, emptyList);
-			l = l.plus(v);
-			r = r.put(k, l);
-		}
-		return r;
+		return collect(PCollector.groupingBy(keyGen));
 	}
 
 	@Override
@@ -351,15 +357,33 @@ public interface PStreamWithDefaults<T> extends PStream<T>{
 	) {
 		if(isInfinite()) { throw new InfinitePStreamException(); }
 
-		PMap<K, PList<V>> r         = PMap.empty();
-		PList<V>          emptyList = PList.empty();
-		for(T v : this) {
-			K        k = keyGen.apply(v);
-			PList<V> l = r.getOrDefault(k, emptyList);
-			l = l.plus(valGen.apply(v));
-			r = r.put(k, l);
-		}
-		return r;
+		return collect(PCollector.groupingBy(keyGen, PCollector.mapping(valGen, PCollector.toPList())));
+	}
+
+	@Override
+	default <K> PMultiMap<K, T> groupByMulti(Function<? super T, ? extends K> keyGen) {
+		return groupByMulti(keyGen, Function.identity());
+	}
+
+	@Override
+	default <K, V> PMultiMap<K, V> groupByMulti(Function<? super T, ? extends K> keyGen,
+											   Function<? super T, ? extends V> valGen
+	) {
+		if(isInfinite()) { throw new InfinitePStreamException(); }
+
+		return PMultiMap.group(PMultiMap.empty(), this, keyGen, valGen);
+	}
+
+	@Override
+	default <K> PBag<K> countBy(Function<? super T, ? extends K> keyGen) {
+		if(isInfinite()) { throw new InfinitePStreamException(); }
+
+		return PBag.count(PBag.empty(), this, keyGen);
+	}
+
+	@Override
+	default PBag<T> pbag() {
+		return countBy(Function.identity());
 	}
 
 	@Override
@@ -587,9 +611,10 @@ public interface PStreamWithDefaults<T> extends PStream<T>{
 	@Override
 	default <R> R foldRight(R init, Function<T, Function<R, R>> f) {
 		if(isInfinite()) { throw new InfinitePStreamException(); }
-		R res = init;
-		for(T v : this.reversed()) {
-			res = f.apply(v).apply(res);
+		R           res = init;
+		Iterator<T> iter = reverseIterator();
+		while(iter.hasNext()) {
+			res = f.apply(iter.next()).apply(res);
 		}
 		return res;
 	}
@@ -754,14 +779,36 @@ public interface PStreamWithDefaults<T> extends PStream<T>{
 	}
 
 
+	@Override
+	default HyperLogLog countDistinctApprox() {
+		if(isInfinite()) { throw new InfinitePStreamException();}
+
+		return HyperLogLog.empty().plusAll(this);
+	}
+
+	@Override
+	default <K> TopK<K> topK(int k, Function<? super T, ? extends K> keyFn) {
+		if(isInfinite()) { throw new InfinitePStreamException();}
+
+		return TopK.<K>empty(k).plusAll(this, keyFn);
+	}
+
+	@Override
+	default QuantileSketch quantilesApprox(ToDoubleFunction<? super T> mapper) {
+		if(isInfinite()) { throw new InfinitePStreamException();}
+
+		return QuantileSketch.empty().plusAll(this, mapper);
+	}
+
 	@Override
 	default LList<T> llist() {
 		if(isInfinite()) { throw new InfinitePStreamException();}
 
 
-		LList<T> res = LList.empty();
-		for(T v : reversed()) {
-			res = res.prepend(v);
+		LList<T>    res  = LList.empty();
+		Iterator<T> iter = reverseIterator();
+		while(iter.hasNext()) {
+			res = res.prepend(iter.next());
 		}
 		return res;
 	}
@@ -773,6 +820,13 @@ public interface PStreamWithDefaults<T> extends PStream<T>{
 		return new PStreamReversed<>(this);
 	}
 
+	@Override
+	default Iterator<T> reverseIterator() {
+		if(isInfinite()) { throw new InfinitePStreamException(); }
+
+		return PStreamReversed.bufferedReverse(iterator());
+	}
+
 	@Override
 	default List<T> toList() {
 		if(isInfinite()) { throw new InfinitePStreamException();}
@@ -798,6 +852,61 @@ public interface PStreamWithDefaults<T> extends PStream<T>{
 		return Optional.ofNullable(res);
 	}
 
+	@Override
+	default <A, R> R collect(PCollector<? super T, A, R> collector) {
+		if(isInfinite()) { throw new InfinitePStreamException(); }
+
+		A                        container   = collector.supplier().get();
+		BiConsumer<A, ? super T> accumulator = collector.accumulator();
+		for(T v : this) {
+			accumulator.accept(container, v);
+		}
+		return collector.finisher().apply(container);
+	}
+
+	@Override
+	default <A, R> R collectParallel(PCollector<? super T, A, R> collector) {
+		if(isInfinite()) { throw new InfinitePStreamException(); }
+
+		int                        chunkSize   = 4096;
+		Supplier<A>                supplier    = collector.supplier();
+		BiConsumer<A, ? super T>   accumulator = collector.accumulator();
+		List<CompletableFuture<A>> parts       = new ArrayList<>();
+		Iterator<T>                iter        = iterator();
+		while(iter.hasNext()) {
+			Object[] chunk = new Object[chunkSize];
+			int      size  = 0;
+			while(size < chunkSize && iter.hasNext()) {
+				chunk[size++] = iter.next();
+			}
+			int chunkLength = size;
+			parts.add(CompletableFuture.supplyAsync(() -> {
+				A container = supplier.get();
+				for(int t = 0; t < chunkLength; t++) {
+					@SuppressWarnings("unchecked")
+					T v = (T) chunk[t];
+					accumulator.accept(container, v);
+				}
+				return container;
+			}, ForkJoinPool.commonPool()));
+		}
+		A result = supplier.get();
+		try {
+			for(CompletableFuture<A> part : parts) {
+				result = collector.combiner().apply(result, part.join());
+			}
+		} catch(CompletionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if(e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+		return collector.finisher().apply(result);
+	}
+
 	@Override
 	default <X> PStream<X> flatten() {
 		return new AbstractPStreamLazy<X>(){
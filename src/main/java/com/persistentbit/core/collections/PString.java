@@ -0,0 +1,562 @@
+package com.persistentbit.core.collections;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A persistent rope: an immutable {@link CharSequence} for large texts.<br>
+ * The text is stored in a height balanced (AVL) tree of chunks of at most {@link #maxChunkSize} chars.<br>
+ * {@link #concat(CharSequence)}, {@link #insert(int, CharSequence)}, {@link #delete(int, int)},
+ * {@link #replace(int, int, CharSequence)} and {@link #subSequence(int, int)} are O(log n) and
+ * share the chunks of the original text instead of copying the chars.<br>
+ * Every tree node caches the number of new lines in its subtree, so that
+ * {@link #getLineNumber(int)} and {@link #getLineStart(int)} are also O(log n).<br>
+ * {@link #charAt(int)} remembers the last chunk used, so sequential access
+ * (like regular expression matching or tokenizing) is O(1) per char.
+ * <pre>{@code
+ * PString text = PString.of(bigString);
+ * PString edited = text.insert(100, "hello").delete(2000, 2010);
+ * }</pre>
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class PString implements CharSequence, Comparable<PString>{
+
+	/**
+	 * The maximum number of chars in one chunk
+	 */
+	public static final int maxChunkSize = 1024;
+
+	//Adjacent chunks with this combined length are copied into one chunk
+	private static final int mergeSize = 256;
+
+	private static final Leaf    emptyLeaf = new Leaf("", 0, 0);
+	private static final PString sEmpty    = new PString(emptyLeaf);
+
+	private final Node root;
+	private       int  hash;
+	//Last chunk used by charAt, immutable so safe to share between threads
+	private       Cursor cursor;
+
+	private PString(Node root) {
+		this.root = root;
+	}
+
+	public static PString empty() {
+		return sEmpty;
+	}
+
+	/**
+	 * Create a PString with the content of a CharSequence.<br>
+	 * The chunks of a String share the chars of the String.
+	 *
+	 * @param text The text
+	 *
+	 * @return The new PString
+	 */
+	public static PString of(CharSequence text) {
+		if(text instanceof PString) {
+			return (PString) text;
+		}
+		Node node = chunks(text);
+		return node.length == 0 ? sEmpty : new PString(node);
+	}
+
+	private static Node chunks(CharSequence text) {
+		String     str    = text.toString();
+		List<Node> leaves = new ArrayList<>(str.length() / maxChunkSize + 1);
+		for(int start = 0; start < str.length(); start += maxChunkSize) {
+			leaves.add(new Leaf(str, start, Math.min(maxChunkSize, str.length() - start)));
+		}
+		return balanced(leaves, 0, leaves.size());
+	}
+
+	private static Node balanced(List<Node> leaves, int start, int end) {
+		if(start == end) {
+			return emptyLeaf;
+		}
+		if(end - start == 1) {
+			return leaves.get(start);
+		}
+		int mid = (start + end) >>> 1;
+		return new Concat(balanced(leaves, start, mid), balanced(leaves, mid, end));
+	}
+
+	private static Node toNode(CharSequence text) {
+		return text instanceof PString ? ((PString) text).root : chunks(text);
+	}
+
+	private static PString create(Node node) {
+		return node.length == 0 ? sEmpty : new PString(node);
+	}
+
+	@Override
+	public int length() {
+		return root.length;
+	}
+
+	public boolean isEmpty() {
+		return root.length == 0;
+	}
+
+	@Override
+	public char charAt(int index) {
+		Cursor c = cursor;
+		if(c != null && index >= c.start && index < c.start + c.leaf.length) {
+			return c.leaf.charAt(index - c.start);
+		}
+		checkIndex(index, root.length - 1);
+		Node node  = root;
+		int  start = 0;
+		while(node instanceof Concat) {
+			Concat concat = (Concat) node;
+			if(index - start < concat.left.length) {
+				node = concat.left;
+			}
+			else {
+				start += concat.left.length;
+				node = concat.right;
+			}
+		}
+		Leaf leaf = (Leaf) node;
+		cursor = new Cursor(leaf, start);
+		return leaf.charAt(index - start);
+	}
+
+	/**
+	 * Get a part of this text without copying the chars
+	 *
+	 * @param start The start index (inclusive)
+	 * @param end   The end index (exclusive)
+	 *
+	 * @return The PString with the chars from start until end
+	 */
+	@Override
+	public PString subSequence(int start, int end) {
+		checkRange(start, end);
+		if(start == 0 && end == root.length) {
+			return this;
+		}
+		return create(split(split(root, end).left, start).right);
+	}
+
+	public PString substring(int start) {
+		return subSequence(start, root.length);
+	}
+
+	public PString substring(int start, int end) {
+		return subSequence(start, end);
+	}
+
+	public PString concat(CharSequence text) {
+		return create(concat(root, toNode(text)));
+	}
+
+	public PString insert(int index, CharSequence text) {
+		checkIndex(index, root.length);
+		Split s = split(root, index);
+		return create(concat(concat(s.left, toNode(text)), s.right));
+	}
+
+	/**
+	 * Remove a part of this text
+	 *
+	 * @param start The start index (inclusive)
+	 * @param end   The end index (exclusive)
+	 *
+	 * @return The new PString without the chars from start until end
+	 */
+	public PString delete(int start, int end) {
+		return replace(start, end, sEmpty);
+	}
+
+	/**
+	 * Replace a part of this text
+	 *
+	 * @param start The start index (inclusive)
+	 * @param end   The end index (exclusive)
+	 * @param text  The new text for the part
+	 *
+	 * @return The new PString
+	 */
+	public PString replace(int start, int end, CharSequence text) {
+		checkRange(start, end);
+		Split right = split(root, end);
+		Split left  = split(right.left, start);
+		return create(concat(concat(left.left, toNode(text)), right.right));
+	}
+
+	public int indexOf(char c) {
+		return indexOf(c, 0);
+	}
+
+	/**
+	 * Find the first occurrence of a char
+	 *
+	 * @param c    The char to find
+	 * @param from The index to start searching
+	 *
+	 * @return The index of the char or -1 if not found
+	 */
+	public int indexOf(char c, int from) {
+		for(int t = Math.max(from, 0); t < root.length; t++) {
+			if(charAt(t) == c) {
+				return t;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The number of lines: the number of new line chars + 1
+	 */
+	public int lineCount() {
+		return root.newLines + 1;
+	}
+
+	/**
+	 * Get the line number of a char
+	 *
+	 * @param index The index of the char, can be the length of this text
+	 *
+	 * @return The line number, the first line is line 1
+	 */
+	public int getLineNumber(int index) {
+		checkIndex(index, root.length);
+		Node node  = root;
+		int  lines = 1;
+		while(node instanceof Concat) {
+			Concat concat = (Concat) node;
+			if(index < concat.left.length) {
+				node = concat.left;
+			}
+			else {
+				lines += concat.left.newLines;
+				index -= concat.left.length;
+				node = concat.right;
+			}
+		}
+		Leaf leaf = (Leaf) node;
+		for(int t = 0; t < index; t++) {
+			if(leaf.charAt(t) == '\n') {
+				lines++;
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Get the index of the first char of a line
+	 *
+	 * @param lineNumber The line number, the first line is line 1
+	 *
+	 * @return The index of the first char of the line
+	 */
+	public int getLineStart(int lineNumber) {
+		if(lineNumber < 1 || lineNumber > lineCount()) {
+			throw new IndexOutOfBoundsException("Invalid line number " + lineNumber + ", line count is " + lineCount());
+		}
+		if(lineNumber == 1) {
+			return 0;
+		}
+		int  newLines = lineNumber - 1;
+		Node node     = root;
+		int  start    = 0;
+		while(node instanceof Concat) {
+			Concat concat = (Concat) node;
+			if(newLines <= concat.left.newLines) {
+				node = concat.left;
+			}
+			else {
+				newLines -= concat.left.newLines;
+				start += concat.left.length;
+				node = concat.right;
+			}
+		}
+		Leaf leaf = (Leaf) node;
+		int  t    = 0;
+		while(newLines > 0) {
+			if(leaf.charAt(t++) == '\n') {
+				newLines--;
+			}
+		}
+		return start + t;
+	}
+
+	/**
+	 * Get the column of a char
+	 *
+	 * @param index The index of the char, can be the length of this text
+	 *
+	 * @return The column, the first column is column 1
+	 */
+	public int getColumn(int index) {
+		return index - getLineStart(getLineNumber(index)) + 1;
+	}
+
+	/**
+	 * Write this text without creating a String of the whole text
+	 *
+	 * @param writer The destination
+	 *
+	 * @throws IOException Exception from the writer
+	 */
+	public void writeTo(Writer writer) throws IOException {
+		writeTo(root, writer);
+	}
+
+	private static void writeTo(Node node, Writer writer) throws IOException {
+		if(node instanceof Concat) {
+			writeTo(((Concat) node).left, writer);
+			writeTo(((Concat) node).right, writer);
+		}
+		else {
+			Leaf leaf = (Leaf) node;
+			writer.write(leaf.text, leaf.offset, leaf.length);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(root.length);
+		appendTo(root, sb);
+		return sb.toString();
+	}
+
+	private static void appendTo(Node node, StringBuilder sb) {
+		if(node instanceof Concat) {
+			appendTo(((Concat) node).left, sb);
+			appendTo(((Concat) node).right, sb);
+		}
+		else {
+			Leaf leaf = (Leaf) node;
+			sb.append(leaf.text, leaf.offset, leaf.offset + leaf.length);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(o == this) {
+			return true;
+		}
+		if(o instanceof PString == false) {
+			return false;
+		}
+		PString other = (PString) o;
+		if(other.length() != length() || (hash != 0 && other.hash != 0 && hash != other.hash)) {
+			return false;
+		}
+		for(int t = 0; t < length(); t++) {
+			if(charAt(t) != other.charAt(t)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Same hashCode as the hashCode of the String with the same content
+	 */
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if(h == 0) {
+			for(int t = 0; t < length(); t++) {
+				h = 31 * h + charAt(t);
+			}
+			hash = h;
+		}
+		return h;
+	}
+
+	@Override
+	public int compareTo(PString o) {
+		int len = Math.min(length(), o.length());
+		for(int t = 0; t < len; t++) {
+			int c = charAt(t) - o.charAt(t);
+			if(c != 0) {
+				return c;
+			}
+		}
+		return length() - o.length();
+	}
+
+	/**
+	 * @return The height of the internal tree, for testing the balancing
+	 */
+	int height() {
+		return root.height;
+	}
+
+	private void checkIndex(int index, int max) {
+		if(index < 0 || index > max) {
+			throw new StringIndexOutOfBoundsException("index " + index + ", length " + root.length);
+		}
+	}
+
+	private void checkRange(int start, int end) {
+		if(start < 0 || end > root.length || start > end) {
+			throw new StringIndexOutOfBoundsException("start " + start + ", end " + end + ", length " + root.length);
+		}
+	}
+
+	/**
+	 * Join 2 trees, keeping the result height balanced
+	 */
+	private static Node concat(Node left, Node right) {
+		if(left.length == 0) {
+			return right;
+		}
+		if(right.length == 0) {
+			return left;
+		}
+		if(left instanceof Leaf && right instanceof Leaf && left.length + right.length <= mergeSize) {
+			return Leaf.merge((Leaf) left, (Leaf) right);
+		}
+		if(left.height > right.height + 1) {
+			Concat l = (Concat) left;
+			return balance(l.left, concat(l.right, right));
+		}
+		if(right.height > left.height + 1) {
+			Concat r = (Concat) right;
+			return balance(concat(left, r.left), r.right);
+		}
+		return new Concat(left, right);
+	}
+
+	/**
+	 * Create a node for 2 balanced trees with a height difference of at most 2
+	 */
+	private static Node balance(Node left, Node right) {
+		if(left.height > right.height + 1) {
+			Concat l = (Concat) left;
+			if(l.left.height >= l.right.height) {
+				return new Concat(l.left, new Concat(l.right, right));
+			}
+			Concat lr = (Concat) l.right;
+			return new Concat(new Concat(l.left, lr.left), new Concat(lr.right, right));
+		}
+		if(right.height > left.height + 1) {
+			Concat r = (Concat) right;
+			if(r.right.height >= r.left.height) {
+				return new Concat(new Concat(left, r.left), r.right);
+			}
+			Concat rl = (Concat) r.left;
+			return new Concat(new Concat(left, rl.left), new Concat(rl.right, r.right));
+		}
+		return new Concat(left, right);
+	}
+
+	private static Split split(Node node, int index) {
+		if(index == 0) {
+			return new Split(emptyLeaf, node);
+		}
+		if(index == node.length) {
+			return new Split(node, emptyLeaf);
+		}
+		if(node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			return new Split(
+				new Leaf(leaf.text, leaf.offset, index),
+				new Leaf(leaf.text, leaf.offset + index, leaf.length - index)
+			);
+		}
+		Concat concat = (Concat) node;
+		if(index < concat.left.length) {
+			Split s = split(concat.left, index);
+			return new Split(s.left, concat(s.right, concat.right));
+		}
+		if(index == concat.left.length) {
+			return new Split(concat.left, concat.right);
+		}
+		Split s = split(concat.right, index - concat.left.length);
+		return new Split(concat(concat.left, s.left), s.right);
+	}
+
+	private static final class Split{
+
+		final Node left;
+		final Node right;
+
+		Split(Node left, Node right) {
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	private static final class Cursor{
+
+		final Leaf leaf;
+		final int  start;
+
+		Cursor(Leaf leaf, int start) {
+			this.leaf = leaf;
+			this.start = start;
+		}
+	}
+
+	private abstract static class Node{
+
+		final int length;
+		final int height;
+		final int newLines;
+
+		Node(int length, int height, int newLines) {
+			this.length = length;
+			this.height = height;
+			this.newLines = newLines;
+		}
+	}
+
+	/**
+	 * A chunk of a String, sharing the chars of the String
+	 */
+	private static final class Leaf extends Node{
+
+		final String text;
+		final int    offset;
+
+		Leaf(String text, int offset, int length) {
+			super(length, 0, countNewLines(text, offset, length));
+			this.text = text;
+			this.offset = offset;
+		}
+
+		static Leaf merge(Leaf left, Leaf right) {
+			String text = new StringBuilder(left.length + right.length)
+				.append(left.text, left.offset, left.offset + left.length)
+				.append(right.text, right.offset, right.offset + right.length)
+				.toString();
+			return new Leaf(text, 0, text.length());
+		}
+
+		char charAt(int index) {
+			return text.charAt(offset + index);
+		}
+
+		private static int countNewLines(String text, int offset, int length) {
+			int count = 0;
+			for(int t = offset; t < offset + length; t++) {
+				if(text.charAt(t) == '\n') {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+
+	private static final class Concat extends Node{
+
+		final Node left;
+		final Node right;
+
+		Concat(Node left, Node right) {
+			super(left.length + right.length, Math.max(left.height, right.height) + 1, left.newLines + right.newLines);
+			this.left = left;
+			this.right = right;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.persistentbit.core.collections;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes fixed-width records in a {@link ByteBuffer}.<br>
+ * Used by {@link OffHeapPList} to store elements outside the java heap.<br>
+ * Implementations must only use the absolute get/put methods of the buffer, so that
+ * one buffer can be read by multiple threads at the same time.
+ *
+ * @param <T> The type of the records
+ *
+ * @author Peter Muys
+ * @see ElementCodec
+ * @since 19/10/2026
+ */
+public interface RecordCodec<T>{
+
+	/**
+	 * @return The number of bytes for one record
+	 */
+	int recordSize();
+
+	/**
+	 * Write a record to the buffer
+	 *
+	 * @param buffer The buffer
+	 * @param offset The absolute offset of the record in the buffer
+	 * @param value  The value to write
+	 */
+	void write(ByteBuffer buffer, int offset, T value);
+
+	/**
+	 * Read a record from the buffer
+	 *
+	 * @param buffer The buffer
+	 * @param offset The absolute offset of the record in the buffer
+	 *
+	 * @return The value read
+	 */
+	T read(ByteBuffer buffer, int offset);
+
+
+	static RecordCodec<Integer> forInt() {
+		return new RecordCodec<Integer>(){
+			@Override
+			public int recordSize() {
+				return 4;
+			}
+
+			@Override
+			public void write(ByteBuffer buffer, int offset, Integer value) {
+				buffer.putInt(offset, value);
+			}
+
+			@Override
+			public Integer read(ByteBuffer buffer, int offset) {
+				return buffer.getInt(offset);
+			}
+		};
+	}
+
+	static RecordCodec<Long> forLong() {
+		return new RecordCodec<Long>(){
+			@Override
+			public int recordSize() {
+				return 8;
+			}
+
+			@Override
+			public void write(ByteBuffer buffer, int offset, Long value) {
+				buffer.putLong(offset, value);
+			}
+
+			@Override
+			public Long read(ByteBuffer buffer, int offset) {
+				return buffer.getLong(offset);
+			}
+		};
+	}
+
+	static RecordCodec<Double> forDouble() {
+		return new RecordCodec<Double>(){
+			@Override
+			public int recordSize() {
+				return 8;
+			}
+
+			@Override
+			public void write(ByteBuffer buffer, int offset, Double value) {
+				buffer.putDouble(offset, value);
+			}
+
+			@Override
+			public Double read(ByteBuffer buffer, int offset) {
+				return buffer.getDouble(offset);
+			}
+		};
+	}
+}
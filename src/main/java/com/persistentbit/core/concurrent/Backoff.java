@@ -0,0 +1,37 @@
+package com.persistentbit.core.concurrent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Randomized exponential backoff used when retrying optimistic updates.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+final class Backoff{
+
+	private Backoff() {
+	}
+
+	/**
+	 * Wait before the next retry.<br>
+	 * The first retry is done immediately, the next retries wait a random time
+	 * up to minNanos * 2^(attempt-1), limited to maxNanos.
+	 *
+	 * @param attempt  The number of failed attempts before this one (0 for the first retry)
+	 * @param minNanos The backoff for the second retry in nanoseconds
+	 * @param maxNanos The maximum backoff in nanoseconds (0 for no backoff)
+	 */
+	static void pause(int attempt, long minNanos, long maxNanos) {
+		if(attempt == 0 || maxNanos == 0) {
+			return;
+		}
+		long limit = Math.min(maxNanos, minNanos << Math.min(attempt - 1, 30));
+		if(limit <= 0) {
+			Thread.yield();
+			return;
+		}
+		LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(limit) + 1);
+	}
+}
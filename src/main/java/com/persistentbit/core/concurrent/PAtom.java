@@ -0,0 +1,184 @@
+package com.persistentbit.core.concurrent;
+
+import com.persistentbit.core.collections.PList;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe reference cell for an immutable value, typically a persistent collection.<br>
+ * Updates are done with a pure function in {@link #swap(UnaryOperator)}: the function is applied to
+ * the current value and the result is stored with a compare-and-set.
+ * When another thread changed the value in the meantime, the function is applied again to the new value.<br>
+ * Under contention, every retry waits with an exponential randomized backoff,
+ * so threads don't keep invalidating each other's work.<br>
+ * Watchers are called in the updating thread after every successful change.
+ * <pre>{@code
+ * PAtom<PMap<String,String>> config = PAtom.of(PMap.empty());
+ * config.swap(m -> m.put("timeout", "10"));
+ * }</pre>
+ *
+ * @param <T> The type of the value. Must be immutable
+ *
+ * @author Peter Muys
+ * @see StripedPAtomMap
+ * @since 19/10/2026
+ */
+public final class PAtom<T>{
+
+	public static final long defaultMinBackoffNanos = 1_000;
+	public static final long defaultMaxBackoffNanos = 1_000_000;
+
+	private final AtomicReference<T>                                          value;
+	private final AtomicReference<PList<BiConsumer<? super T, ? super T>>> watchers =
+		new AtomicReference<>(PList.empty());
+	private final long                                                        minBackoffNanos;
+	private final long                                                        maxBackoffNanos;
+	private final LongAdder                                                   retries  = new LongAdder();
+
+	private PAtom(T initial, long minBackoffNanos, long maxBackoffNanos) {
+		if(minBackoffNanos < 0 || maxBackoffNanos < minBackoffNanos) {
+			throw new IllegalArgumentException("Invalid backoff range: " + minBackoffNanos + " - " + maxBackoffNanos);
+		}
+		this.value = new AtomicReference<>(initial);
+		this.minBackoffNanos = minBackoffNanos;
+		this.maxBackoffNanos = maxBackoffNanos;
+	}
+
+	/**
+	 * Create a new PAtom with the default backoff
+	 *
+	 * @param initial The initial value
+	 * @param <T>     The type of the value
+	 *
+	 * @return The new PAtom
+	 */
+	public static <T> PAtom<T> of(T initial) {
+		return new PAtom<>(initial, defaultMinBackoffNanos, defaultMaxBackoffNanos);
+	}
+
+	/**
+	 * Create a new PAtom with a custom backoff range.<br>
+	 * The first retry is done immediately, the next retries wait a random time
+	 * up to minBackoffNanos * 2^(retry-1), limited to maxBackoffNanos.
+	 *
+	 * @param initial         The initial value
+	 * @param minBackoffNanos The backoff for the second retry in nanoseconds (0 for no backoff)
+	 * @param maxBackoffNanos The maximum backoff in nanoseconds
+	 * @param <T>             The type of the value
+	 *
+	 * @return The new PAtom
+	 */
+	public static <T> PAtom<T> of(T initial, long minBackoffNanos, long maxBackoffNanos) {
+		return new PAtom<>(initial, minBackoffNanos, maxBackoffNanos);
+	}
+
+	/**
+	 * @return The current value
+	 */
+	public T get() {
+		return value.get();
+	}
+
+	/**
+	 * Atomically replace the value with the result of the update function.<br>
+	 * The function can be called multiple times when other threads update this atom concurrently,
+	 * so it should be free of side effects.
+	 *
+	 * @param update Function creating the new value from the current value
+	 *
+	 * @return The new value
+	 */
+	public T swap(UnaryOperator<T> update) {
+		Objects.requireNonNull(update, "update");
+		int attempt = 0;
+		while(true) {
+			T current  = value.get();
+			T newValue = update.apply(current);
+			if(value.compareAndSet(current, newValue)) {
+				notifyWatchers(current, newValue);
+				return newValue;
+			}
+			retries.increment();
+			Backoff.pause(attempt++, minBackoffNanos, maxBackoffNanos);
+		}
+	}
+
+	/**
+	 * Atomically set the new value if the current value is the expected value.<br>
+	 * Values are compared with ==, not with equals.
+	 *
+	 * @param expected The expected current value
+	 * @param newValue The new value
+	 *
+	 * @return true if the value was set
+	 */
+	public boolean compareAndSet(T expected, T newValue) {
+		if(value.compareAndSet(expected, newValue)) {
+			notifyWatchers(expected, newValue);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Set a new value, ignoring the current value
+	 *
+	 * @param newValue The new value
+	 *
+	 * @return The previous value
+	 */
+	public T reset(T newValue) {
+		T old = value.getAndSet(newValue);
+		notifyWatchers(old, newValue);
+		return old;
+	}
+
+	/**
+	 * Add a watcher that is called with the old and the new value after every change.<br>
+	 * Watchers are called in the thread that changed the value.
+	 * When changes happen concurrently, the watcher calls can be in a different order than the changes.
+	 *
+	 * @param watcher The watcher (oldValue, newValue)
+	 *
+	 * @return This PAtom
+	 */
+	public PAtom<T> addWatcher(BiConsumer<? super T, ? super T> watcher) {
+		Objects.requireNonNull(watcher, "watcher");
+		watchers.updateAndGet(l -> l.plus(watcher));
+		return this;
+	}
+
+	/**
+	 * Remove a watcher added with {@link #addWatcher(BiConsumer)}
+	 *
+	 * @param watcher The watcher to remove
+	 *
+	 * @return This PAtom
+	 */
+	public PAtom<T> removeWatcher(BiConsumer<? super T, ? super T> watcher) {
+		watchers.updateAndGet(l -> l.filter(w -> w != watcher));
+		return this;
+	}
+
+	/**
+	 * @return The total number of failed compare-and-set attempts in {@link #swap(UnaryOperator)}
+	 */
+	public long getRetryCount() {
+		return retries.sum();
+	}
+
+	private void notifyWatchers(T oldValue, T newValue) {
+		for(BiConsumer<? super T, ? super T> w : watchers.get()) {
+			w.accept(oldValue, newValue);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PAtom[" + value.get() + "]";
+	}
+}
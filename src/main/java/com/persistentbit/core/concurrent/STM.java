@@ -0,0 +1,98 @@
+package com.persistentbit.core.concurrent;
+
+import com.persistentbit.core.result.Result;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Software transactional memory over {@link STMRef}s holding immutable values.<br>
+ * A transaction reads a consistent snapshot of all refs and keeps its writes private until
+ * the commit. At commit time, the refs that were read are validated: when one of them was changed
+ * by another commit, the transaction code is run again with a new snapshot.<br>
+ * Read-only transactions never lock and never restart, so read-mostly workloads scale
+ * without lock contention.<br>
+ * The transaction code must be free of side effects, because it can be run multiple times.
+ * <pre>{@code
+ * STMRef<PMap<String,Integer>> accounts = STMRef.of(PMap.empty());
+ * STMRef<PList<String>>        audit    = STMRef.of(PList.empty());
+ * Result<Integer> res = STM.transaction(tx -> {
+ *     int balance = tx.get(accounts).getOrDefault("peter", 0) + 10;
+ *     tx.alter(accounts, m -> m.put("peter", balance));
+ *     tx.commute(audit, l -> l.plus("deposit peter"));
+ *     return Result.success(balance);
+ * });
+ * }</pre>
+ *
+ * @author Peter Muys
+ * @see STMRef
+ * @see STMTransaction
+ * @since 19/10/2026
+ */
+public final class STM{
+
+	public static final int defaultMaxRetries = 10_000;
+
+	private static final long minBackoffNanos = 1_000;
+	private static final long maxBackoffNanos = 1_000_000;
+
+	//Global commit clock: every commit gets a new write point
+	static final AtomicLong clock = new AtomicLong();
+
+	private STM() {
+	}
+
+	/**
+	 * Run the code in a transaction with the default max number of retries.
+	 *
+	 * @param code The transaction code
+	 * @param <R>  The type of the result
+	 *
+	 * @return The result of the transaction code
+	 *
+	 * @see #transaction(int, Function)
+	 */
+	public static <R> Result<R> transaction(Function<STMTransaction, Result<R>> code) {
+		return transaction(defaultMaxRetries, code);
+	}
+
+	/**
+	 * Run the code in a transaction.<br>
+	 * When the code returns a success, the writes are committed.
+	 * When the code returns an empty or a failure or throws an exception, nothing is committed
+	 * and the empty/failure is returned.<br>
+	 * When the commit has a conflict, the code is run again after a randomized backoff.
+	 *
+	 * @param maxRetries The maximum number of times to restart the transaction
+	 * @param code       The transaction code
+	 * @param <R>        The type of the result
+	 *
+	 * @return The result of the transaction code or a Failure when the max number of retries is reached
+	 */
+	public static <R> Result<R> transaction(int maxRetries, Function<STMTransaction, Result<R>> code) {
+		Objects.requireNonNull(code, "code");
+		for(int attempt = 0; attempt <= maxRetries; attempt++) {
+			Backoff.pause(attempt, minBackoffNanos, maxBackoffNanos);
+			STMTransaction tx = new STMTransaction(clock.get());
+			Result<R>      res;
+			try {
+				res = code.apply(tx);
+			} catch(STMTransaction.RetryException e) {
+				continue;
+			} catch(RuntimeException e) {
+				return Result.failure(e);
+			}
+			if(res == null) {
+				return Result.failure("STM transaction code returned null");
+			}
+			if(res.isPresent() == false) {
+				return res;
+			}
+			if(tx.commit()) {
+				return res;
+			}
+		}
+		return Result.failure("STM transaction failed after " + maxRetries + " retries");
+	}
+}
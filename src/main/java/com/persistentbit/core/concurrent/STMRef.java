@@ -0,0 +1,115 @@
+package com.persistentbit.core.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A transactional reference to an immutable value, typically a persistent collection.<br>
+ * A STMRef can only be changed inside a {@link STM#transaction} and keeps a short history of
+ * committed versions, so running transactions can keep reading a consistent snapshot
+ * while other transactions commit.<br>
+ * Outside a transaction, {@link #get()} returns the last committed value.
+ *
+ * @param <T> The type of the value. Must be immutable
+ *
+ * @author Peter Muys
+ * @see STM
+ * @see STMTransaction
+ * @since 19/10/2026
+ */
+public final class STMRef<T>{
+
+	public static final int defaultMaxHistory = 10;
+
+	private static final AtomicLong nextId = new AtomicLong();
+
+	//Used to order the locks in a commit
+	final         long          id   = nextId.incrementAndGet();
+	final         ReentrantLock lock = new ReentrantLock();
+	private final int           maxHistory;
+	private volatile Version<T> latest;
+
+	private STMRef(T initial, int maxHistory) {
+		if(maxHistory < 1) {
+			throw new IllegalArgumentException("maxHistory must be > 0: " + maxHistory);
+		}
+		this.maxHistory = maxHistory;
+		this.latest = new Version<>(initial, 0, null);
+	}
+
+	public static <T> STMRef<T> of(T initial) {
+		return new STMRef<>(initial, defaultMaxHistory);
+	}
+
+	/**
+	 * Create a new STMRef
+	 *
+	 * @param initial    The initial value
+	 * @param maxHistory The number of committed versions to keep for running transactions
+	 * @param <T>        The type of the value
+	 *
+	 * @return The new STMRef
+	 */
+	public static <T> STMRef<T> of(T initial, int maxHistory) {
+		return new STMRef<>(initial, maxHistory);
+	}
+
+	/**
+	 * @return The last committed value
+	 */
+	public T get() {
+		return latest.value;
+	}
+
+	long latestStamp() {
+		return latest.stamp;
+	}
+
+	/**
+	 * Find the newest version committed at or before the read point.
+	 *
+	 * @return The version or null when the version is no longer in the history
+	 */
+	Version<T> versionAt(long readPoint) {
+		Version<T> v = latest;
+		while(v != null && v.stamp > readPoint) {
+			v = v.prev;
+		}
+		return v;
+	}
+
+	/**
+	 * Add a new committed version. Must be called while holding the lock.
+	 */
+	void install(T value, long stamp) {
+		Version<T> v = new Version<>(value, stamp, latest);
+		Version<T> last = v;
+		for(int t = 1; t < maxHistory && last.prev != null; t++) {
+			last = last.prev;
+		}
+		last.prev = null;
+		latest = v;
+	}
+
+	boolean isLockedByOtherThread() {
+		return lock.isLocked() && lock.isHeldByCurrentThread() == false;
+	}
+
+	@Override
+	public String toString() {
+		return "STMRef[" + get() + "]";
+	}
+
+	static final class Version<T>{
+
+		final T    value;
+		final long stamp;
+		volatile Version<T> prev;
+
+		Version(T value, long stamp, Version<T> prev) {
+			this.value = value;
+			this.stamp = stamp;
+			this.prev = prev;
+		}
+	}
+}
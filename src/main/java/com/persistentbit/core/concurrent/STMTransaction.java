@@ -0,0 +1,205 @@
+package com.persistentbit.core.concurrent;
+
+import com.persistentbit.core.collections.PList;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * A running STM transaction, passed to the code in {@link STM#transaction}.<br>
+ * All reads see a consistent snapshot of the {@link STMRef}s at the start of the transaction.
+ * Writes are kept in the transaction until the commit.<br>
+ * The commit fails when one of the refs read in this transaction was changed by another commit.
+ * The transaction is then restarted with a new snapshot.<br>
+ * {@link #commute(STMRef, UnaryOperator)} updates are not validated: the update function is applied
+ * again to the last committed value during the commit, so they never cause a restart.<br>
+ * A transaction can only be used in the thread that started it.
+ *
+ * @author Peter Muys
+ * @see STM
+ * @since 19/10/2026
+ */
+public final class STMTransaction{
+
+	private static final Comparator<STMRef<?>> lockOrder = Comparator.comparingLong(r -> r.id);
+
+	private final long                                           readPoint;
+	private final Map<STMRef<?>, Object>                         reads    = new HashMap<>();
+	private final Map<STMRef<?>, Object>                         writes   = new LinkedHashMap<>();
+	private final Map<STMRef<?>, PList<UnaryOperator<Object>>> commutes = new LinkedHashMap<>();
+
+	STMTransaction(long readPoint) {
+		this.readPoint = readPoint;
+	}
+
+	/**
+	 * Get the value of a ref in this transaction
+	 *
+	 * @param ref The ref
+	 * @param <T> The type of the value
+	 *
+	 * @return The value as set in this transaction or else the snapshot value
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(STMRef<T> ref) {
+		if(writes.containsKey(ref)) {
+			return (T) writes.get(ref);
+		}
+		PList<UnaryOperator<Object>> fns = commutes.get(ref);
+		if(fns == null) {
+			return snapshot(ref, true);
+		}
+		Object value = reads.containsKey(ref) ? reads.get(ref) : snapshot(ref, false);
+		for(UnaryOperator<Object> f : fns) {
+			value = f.apply(value);
+		}
+		return (T) value;
+	}
+
+	/**
+	 * Set the value of a ref in this transaction
+	 *
+	 * @param ref   The ref
+	 * @param value The new value
+	 * @param <T>   The type of the value
+	 *
+	 * @return The new value
+	 *
+	 * @throws IllegalStateException when the ref was already commuted in this transaction
+	 */
+	public <T> T set(STMRef<T> ref, T value) {
+		if(commutes.containsKey(ref)) {
+			throw new IllegalStateException("Can't set a ref after commute in the same transaction: " + ref);
+		}
+		writes.put(ref, value);
+		return value;
+	}
+
+	/**
+	 * Update the value of a ref in this transaction with a function
+	 *
+	 * @param ref    The ref
+	 * @param update The update function
+	 * @param <T>    The type of the value
+	 *
+	 * @return The new value
+	 */
+	public <T> T alter(STMRef<T> ref, UnaryOperator<T> update) {
+		return set(ref, update.apply(get(ref)));
+	}
+
+	/**
+	 * Update the value of a ref with a commutative function.<br>
+	 * The function is applied to the snapshot value for the result of this call,
+	 * and applied again to the last committed value during the commit.<br>
+	 * Use this for updates where the order does not matter, like incrementing a counter
+	 * or adding an element to a set.
+	 *
+	 * @param ref    The ref
+	 * @param update The commutative update function
+	 * @param <T>    The type of the value
+	 *
+	 * @return The new value in this transaction
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T commute(STMRef<T> ref, UnaryOperator<T> update) {
+		if(writes.containsKey(ref)) {
+			return alter(ref, update);
+		}
+		UnaryOperator<Object>        f   = v -> update.apply((T) v);
+		PList<UnaryOperator<Object>> fns = commutes.get(ref);
+		commutes.put(ref, fns == null ? PList.val(f) : fns.plus(f));
+		return get(ref);
+	}
+
+	/**
+	 * Read a ref and make sure that the commit fails when another transaction changes it,
+	 * even when it is not written in this transaction.<br>
+	 * All refs read with {@link #get(STMRef)} are already validated,
+	 * so this is only needed for refs read through {@link #commute(STMRef, UnaryOperator)}.
+	 *
+	 * @param ref The ref
+	 * @param <T> The type of the value
+	 *
+	 * @return The snapshot value
+	 */
+	public <T> T ensure(STMRef<T> ref) {
+		snapshot(ref, true);
+		return get(ref);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T snapshot(STMRef<T> ref, boolean validate) {
+		if(reads.containsKey(ref)) {
+			return (T) reads.get(ref);
+		}
+		//A commit in progress could install a version that belongs to our snapshot
+		if(ref.isLockedByOtherThread()) {
+			throw new RetryException();
+		}
+		STMRef.Version<T> v = ref.versionAt(readPoint);
+		if(v == null) {
+			throw new RetryException();
+		}
+		if(validate) {
+			reads.put(ref, v.value);
+		}
+		return v.value;
+	}
+
+	/**
+	 * Try to commit this transaction.
+	 *
+	 * @return false if a conflict was detected and the transaction must be restarted
+	 */
+	@SuppressWarnings("unchecked")
+	boolean commit() {
+		if(writes.isEmpty() && commutes.isEmpty()) {
+			//All reads are from the same snapshot
+			return true;
+		}
+		List<STMRef<?>> toLock = new ArrayList<>(writes.keySet());
+		toLock.addAll(commutes.keySet());
+		toLock.sort(lockOrder);
+		List<STMRef<?>> locked = new ArrayList<>(toLock.size());
+		try {
+			for(STMRef<?> ref : toLock) {
+				ref.lock.lock();
+				locked.add(ref);
+			}
+			long writePoint = STM.clock.incrementAndGet();
+			for(STMRef<?> ref : reads.keySet()) {
+				if(ref.isLockedByOtherThread() || ref.latestStamp() > readPoint) {
+					return false;
+				}
+			}
+			//Calculate all values before installing, so a failing commute function can't leave a partial commit
+			Map<STMRef<?>, Object> newValues = new LinkedHashMap<>(writes);
+			for(Map.Entry<STMRef<?>, PList<UnaryOperator<Object>>> entry : commutes.entrySet()) {
+				Object value = entry.getKey().get();
+				for(UnaryOperator<Object> f : entry.getValue()) {
+					value = f.apply(value);
+				}
+				newValues.put(entry.getKey(), value);
+			}
+			for(Map.Entry<STMRef<?>, Object> entry : newValues.entrySet()) {
+				((STMRef<Object>) entry.getKey()).install(entry.getValue(), writePoint);
+			}
+			return true;
+		} finally {
+			for(STMRef<?> ref : locked) {
+				ref.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Thrown when a consistent snapshot value can't be read: the transaction must be restarted
+	 */
+	static final class RetryException extends RuntimeException{
+
+		RetryException() {
+			super("STM retry", null, false, false);
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.persistentbit.core.concurrent;
+
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.collections.PStream;
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe map that partitions the entries by key hash over multiple {@link PAtom}s,
+ * each holding a {@link PMap}.<br>
+ * Updates for keys in different stripes don't conflict, so there are fewer failed compare-and-set
+ * attempts than with a single PAtom holding the whole map.<br>
+ * Updates are only atomic per key: {@link #snapshot()} is not an atomic view over all stripes.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ *
+ * @author Peter Muys
+ * @see PAtom
+ * @since 19/10/2026
+ */
+public final class StripedPAtomMap<K, V>{
+
+	public static final int defaultStripes = 16;
+
+	private final PAtom<PMap<K, V>>[] stripes;
+
+	@SuppressWarnings("unchecked")
+	private StripedPAtomMap(int stripeCount) {
+		if(stripeCount < 1) {
+			throw new IllegalArgumentException("stripeCount must be > 0: " + stripeCount);
+		}
+		//Round up to a power of 2
+		int n = Integer.highestOneBit(stripeCount);
+		if(n < stripeCount) {
+			n <<= 1;
+		}
+		this.stripes = new PAtom[n];
+		for(int t = 0; t < n; t++) {
+			stripes[t] = PAtom.of(PMap.empty());
+		}
+	}
+
+	public static <K, V> StripedPAtomMap<K, V> create() {
+		return new StripedPAtomMap<>(defaultStripes);
+	}
+
+	/**
+	 * Create a new empty map
+	 *
+	 * @param stripeCount The number of stripes, rounded up to a power of 2
+	 * @param <K>         The type of the keys
+	 * @param <V>         The type of the values
+	 *
+	 * @return The new map
+	 */
+	public static <K, V> StripedPAtomMap<K, V> create(int stripeCount) {
+		return new StripedPAtomMap<>(stripeCount);
+	}
+
+	private PAtom<PMap<K, V>> stripe(Object key) {
+		int h = Objects.hashCode(key);
+		h ^= (h >>> 16);
+		return stripes[h & (stripes.length - 1)];
+	}
+
+	public Optional<V> getOpt(Object key) {
+		return stripe(key).get().getOpt(key);
+	}
+
+	public V get(Object key) {
+		return stripe(key).get().get(key);
+	}
+
+	public boolean containsKey(Object key) {
+		return stripe(key).get().containsKey(key);
+	}
+
+	/**
+	 * Set the value for a key
+	 *
+	 * @param key   The key
+	 * @param value The new value
+	 *
+	 * @return This map
+	 */
+	public StripedPAtomMap<K, V> put(K key, V value) {
+		stripe(key).swap(m -> m.put(key, value));
+		return this;
+	}
+
+	/**
+	 * Remove a key
+	 *
+	 * @param key The key to remove
+	 *
+	 * @return This map
+	 */
+	public StripedPAtomMap<K, V> remove(Object key) {
+		stripe(key).swap(m -> m.removeKey(key));
+		return this;
+	}
+
+	/**
+	 * Atomically update the value for a key.<br>
+	 * The update function gets null when the key is not in the map.
+	 * When the update function returns null, the key is removed.<br>
+	 * The update function can be called multiple times under contention.
+	 *
+	 * @param key    The key
+	 * @param update The update function
+	 *
+	 * @return The new value or null when removed
+	 */
+	public V update(K key, UnaryOperator<V> update) {
+		PMap<K, V> res = stripe(key).swap(m -> {
+			V newValue = update.apply(m.get(key));
+			return newValue == null ? m.removeKey(key) : m.put(key, newValue);
+		});
+		return res.get(key);
+	}
+
+	/**
+	 * @return The number of entries, summed over all stripes
+	 */
+	public int size() {
+		int size = 0;
+		for(PAtom<PMap<K, V>> s : stripes) {
+			size += s.get().size();
+		}
+		return size;
+	}
+
+	/**
+	 * Create a PMap with all the entries in this map.<br>
+	 * Every stripe is read atomically, but the stripes are read one after the other.
+	 *
+	 * @return The PMap
+	 */
+	public PMap<K, V> snapshot() {
+		PMap<K, V> res = PMap.empty();
+		for(PAtom<PMap<K, V>> s : stripes) {
+			res = res.plusAll(s.get());
+		}
+		return res;
+	}
+
+	/**
+	 * @return All the entries as a lazy stream over a {@link #snapshot()}
+	 */
+	public PStream<Tuple2<K, V>> stream() {
+		return snapshot().lazy();
+	}
+
+	/**
+	 * @return The total number of failed compare-and-set attempts over all stripes
+	 */
+	public long getRetryCount() {
+		long res = 0;
+		for(PAtom<PMap<K, V>> s : stripes) {
+			res += s.getRetryCount();
+		}
+		return res;
+	}
+
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	@Override
+	public String toString() {
+		return "StripedPAtomMap[" + snapshot() + "]";
+	}
+}
@@ -23,6 +23,15 @@ public abstract class AbstractLogEntryLogging {
 
 	public abstract Nothing add(LogEntry logEntry);
 
+	/**
+	 * The name of the class that is logging, used for the per class thresholds in {@link LogLevels}.
+	 *
+	 * @return The class name or null if unknown
+	 */
+	protected String getLoggingClassName(){
+		return null;
+	}
+
 	public <WL extends LoggedValue> WL add(WL withLogs){
 		LogEntry le = withLogs.getLog();
 		if(le.isEmpty()==false){
@@ -33,51 +42,84 @@ public abstract class AbstractLogEntryLogging {
 
 
 	public Nothing info(Object message){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(LogEntryMessage.of(LogMessageLevel.info, new LogContext(ste), objectToString(message)));
+		if(LogLevels.isEnabled(LogMessageLevel.info, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(LogEntryMessage.of(LogMessageLevel.info, context, objectToString(message)));
 	}
 	public Nothing info(String message, Object value){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(LogEntryMessage.of(LogMessageLevel.info, new LogContext(ste), objectToString(message) + ": " + objectToString(message)));
+		if(LogLevels.isEnabled(LogMessageLevel.info, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(LogEntryMessage.of(LogMessageLevel.info, context, objectToString(message) + ": " + objectToString(message)));
 	}
 	public Nothing info(String message, Object value,Object...otherValues){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
+		if(LogLevels.isEnabled(LogMessageLevel.info, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
 		String values = objectToString(value) + ", " + objectsToString(otherValues);
-		return add(LogEntryMessage.of(LogMessageLevel.info, new LogContext(ste), objectToString(message) + ": " + values));
+		return add(LogEntryMessage.of(LogMessageLevel.info, context, objectToString(message) + ": " + values));
 	}
 	public Nothing important(Object message){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(LogEntryMessage.of(LogMessageLevel.important, new LogContext(ste), objectToString(message)));
+		if(LogLevels.isEnabled(LogMessageLevel.important, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(LogEntryMessage.of(LogMessageLevel.important, context, objectToString(message)));
 	}
 	public Nothing important(String message, Object value){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(LogEntryMessage.of(LogMessageLevel.important, new LogContext(ste), objectToString(message) + ": " + objectToString(message)));
+		if(LogLevels.isEnabled(LogMessageLevel.important, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(LogEntryMessage.of(LogMessageLevel.important, context, objectToString(message) + ": " + objectToString(message)));
 	}
 	public Nothing important(String message, Object value,Object...otherValues){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
+		if(LogLevels.isEnabled(LogMessageLevel.important, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
 		String values = objectToString(value) + ", " + objectsToString(otherValues);
-		return add(LogEntryMessage.of(LogMessageLevel.important, new LogContext(ste), objectToString(message) + ": " + values));
+		return add(LogEntryMessage.of(LogMessageLevel.important, context, objectToString(message) + ": " + values));
 	}
 	public Nothing warning(Object message){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(LogEntryMessage.of(LogMessageLevel.warning, new LogContext(ste), objectToString(message)));
+		if(LogLevels.isEnabled(LogMessageLevel.warning, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(LogEntryMessage.of(LogMessageLevel.warning, context, objectToString(message)));
 	}
 	public Nothing warning(String message, Object value){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(LogEntryMessage.of(LogMessageLevel.warning, new LogContext(ste), objectToString(message) + ": " + objectToString(message)));
+		if(LogLevels.isEnabled(LogMessageLevel.warning, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(LogEntryMessage.of(LogMessageLevel.warning, context, objectToString(message) + ": " + objectToString(message)));
 	}
 	public Nothing error(Object message){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(LogEntryMessage.of(LogMessageLevel.error, new LogContext(ste), objectToString(message)));
+		if(LogLevels.isEnabled(LogMessageLevel.error, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(LogEntryMessage.of(LogMessageLevel.error, context, objectToString(message)));
 	}
 	public Nothing error(String message, Object value){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(LogEntryMessage.of(LogMessageLevel.error, new LogContext(ste), objectToString(message) + ": " + objectToString(message)));
+		if(LogLevels.isEnabled(LogMessageLevel.error, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(LogEntryMessage.of(LogMessageLevel.error, context, objectToString(message) + ": " + objectToString(message)));
 	}
 
 	public Nothing exception(Throwable cause) {
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[stackEntryIndex];
-		return add(new LogEntryException(new LogContext(ste), cause));
+		if(LogLevels.isEnabled(LogMessageLevel.error, this) == false){
+			return Nothing.inst;
+		}
+		LogContext context = CallSiteCapture.capture(stackEntryIndex);
+		return add(new LogEntryException(context, cause));
 	}
 
 
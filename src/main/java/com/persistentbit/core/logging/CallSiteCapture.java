@@ -0,0 +1,104 @@
+package com.persistentbit.core.logging;
+
+import com.persistentbit.core.logging.entries.LogContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates the {@link LogContext} for the call site of a logging function like
+ * {@link Log#function()}, {@link com.persistentbit.core.result.Result#function()} or
+ * {@link AbstractLogEntryLogging#info(Object)}.<br>
+ * How the call site is captured is decided by the global {@link Policy}.<br>
+ * The initial policy is read from the system property 'persistentbit.logging.callsite',
+ * the initial sample rate for {@link Policy#sampled} from 'persistentbit.logging.callsite.samplerate'.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class CallSiteCapture{
+
+	/**
+	 * The way a call site is captured
+	 */
+	public enum Policy{
+		/**
+		 * Resolve the StackTraceElement for every call, using Thread.getStackTrace().
+		 */
+		exact,
+		/**
+		 * Capture the stack for every call, but only resolve the StackTraceElement
+		 * when the location in the LogContext is used, ex. when the log is printed.
+		 */
+		lazy,
+		/**
+		 * Capture the stack lazily for 1 in {@link #getSampleRate()} calls.
+		 * The other calls get an unknown location.
+		 */
+		sampled,
+		/**
+		 * Never capture the call site: all LogContexts have an unknown location.
+		 */
+		off
+	}
+
+	private static volatile Policy policy     =
+		Policy.valueOf(System.getProperty("persistentbit.logging.callsite", Policy.lazy.name()));
+	private static volatile int    sampleRate = Integer.getInteger("persistentbit.logging.callsite.samplerate", 100);
+
+	private CallSiteCapture() {}
+
+	public static Policy getPolicy() {
+		return policy;
+	}
+
+	public static void setPolicy(Policy policy) {
+		if(policy == null) {
+			throw new IllegalArgumentException("policy is null");
+		}
+		CallSiteCapture.policy = policy;
+	}
+
+	public static int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * Set the sample rate for the {@link Policy#sampled} policy.
+	 *
+	 * @param sampleRate Capture 1 in sampleRate call sites
+	 */
+	public static void setSampleRate(int sampleRate) {
+		if(sampleRate < 1) {
+			throw new IllegalArgumentException("sampleRate must be at least 1: " + sampleRate);
+		}
+		CallSiteCapture.sampleRate = sampleRate;
+	}
+
+	/**
+	 * Capture a call site.<br>
+	 * The stackIndex has the same meaning as the index in Thread.currentThread().getStackTrace()
+	 * when called from the same method: 1 is the method calling capture, 2 is the caller of that method...
+	 *
+	 * @param stackIndex The index of the call site in the stack
+	 *
+	 * @return The LogContext for the call site
+	 */
+	public static LogContext capture(int stackIndex) {
+		switch(policy) {
+			case exact:
+				StackTraceElement[] stack = new Throwable().getStackTrace();
+				return stackIndex < stack.length ? new LogContext(stack[stackIndex]) : LogContext.unknown();
+			case lazy:
+				return LogContext.lazy(new Throwable(), stackIndex);
+			case sampled:
+				if(ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+					return LogContext.lazy(new Throwable(), stackIndex);
+				}
+				return LogContext.unknown();
+			case off:
+				return LogContext.unknown();
+			default:
+				throw new IllegalStateException("Unknown policy " + policy);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.persistentbit.core.logging;
 
 import com.persistentbit.core.Nothing;
+import com.persistentbit.core.logging.entries.LogContext;
 import com.persistentbit.core.logging.entries.LogEntry;
 import com.persistentbit.core.logging.entries.LogEntryFunction;
 
@@ -19,7 +20,48 @@ public class FunctionLogging extends AbstractLogEntryLogging {
 		R run(FunctionLogging l) throws Exception;
 	}
 
+	/**
+	 * How the parameters and result of a logged function are captured
+	 */
+	public enum ValueCapture{
+		/**
+		 * Convert the parameters and result to a String when they are logged
+		 */
+		eager,
+		/**
+		 * Keep references to the parameters and result and only convert them to a String
+		 * when the log is printed or when the function fails.
+		 * The String shows the state of the objects at that moment.
+		 */
+		deferred,
+		/**
+		 * Don't capture parameters and results
+		 */
+		none
+	}
+
+	private static volatile ValueCapture valueCapture =
+		ValueCapture.valueOf(System.getProperty("persistentbit.logging.values", ValueCapture.eager.name()));
+
+	public static ValueCapture getValueCapture() {
+		return valueCapture;
+	}
+
+	/**
+	 * Set how the parameters and result of logged functions are captured.<br>
+	 * The initial value is read from the system property 'persistentbit.logging.values'.
+	 *
+	 * @param valueCapture The new value capture mode
+	 */
+	public static void setValueCapture(ValueCapture valueCapture) {
+		if(valueCapture == null) {
+			throw new IllegalArgumentException("valueCapture is null");
+		}
+		FunctionLogging.valueCapture = valueCapture;
+	}
+
 	protected LogEntryFunction entry;
+	private String loggingClassName;
 
 
 	public FunctionLogging(LogEntryFunction entry, int stackEntryIndex) {
@@ -30,6 +72,29 @@ public class FunctionLogging extends AbstractLogEntryLogging {
 	public LogEntryFunction getLog(){
 		return this.entry;
 	}
+
+	/**
+	 * The class name of the captured call site of the function.<br>
+	 * When the call site is unknown ({@link CallSiteCapture.Policy#off} or a call that is not sampled),
+	 * the class adding the first message is used, so the per class thresholds in {@link LogLevels}
+	 * work with every policy.
+	 *
+	 * @return The class name
+	 */
+	@Override
+	protected String getLoggingClassName() {
+		if(loggingClassName == null) {
+			String name = entry.getContext().map(LogContext::getClassName).orElse("?");
+			if(name.equals("?")) {
+				//Called by LogLevels.isEnabled from a message method: 1 frame deeper than CallSiteCapture.capture
+				StackTraceElement[] stack = new Throwable().getStackTrace();
+				int                 index = stackEntryIndex + 1;
+				name = index < stack.length ? stack[index].getClassName() : "?";
+			}
+			loggingClassName = name;
+		}
+		return loggingClassName;
+	}
 	public Nothing add(LogEntry logEntry){
 		if(logEntry != null){
 			map(entry -> entry.append(logEntry) );
@@ -46,13 +111,57 @@ public class FunctionLogging extends AbstractLogEntryLogging {
 		map(e -> e.withTimestampDone(timestamp));
 	}
 	public void functionResult(Object result){
-		map(e -> e.withResultValue(objectToString(result)));
+		switch(valueCapture){
+			case eager:
+				map(e -> e.withResultValue(objectToString(result)));
+				break;
+			case deferred:
+				map(e -> e.withResultDeferred(result));
+				break;
+			default:
+				break;
+		}
 	}
 
+	/**
+	 * Set the done timestamp and the result of the function.
+	 *
+	 * @param timestamp The time the function was done
+	 * @param result    The function result
+	 */
+	public void functionDone(long timestamp, Object result){
+		switch(valueCapture){
+			case eager:
+				map(e -> e.withTimestampDone(timestamp).withResultValue(objectToString(result)));
+				break;
+			case deferred:
+				map(e -> e.withTimestampDone(timestamp).withResultDeferred(result));
+				break;
+			default:
+				functionDoneTimestamp(timestamp);
+				break;
+		}
+	}
 
+	/**
+	 * Convert deferred parameters and result of this function to Strings.<br>
+	 * Used when the function fails, so the failure log shows the values at the time of the failure.
+	 */
+	public void materialize(){
+		map(LogEntryFunction::materialize);
+	}
 
 	public FunctionLogging params(Object...params){
-		map(e -> e.withParamsString(objectsToString(params)));
+		switch(valueCapture){
+			case eager:
+				map(e -> e.withParamsString(objectsToString(params)));
+				break;
+			case deferred:
+				map(e -> e.withParamsDeferred(params));
+				break;
+			default:
+				break;
+		}
 		return this;
 	}
 
@@ -1,6 +1,5 @@
 package com.persistentbit.core.logging;
 
-import com.persistentbit.core.logging.entries.LogContext;
 import com.persistentbit.core.logging.entries.LogEntryFunction;
 
 /**
@@ -23,6 +22,7 @@ public class Log{
 				functionDoneTimestamp(System.currentTimeMillis());
 				return result;
 			}catch(Exception e){
+				materialize();
 				throw new LoggedException(e, getLog());
 			}
 		}
@@ -30,8 +30,7 @@ public class Log{
 		public  <R> R code(FunctionLogging.LoggedFunction<R> code){
 			try{
 				R result = code.run(this);
-				functionDoneTimestamp(System.currentTimeMillis());
-				functionResult(result);
+				functionDone(System.currentTimeMillis(), result);
 				/*if(result instanceof LoggedValue){
 					LoggedValue<?> lv = (LoggedValue)result;
 					return (R) lv.mapLog(e -> {
@@ -43,6 +42,7 @@ public class Log{
 				}*/
 				return result;
 			}catch(Exception e){
+				materialize();
 				throw new LoggedException(e,entry);
 			}
 		}
@@ -50,14 +50,12 @@ public class Log{
 	}
 
 	public static FLogging function(){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[2];
-		LogEntryFunction fe = LogEntryFunction.of(new LogContext(ste));
+		LogEntryFunction fe = LogEntryFunction.of(CallSiteCapture.capture(2));
 		return new FLogging(fe);
 	}
 
 	public static  FLogging function(Object...params){
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[2];
-		LogEntryFunction fe = LogEntryFunction.of(new LogContext(ste));
+		LogEntryFunction fe = LogEntryFunction.of(CallSiteCapture.capture(2));
 		FLogging res = new FLogging(fe);
 		res.params(params);
 		return res;
@@ -0,0 +1,158 @@
+package com.persistentbit.core.logging;
+
+import com.persistentbit.core.collections.PMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The thresholds for the log messages added with {@link AbstractLogEntryLogging}.<br>
+ * Messages with a level below the threshold are dropped before anything is allocated.<br>
+ * There is a global threshold, that can be overridden for a class or a package
+ * (including its sub packages). The most specific override wins.<br>
+ * Thresholds can be changed at any time.
+ * The initial global threshold is read from the system property 'persistentbit.logging.level'
+ * (a {@link LogMessageLevel} name or 'off').<br>
+ * Overrides use the class name of the logged function, so with overrides the call site
+ * of a function is resolved when it adds its first message.
+ * When the {@link CallSiteCapture} policy did not capture the call site of the function,
+ * the class that adds the first message is used.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ * @see CallSiteCapture
+ */
+public final class LogLevels{
+
+	//Threshold value that disables all messages
+	private static final int off = LogMessageLevel.values().length;
+
+	/**
+	 * Immutable thresholds with a cache of the resolved thresholds per class name
+	 */
+	private static final class Config{
+
+		private final int                                 threshold;
+		private final PMap<String, Integer>               overrides;
+		private final ConcurrentHashMap<String, Integer> resolved = new ConcurrentHashMap<>();
+
+		Config(int threshold, PMap<String, Integer> overrides) {
+			this.threshold = threshold;
+			this.overrides = overrides;
+		}
+
+		int thresholdFor(String className) {
+			if(className == null || overrides.isEmpty()) {
+				return threshold;
+			}
+			Integer res = resolved.get(className);
+			if(res == null) {
+				res = resolve(className);
+				resolved.put(className, res);
+			}
+			return res;
+		}
+
+		private int resolve(String className) {
+			String name = className;
+			while(true) {
+				Integer level = overrides.getOrDefault(name, null);
+				if(level != null) {
+					return level;
+				}
+				int i = Math.max(name.lastIndexOf('.'), name.lastIndexOf('$'));
+				if(i < 0) {
+					return threshold;
+				}
+				name = name.substring(0, i);
+			}
+		}
+	}
+
+	private static volatile Config config =
+		new Config(parse(System.getProperty("persistentbit.logging.level", "info")), PMap.empty());
+
+	private LogLevels() {}
+
+	private static int parse(String level) {
+		return level.equals("off") ? off : LogMessageLevel.valueOf(level).ordinal();
+	}
+
+	/**
+	 * Set the global threshold
+	 *
+	 * @param level The lowest level that is logged
+	 */
+	public static synchronized void setThreshold(LogMessageLevel level) {
+		config = new Config(level.ordinal(), config.overrides);
+	}
+
+	/**
+	 * Drop all log messages, unless there is an override
+	 */
+	public static synchronized void setOff() {
+		config = new Config(off, config.overrides);
+	}
+
+	/**
+	 * Set the threshold for a class or a package and its sub packages
+	 *
+	 * @param classOrPackageName The full name of the class or package
+	 * @param level              The lowest level that is logged
+	 */
+	public static synchronized void setThreshold(String classOrPackageName, LogMessageLevel level) {
+		config = new Config(config.threshold, config.overrides.put(classOrPackageName, level.ordinal()));
+	}
+
+	/**
+	 * Drop all log messages for a class or a package and its sub packages
+	 *
+	 * @param classOrPackageName The full name of the class or package
+	 */
+	public static synchronized void setOff(String classOrPackageName) {
+		config = new Config(config.threshold, config.overrides.put(classOrPackageName, off));
+	}
+
+	/**
+	 * Remove the threshold override for a class or a package
+	 *
+	 * @param classOrPackageName The full name of the class or package
+	 */
+	public static synchronized void removeThreshold(String classOrPackageName) {
+		config = new Config(config.threshold, config.overrides.removeKey(classOrPackageName));
+	}
+
+	/**
+	 * Remove all overrides and set the global threshold to {@link LogMessageLevel#info}
+	 */
+	public static synchronized void reset() {
+		config = new Config(LogMessageLevel.info.ordinal(), PMap.empty());
+	}
+
+	/**
+	 * Check if a message is logged
+	 *
+	 * @param level     The level of the message
+	 * @param className The name of the class logging the message or null if unknown
+	 *
+	 * @return true if the message should be logged
+	 */
+	public static boolean isEnabled(LogMessageLevel level, String className) {
+		return level.ordinal() >= config.thresholdFor(className);
+	}
+
+	/**
+	 * Check if a message is logged, without resolving the class name when there are no overrides
+	 *
+	 * @param level   The level of the message
+	 * @param logging The logging adding the message
+	 *
+	 * @return true if the message should be logged
+	 */
+	static boolean isEnabled(LogMessageLevel level, AbstractLogEntryLogging logging) {
+		Config current = config;
+		if(current.overrides.isEmpty()) {
+			return level.ordinal() >= current.threshold;
+		}
+		return level.ordinal() >= current.thresholdFor(logging.getLoggingClassName());
+	}
+}
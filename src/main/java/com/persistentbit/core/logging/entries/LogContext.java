@@ -1,17 +1,23 @@
 package com.persistentbit.core.logging.entries;
 
 /**
- * TODOC
+ * The source location and timestamp of a log entry.<br>
+ * A LogContext created with {@link #lazy(Throwable, int)} only resolves the source location
+ * from the captured stack when one of the location getters is called.
  *
  * @author petermuys
  * @since 30/12/16
+ * @see com.persistentbit.core.logging.CallSiteCapture
  */
 public class LogContext{
-	private final String fileName;
-	private final String className;
-	private final String methodName;
-	private final int sourceLine;
+	private String fileName;
+	private String className;
+	private String methodName;
+	private int sourceLine;
 	private final long timestamp;
+	//Not null until the location is resolved
+	private volatile Throwable callSite;
+	private final int callSiteIndex;
 
 	public LogContext(String fileName, String className, String methodName, int sourceLine,long timestamp) {
 		this.fileName = fileName;
@@ -19,7 +25,37 @@ public class LogContext{
 		this.methodName = methodName;
 		this.sourceLine = sourceLine;
 		this.timestamp = timestamp;
+		this.callSiteIndex = 0;
 	}
+
+	private LogContext(Throwable callSite, int callSiteIndex, long timestamp){
+		this.callSite = callSite;
+		this.callSiteIndex = callSiteIndex;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Create a LogContext with the location of a stack frame of a captured stack.<br>
+	 * The StackTraceElements of the stack are only created when the location is needed.
+	 *
+	 * @param callSite      The Throwable holding the captured stack
+	 * @param callSiteIndex The index of the frame in the stack trace of callSite
+	 *
+	 * @return A new LogContext
+	 */
+	public static LogContext lazy(Throwable callSite, int callSiteIndex){
+		return new LogContext(callSite, callSiteIndex, System.currentTimeMillis());
+	}
+
+	/**
+	 * Create a LogContext without a known location.
+	 *
+	 * @return A new LogContext with the current time as timestamp
+	 */
+	public static LogContext unknown(){
+		return new LogContext("?", "?", "?", 0);
+	}
+
 	public LogContext(String fileName, String className, String methodName, int sourceLine){
 		this(fileName,className,methodName,sourceLine,System.currentTimeMillis());
 	}
@@ -31,23 +67,54 @@ public class LogContext{
 			stackTraceElement.getMethodName(),
 			stackTraceElement.getLineNumber());
 	}
+	private void resolve(){
+		Throwable cs = callSite;
+		if(cs == null){
+			return;
+		}
+		StackTraceElement[] stack = cs.getStackTrace();
+		if(callSiteIndex < stack.length){
+			StackTraceElement ste = stack[callSiteIndex];
+			fileName = ste.getFileName();
+			className = ste.getClassName();
+			if(methodName == null){
+				methodName = ste.getMethodName();
+			}
+			sourceLine = ste.getLineNumber();
+		} else {
+			fileName = className = "?";
+			methodName = methodName == null ? "?" : methodName;
+		}
+		callSite = null;
+	}
+
 	public LogContext withTimestamp(long timestamp){
+		Throwable cs = callSite;
+		if(cs != null){
+			LogContext res = new LogContext(cs, callSiteIndex, timestamp);
+			res.methodName = methodName;
+			return res;
+		}
 		return new LogContext(fileName,className,methodName,sourceLine,timestamp);
 	}
 
 	public String getFileName() {
+		resolve();
 		return fileName;
 	}
 
 	public String getClassName() {
+		resolve();
 		return className;
 	}
 
 	public String getMethodName() {
+		resolve();
 		return methodName;
 	}
 
 	public int getSourceLine() {
+		resolve();
 		return sourceLine;
 	}
 
@@ -56,6 +123,12 @@ public class LogContext{
 	}
 
 	public LogContext withMethodName(String methodName){
+		Throwable cs = callSite;
+		if(cs != null){
+			LogContext res = new LogContext(cs, callSiteIndex, timestamp);
+			res.methodName = methodName;
+			return res;
+		}
 		return new LogContext(fileName,className,methodName,sourceLine,timestamp);
 	}
 
@@ -18,7 +18,7 @@ public class LogEntryException extends AbstractLogEntry{
 	}
 
 	public LogEntryException(Throwable cause){
-		this(cause.getStackTrace() == null ? null : new LogContext(cause.getStackTrace()[0]),cause);
+		this(cause.getStackTrace() == null || cause.getStackTrace().length == 0 ? null : new LogContext(cause.getStackTrace()[0]),cause);
 	}
 
 	@Override
@@ -14,13 +14,50 @@ public class LogEntryFunction extends AbstractLogEntry{
 
 	private final LogContext source;
 	private final LogEntry   logs;
-	private final String     params;
+	//A String or a Deferred
+	private final Object     params;
 	private final Long       timeStampDone;
-	private final String     resultValue;
+	//A String or a Deferred
+	private final Object     resultValue;
 	private final String     thisContainer;
+	private final int        depth;
+	private final boolean    hasErrors;
+
+	/**
+	 * Parameters or a result value, only converted to a String when needed.
+	 */
+	private static final class Deferred{
+
+		private final Object  value;
+		private final boolean isParams;
+		private volatile String rendered;
+
+		Deferred(Object value, boolean isParams) {
+			this.value = value;
+			this.isParams = isParams;
+		}
+
+		@Override
+		public String toString() {
+			String res = rendered;
+			if(res == null) {
+				res = isParams
+					? AbstractLogEntryLogging.objectsToString((Object[]) value)
+					: AbstractLogEntryLogging.objectToString(value);
+				rendered = res;
+			}
+			return res;
+		}
+	}
 
 	public LogEntryFunction(LogContext source, String params, LogEntry logs, Long timeStampDone, String resultValue,
 							String thisContainer
+	) {
+		this(source, (Object) params, logs, timeStampDone, (Object) resultValue, thisContainer);
+	}
+
+	private LogEntryFunction(LogContext source, Object params, LogEntry logs, Long timeStampDone, Object resultValue,
+							 String thisContainer
 	) {
 		this.source = source;
 		this.params = params;
@@ -28,6 +65,8 @@ public class LogEntryFunction extends AbstractLogEntry{
 		this.timeStampDone = timeStampDone;
 		this.resultValue = resultValue;
 		this.thisContainer = thisContainer;
+		this.depth = 1 + LogRetention.depth(logs);
+		this.hasErrors = LogRetention.isError(logs);
 	}
 	static public LogEntryFunction of(LogContext source){
 		return new LogEntryFunction(source, null, LogEntryGroup.empty(), null, null, null);
@@ -44,15 +83,26 @@ public class LogEntryFunction extends AbstractLogEntry{
 	}
 
 	public Optional<String> getParams() {
-		return Optional.ofNullable(params);
+		return Optional.ofNullable(params).map(Object::toString);
 	}
 
 	public LogEntry getLogs() {
 		return logs;
 	}
 
+	/**
+	 * @return The nesting depth of this function: 1 + the depth of the function logs
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	public boolean hasErrors() {
+		return hasErrors;
+	}
+
 	public Optional<String> getResult() {
-		return Optional.ofNullable(resultValue);
+		return Optional.ofNullable(resultValue).map(Object::toString);
 	}
 
 	public Optional<Long> getTimestampDone() {
@@ -74,9 +124,52 @@ public class LogEntryFunction extends AbstractLogEntry{
 		return withParamsString(AbstractLogEntryLogging.objectsToString(params));
 	}
 
+	/**
+	 * Set the parameters without converting them to a String.<br>
+	 * The parameters are converted when {@link #getParams()} is called.
+	 *
+	 * @param params The parameter values
+	 *
+	 * @return A new LogEntryFunction
+	 */
+	public LogEntryFunction withParamsDeferred(Object... params){
+		return new LogEntryFunction(source, new Deferred(params, true), logs, timeStampDone, resultValue, thisContainer);
+	}
+
 	public LogEntryFunction withResultValue(String resultValue){
 		return new LogEntryFunction(source, params, logs, timeStampDone, resultValue, thisContainer);
 	}
+
+	/**
+	 * Set the result value without converting it to a String.<br>
+	 * The result is converted when {@link #getResult()} is called.
+	 *
+	 * @param resultValue The result of the function
+	 *
+	 * @return A new LogEntryFunction
+	 */
+	public LogEntryFunction withResultDeferred(Object resultValue){
+		return new LogEntryFunction(source, params, logs, timeStampDone, new Deferred(resultValue, false), thisContainer);
+	}
+
+	/**
+	 * Convert the deferred parameters and result value of this function to Strings now.
+	 *
+	 * @return A LogEntryFunction without references to the parameter and result objects
+	 */
+	public LogEntryFunction materialize(){
+		if(params instanceof Deferred == false && resultValue instanceof Deferred == false){
+			return this;
+		}
+		return new LogEntryFunction(
+			source,
+			params == null ? null : params.toString(),
+			logs,
+			timeStampDone,
+			resultValue == null ? null : resultValue.toString(),
+			thisContainer
+		);
+	}
 	public LogEntryFunction withLogs(LogEntry logs){
 		return new LogEntryFunction(source, params, logs, timeStampDone, resultValue, thisContainer);
 	}
@@ -12,9 +12,25 @@ import java.util.Optional;
  */
 public class LogEntryGroup extends AbstractLogEntry{
 	private final PList<LogEntry> entries;
+	private final int depth;
+	private final boolean hasErrors;
 
 	public LogEntryGroup(PList<LogEntry> entries) {
 		this.entries = entries;
+		int d = 0;
+		boolean errors = false;
+		for(LogEntry e : entries){
+			d = Math.max(d, LogRetention.depth(e));
+			errors = errors || LogRetention.isError(e);
+		}
+		this.depth = d;
+		this.hasErrors = errors;
+	}
+
+	private LogEntryGroup(PList<LogEntry> entries, int depth, boolean hasErrors) {
+		this.entries = entries;
+		this.depth = depth;
+		this.hasErrors = hasErrors;
 	}
 
 
@@ -25,7 +41,31 @@ public class LogEntryGroup extends AbstractLogEntry{
 
 	@Override
 	public LogEntryGroup append(LogEntry other) {
-		return other.isEmpty() ? this : new LogEntryGroup(this.entries.plus(other));
+		if(other.isEmpty()){
+			return this;
+		}
+		other = LogRetention.limitDepth(other);
+		PList<LogEntry> newEntries = this.entries.plus(other);
+		PList<LogEntry> limited = LogRetention.limitEntries(newEntries);
+		if(limited != newEntries){
+			return new LogEntryGroup(limited);
+		}
+		return new LogEntryGroup(
+			newEntries,
+			Math.max(depth, LogRetention.depth(other)),
+			hasErrors || LogRetention.isError(other)
+		);
+	}
+
+	/**
+	 * @return The maximum nesting depth of the entries in this group
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	public boolean hasErrors() {
+		return hasErrors;
 	}
 
 	@Override
@@ -0,0 +1,109 @@
+package com.persistentbit.core.logging.entries;
+
+import java.util.Optional;
+
+/**
+ * Replaces log entries that are dropped by the {@link LogRetention} policy.<br>
+ * Keeps the number of dropped entries, the number of errors in them
+ * and the total duration of the dropped functions.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class LogEntrySummary extends AbstractLogEntry{
+
+	private final LogContext source;
+	private final int        droppedEntries;
+	private final int        droppedErrors;
+	private final long       durationMs;
+
+	public LogEntrySummary(LogContext source, int droppedEntries, int droppedErrors, long durationMs) {
+		this.source = source;
+		this.droppedEntries = droppedEntries;
+		this.droppedErrors = droppedErrors;
+		this.durationMs = durationMs;
+	}
+
+	/**
+	 * Create a summary for a log entry
+	 *
+	 * @param entry The entry to summarize
+	 *
+	 * @return The summary
+	 */
+	public static LogEntrySummary of(LogEntry entry) {
+		if(entry instanceof LogEntrySummary) {
+			return (LogEntrySummary) entry;
+		}
+		LogEntrySummary res = new LogEntrySummary(entry.getContext().orElse(null), 0, 0, 0);
+		return res.plus(entry);
+	}
+
+	/**
+	 * Add a dropped entry to this summary
+	 *
+	 * @param entry The dropped entry
+	 *
+	 * @return A new summary
+	 */
+	public LogEntrySummary plus(LogEntry entry) {
+		if(entry instanceof LogEntrySummary) {
+			LogEntrySummary other = (LogEntrySummary) entry;
+			return new LogEntrySummary(source == null ? other.source : source,
+									   droppedEntries + other.droppedEntries,
+									   droppedErrors + other.droppedErrors,
+									   durationMs + other.durationMs
+			);
+		}
+		if(entry instanceof LogEntryGroup) {
+			LogEntrySummary res = this;
+			for(LogEntry e : ((LogEntryGroup) entry).getEntries()) {
+				res = res.plus(e);
+			}
+			return res;
+		}
+		if(entry instanceof LogEntryFunction) {
+			LogEntryFunction f        = (LogEntryFunction) entry;
+			long             duration = f.getTimestampDone()
+				.flatMap(done -> f.getContext().map(c -> done - c.getTimestamp()))
+				.orElse(0L);
+			LogEntrySummary  res      = plus(f.getLogs());
+			return new LogEntrySummary(res.source, res.droppedEntries + 1, res.droppedErrors, durationMs + duration);
+		}
+		if(entry.isEmpty()) {
+			return this;
+		}
+		return new LogEntrySummary(source == null ? entry.getContext().orElse(null) : source,
+								   droppedEntries + 1,
+								   droppedErrors + (LogRetention.isError(entry) ? 1 : 0),
+								   durationMs
+		);
+	}
+
+	@Override
+	public LogEntry append(LogEntry other) {
+		return LogEntryGroup.empty().append(this).append(other);
+	}
+
+	@Override
+	public Optional<LogContext> getContext() {
+		return Optional.ofNullable(source);
+	}
+
+	public int getDroppedEntries() {
+		return droppedEntries;
+	}
+
+	public int getDroppedErrors() {
+		return droppedErrors;
+	}
+
+	public long getDurationMs() {
+		return durationMs;
+	}
+
+	public String getMessage() {
+		String errors = droppedErrors == 0 ? "" : " (" + droppedErrors + " errors)";
+		return droppedEntries + " entries dropped" + errors + ", " + durationMs + " ms total";
+	}
+}
@@ -0,0 +1,140 @@
+package com.persistentbit.core.logging.entries;
+
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.logging.LogMessageLevel;
+
+/**
+ * The retention policy for logs attached to a Result chain.<br>
+ * Without a policy, logs only grow: every flatMap and every logged function appends to the log tree.<br>
+ * With {@link #setMaxEntries(int)}, a {@link LogEntryGroup} works as a ring buffer:
+ * when it has more than twice maxEntries entries, all but the most recent maxEntries entries
+ * are collapsed into one {@link LogEntrySummary}.<br>
+ * With {@link #setMaxDepth(int)}, the logs of functions nested deeper than maxDepth are collapsed
+ * into a summary when they are appended, unless they contain an error.
+ * So the most recent entries and the errors of a failure are always kept complete.<br>
+ * 0 means unlimited, which is the default.
+ * The initial values are read from the system properties 'persistentbit.logging.maxEntries'
+ * and 'persistentbit.logging.maxDepth'.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class LogRetention{
+
+	private static volatile int maxEntries = Integer.getInteger("persistentbit.logging.maxEntries", 0);
+	private static volatile int maxDepth   = Integer.getInteger("persistentbit.logging.maxDepth", 0);
+
+	private LogRetention() {}
+
+	public static int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Set the number of most recent entries that are kept in a log group
+	 *
+	 * @param maxEntries The number of entries or 0 for unlimited
+	 */
+	public static void setMaxEntries(int maxEntries) {
+		if(maxEntries < 0) {
+			throw new IllegalArgumentException("maxEntries can't be negative: " + maxEntries);
+		}
+		LogRetention.maxEntries = maxEntries;
+	}
+
+	public static int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Set the maximum nesting depth of logged functions
+	 *
+	 * @param maxDepth The maximum depth or 0 for unlimited
+	 */
+	public static void setMaxDepth(int maxDepth) {
+		if(maxDepth < 0) {
+			throw new IllegalArgumentException("maxDepth can't be negative: " + maxDepth);
+		}
+		LogRetention.maxDepth = maxDepth;
+	}
+
+	static boolean isError(LogEntry entry) {
+		if(entry instanceof LogEntryException) {
+			return true;
+		}
+		if(entry instanceof LogEntryMessage) {
+			return ((LogEntryMessage) entry).getLevel() == LogMessageLevel.error;
+		}
+		if(entry instanceof LogEntryGroup) {
+			return ((LogEntryGroup) entry).hasErrors();
+		}
+		if(entry instanceof LogEntryFunction) {
+			return ((LogEntryFunction) entry).hasErrors();
+		}
+		if(entry instanceof LogEntrySummary) {
+			return ((LogEntrySummary) entry).getDroppedErrors() > 0;
+		}
+		return false;
+	}
+
+	static int depth(LogEntry entry) {
+		if(entry instanceof LogEntryGroup) {
+			return ((LogEntryGroup) entry).getDepth();
+		}
+		if(entry instanceof LogEntryFunction) {
+			return ((LogEntryFunction) entry).getDepth();
+		}
+		if(entry.isEmpty() || entry instanceof LogEntrySummary) {
+			return 0;
+		}
+		return 1;
+	}
+
+	/**
+	 * Apply the depth limit to an entry that is appended to a group
+	 *
+	 * @param entry The new entry
+	 *
+	 * @return The entry or a new entry with the deep function logs collapsed
+	 */
+	static LogEntry limitDepth(LogEntry entry) {
+		int max = maxDepth;
+		return max == 0 ? entry : limitDepth(entry, max);
+	}
+
+	private static LogEntry limitDepth(LogEntry entry, int max) {
+		if(depth(entry) <= max || isError(entry)) {
+			return entry;
+		}
+		if(entry instanceof LogEntryFunction) {
+			LogEntryFunction f = (LogEntryFunction) entry;
+			return max <= 1
+				? f.withLogs(LogEntrySummary.of(f.getLogs()))
+				: f.withLogs(limitDepth(f.getLogs(), max - 1));
+		}
+		if(entry instanceof LogEntryGroup) {
+			return new LogEntryGroup(((LogEntryGroup) entry).getEntries().map(e -> limitDepth(e, max)).plist());
+		}
+		return entry;
+	}
+
+	/**
+	 * Apply the ring buffer limit to the entries of a group
+	 *
+	 * @param entries The entries of the group
+	 *
+	 * @return The entries or the most recent entries preceded by a summary of the others
+	 */
+	static PList<LogEntry> limitEntries(PList<LogEntry> entries) {
+		int max = maxEntries;
+		if(max == 0 || entries.size() <= 2 * max) {
+			return entries;
+		}
+		int             dropCount = entries.size() - max;
+		LogEntrySummary summary   = LogEntrySummary.of(entries.get(0));
+		for(int t = 1; t < dropCount; t++) {
+			summary = summary.plus(entries.get(t));
+		}
+		return PList.<LogEntry>val(summary).plusAll(entries.rangedIterator(dropCount, entries.size()));
+	}
+}
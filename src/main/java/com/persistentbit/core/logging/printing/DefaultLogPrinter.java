@@ -81,6 +81,17 @@ public class DefaultLogPrinter {
                 };
     }
 
+    public static SpecificLogPrinter<LogEntrySummary> forLogEntrySummary(LogEntryDefaultFormatting format) {
+        return (logEntry, rootPrinter) ->
+                (PrintTextWriter out) ->
+                        out.println(
+                                format.msgStyleDebug + "… " + logEntry.getMessage() +
+                                        format.timeStyle + "\t… " + logEntry.getContext()
+                                        .map(s -> format.formatTime(s.getTimestamp()) + " ")
+                                        .orElse("")
+                        );
+    }
+
     public static SpecificLogPrinter<LogEntryGroup> forLogEntryGroup(LogEntryDefaultFormatting format) {
         return (logEntry, rootPrinter) ->
                 (PrintTextWriter out) -> logEntry.getEntries().forEach(le ->
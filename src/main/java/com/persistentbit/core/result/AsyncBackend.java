@@ -0,0 +1,110 @@
+package com.persistentbit.core.result;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The default {@link Executor} for {@link Result#async(java.util.function.Supplier)}, {@link ResultAsync}
+ * and {@link ResultScope}.<br>
+ * With the {@link Kind#platform} backend (the default) the async code runs on the {@link ForkJoinPool#commonPool()}.
+ * Code that blocks on IO or JDBC occupies one of the few threads of the common pool while it waits.<br>
+ * With the {@link Kind#virtual} backend every task runs on a new virtual thread,
+ * so blocking code only blocks a cheap virtual thread.
+ * Virtual threads are only available on Java 21 or later: they are detected with a runtime check,
+ * on older JVMs the platform backend is used.<br>
+ * The initial backend is read from the system property 'persistentbit.result.async' ('platform' or 'virtual').
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class AsyncBackend{
+
+	public enum Kind{
+		platform, virtual
+	}
+
+	private static final class Virtual{
+
+		static final ExecutorService executor = create().orElse(null);
+
+		static Optional<ExecutorService> create() {
+			try {
+				Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return Optional.of((ExecutorService) factory.invoke(null));
+			} catch(ReflectiveOperationException | RuntimeException e) {
+				return Optional.empty();
+			}
+		}
+	}
+
+	private static volatile Executor executor = initial();
+
+	private AsyncBackend() {}
+
+	private static Executor initial() {
+		String name = System.getProperty("persistentbit.result.async", Kind.platform.name());
+		return Kind.virtual.name().equalsIgnoreCase(name) && isVirtualSupported()
+			? Virtual.executor
+			: ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * @return true if this JVM supports virtual threads
+	 */
+	public static boolean isVirtualSupported() {
+		return Virtual.executor != null;
+	}
+
+	/**
+	 * Create a new executor that starts a virtual thread for every task.<br>
+	 * The caller is responsible for closing the executor.
+	 *
+	 * @return The new executor or an empty Optional if this JVM does not support virtual threads
+	 */
+	public static Optional<ExecutorService> newVirtualExecutor() {
+		return Virtual.create();
+	}
+
+	/**
+	 * Select the backend for async results.<br>
+	 * Selecting the virtual backend on a JVM without virtual threads selects the platform backend.
+	 *
+	 * @param kind The backend
+	 *
+	 * @return The selected backend
+	 */
+	public static Kind use(Kind kind) {
+		executor = kind == Kind.virtual && isVirtualSupported() ? Virtual.executor : ForkJoinPool.commonPool();
+		return getKind();
+	}
+
+	/**
+	 * @return The current backend. An executor set with {@link #setExecutor(Executor)} is a platform backend.
+	 */
+	public static Kind getKind() {
+		return executor == Virtual.executor ? Kind.virtual : Kind.platform;
+	}
+
+	/**
+	 * Use a custom executor for async results.
+	 *
+	 * @param executor The new default executor
+	 */
+	public static void setExecutor(Executor executor) {
+		if(executor == null) {
+			throw new IllegalArgumentException("executor is null");
+		}
+		AsyncBackend.executor = executor;
+	}
+
+	/**
+	 * @return The default executor for async results
+	 */
+	public static Executor getExecutor() {
+		return executor;
+	}
+}
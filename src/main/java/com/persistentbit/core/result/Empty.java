@@ -4,12 +4,15 @@ import com.persistentbit.core.logging.Log;
 import com.persistentbit.core.logging.LoggedException;
 import com.persistentbit.core.logging.entries.LogEntry;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * An EMPTY result.
@@ -18,7 +21,9 @@ import java.util.function.Predicate;
  */
 public class Empty<T> extends Result<T>{
 
+    //Created on demand from message when null
     private Throwable exception;
+    private transient Supplier<String> message;
     private LogEntry log;
 
     public Empty(Throwable e, LogEntry log) {
@@ -27,9 +32,23 @@ public class Empty<T> extends Result<T>{
 
     }
 
+    Empty(Supplier<String> message, LogEntry log) {
+        this.message = Objects.requireNonNull(message);
+        this.log = Objects.requireNonNull(log);
+        if(Result.isDebug()) {
+            getException();
+        }
+    }
+
+    private Empty(Throwable exception, Supplier<String> message, LogEntry log) {
+        this.exception = exception;
+        this.message = message;
+        this.log = log;
+    }
+
     @Override
     public Result<T> mapLog(Function<LogEntry, LogEntry> mapper) {
-        return new Empty<>(exception,mapper.apply(log));
+        return new Empty<>(exception, message, mapper.apply(log));
     }
 
     @Override
@@ -41,8 +60,34 @@ public class Empty<T> extends Result<T>{
 
     }
 
+    /**
+     * Get the cause of this Empty.<br>
+     * For a Empty created with a message, the {@link ResultException} is created on the first call.
+     *
+     * @return The cause
+     */
     public Throwable getException() {
-        return exception;
+        Throwable res = exception;
+        if(res == null) {
+            res = new ResultException(message.get(), Result.isDebug());
+            exception = res;
+        }
+        return res;
+    }
+
+    /**
+     * Get the message of the cause, without creating the cause if it does not exist yet.
+     *
+     * @return The message
+     */
+    public String getMessage() {
+        Throwable res = exception;
+        return res == null ? message.get() : res.getMessage();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getException();
+        out.defaultWriteObject();
     }
 
     @Override
@@ -56,13 +101,15 @@ public class Empty<T> extends Result<T>{
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <U> Empty<U> map(Function<T, U> mapper) {
-        return new Empty<>(exception, log);
+        return (Empty<U>) this;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <U> Empty<U> flatMap(Function<T, Result<U>> mapper) {
-        return new Empty<>(exception, log);
+        return (Empty<U>) this;
     }
 
     @Override
@@ -77,12 +124,12 @@ public class Empty<T> extends Result<T>{
 
     @Override
     public T orElseThrow() {
-        throw new EmptyException(new LoggedException(exception, log));
+        throw new EmptyException(new LoggedException(getException(), log));
     }
 
     @Override
     public String toString() {
-        return "Empty(" + exception.getMessage() + ")";
+        return "Empty(" + getMessage() + ")";
     }
 
     @Override
@@ -4,16 +4,21 @@ import com.persistentbit.core.logging.Log;
 import com.persistentbit.core.logging.LoggedException;
 import com.persistentbit.core.logging.entries.LogEntry;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class Failure<T> extends Result<T>{
 
-    private final Throwable exception;
+    //Created on demand from message when null
+    private Throwable exception;
+    private transient Supplier<String> message;
     private final LogEntry log;
 
 
@@ -25,13 +30,27 @@ public class Failure<T> extends Result<T>{
 
 
     public Failure(String error, LogEntry log) {
-        this(new RuntimeException(error), log);
+        this(() -> error, log);
+    }
+
+    Failure(Supplier<String> message, LogEntry log) {
+        this.message = Objects.requireNonNull(message);
+        this.log = Objects.requireNonNull(log);
+        if(Result.isDebug()) {
+            getException();
+        }
+    }
+
+    private Failure(Throwable exception, Supplier<String> message, LogEntry log) {
+        this.exception = exception;
+        this.message = message;
+        this.log = log;
     }
 
 
     @Override
     public Failure<T> mapLog(Function<LogEntry, LogEntry> mapper) {
-        return new Failure<>(exception,mapper.apply(log));
+        return new Failure<>(exception, message, mapper.apply(log));
     }
 
     @Override
@@ -44,8 +63,34 @@ public class Failure<T> extends Result<T>{
     }
 
 
+    /**
+     * Get the cause of this Failure.<br>
+     * For a Failure created with a message, the {@link ResultException} is created on the first call.
+     *
+     * @return The cause
+     */
     public Throwable getException() {
-        return exception;
+        Throwable res = exception;
+        if(res == null) {
+            res = new ResultException(message.get(), Result.isDebug());
+            exception = res;
+        }
+        return res;
+    }
+
+    /**
+     * Get the message of the cause, without creating the cause if it does not exist yet.
+     *
+     * @return The message
+     */
+    public String getMessage() {
+        Throwable res = exception;
+        return res == null ? message.get() : res.getMessage();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getException();
+        out.defaultWriteObject();
     }
 
     @Override
@@ -82,9 +127,9 @@ public class Failure<T> extends Result<T>{
 
     public T orElseThrow() {
         if(log.isEmpty()){
-            throw new FailureException(exception);
+            throw new FailureException(getException());
         }
-        throw new FailureException(new LoggedException(exception, log));
+        throw new FailureException(new LoggedException(getException(), log));
     }
 
     @Override
@@ -126,12 +171,12 @@ public class Failure<T> extends Result<T>{
 
     @Override
     public int hashCode() {
-        return exception.hashCode();
+        return getException().hashCode();
     }
 
     @Override
     public String toString() {
-        return "Failure(" + exception.getMessage() + ")";
+        return "Failure(" + getMessage() + ")";
     }
 
     @Override
@@ -141,7 +186,7 @@ public class Failure<T> extends Result<T>{
 
     @Override
     public Result<T> mapError(Function<Throwable, ? extends Throwable> mapper) {
-        return Result.failure(mapper.apply(exception));
+        return Result.failure(mapper.apply(getException()));
     }
 
     @Override
@@ -153,12 +198,12 @@ public class Failure<T> extends Result<T>{
 
     @Override
     public Result<String> forEachOrErrorMsg(Consumer<? super T> effect) {
-        return Result.success(exception.getMessage());
+        return Result.success(getMessage());
     }
 
     @Override
     public Result<Throwable> forEachOrException(Consumer<? super T> effect) {
-        return Result.success(exception);
+        return Result.success(getException());
     }
 
     @Override
@@ -1,6 +1,8 @@
 package com.persistentbit.core.result;
 
+import com.persistentbit.core.collections.PList;
 import com.persistentbit.core.collections.PStream;
+import com.persistentbit.core.logging.CallSiteCapture;
 import com.persistentbit.core.logging.FunctionLogging;
 import com.persistentbit.core.logging.LoggedException;
 import com.persistentbit.core.logging.LoggedValue;
@@ -31,6 +33,33 @@ import java.util.function.*;
  */
 public abstract class Result<T> implements Iterable<T>, Serializable, LoggedValue<Result<T>>{
 
+	private static volatile boolean debug = Boolean.getBoolean("persistentbit.result.debug");
+
+	private static final Empty<Object> sEmpty = new Empty<>(() -> "Empty value", LogEntryEmpty.inst);
+
+	/**
+	 * In debug mode, the {@link ResultException} cause of an {@link Empty} or {@link Failure}
+	 * created with a message is created immediately and has a stack trace.<br>
+	 * Without debug mode, the cause is only created when asked for and has no stack trace.<br>
+	 * The initial value is read from the system property 'persistentbit.result.debug'.
+	 *
+	 * @return true if debug mode is on
+	 */
+	public static boolean isDebug() {
+		return debug;
+	}
+
+	/**
+	 * Switch debug mode on or off
+	 *
+	 * @param debug The new debug mode
+	 *
+	 * @see #isDebug()
+	 */
+	public static void setDebug(boolean debug) {
+		Result.debug = debug;
+	}
+
 	public static class FLogging extends FunctionLogging{
 
 		public FLogging(LogEntryFunction lef, int stackEntryIndex) {
@@ -46,6 +75,7 @@ public abstract class Result<T> implements Iterable<T>, Serializable, LoggedValu
 				functionDoneTimestamp(System.currentTimeMillis());
 				return result;
 			} catch(LoggedException le) {
+				materialize();
 				return Result.failure(le.setLogs(entry.append(le.getLogs())));
 			} catch(Exception e) {
 				return Result.failure(e);
@@ -61,14 +91,18 @@ public abstract class Result<T> implements Iterable<T>, Serializable, LoggedValu
 		public <R> Result<R> code(FunctionLogging.LoggedFunction<Result<R>> code) {
 			try {
 				Result<R> result = code.run(this);
-				functionDoneTimestamp(System.currentTimeMillis());
-				functionResult(result);
+				functionDone(System.currentTimeMillis(), result);
+				if(result instanceof Failure) {
+					materialize();
+				}
 				return result.mapLog(resultLog ->
 										 entry.append(resultLog)
 				);
 			} catch(LoggedException le) {
+				materialize();
 				return Result.failure(le.setLogs(entry.append(le.getLogs())));
 			} catch(Exception e) {
+				materialize();
 				return Result.failure(new LoggedException(e, entry));
 			}
 		}
@@ -77,14 +111,12 @@ public abstract class Result<T> implements Iterable<T>, Serializable, LoggedValu
 
 
 	public static FLogging function() {
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[2];
-		LogEntryFunction  fe  = LogEntryFunction.of(new LogContext(ste));
+		LogEntryFunction  fe  = LogEntryFunction.of(CallSiteCapture.capture(2));
 		return new FLogging(fe);
 	}
 
 	public static FLogging function(Object... params) {
-		StackTraceElement ste = Thread.currentThread().getStackTrace()[2];
-		LogEntryFunction  fe  = LogEntryFunction.of(new LogContext(ste));
+		LogEntryFunction  fe  = LogEntryFunction.of(CallSiteCapture.capture(2));
 		FLogging          res = new FLogging(fe);
 		res.params(params);
 		return res;
@@ -326,11 +358,33 @@ public abstract class Result<T> implements Iterable<T>, Serializable, LoggedValu
 	 */
 	@SuppressWarnings("unchecked")
 	public static <U> Empty<U> empty() {
-		return empty("Empty value");
+		return isDebug() ? empty("Empty value") : (Empty<U>) sEmpty;
 	}
 
+	/**
+	 * Create an Empty result with a message.<br>
+	 * The {@link ResultException} cause is only created when it is needed.
+	 *
+	 * @param message The message for the cause of the Empty
+	 * @param <U>     The normal value type
+	 *
+	 * @return an Empty
+	 */
 	public static <U> Empty<U> empty(String message) {
-		return new Empty<>(new RuntimeException(message), LogEntryEmpty.inst);
+		return empty(() -> message);
+	}
+
+	/**
+	 * Create an Empty result with a lazy message.<br>
+	 * The message supplier is only called when the cause of the Empty is needed.
+	 *
+	 * @param message Supplier for the message for the cause of the Empty
+	 * @param <U>     The normal value type
+	 *
+	 * @return an Empty
+	 */
+	public static <U> Empty<U> empty(Supplier<String> message) {
+		return new Empty<>(message, LogEntryEmpty.inst);
 	}
 
 	public static <U> Empty<U> empty(Throwable cause) {
@@ -368,6 +422,19 @@ public abstract class Result<T> implements Iterable<T>, Serializable, LoggedValu
 		return new Failure<>(error, LogEntryEmpty.inst);
 	}
 
+	/**
+	 * Create a failure result with a lazy message.<br>
+	 * The message supplier is only called when the cause of the Failure is needed.
+	 *
+	 * @param error Supplier for the failure Exception message
+	 * @param <U>   The result type
+	 *
+	 * @return a Failure result
+	 */
+	public static <U> Failure<U> failure(Supplier<String> error) {
+		return new Failure<>(error, LogEntryEmpty.inst);
+	}
+
 	/**
 	 * Create a failure result
 	 *
@@ -470,7 +537,7 @@ public abstract class Result<T> implements Iterable<T>, Serializable, LoggedValu
 	public abstract Result<T> cleanLogsOnPresent();
 
 	public Result<T>	logFunction(Object...parameters){
-		LogContext lc = new LogContext(Thread.currentThread().getStackTrace()[2]);
+		LogContext lc = CallSiteCapture.capture(2);
 		LogEntryFunction fun =
 				LogEntryFunction.of(lc)
 					.withParams(parameters)
@@ -481,6 +548,99 @@ public abstract class Result<T> implements Iterable<T>, Serializable, LoggedValu
 
 
 
+	/**
+	 * Map all elements of a stream to a Result and combine them into a Result with a list of the values.<br>
+	 * The stream is iterated once and the mapping stops at the first element that does not give a {@link Success}:
+	 * that Empty or Failure is returned.<br>
+	 * The logs are merged in order, just like a chain of flatMaps.
+	 * Async results are waited for: use {@link #traverseAsync(Executor, int, PStream, Function)} to run in parallel.
+	 *
+	 * @param stream The elements to map
+	 * @param mapper The element mapper
+	 * @param <A>    The element type
+	 * @param <B>    The result value type
+	 *
+	 * @return The list of mapped values or the first Empty or Failure
+	 */
+	public static <A, B> Result<PList<B>> traverse(PStream<A> stream, Function<? super A, Result<B>> mapper) {
+		LogEntry log    = LogEntryEmpty.inst;
+		PList<B> values = PList.empty();
+		for(A element : stream) {
+			Result<B> res;
+			try {
+				res = mapper.apply(element);
+			} catch(Exception e) {
+				res = Result.failure(e);
+			}
+			if(res == null) {
+				res = Result.failure("traverse mapper returned a null result");
+			}
+			res = res.completed();
+			LogEntry before = log;
+			if(res instanceof Success == false) {
+				return res.mapLog(before::append).map(v -> null);
+			}
+			log = log.append(res.getLog());
+			values = values.plus(res.orElseThrow());
+		}
+		LogEntry all = log;
+		return Result.success(values).mapLog(l -> all);
+	}
+
+	/**
+	 * Combine a stream of results into a Result with a list of the values,
+	 * with the same semantics as {@link #traverse(PStream, Function)}
+	 *
+	 * @param stream The results to combine
+	 * @param <T>    The result value type
+	 *
+	 * @return The list of values or the first Empty or Failure
+	 */
+	public static <T> Result<PList<T>> sequence(PStream<Result<T>> stream) {
+		return traverse(stream, Function.identity());
+	}
+
+	/**
+	 * Map all elements of a stream to a Result in parallel on the {@link AsyncBackend} executor.
+	 *
+	 * @see #traverseAsync(Executor, int, PStream, Function)
+	 */
+	public static <A, B> ResultAsync<PList<B>> traverseAsync(int parallelism, PStream<A> stream,
+															 Function<? super A, Result<B>> mapper
+	) {
+		return traverseAsync(AsyncBackend.getExecutor(), parallelism, stream, mapper);
+	}
+
+	/**
+	 * Map all elements of a stream to a Result in parallel.<br>
+	 * At most parallelism elements are mapped at the same time: the next element
+	 * is only taken from the stream when a running mapping is done.
+	 * The values are returned in the order of the stream and the logs are merged in that order.<br>
+	 * When a mapping gives an Empty or a Failure, no new elements are started,
+	 * the mappings that did not start yet are cancelled and that Empty or Failure is returned
+	 * with the logs of the values before it.
+	 * When more than one mapping fails, the first one to complete is returned,
+	 * not the first one in the order of the stream.
+	 * Code that is already running is not interrupted.
+	 *
+	 * @param executor    The executor to run the mapper on
+	 * @param parallelism The maximum number of mappings in flight
+	 * @param stream      The elements to map
+	 * @param mapper      The element mapper
+	 * @param <A>         The element type
+	 * @param <B>         The result value type
+	 *
+	 * @return The async list of mapped values or the first Empty or Failure
+	 */
+	public static <A, B> ResultAsync<PList<B>> traverseAsync(Executor executor, int parallelism, PStream<A> stream,
+															 Function<? super A, Result<B>> mapper
+	) {
+		if(parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+		}
+		return new Traverse<>(executor, parallelism, stream.iterator(), mapper).start();
+	}
+
 	public static <T> Result<PStream<T>> fromSequence(PStream<Result<T>> stream) {
 		Optional<Result<T>> optWrong = stream.find(Result::isError);
 
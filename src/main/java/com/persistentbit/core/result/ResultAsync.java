@@ -1,156 +1,353 @@
 package com.persistentbit.core.result;
 
-import com.persistentbit.core.logging.Log;
+import com.persistentbit.core.collections.PList;
 import com.persistentbit.core.logging.entries.LogEntry;
 import com.persistentbit.core.tuples.Tuple2;
 
+import java.time.Duration;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.*;
 import java.util.function.*;
 
 /**
- * TODO: Add comment
+ * A Result that is calculated asynchronously.<br>
+ * All the transformations (map, flatMap, filter, mapLog...) are non-blocking:
+ * they run on the {@link Executor} used to create this ResultAsync when the result is available.
+ * A flatMap that returns another ResultAsync is composed without blocking a thread.<br>
+ * The methods that need the actual result ({@link #getLog()}, {@link #getOpt()}, {@link #isEmpty()},
+ * {@link #orElseThrow()}, {@link #completed()}, {@link #match(Function, Function, Function)},
+ * equals and hashCode) wait for the result.
+ * Use {@link #onComplete(Consumer)} or {@link #toCompletableFuture()} to avoid waiting.<br>
+ * A cancelled or otherwise exceptionally completed future gives a {@link Failure}.<br>
+ * Without an explicit executor, the {@link AsyncBackend} executor is used.
  *
  * @author Peter Muys
  * @since 4/01/2017
  */
 public class ResultAsync<T> extends Result<T> {
-    private CompletableFuture<Result<T>> future;
 
-    private ResultAsync(CompletableFuture<Result<T>> future){
+    private final CompletableFuture<Result<T>> future;
+    private final Executor executor;
+    //The future this ResultAsync was created from with of(...), or null for a derived result
+    private final CompletableFuture<?> source;
+
+    private static final class Timer{
+        static final ScheduledExecutorService scheduler;
+
+        static {
+            ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, "ResultAsync timeout");
+                t.setDaemon(true);
+                return t;
+            });
+            exec.setRemoveOnCancelPolicy(true);
+            scheduler = exec;
+        }
+    }
+
+    private ResultAsync(CompletableFuture<Result<T>> future, Executor executor){
+        this(future, executor, null);
+    }
+
+    private ResultAsync(CompletableFuture<Result<T>> future, Executor executor, CompletableFuture<?> source){
         this.future = future;
+        this.executor = executor;
+        this.source = source;
     }
 
+    /**
+     * Create a ResultAsync from a future, using the {@link AsyncBackend} executor for all continuations
+     *
+     * @param future The future result
+     * @param <T>    The result value type
+     *
+     * @return The new ResultAsync
+     */
     static public <T> ResultAsync<T> of(CompletableFuture<Result<T>> future){
-        return new ResultAsync<>(future);
+        return of(AsyncBackend.getExecutor(), future);
     }
 
+    /**
+     * Create a ResultAsync from a future, using the executor for all continuations
+     *
+     * @param executor The executor for the continuations
+     * @param future   The future result
+     * @param <T>      The result value type
+     *
+     * @return The new ResultAsync
+     */
+    static public <T> ResultAsync<T> of(Executor executor, CompletableFuture<Result<T>> future){
+        return new ResultAsync<>(future.thenCompose(ResultAsync::flatten), executor, future);
+    }
+
+    /**
+     * Run the supplier on the {@link AsyncBackend} executor
+     *
+     * @param supplier The code that calculates the result
+     * @param <T>      The result value type
+     *
+     * @return The new ResultAsync
+     */
     static public <T> ResultAsync<T> of(Supplier<Result<T>> supplier){
-        return of(CompletableFuture.supplyAsync(supplier));
+        return of(AsyncBackend.getExecutor(), supplier);
     }
 
     static public <T> ResultAsync<T> of(Executor executor, Supplier<Result<T>> supplier) {
-        return of(CompletableFuture.supplyAsync(supplier, executor));
+        return of(executor, CompletableFuture.supplyAsync(supplier, executor));
+    }
+
+    /**
+     * Combine any number of results into one result with a list of the values.<br>
+     * Waits for all async results without blocking.
+     * The logs are merged in order, like a chain of flatMaps.
+     * When one of the results is not a Success, the combined result is the first Empty or Failure.
+     *
+     * @param results The results to combine
+     * @param <T>     The result value type
+     *
+     * @return An async result with the list of all values
+     */
+    static public <T> ResultAsync<PList<T>> combineAll(Iterable<? extends Result<T>> results) {
+        PList<CompletableFuture<Result<T>>> futures = PList.empty();
+        for(Result<T> r : results){
+            futures = futures.plus(
+                r instanceof ResultAsync ? ((ResultAsync<T>) r).results() : CompletableFuture.completedFuture(r)
+            );
+        }
+        PList<CompletableFuture<Result<T>>> all = futures;
+        CompletableFuture<Result<PList<T>>> combined = CompletableFuture
+            .allOf(all.toArray(new CompletableFuture[0]))
+            .thenApply(done -> {
+                Result<PList<T>> res = Result.success(PList.empty());
+                for(CompletableFuture<Result<T>> f : all){
+                    Result<T> r = f.join().completed();
+                    res = res.flatMap(list -> r.map(list::plus));
+                }
+                return res;
+            });
+        return new ResultAsync<>(combined, AsyncBackend.getExecutor());
+    }
+
+    private static <T> CompletableFuture<Result<T>> flatten(Result<T> result){
+        if(result instanceof ResultAsync){
+            return ((ResultAsync<T>) result).results();
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private static <T> Result<T> toResult(Result<T> result, Throwable exception){
+        if(exception == null){
+            return result == null ? Result.failure("ResultAsync completed with null") : result;
+        }
+        if(exception instanceof CompletionException && exception.getCause() != null){
+            exception = exception.getCause();
+        }
+        return Result.failure(exception);
+    }
+
+    /**
+     * @return A future that never completes exceptionally.
+     */
+    private CompletableFuture<Result<T>> results() {
+        return future.handle(ResultAsync::toResult);
+    }
+
+    private <U> ResultAsync<U> then(Function<Result<T>, Result<U>> next) {
+        return new ResultAsync<>(future.handleAsync((r, e) -> next.apply(toResult(r, e)), executor), executor);
+    }
+
+    private Result<T> get() {
+        try {
+            return future.join();
+        } catch(CompletionException | CancellationException e) {
+            return toResult(null, e);
+        }
+    }
+
+    /**
+     * Get the result as a CompletableFuture.<br>
+     * The returned future never completes exceptionally: exceptions are returned as a {@link Failure}.
+     *
+     * @return The future result
+     */
+    public CompletableFuture<Result<T>> toCompletableFuture() {
+        return results();
+    }
+
+    /**
+     * Get a ResultAsync that becomes a Failure with a {@link TimeoutException}
+     * when this result is not available within the given time.<br>
+     * The calculation of this result is not cancelled, use {@link #cancel()} for that.
+     *
+     * @param timeout The maximum time to wait
+     *
+     * @return A new ResultAsync
+     */
+    public ResultAsync<T> timeout(Duration timeout) {
+        CompletableFuture<Result<T>> res = new CompletableFuture<>();
+        ScheduledFuture<?> timer = Timer.scheduler.schedule(
+            () -> res.complete(Result.failure(new TimeoutException("ResultAsync timed out after " + timeout))),
+            timeout.toNanos(), TimeUnit.NANOSECONDS
+        );
+        results().thenAccept(r -> {
+            timer.cancel(false);
+            res.complete(r);
+        });
+        return new ResultAsync<>(res, executor);
+    }
+
+    /**
+     * Cancel this result if it is not yet completed.<br>
+     * A cancelled result is a {@link Failure} with a {@link CancellationException}.
+     * For a ResultAsync created with one of the of(...) methods, the source future is also cancelled:
+     * a supplier that did not start yet will not run.
+     * Code that is already running is not interrupted.
+     * Cancelling a derived result (from map, flatMap,...) does not cancel the result it is derived from.
+     *
+     * @return true if this result is now cancelled
+     */
+    public boolean cancel() {
+        boolean cancelled = future.cancel(true);
+        if(source != null) {
+            source.cancel(false);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Run an effect with the result when it is available, without blocking.
+     *
+     * @param effect The effect to run on the executor of this result
+     *
+     * @return this
+     */
+    public ResultAsync<T> onComplete(Consumer<Result<T>> effect) {
+        results().thenAcceptAsync(effect, executor);
+        return this;
     }
 
     @Override
     public LogEntry getLog() {
-        return Log.function().code(l ->
-            future.get().getLog()
-        );
+        return get().getLog();
     }
 
     @Override
     public boolean isComplete() {
-        if(future.isDone() == false){
-            return false;
-        }
-        return Log.function().code(l -> future.get().isComplete());
+        return future.isDone() && get().isComplete();
     }
 
     @Override
     public Result<T> completed() {
-        return Log.function().code(l -> future.get().completed());
+        return get().completed();
     }
 
     @Override
     public <U> Result<U> map(Function<T, U> mapper) {
-       return new ResultAsync<>(future.thenApplyAsync(r -> r.map(mapper)));
+        return then(r -> r.map(mapper));
     }
 
     @Override
     public <U> Result<U> flatMap(Function<T, Result<U>> mapper) {
-        return new ResultAsync<>(future.thenApplyAsync(r -> r.flatMap(mapper)));
+        return new ResultAsync<>(
+            future.handleAsync((r, e) -> toResult(r, e).flatMap(mapper), executor).thenCompose(ResultAsync::flatten),
+            executor
+        );
     }
 
     @Override
     public Result<T> cleanLogsOnPresent() {
-        return new ResultAsync<>(future.thenApplyAsync(r -> r.cleanLogsOnPresent()));
+        return then(Result::cleanLogsOnPresent);
     }
 
     @Override
     public Optional<T> getOpt() {
-        return Log.function().code(l -> future.get().getOpt());
+        return get().getOpt();
     }
 
     @Override
     public boolean isEmpty() {
-        return Log.function().code(l -> future.get().isEmpty());
+        return get().isEmpty();
     }
 
     @Override
     public Result<T> mapError(Function<Throwable, ? extends Throwable> mapper) {
-        return new ResultAsync<>(future.thenApply(r -> r.mapError(mapper)));
+        return then(r -> r.mapError(mapper));
     }
 
     @Override
     public <E extends Throwable> Result<T> verify(Predicate<T> verification, Function<T, E> failureExceptionSupplier) {
-        return new ResultAsync<>(future.thenApply(r -> r.verify(verification,failureExceptionSupplier)));
+        return then(r -> r.verify(verification,failureExceptionSupplier));
     }
 
     @Override
     public Result<T> flatMapFailure(Function<? super Failure<T>, Result<T>> mapper
     ) {
-        return new ResultAsync<>(future.thenApply(r -> r.flatMapFailure(mapper)));
+        return new ResultAsync<>(
+            future.handleAsync((r, e) -> toResult(r, e).flatMapFailure(mapper), executor).thenCompose(ResultAsync::flatten),
+            executor
+        );
     }
 
     @Override
     public Result<T> flatMapEmpty(Function<? super Empty<T>, Result<T>> mapper
     ) {
-        return new ResultAsync<>(future.thenApply(r -> r.flatMapEmpty(mapper)));
+        return new ResultAsync<>(
+            future.handleAsync((r, e) -> toResult(r, e).flatMapEmpty(mapper), executor).thenCompose(ResultAsync::flatten),
+            executor
+        );
     }
 
     @Override
     public Result<T> flatMapNoSuccess(BiFunction<Result<T>, Throwable, Result<T>> mapper) {
-        return new ResultAsync<>(future.thenApply(r -> r.flatMapNoSuccess(mapper)));
+        return new ResultAsync<>(
+            future.handleAsync((r, e) -> toResult(r, e).flatMapNoSuccess(mapper), executor).thenCompose(ResultAsync::flatten),
+            executor
+        );
     }
 
     @Override
     public Result<String> forEachOrErrorMsg(Consumer<? super T> effect) {
-        return new ResultAsync<>(future.thenApply(r -> r.forEachOrErrorMsg(effect)));
+        return then(r -> r.forEachOrErrorMsg(effect));
     }
 
     @Override
     public Result<Throwable> forEachOrException(Consumer<? super T> effect) {
-        return new ResultAsync<>(future.thenApply(r -> r.forEachOrException(effect)));
+        return then(r -> r.forEachOrException(effect));
     }
 
     @Override
     public Result<T> mapLog(Function<LogEntry, LogEntry> mapper) {
-        return new ResultAsync<>(future.thenApply(r -> r.mapLog(mapper)));
+        return then(r -> r.mapLog(mapper));
     }
     @Override
     public Result<T> withLogs(Consumer<LogEntry> effect) {
-        return new ResultAsync<>(future.thenApply(r -> r.withLogs(effect)));
+        return then(r -> r.withLogs(effect));
     }
 
     @Override
     public T orElseThrow() {
-        return Log.function().code(l ->
-                future.get().orElseThrow()
-        );
+        return get().orElseThrow();
     }
 
     @Override
     public Result<T> filter(Predicate<T> filter) {
-        return new ResultAsync<>(future.thenApply(r -> r.filter(filter)));
+        return then(r -> r.filter(filter));
     }
 
 
     @Override
     public Result<T> ifEmpty(Consumer<Empty<T>> effect) {
-        return new ResultAsync<>(future.thenApply(r -> r.ifEmpty(effect)));
+        return then(r -> r.ifEmpty(effect));
     }
 
     @Override
     public Result<T> ifFailure(Consumer<Failure<T>> effect) {
-        return new ResultAsync<>(future.thenApply(r -> r.ifFailure(effect)));
+        return then(r -> r.ifFailure(effect));
     }
 
     @Override
     public Result<T> ifPresent(Consumer<Success<T>> effect) {
-        return new ResultAsync<>(future.thenApply(r -> r.ifPresent(effect)));
+        return then(r -> r.ifPresent(effect));
     }
 
     @Override
@@ -158,18 +355,16 @@ public class ResultAsync<T> extends Result<T> {
         if(future.isDone() == false) {
             return "ResultAsync(<not done>)";
         }
-        return Log.function().code(l-> "ResultAsync(" + future.get() + ")");
+        return "ResultAsync(" + get() + ")";
     }
 
     @Override
     public <U> Result<Tuple2<T, U>> combine(Result<U> otherResult) {
         if(otherResult instanceof ResultAsync){
-            ResultAsync otherAsync = (ResultAsync) otherResult;
-
-            return new ResultAsync<>(CompletableFuture.allOf(this.future,otherAsync.future)
-                    .thenApply(completed -> super.combine(otherResult)));
+            CompletableFuture<Result<U>> other = ((ResultAsync<U>) otherResult).results();
+            return new ResultAsync<>(results().thenCombine(other, Result::combine), executor);
         } else {
-            return super.combine(otherResult);
+            return then(r -> r.combine(otherResult));
         }
     }
 
@@ -189,6 +384,6 @@ public class ResultAsync<T> extends Result<T> {
     public <U> U match(Function<Success<T>, U> onSuccess, Function<Empty<T>, U> onEmpty,
                        Function<Failure<T>, U> onFailure
     ) {
-        return Log.function(this).code(l -> completed().match(onSuccess, onEmpty, onFailure));
+        return completed().match(onSuccess, onEmpty, onFailure);
     }
 }
@@ -0,0 +1,19 @@
+package com.persistentbit.core.result;
+
+/**
+ * The exception used as cause for an {@link Empty} or {@link Failure} that is created
+ * with a message instead of an exception.<br>
+ * Empty and Failure results are normal control flow, so by default this exception
+ * is created lazily and without a stack trace.<br>
+ * When {@link Result#isDebug()} is on, the exception is created together with the
+ * result and captures the stack trace of the place where the result was created.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class ResultException extends RuntimeException{
+
+	public ResultException(String message, boolean withStackTrace) {
+		super(message, null, false, withStackTrace);
+	}
+}
@@ -3,35 +3,77 @@ package com.persistentbit.core.result;
 import com.persistentbit.core.logging.Log;
 import com.persistentbit.core.logging.entries.LogEntry;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.function.*;
 
 /**
- * TODO: Add comment
+ * A Result that is calculated when it is first needed.<br>
+ * Reading a calculated result does not take a lock
+ * and the supplier is released after use, so it can be garbage collected.<br>
+ * A ResultLazy created with {@link #retrying(Supplier, Duration, Duration)} does not keep a {@link Failure} forever:
+ * after a backoff time, the next read calls the supplier again.
+ * The backoff doubles after every failure, up to a maximum.
+ * Results derived with map, flatMap,... use the same retry policy.
  *
  * @author Peter Muys
  * @since 4/01/2017
  */
 public class ResultLazy<T> extends Result<T>{
 
-	private Supplier<Result<T>> supplier;
-	private Result<T>           value;
+	private          Supplier<Result<T>> supplier;
+	private volatile Result<T>           value;
+	private final    long                minRetryNanos;
+	private final    long                maxRetryNanos;
+	private          int                 failures;
+	private volatile long                retryAtNanos;
 
-	private ResultLazy(Supplier<Result<T>> supplier, Result<T> value) {
+	private ResultLazy(Supplier<Result<T>> supplier, long minRetryNanos, long maxRetryNanos) {
 		this.supplier = supplier;
+		this.minRetryNanos = minRetryNanos;
+		this.maxRetryNanos = maxRetryNanos;
 	}
 
 	private ResultLazy(Supplier<Result<T>> supplier) {
-		this(supplier, null);
+		this(supplier, 0, 0);
 	}
 
 	static public <T> ResultLazy<T> of(Supplier<Result<T>> supplier) {
 		return new ResultLazy<>(supplier);
 	}
 
+	/**
+	 * Create a lazy result that calls the supplier again when the result is a Failure.<br>
+	 * After the first failure, the failure is kept for minBackoff.
+	 * Every next failure doubles the time, up to maxBackoff.
+	 * An exception thrown by the supplier is kept as a Failure, with the same backoff.
+	 *
+	 * @param supplier   The supplier of the result
+	 * @param minBackoff The time a first failure is kept
+	 * @param maxBackoff The maximum time a failure is kept
+	 * @param <T>        The result value type
+	 *
+	 * @return The new lazy result
+	 */
+	static public <T> ResultLazy<T> retrying(Supplier<Result<T>> supplier, Duration minBackoff, Duration maxBackoff) {
+		if(minBackoff.isNegative() || minBackoff.isZero() || maxBackoff.compareTo(minBackoff) < 0) {
+			throw new IllegalArgumentException("Invalid backoff range: " + minBackoff + " - " + maxBackoff);
+		}
+		return new ResultLazy<>(supplier, minBackoff.toNanos(), maxBackoff.toNanos());
+	}
+
+	private boolean isRetrying() {
+		return minRetryNanos > 0;
+	}
+
+	private <U> ResultLazy<U> derived(Supplier<Result<U>> supplier) {
+		return new ResultLazy<>(supplier, minRetryNanos, maxRetryNanos);
+	}
+
 	@Override
 	public boolean isComplete() {
-		return value != null && value.isComplete();
+		Result<T> v = value;
+		return v != null && v.isComplete();
 	}
 
 	@Override
@@ -39,11 +81,46 @@ public class ResultLazy<T> extends Result<T>{
 		return getValue().completed();
 	}
 
-	private synchronized Result<T> getValue() {
-		if(value == null) {
-			value = supplier.get();
+	private boolean isValid(Result<T> v) {
+		if(v == null) {
+			return false;
+		}
+		return isRetrying() == false || v instanceof Failure == false || System.nanoTime() - retryAtNanos < 0;
+	}
+
+	private Result<T> getValue() {
+		Result<T> v = value;
+		if(isValid(v)) {
+			return v;
+		}
+		synchronized(this) {
+			v = value;
+			if(isValid(v)) {
+				return v;
+			}
+			if(isRetrying() == false) {
+				v = supplier.get();
+				supplier = null;
+			}
+			else {
+				try {
+					v = supplier.get().completed();
+				} catch(Exception e) {
+					//A throwing supplier gets the same backoff as a supplier returning a Failure
+					v = Result.failure(e);
+				}
+				if(v instanceof Failure) {
+					long backoff = Math.min(maxRetryNanos, minRetryNanos << Math.min(failures, 30));
+					failures++;
+					retryAtNanos = System.nanoTime() + (backoff <= 0 ? maxRetryNanos : backoff);
+				}
+				else {
+					supplier = null;
+				}
+			}
+			value = v;
+			return v;
 		}
-		return value;
 	}
 
 	@Override
@@ -53,32 +130,32 @@ public class ResultLazy<T> extends Result<T>{
 
 	@Override
 	public <U> Result<U> map(Function<T, U> mapper) {
-		return new ResultLazy<>(() -> getValue().map(mapper));
+		return derived(() -> getValue().map(mapper));
 	}
 
 	@Override
 	public <U> Result<U> flatMap(Function<T, Result<U>> mapper) {
-		return new ResultLazy<>(() -> getValue().flatMap(mapper));
+		return derived(() -> getValue().flatMap(mapper));
 	}
 
 	@Override
 	public Result<T> flatMapFailure(Function<? super Failure<T>, Result<T>> mapper) {
-		return new ResultLazy<>(() -> getValue().flatMapFailure(mapper));
+		return derived(() -> getValue().flatMapFailure(mapper));
 	}
 
 	@Override
 	public Result<T> flatMapEmpty(Function<? super Empty<T>, Result<T>> mapper) {
-		return new ResultLazy<>(() -> getValue().flatMapEmpty(mapper));
+		return derived(() -> getValue().flatMapEmpty(mapper));
 	}
 
 	@Override
 	public Result<T> flatMapNoSuccess(BiFunction<Result<T>, Throwable, Result<T>> mapper) {
-		return new ResultLazy<>(() -> getValue().flatMapNoSuccess(mapper));
+		return derived(() -> getValue().flatMapNoSuccess(mapper));
 	}
 
 	@Override
 	public Result<T> cleanLogsOnPresent() {
-		return new ResultLazy<>(() -> getValue().cleanLogsOnPresent());
+		return derived(() -> getValue().cleanLogsOnPresent());
 	}
 
 	@Override
@@ -93,27 +170,27 @@ public class ResultLazy<T> extends Result<T>{
 
 	@Override
 	public Result<T> mapError(Function<Throwable, ? extends Throwable> mapper) {
-		return new ResultLazy<>(() -> getValue().mapError(mapper));
+		return derived(() -> getValue().mapError(mapper));
 	}
 
 	@Override
 	public <E extends Throwable> Result<T> verify(Predicate<T> verification, Function<T, E> failureExceptionSupplier) {
-		return new ResultLazy<>(() -> getValue().verify(verification, failureExceptionSupplier));
+		return derived(() -> getValue().verify(verification, failureExceptionSupplier));
 	}
 
 	@Override
 	public Result<String> forEachOrErrorMsg(Consumer<? super T> effect) {
-		return new ResultLazy<>(() -> getValue().forEachOrErrorMsg(effect));
+		return derived(() -> getValue().forEachOrErrorMsg(effect));
 	}
 
 	@Override
 	public Result<Throwable> forEachOrException(Consumer<? super T> effect) {
-		return new ResultLazy<>(() -> getValue().forEachOrException(effect));
+		return derived(() -> getValue().forEachOrException(effect));
 	}
 
 	@Override
 	public Result<T> mapLog(Function<LogEntry, LogEntry> mapper) {
-		return new ResultLazy<>(() -> getValue().mapLog(mapper));
+		return derived(() -> getValue().mapLog(mapper));
 	}
 
 	@Override
@@ -128,7 +205,7 @@ public class ResultLazy<T> extends Result<T>{
 
 	@Override
 	public Result<T> filter(Predicate<T> filter) {
-		return new ResultLazy<>(() -> getValue().filter(filter));
+		return derived(() -> getValue().filter(filter));
 	}
 
 	@Override
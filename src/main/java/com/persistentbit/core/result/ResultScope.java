@@ -0,0 +1,193 @@
+package com.persistentbit.core.result;
+
+import com.persistentbit.core.Nothing;
+import com.persistentbit.core.collections.PList;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A scope for running async Results in parallel, in the style of structured concurrency.<br>
+ * Every {@link #fork(Supplier)} runs the code on the executor of the scope (by default the {@link AsyncBackend} executor).
+ * When a forked result is a {@link Failure}, all the other running forks are interrupted and the forks that did not start yet
+ * are cancelled.<br>
+ * {@link #join()} waits for all forks and returns the first failure.
+ * Closing the scope cancels the forks that are still running and waits until they are done,
+ * so no forked code outlives the scope:
+ * <pre>{@code
+ * try(ResultScope scope = ResultScope.open()){
+ *     ResultAsync<User>  user  = scope.fork(() -> loadUser(id));
+ *     ResultAsync<Order> order = scope.fork(() -> loadOrder(id));
+ *     return scope.join().flatMap(n -> user.combine(order)).completed();
+ * }
+ * }</pre>
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class ResultScope implements AutoCloseable{
+
+	private final Executor                    executor;
+	private final AtomicReference<Failure<?>> firstFailure = new AtomicReference<>();
+	private volatile PList<Fork<?>>           forks        = PList.empty();
+	private volatile boolean                  closed;
+
+	private final class Fork<T> implements Runnable{
+
+		final CompletableFuture<Result<T>> future  = new CompletableFuture<>();
+		//Completed when the code is no longer running and will not be started
+		final CompletableFuture<Nothing>   stopped = new CompletableFuture<>();
+		final Supplier<Result<T>>          code;
+		private Thread runner;
+
+		Fork(Supplier<Result<T>> code) {
+			this.code = code;
+		}
+
+		@Override
+		public void run() {
+			synchronized(this) {
+				if(future.isDone()) {
+					stopped.complete(Nothing.inst);
+					return;
+				}
+				runner = Thread.currentThread();
+			}
+			Result<T> result;
+			try {
+				result = code.get().completed();
+			} catch(Throwable e) {
+				result = Result.failure(e);
+			} finally {
+				synchronized(this) {
+					runner = null;
+					//Don't leak an interrupt from cancel() to the next task of a pooled thread
+					Thread.interrupted();
+				}
+				stopped.complete(Nothing.inst);
+			}
+			//Register the failure before completing, so join() always sees it
+			boolean first = result instanceof Failure && firstFailure.compareAndSet(null, (Failure<?>) result);
+			future.complete(result);
+			if(first) {
+				cancelAll();
+			}
+		}
+
+		synchronized void cancel() {
+			if(future.complete(Result.failure(new CancellationException("Cancelled by ResultScope")))) {
+				if(runner != null) {
+					runner.interrupt();
+				}
+				else {
+					stopped.complete(Nothing.inst);
+				}
+			}
+		}
+	}
+
+	private ResultScope(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @return A new scope that uses the {@link AsyncBackend} executor
+	 */
+	public static ResultScope open() {
+		return open(AsyncBackend.getExecutor());
+	}
+
+	/**
+	 * @param executor The executor for the forks
+	 *
+	 * @return A new scope that uses the given executor
+	 */
+	public static ResultScope open(Executor executor) {
+		if(executor == null) {
+			throw new IllegalArgumentException("executor is null");
+		}
+		return new ResultScope(executor);
+	}
+
+	/**
+	 * Run code in parallel in this scope.
+	 *
+	 * @param code The code to run
+	 * @param <T>  The result value type
+	 *
+	 * @return The async result of the code
+	 */
+	public <T> ResultAsync<T> fork(Supplier<Result<T>> code) {
+		if(closed) {
+			throw new IllegalStateException("ResultScope is closed");
+		}
+		Fork<T> fork = new Fork<>(code);
+		synchronized(this) {
+			forks = forks.plus(fork);
+		}
+		if(firstFailure.get() != null) {
+			fork.cancel();
+		}
+		else {
+			try {
+				executor.execute(fork);
+			} catch(RejectedExecutionException e) {
+				fork.future.complete(Result.failure(e));
+				fork.stopped.complete(Nothing.inst);
+			}
+		}
+		return ResultAsync.of(executor, fork.future);
+	}
+
+	private void cancelAll() {
+		for(Fork<?> fork : forks) {
+			fork.cancel();
+		}
+	}
+
+	/**
+	 * Wait until all forks are done.
+	 *
+	 * @return The first Failure of a fork or Success with {@link Nothing} when no fork failed
+	 */
+	public Result<Nothing> join() {
+		PList<Fork<?>> all = forks;
+		CompletableFuture.allOf(all.map(f -> f.future).toArray(new CompletableFuture[0])).join();
+		if(forks.size() != all.size()) {
+			//Forked while joining
+			return join();
+		}
+		Failure<?> failure = firstFailure.get();
+		return failure == null ? Result.success(Nothing.inst) : failure.map(v -> Nothing.inst);
+	}
+
+	/**
+	 * Cancel all forks that are not done and wait until the running forks have stopped.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		cancelAll();
+		boolean interrupted = false;
+		for(Fork<?> fork : forks) {
+			while(true) {
+				try {
+					fork.stopped.get();
+					break;
+				} catch(InterruptedException e) {
+					interrupted = true;
+				} catch(ExecutionException e) {
+					break;
+				}
+			}
+		}
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
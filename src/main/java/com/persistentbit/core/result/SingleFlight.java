@@ -0,0 +1,321 @@
+package com.persistentbit.core.result;
+
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.collections.PSet;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Wraps a Result loader function so that concurrent calls for the same key share one load.<br>
+ * A call for a key that is already loading returns the {@link ResultAsync} of that load instead of loading again:
+ * the call is collapsed.
+ * The load is done on the executor (by default the {@link AsyncBackend} executor).<br>
+ * With {@link #withCache(Duration)}, a {@link Success} is also cached for a short time after the load is done.
+ * Empty and Failure results are never cached.
+ * Expired results are removed when they are read or with {@link #cleanUp()}.<br>
+ * A batched SingleFlight ({@link #batched(Duration, Function)}) gathers the keys of the loads that start
+ * within a time window and loads them with one call of the batch loader.
+ * A key that is missing in the map returned by the batch loader gives an {@link Empty}.
+ * When the batch loader throws or the executor rejects the batch, all the keys of the batch get a {@link Failure}.<br>
+ * example: {@code Function<Long, Result<User>> users = SingleFlight.of(dao::findUser).withCache(Duration.ofSeconds(1)); }
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class SingleFlight<K, V> implements Function<K, Result<V>>{
+
+	private static final class Timer{
+
+		static final ScheduledExecutorService scheduler;
+
+		static {
+			ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1, r -> {
+				Thread t = new Thread(r, "SingleFlight batch");
+				t.setDaemon(true);
+				return t;
+			});
+			exec.setRemoveOnCancelPolicy(true);
+			scheduler = exec;
+		}
+	}
+
+	private static final class Cached<V>{
+
+		final Result<V> result;
+		final long      expiresNanos;
+
+		Cached(Result<V> result, long expiresNanos) {
+			this.result = result;
+			this.expiresNanos = expiresNanos;
+		}
+
+		boolean isExpired(long now) {
+			return now - expiresNanos >= 0;
+		}
+	}
+
+	private final Executor                              executor;
+	private final Function<K, Result<V>>                loader;
+	private final Function<PSet<K>, Result<PMap<K, V>>> batchLoader;
+	private final long                                  batchWindowNanos;
+	private final long                                  cacheNanos;
+	private final Map<K, CompletableFuture<Result<V>>>  inFlight  = new ConcurrentHashMap<>();
+	private final Map<K, Cached<V>>                     cache     = new ConcurrentHashMap<>();
+	private       PSet<K>                               batch     = PSet.empty();
+	private final LongAdder                             calls     = new LongAdder();
+	private final LongAdder                             collapsed = new LongAdder();
+	private final LongAdder                             cacheHits = new LongAdder();
+	private final LongAdder                             loads     = new LongAdder();
+
+	private SingleFlight(Executor executor, Function<K, Result<V>> loader,
+						 Function<PSet<K>, Result<PMap<K, V>>> batchLoader, long batchWindowNanos, long cacheNanos
+	) {
+		if(executor == null) {
+			throw new IllegalArgumentException("executor is null");
+		}
+		if(cacheNanos < 0 || batchWindowNanos < 0) {
+			throw new IllegalArgumentException("Durations can't be negative");
+		}
+		this.executor = executor;
+		this.loader = loader;
+		this.batchLoader = batchLoader;
+		this.batchWindowNanos = batchWindowNanos;
+		this.cacheNanos = cacheNanos;
+	}
+
+	public static <K, V> SingleFlight<K, V> of(Function<K, Result<V>> loader) {
+		return of(AsyncBackend.getExecutor(), loader);
+	}
+
+	/**
+	 * Create a SingleFlight for a loader function
+	 *
+	 * @param executor The executor for the loads
+	 * @param loader   The function that loads the value for a key
+	 * @param <K>      The key type
+	 * @param <V>      The value type
+	 *
+	 * @return The new SingleFlight without cache
+	 */
+	public static <K, V> SingleFlight<K, V> of(Executor executor, Function<K, Result<V>> loader) {
+		if(loader == null) {
+			throw new IllegalArgumentException("loader is null");
+		}
+		return new SingleFlight<>(executor, loader, null, 0, 0);
+	}
+
+	public static <K, V> SingleFlight<K, V> batched(Duration window, Function<PSet<K>, Result<PMap<K, V>>> batchLoader) {
+		return batched(AsyncBackend.getExecutor(), window, batchLoader);
+	}
+
+	/**
+	 * Create a SingleFlight that loads the keys in batches
+	 *
+	 * @param executor    The executor for the batch loads
+	 * @param window      The time to wait for more keys after the first key of a batch
+	 * @param batchLoader The function that loads the values for a set of keys
+	 * @param <K>         The key type
+	 * @param <V>         The value type
+	 *
+	 * @return The new SingleFlight without cache
+	 */
+	public static <K, V> SingleFlight<K, V> batched(Executor executor, Duration window,
+													Function<PSet<K>, Result<PMap<K, V>>> batchLoader
+	) {
+		if(batchLoader == null) {
+			throw new IllegalArgumentException("batchLoader is null");
+		}
+		return new SingleFlight<>(executor, null, batchLoader, window.toNanos(), 0);
+	}
+
+	/**
+	 * Get a new SingleFlight with the same loader that caches a Success result.
+	 *
+	 * @param timeToLive How long a result stays in the cache after it is loaded
+	 *
+	 * @return A new SingleFlight with an empty cache
+	 */
+	public SingleFlight<K, V> withCache(Duration timeToLive) {
+		return new SingleFlight<>(executor, loader, batchLoader, batchWindowNanos, timeToLive.toNanos());
+	}
+
+	/**
+	 * Get the result for a key.<br>
+	 * Returns the cached result, joins the load that is in flight for this key or starts a new load.
+	 *
+	 * @param key The key to load
+	 *
+	 * @return The result
+	 */
+	@Override
+	public Result<V> apply(K key) {
+		calls.increment();
+		if(cacheNanos > 0) {
+			Cached<V> cached = cache.get(key);
+			if(cached != null) {
+				if(cached.isExpired(System.nanoTime()) == false) {
+					cacheHits.increment();
+					return cached.result;
+				}
+				cache.remove(key, cached);
+			}
+		}
+		CompletableFuture<Result<V>> flight   = new CompletableFuture<>();
+		CompletableFuture<Result<V>> existing = inFlight.putIfAbsent(key, flight);
+		if(existing != null) {
+			collapsed.increment();
+			return ResultAsync.of(executor, existing);
+		}
+		loads.increment();
+		if(loader != null) {
+			ResultAsync.of(executor, () -> loader.apply(key)).onComplete(r -> done(key, flight, r));
+		}
+		else {
+			addToBatch(key);
+		}
+		return ResultAsync.of(executor, flight);
+	}
+
+	private void done(K key, CompletableFuture<Result<V>> flight, Result<V> loaded) {
+		Result<V> result = loaded.completed();
+		if(cacheNanos > 0 && result instanceof Success) {
+			cache.put(key, new Cached<>(result, System.nanoTime() + cacheNanos));
+		}
+		flight.complete(result);
+		inFlight.remove(key, flight);
+	}
+
+	private void addToBatch(K key) {
+		boolean first;
+		synchronized(this) {
+			first = batch.isEmpty();
+			batch = batch.plus(key);
+		}
+		if(first) {
+			Timer.scheduler.schedule(this::startBatch, batchWindowNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private synchronized PSet<K> takeBatch() {
+		PSet<K> keys = batch;
+		batch = PSet.empty();
+		return keys;
+	}
+
+	private void startBatch() {
+		try {
+			executor.execute(this::loadBatch);
+		} catch(RuntimeException e) {
+			//Rejected: nobody will load the keys that are waiting
+			failBatch(takeBatch(), e);
+		}
+	}
+
+	private void loadBatch() {
+		PSet<K> keys = takeBatch();
+		try {
+			Result<PMap<K, V>> res;
+			try {
+				res = batchLoader.apply(keys).completed();
+			} catch(Exception e) {
+				res = Result.failure(e);
+			}
+			for(K key : keys) {
+				CompletableFuture<Result<V>> flight = inFlight.get(key);
+				if(flight == null) {
+					continue;
+				}
+				Result<V> keyResult = res.flatMap(values -> values.getOpt(key)
+					.<Result<V>>map(Result::success)
+					.orElseGet(() -> Result.empty("No value for key " + key)));
+				done(key, flight, keyResult);
+			}
+		} catch(Throwable e) {
+			failBatch(keys, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Complete the flights of a batch that could not be loaded, so the callers don't wait forever
+	 */
+	private void failBatch(PSet<K> keys, Throwable cause) {
+		for(K key : keys) {
+			CompletableFuture<Result<V>> flight = inFlight.get(key);
+			if(flight != null) {
+				flight.complete(Result.failure(cause));
+				inFlight.remove(key, flight);
+			}
+		}
+	}
+
+	/**
+	 * Remove the cached result for a key
+	 *
+	 * @param key The key to remove
+	 */
+	public void invalidate(K key) {
+		cache.remove(key);
+	}
+
+	/**
+	 * Remove all cached results
+	 */
+	public void invalidateAll() {
+		cache.clear();
+	}
+
+	/**
+	 * Remove all expired results from the cache
+	 */
+	public void cleanUp() {
+		long now = System.nanoTime();
+		cache.entrySet().removeIf(e -> e.getValue().isExpired(now));
+	}
+
+	/**
+	 * @return The total number of calls to {@link #apply(Object)}
+	 */
+	public long getCallCount() {
+		return calls.sum();
+	}
+
+	/**
+	 * @return The number of calls that joined a load in flight
+	 */
+	public long getCollapsedCount() {
+		return collapsed.sum();
+	}
+
+	/**
+	 * @return The number of calls that returned a cached result
+	 */
+	public long getCacheHitCount() {
+		return cacheHits.sum();
+	}
+
+	/**
+	 * @return The number of loads started. For a batched SingleFlight, this is the number of keys loaded.
+	 */
+	public long getLoadCount() {
+		return loads.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "SingleFlight(calls=" + getCallCount() + ", collapsed=" + getCollapsedCount()
+			+ ", cacheHits=" + getCacheHitCount() + ", loads=" + getLoadCount() + ")";
+	}
+}
@@ -80,7 +80,8 @@ public class Success<T> extends Result<T>{
 		if(resultValue == null) {
 			return failure("flatMap returned a null result");
 		}
-		if(resultValue.getLog().isEmpty() && log.isEmpty()) {
+		//Don't look at the log of resultValue: that would block for an async result
+		if(log.isEmpty()) {
 			return resultValue;
 		}
 		return resultValue.mapLog(log::append);
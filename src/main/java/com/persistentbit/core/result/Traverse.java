@@ -0,0 +1,127 @@
+package com.persistentbit.core.result;
+
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.logging.entries.LogEntry;
+import com.persistentbit.core.logging.entries.LogEntryEmpty;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * The state of a {@link Result#traverseAsync(Executor, int, com.persistentbit.core.collections.PStream, Function)}.<br>
+ * Elements are taken from the iterator when there is room for them,
+ * so the iterator is only used while holding the lock of this object.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+final class Traverse<A, B>{
+
+	private final Executor                            executor;
+	private final int                                 parallelism;
+	private final Iterator<A>                         elements;
+	private final Function<? super A, Result<B>>      mapper;
+	private final CompletableFuture<Result<PList<B>>> promise = new CompletableFuture<>();
+	private final Map<Integer, CompletableFuture<?>>  running = new HashMap<>();
+	private final Map<Integer, Result<B>>             done    = new HashMap<>();
+	private       int                                 next;
+	//True while launch() is running, to start the next elements in a loop instead of recursively
+	private       boolean                             launching;
+
+	Traverse(Executor executor, int parallelism, Iterator<A> elements, Function<? super A, Result<B>> mapper) {
+		this.executor = executor;
+		this.parallelism = parallelism;
+		this.elements = elements;
+		this.mapper = mapper;
+	}
+
+	ResultAsync<PList<B>> start() {
+		//Cancelling the returned ResultAsync cancels the promise, which stops the mappings
+		promise.whenComplete((r, e) -> cancelRunning());
+		launch();
+		return ResultAsync.of(executor, promise);
+	}
+
+	private synchronized void launch() {
+		if(launching) {
+			//Called from a mapping that completed while starting it: the running loop continues
+			return;
+		}
+		launching = true;
+		try {
+			launchLoop();
+		} finally {
+			launching = false;
+		}
+	}
+
+	private void launchLoop() {
+		while(promise.isDone() == false && running.size() < parallelism) {
+			boolean hasNext;
+			A       element;
+			try {
+				hasNext = elements.hasNext();
+				element = hasNext ? elements.next() : null;
+			} catch(Exception e) {
+				promise.complete(Result.failure(e));
+				return;
+			}
+			if(hasNext == false) {
+				if(running.isEmpty()) {
+					promise.complete(collect());
+				}
+				return;
+			}
+			int                          index  = next++;
+			CompletableFuture<Result<B>> mapped = CompletableFuture.supplyAsync(() -> mapper.apply(element), executor);
+			running.put(index, mapped);
+			ResultAsync.of(executor, mapped).toCompletableFuture().thenAccept(r -> completed(index, r));
+		}
+	}
+
+	private synchronized void completed(int index, Result<B> result) {
+		running.remove(index);
+		if(promise.isDone()) {
+			return;
+		}
+		Result<B> res = result == null ? Result.failure("traverse mapper returned a null result") : result.completed();
+		if(res instanceof Success == false) {
+			LogEntry before = logsBefore(index);
+			promise.complete(res.mapLog(before::append).map(v -> null));
+			return;
+		}
+		done.put(index, res);
+		launch();
+	}
+
+	private LogEntry logsBefore(int index) {
+		LogEntry log = LogEntryEmpty.inst;
+		for(int t = 0; t < index; t++) {
+			Result<B> r = done.get(t);
+			if(r != null) {
+				log = log.append(r.getLog());
+			}
+		}
+		return log;
+	}
+
+	private Result<PList<B>> collect() {
+		PList<B> values = PList.empty();
+		for(int t = 0; t < next; t++) {
+			values = values.plus(done.get(t).orElseThrow());
+		}
+		LogEntry log = logsBefore(next);
+		return Result.success(values).mapLog(l -> log);
+	}
+
+	private synchronized void cancelRunning() {
+		//Cancelling completes the futures, which removes them from running
+		for(CompletableFuture<?> f : PList.from(running.values())) {
+			f.cancel(false);
+		}
+	}
+}
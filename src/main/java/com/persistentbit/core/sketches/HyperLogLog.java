@@ -0,0 +1,196 @@
+package com.persistentbit.core.sketches;
+
+import com.persistentbit.core.Immutable;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An immutable HyperLogLog sketch for approximate distinct counting.<br>
+ * The sketch uses 2^precision one-byte registers, independent of the number of elements added.<br>
+ * The relative standard error of {@link #estimate()} is about 1.04 / sqrt(2^precision),
+ * so 0.8% for the default precision of 14 (16KB of registers).<br>
+ * Sketches with the same precision can be merged, so partial results from different
+ * partitions or processes can be combined.<br>
+ * Elements are hashed using their {@link Object#hashCode()}, so the quality of the estimate
+ * depends on the quality of the element hash codes.
+ *
+ * @author Peter Muys
+ * @see com.persistentbit.core.collections.PStream#countDistinctApprox()
+ * @since 19/10/2026
+ */
+@Immutable
+public final class HyperLogLog implements Serializable{
+
+	public static final int defaultPrecision = 14;
+	public static final int minPrecision     = 4;
+	public static final int maxPrecision     = 18;
+
+	private static final HyperLogLog defaultEmpty = new HyperLogLog(defaultPrecision, new byte[1 << defaultPrecision]);
+
+	private final int    precision;
+	private final byte[] registers;
+
+	private HyperLogLog(int precision, byte[] registers) {
+		this.precision = precision;
+		this.registers = registers;
+	}
+
+	/**
+	 * @return An empty sketch with the default precision
+	 */
+	public static HyperLogLog empty() {
+		return defaultEmpty;
+	}
+
+	/**
+	 * Create an empty sketch
+	 *
+	 * @param precision Number of index bits: between {@link #minPrecision} and {@link #maxPrecision}
+	 *
+	 * @return The empty sketch
+	 */
+	public static HyperLogLog empty(int precision) {
+		if(precision < minPrecision || precision > maxPrecision) {
+			throw new IllegalArgumentException("precision must be between " + minPrecision + " and " + maxPrecision + ": " + precision);
+		}
+		if(precision == defaultPrecision) {
+			return defaultEmpty;
+		}
+		return new HyperLogLog(precision, new byte[1 << precision]);
+	}
+
+	/**
+	 * Create a new sketch with all the provided elements added.<br>
+	 * null elements are ignored.
+	 *
+	 * @param elements The elements to add
+	 *
+	 * @return The new sketch
+	 */
+	public HyperLogLog plusAll(Iterable<?> elements) {
+		byte[] newRegisters = registers.clone();
+		for(Object v : elements) {
+			if(v != null) {
+				add(newRegisters, v.hashCode());
+			}
+		}
+		return new HyperLogLog(precision, newRegisters);
+	}
+
+	/**
+	 * Create a new sketch with the element added.<br>
+	 * Copies all registers: use {@link #plusAll(Iterable)} to add a lot of elements.
+	 *
+	 * @param element The element to add
+	 *
+	 * @return The new sketch
+	 */
+	public HyperLogLog plus(Object element) {
+		if(element == null) {
+			return this;
+		}
+		byte[] newRegisters = registers.clone();
+		add(newRegisters, element.hashCode());
+		return new HyperLogLog(precision, newRegisters);
+	}
+
+	private void add(byte[] regs, int hashCode) {
+		long hash  = mix(hashCode);
+		int  index = (int) (hash >>> (64 - precision));
+		int  rank  = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+		if(rank > regs[index]) {
+			regs[index] = (byte) rank;
+		}
+	}
+
+	/**
+	 * Spread a 32 bit hashCode over 64 bits (murmur3 finalizer)
+	 */
+	static long mix(int hashCode) {
+		long h = hashCode * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Merge this sketch with another sketch with the same precision.<br>
+	 * The result is the sketch of the union of both element streams.
+	 *
+	 * @param other The other sketch
+	 *
+	 * @return The merged sketch
+	 */
+	public HyperLogLog merge(HyperLogLog other) {
+		if(other.precision != precision) {
+			throw new IllegalArgumentException("Can't merge HyperLogLog sketches with different precision: " + precision + " and " + other.precision);
+		}
+		byte[] newRegisters = registers.clone();
+		for(int t = 0; t < newRegisters.length; t++) {
+			if(other.registers[t] > newRegisters[t]) {
+				newRegisters[t] = other.registers[t];
+			}
+		}
+		return new HyperLogLog(precision, newRegisters);
+	}
+
+	/**
+	 * @return The estimated number of distinct elements
+	 */
+	public long estimate() {
+		int    m     = registers.length;
+		double sum   = 0;
+		int    zeros = 0;
+		for(byte r : registers) {
+			sum += 1.0 / (1L << r);
+			if(r == 0) {
+				zeros++;
+			}
+		}
+		double estimate = alpha(m) * m * m / sum;
+		if(estimate <= 2.5 * m && zeros > 0) {
+			//Small range correction: linear counting
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	private static double alpha(int m) {
+		switch(m) {
+			case 16:
+				return 0.673;
+			case 32:
+				return 0.697;
+			case 64:
+				return 0.709;
+			default:
+				return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(o == null || getClass() != o.getClass()) return false;
+		HyperLogLog that = (HyperLogLog) o;
+		return precision == that.precision && Arrays.equals(registers, that.registers);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * precision + Arrays.hashCode(registers);
+	}
+
+	@Override
+	public String toString() {
+		return "HyperLogLog[precision=" + precision + ", estimate=" + estimate() + "]";
+	}
+}
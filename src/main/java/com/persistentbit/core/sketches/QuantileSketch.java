@@ -0,0 +1,353 @@
+package com.persistentbit.core.sketches;
+
+import com.persistentbit.core.Immutable;
+import com.persistentbit.core.collections.PList;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * An immutable KLL sketch for approximate quantiles over a stream of doubles.<br>
+ * The sketch keeps a hierarchy of compactors: items on level h have a weight of 2^h.
+ * When a level is full, it is sorted and every other item is promoted to the next level.<br>
+ * The memory used is O(k) and the rank error is about 1.7 / k (1% for k=200).<br>
+ * Sketches can be merged, so partial results from different partitions
+ * or processes can be combined.
+ *
+ * @author Peter Muys
+ * @see com.persistentbit.core.collections.PStream#quantilesApprox(ToDoubleFunction)
+ * @since 19/10/2026
+ */
+@Immutable
+public final class QuantileSketch implements Serializable{
+
+	public static final int defaultK = 200;
+
+	private static final int    minLevelCapacity = 8;
+	private static final double levelDecay       = 2.0 / 3.0;
+
+	private final int        k;
+	private final long       count;
+	private final double     min;
+	private final double     max;
+	private final double[][] levels;
+	private final long       coinState;
+
+	private QuantileSketch(int k, long count, double min, double max, double[][] levels, long coinState) {
+		this.k = k;
+		this.count = count;
+		this.min = min;
+		this.max = max;
+		this.levels = levels;
+		this.coinState = coinState;
+	}
+
+	public static QuantileSketch empty() {
+		return empty(defaultK);
+	}
+
+	/**
+	 * Create a new empty sketch
+	 *
+	 * @param k Accuracy parameter: higher is more accurate but uses more memory
+	 *
+	 * @return The empty sketch
+	 */
+	public static QuantileSketch empty(int k) {
+		if(k < minLevelCapacity) {
+			throw new IllegalArgumentException("k must be >= " + minLevelCapacity + ": " + k);
+		}
+		return new QuantileSketch(k, 0, Double.NaN, Double.NaN, new double[0][], 0x2545F4914F6CDD1DL);
+	}
+
+	/**
+	 * Create a new sketch with the mapped values of all the elements added.<br>
+	 * NaN values are ignored.
+	 *
+	 * @param elements The elements
+	 * @param mapper   Maps an element to a double value
+	 * @param <T>      The element type
+	 *
+	 * @return The new sketch
+	 */
+	public <T> QuantileSketch plusAll(Iterable<T> elements, ToDoubleFunction<? super T> mapper) {
+		Builder b = new Builder(this);
+		for(T e : elements) {
+			b.add(mapper.applyAsDouble(e));
+		}
+		return b.build();
+	}
+
+	public QuantileSketch plusAll(Iterable<? extends Number> numbers) {
+		return plusAll(numbers, Number::doubleValue);
+	}
+
+	/**
+	 * Merge this sketch with another sketch.<br>
+	 * The k value of this sketch is used for the result.
+	 *
+	 * @param other The other sketch
+	 *
+	 * @return The merged sketch
+	 */
+	public QuantileSketch merge(QuantileSketch other) {
+		Builder b = new Builder(this);
+		b.mergeLevels(other);
+		return b.build();
+	}
+
+	/**
+	 * Get the approximate value at the given quantile.
+	 *
+	 * @param q The quantile between 0 and 1 (0.5 for the median)
+	 *
+	 * @return The approximate value or NaN for an empty sketch
+	 */
+	public double quantile(double q) {
+		if(q < 0 || q > 1) {
+			throw new IllegalArgumentException("quantile must be between 0 and 1: " + q);
+		}
+		if(count == 0) {
+			return Double.NaN;
+		}
+		if(q == 0) {
+			return min;
+		}
+		if(q == 1) {
+			return max;
+		}
+		int size = 0;
+		for(double[] level : levels) {
+			size += level.length;
+		}
+		//Sort the items of all levels, every item has a weight of 2^level
+		double[]  values  = new double[size];
+		long[]    weights = new long[size];
+		Integer[] order   = new Integer[size];
+		int       i       = 0;
+		for(int h = 0; h < levels.length; h++) {
+			for(double v : levels[h]) {
+				values[i] = v;
+				weights[i] = 1L << h;
+				order[i] = i;
+				i++;
+			}
+		}
+		Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+		long total = 0;
+		for(long w : weights) {
+			total += w;
+		}
+		long target = (long) Math.ceil(q * total);
+		long sum    = 0;
+		for(int idx : order) {
+			sum += weights[idx];
+			if(sum >= target) {
+				return values[idx];
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Get multiple quantiles at once
+	 *
+	 * @param qs The quantiles, every one between 0 and 1
+	 *
+	 * @return A PList with a value for every quantile
+	 */
+	public PList<Double> quantiles(double... qs) {
+		PList<Double> res = PList.empty();
+		for(double q : qs) {
+			res = res.plus(quantile(q));
+		}
+		return res;
+	}
+
+	/**
+	 * Get the approximate fraction of values that are &lt;= the given value.
+	 *
+	 * @param value The value
+	 *
+	 * @return The normalized rank between 0 and 1
+	 */
+	public double rank(double value) {
+		if(count == 0) {
+			return Double.NaN;
+		}
+		long below = 0;
+		long total = 0;
+		for(int h = 0; h < levels.length; h++) {
+			long w = 1L << h;
+			for(double v : levels[h]) {
+				total += w;
+				if(v <= value) {
+					below += w;
+				}
+			}
+		}
+		return (double) below / total;
+	}
+
+	/**
+	 * @return The number of values added
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	public double getMin() {
+		return min;
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+	public int getK() {
+		return k;
+	}
+
+	@Override
+	public String toString() {
+		if(count == 0) {
+			return "QuantileSketch[empty]";
+		}
+		return "QuantileSketch[count=" + count + ", min=" + min + ", median=" + quantile(0.5) + ", max=" + max + "]";
+	}
+
+	/**
+	 * Mutable compactor hierarchy used to build a new immutable QuantileSketch
+	 */
+	private static final class Builder{
+
+		private final int            k;
+		private final List<double[]> levels = new ArrayList<>();
+		private final List<Integer>  sizes  = new ArrayList<>();
+		private long   count;
+		private double min;
+		private double max;
+		private long   coinState;
+
+		Builder(QuantileSketch base) {
+			this.k = base.k;
+			this.count = base.count;
+			this.min = base.min;
+			this.max = base.max;
+			this.coinState = base.coinState;
+			for(double[] level : base.levels) {
+				double[] copy = Arrays.copyOf(level, Math.max(level.length, capacity(levels.size(), base.levels.length)));
+				levels.add(copy);
+				sizes.add(level.length);
+			}
+		}
+
+		private int capacity(int level, int numLevels) {
+			int depth = numLevels - level - 1;
+			return Math.max(minLevelCapacity, (int) Math.ceil(k * Math.pow(levelDecay, depth)));
+		}
+
+		void add(double value) {
+			if(Double.isNaN(value)) {
+				return;
+			}
+			if(count == 0) {
+				min = value;
+				max = value;
+			}
+			else {
+				min = Math.min(min, value);
+				max = Math.max(max, value);
+			}
+			count++;
+			if(levels.isEmpty()) {
+				addLevel();
+			}
+			append(0, value);
+			if(sizes.get(0) >= capacity(0, levels.size())) {
+				compress();
+			}
+		}
+
+		void mergeLevels(QuantileSketch other) {
+			if(other.count == 0) {
+				return;
+			}
+			if(count == 0) {
+				min = other.min;
+				max = other.max;
+			}
+			else {
+				min = Math.min(min, other.min);
+				max = Math.max(max, other.max);
+			}
+			count += other.count;
+			for(int h = 0; h < other.levels.length; h++) {
+				while(levels.size() <= h) {
+					addLevel();
+				}
+				for(double v : other.levels[h]) {
+					append(h, v);
+				}
+			}
+			compress();
+		}
+
+		private void addLevel() {
+			levels.add(new double[minLevelCapacity]);
+			sizes.add(0);
+		}
+
+		private void append(int level, double value) {
+			double[] arr  = levels.get(level);
+			int      size = sizes.get(level);
+			if(size == arr.length) {
+				arr = Arrays.copyOf(arr, arr.length * 2);
+				levels.set(level, arr);
+			}
+			arr[size] = value;
+			sizes.set(level, size + 1);
+		}
+
+		private void compress() {
+			for(int h = 0; h < levels.size(); h++) {
+				int size = sizes.get(h);
+				if(size < capacity(h, levels.size())) {
+					continue;
+				}
+				if(h + 1 == levels.size()) {
+					addLevel();
+				}
+				double[] arr = levels.get(h);
+				//Keep one item on this level when the size is odd
+				int      pairs = size / 2;
+				int      keep  = size - pairs * 2;
+				Arrays.sort(arr, 0, size);
+				int offset = nextCoin();
+				for(int t = 0; t < pairs; t++) {
+					append(h + 1, arr[keep + t * 2 + offset]);
+				}
+				sizes.set(h, keep);
+			}
+		}
+
+		private int nextCoin() {
+			//xorshift64
+			coinState ^= coinState << 13;
+			coinState ^= coinState >>> 7;
+			coinState ^= coinState << 17;
+			return (int) (coinState & 1);
+		}
+
+		QuantileSketch build() {
+			double[][] res = new double[levels.size()][];
+			for(int h = 0; h < res.length; h++) {
+				res[h] = Arrays.copyOf(levels.get(h), sizes.get(h));
+			}
+			return new QuantileSketch(k, count, min, max, res, coinState);
+		}
+	}
+}
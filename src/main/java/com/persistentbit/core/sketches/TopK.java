@@ -0,0 +1,305 @@
+package com.persistentbit.core.sketches;
+
+import com.persistentbit.core.Immutable;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * An immutable Space-Saving sketch for finding the most frequent keys in a stream.<br>
+ * The sketch keeps at most capacity counters, independent of the number of distinct keys.<br>
+ * Every key with a real frequency above n / capacity is guaranteed to be in the sketch.
+ * The count of a key is overestimated with at most {@link #getMaxError()}.<br>
+ * Sketches can be merged, so partial results from different partitions
+ * or processes can be combined.
+ *
+ * @param <K> The type of the keys
+ *
+ * @author Peter Muys
+ * @see com.persistentbit.core.collections.PStream#topK(int, Function)
+ * @since 19/10/2026
+ */
+@Immutable
+public final class TopK<K> implements Serializable{
+
+	private final int      k;
+	private final int      capacity;
+	private final long     totalCount;
+	//Sorted on count descending
+	private final Object[] keys;
+	private final long[]   counts;
+	private final long[]   errors;
+
+	private TopK(int k, int capacity, long totalCount, Object[] keys, long[] counts, long[] errors) {
+		this.k = k;
+		this.capacity = capacity;
+		this.totalCount = totalCount;
+		this.keys = keys;
+		this.counts = counts;
+		this.errors = errors;
+	}
+
+	/**
+	 * Create an empty sketch that reports the top k keys, using k * 8 counters (min. 64).
+	 *
+	 * @param k   The number of keys to report
+	 * @param <K> The type of the keys
+	 *
+	 * @return The empty sketch
+	 */
+	public static <K> TopK<K> empty(int k) {
+		return empty(k, Math.max(64, k * 8));
+	}
+
+	/**
+	 * Create an empty sketch
+	 *
+	 * @param k        The number of keys to report
+	 * @param capacity The number of counters to keep: more counters give more accurate counts
+	 * @param <K>      The type of the keys
+	 *
+	 * @return The empty sketch
+	 */
+	public static <K> TopK<K> empty(int k, int capacity) {
+		if(k < 1) {
+			throw new IllegalArgumentException("k must be > 0: " + k);
+		}
+		if(capacity < k) {
+			throw new IllegalArgumentException("capacity must be >= k: " + capacity);
+		}
+		return new TopK<>(k, capacity, 0, new Object[0], new long[0], new long[0]);
+	}
+
+	/**
+	 * Create a new sketch with the keys of all the provided elements added.
+	 *
+	 * @param elements The elements
+	 * @param keyFn    Key supplier for an element
+	 * @param <T>      The type of the elements
+	 *
+	 * @return The new sketch
+	 */
+	public <T> TopK<K> plusAll(Iterable<T> elements, Function<? super T, ? extends K> keyFn) {
+		Builder<K> b = new Builder<>(this);
+		for(T v : elements) {
+			b.add(keyFn.apply(v), 1, 0);
+		}
+		return b.build();
+	}
+
+	/**
+	 * Create a new sketch with all the provided keys added.
+	 *
+	 * @param keysToAdd The keys
+	 *
+	 * @return The new sketch
+	 */
+	public TopK<K> plusAll(Iterable<? extends K> keysToAdd) {
+		return plusAll(keysToAdd, Function.identity());
+	}
+
+	/**
+	 * Merge this sketch with another sketch.<br>
+	 * The capacity and k of this sketch are used for the result.
+	 *
+	 * @param other The other sketch
+	 *
+	 * @return The merged sketch
+	 */
+	@SuppressWarnings("unchecked")
+	public TopK<K> merge(TopK<K> other) {
+		Map<Object, long[]> merged = new HashMap<>();
+		for(int t = 0; t < keys.length; t++) {
+			merged.put(keys[t], new long[]{counts[t], errors[t]});
+		}
+		long thisMin  = getMaxError();
+		long otherMin = other.getMaxError();
+		for(int t = 0; t < other.keys.length; t++) {
+			long[] ce = merged.get(other.keys[t]);
+			if(ce == null) {
+				merged.put(other.keys[t], new long[]{other.counts[t] + thisMin, other.errors[t] + thisMin});
+			}
+			else {
+				ce[0] += other.counts[t];
+				ce[1] += other.errors[t];
+			}
+		}
+		Set<Object> otherKeys = new HashSet<>(Arrays.asList(other.keys));
+		for(int t = 0; t < keys.length; t++) {
+			if(otherKeys.contains(keys[t]) == false) {
+				long[] ce = merged.get(keys[t]);
+				ce[0] += otherMin;
+				ce[1] += otherMin;
+			}
+		}
+		List<Map.Entry<Object, long[]>> entries = new ArrayList<>(merged.entrySet());
+		entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+		int      size        = Math.min(capacity, entries.size());
+		Object[] newKeys     = new Object[size];
+		long[]   newCounts   = new long[size];
+		long[]   newErrors   = new long[size];
+		for(int t = 0; t < size; t++) {
+			Map.Entry<Object, long[]> e = entries.get(t);
+			newKeys[t] = e.getKey();
+			newCounts[t] = e.getValue()[0];
+			newErrors[t] = e.getValue()[1];
+		}
+		return new TopK<>(k, capacity, totalCount + other.totalCount, newKeys, newCounts, newErrors);
+	}
+
+	/**
+	 * Get the k most frequent keys with their estimated count, the most frequent first.
+	 *
+	 * @return PList of (key, estimated count)
+	 */
+	@SuppressWarnings("unchecked")
+	public PList<Tuple2<K, Long>> top() {
+		PList<Tuple2<K, Long>> res = PList.empty();
+		for(int t = 0; t < Math.min(k, keys.length); t++) {
+			res = res.plus(Tuple2.of((K) keys[t], counts[t]));
+		}
+		return res;
+	}
+
+	/**
+	 * Get the estimated count for a key.<br>
+	 * For keys that are not tracked, this is the maximum count they could have.
+	 *
+	 * @param key The key
+	 *
+	 * @return The estimated count, never lower than the real count
+	 */
+	public long estimate(K key) {
+		for(int t = 0; t < keys.length; t++) {
+			if(Objects.equals(keys[t], key)) {
+				return counts[t];
+			}
+		}
+		return getMaxError();
+	}
+
+	/**
+	 * @return The maximum overestimation of a count: 0 when no keys were evicted
+	 */
+	public long getMaxError() {
+		return keys.length < capacity ? 0 : counts[counts.length - 1];
+	}
+
+	/**
+	 * @return The total number of keys added to this sketch
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public int getK() {
+		return k;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(o == null || getClass() != o.getClass()) return false;
+		TopK<?> that = (TopK<?>) o;
+		return k == that.k && capacity == that.capacity && totalCount == that.totalCount
+			&& Arrays.equals(keys, that.keys) && Arrays.equals(counts, that.counts)
+			&& Arrays.equals(errors, that.errors);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 31 * k + capacity;
+		result = 31 * result + Long.hashCode(totalCount);
+		result = 31 * result + Arrays.hashCode(keys);
+		return 31 * result + Arrays.hashCode(counts);
+	}
+
+	@Override
+	public String toString() {
+		return "TopK[k=" + k + ", totalCount=" + totalCount + ", top=" + top().toString(", ") + "]";
+	}
+
+	/**
+	 * Mutable Space-Saving summary used to build a new immutable TopK
+	 */
+	private static final class Builder<K>{
+
+		private final TopK<K>              base;
+		private final Map<Object, Counter> counters = new HashMap<>();
+		private final TreeSet<Counter>     byCount  = new TreeSet<>((a, b) -> {
+			int c = Long.compare(a.count, b.count);
+			return c != 0 ? c : Long.compare(a.id, b.id);
+		});
+		private long added;
+		private long nextId;
+
+		Builder(TopK<K> base) {
+			this.base = base;
+			for(int t = base.keys.length - 1; t >= 0; t--) {
+				Counter c = new Counter(base.keys[t], base.counts[t], base.errors[t], nextId++);
+				counters.put(c.key, c);
+				byCount.add(c);
+			}
+		}
+
+		void add(Object key, long count, long error) {
+			added += count;
+			Counter c = counters.get(key);
+			if(c != null) {
+				byCount.remove(c);
+				c.count += count;
+				c.error += error;
+				byCount.add(c);
+				return;
+			}
+			if(counters.size() < base.capacity) {
+				c = new Counter(key, count, error, nextId++);
+			}
+			else {
+				//Replace the key with the lowest count
+				Counter min = byCount.pollFirst();
+				counters.remove(min.key);
+				c = new Counter(key, min.count + count, min.count + error, nextId++);
+			}
+			counters.put(key, c);
+			byCount.add(c);
+		}
+
+		TopK<K> build() {
+			int      size   = byCount.size();
+			Object[] keys   = new Object[size];
+			long[]   counts = new long[size];
+			long[]   errors = new long[size];
+			int      i      = 0;
+			for(Counter c : byCount.descendingSet()) {
+				keys[i] = c.key;
+				counts[i] = c.count;
+				errors[i] = c.error;
+				i++;
+			}
+			return new TopK<>(base.k, base.capacity, base.totalCount + added, keys, counts, errors);
+		}
+	}
+
+	private static final class Counter{
+
+		final Object key;
+		final long   id;
+		long count;
+		long error;
+
+		Counter(Object key, long count, long error, long id) {
+			this.key = key;
+			this.count = count;
+			this.error = error;
+			this.id = id;
+		}
+	}
+}
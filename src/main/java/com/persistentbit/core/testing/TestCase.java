@@ -2,6 +2,7 @@ package com.persistentbit.core.testing;
 
 import com.persistentbit.core.collections.PList;
 import com.persistentbit.core.collections.PStream;
+import com.persistentbit.core.logging.CallSiteCapture;
 import com.persistentbit.core.logging.entries.LogContext;
 import com.persistentbit.core.result.Result;
 
@@ -46,7 +47,7 @@ public final class TestCase{
 	public static TestCase forTestClass(Class testClass){
 		String         name = testClass.getName();
 		String         info = "All TestCases in class " + name;
-		LogContext     logContext = new LogContext(Thread.currentThread().getStackTrace()[3]).withMethodName("TestCase");
+		LogContext     logContext = CallSiteCapture.capture(3).withMethodName("TestCase");
 		PStream<TestCase> fields = PStream.from(testClass.getDeclaredFields())
 			.filter(f -> Modifier.isStatic(f.getModifiers()))
 			.filter(f -> Modifier.isPrivate(f.getModifiers()) == false)
@@ -78,7 +79,7 @@ public final class TestCase{
 
 		public TestCase code(Function<V, TestCode> theCode) {
 			LogContext logContext =
-				new LogContext(Thread.currentThread().getStackTrace()[2]).withMethodName("TestCase With Variants");
+				CallSiteCapture.capture(2).withMethodName("TestCase With Variants");
 
 			PList<TestCase> subTestCodes = variants.map(sup ->
 															new TestCase(name + " with variant ", info == null ? "?" : info, logContext, tr -> {
@@ -102,7 +103,7 @@ public final class TestCase{
 
 		public TestCaseWithName(String name) {
 			this.name = name;
-			logContext = new LogContext(Thread.currentThread().getStackTrace()[3]).withMethodName("TestCase");
+			logContext = CallSiteCapture.capture(3).withMethodName("TestCase");
 		}
 
 		public TestCaseWithName info(String... info) {
@@ -1,6 +1,7 @@
 package com.persistentbit.core.tokenizer;
 
 import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PString;
 import com.persistentbit.core.collections.PStream;
 import com.persistentbit.core.logging.Log;
 import com.persistentbit.core.result.Result;
@@ -57,12 +58,18 @@ public class SimpleTokenizer<TT>{
 
 			@Override
 			public Result<TokenFound<TT>> tryParse(String code) {
-				return Result.function(code).code(l -> {
+				return tryParse((CharSequence) code);
+			}
+
+			@Override
+			public Result<TokenFound<TT>> tryParse(CharSequence code) {
+				return Result.function().code(l -> {
 					if(code == null) {
 						return Result.failure("code is null");
 					}
 					Matcher m = pattern.matcher(code);
-					if(m.find()) {
+					//lookingAt only tries a match at the start of the code
+					if(m.lookingAt()) {
 						String txt = m.group();
 						return Result.success(new TokenFound<>(txt, type));
 					}
@@ -88,8 +95,25 @@ public class SimpleTokenizer<TT>{
 	 */
 	@SuppressWarnings("BooleanParameter")
 	public static <TT> TokenMatcher<TT> stringMatcher(TT type, char stringDelimiter, boolean multiLine) {
-		return code ->
-			Result.function(code, type, stringDelimiter, multiLine).code(log -> {
+		return new TokenMatcher<TT>(){
+			@Override
+			public Result<TokenFound<TT>> tryParse(String code) {
+				return parseString(code, type, stringDelimiter, multiLine);
+			}
+
+			@Override
+			public Result<TokenFound<TT>> tryParse(CharSequence code) {
+				return parseString(code, type, stringDelimiter, multiLine);
+			}
+		};
+	}
+
+	@SuppressWarnings("BooleanParameter")
+	private static <TT> Result<TokenFound<TT>> parseString(CharSequence code, TT type, char stringDelimiter,
+														   boolean multiLine
+	) {
+		return
+			Result.function(type, stringDelimiter, multiLine).code(log -> {
 				if(code == null) {
 					return Result.failure("code is null");
 				}
@@ -163,7 +187,7 @@ public class SimpleTokenizer<TT>{
 					++i;
 					return Result.success(new TokenFound<>(sb.append(start).toString(), type, false, i));
 
-				} catch(StringIndexOutOfBoundsException e) {
+				} catch(IndexOutOfBoundsException e) {
 					return Result.failure(new RuntimeException("Unclosed string", e));
 				}
 
@@ -191,7 +215,7 @@ public class SimpleTokenizer<TT>{
 	 *
 	 * @return A Result with a list of {@link Token}s corresponding to the source file.
 	 */
-	public Result<PList<Token<TT>>> tokenizeToResult(String name, String sourceCode) {
+	public Result<PList<Token<TT>>> tokenizeToResult(String name, CharSequence sourceCode) {
 		return Result.fromSequence(
 			tokenize(name, sourceCode))
 			.filter(t -> t.isEmpty() == false)
@@ -202,15 +226,17 @@ public class SimpleTokenizer<TT>{
 
 	/**
 	 * Parse the sourceCode and generate a lazy PStream of tokens.<br>
-	 * Every PStream is ended with a Result.empty to indicate the end of the stream.
+	 * Every PStream is ended with a Result.empty to indicate the end of the stream.<br>
+	 * The source code is tokenized as a {@link PString}, so the remaining code after
+	 * every token is not copied.
 	 *
 	 * @param name       The name of the source code
 	 * @param sourceCode The source code
 	 *
 	 * @return Lazy PStream of token results.
 	 */
-	public PStream<Result<Token<TT>>> tokenize(String name, String sourceCode) {
-		return Log.function(name, sourceCode).code(log -> {
+	public PStream<Result<Token<TT>>> tokenize(String name, CharSequence sourceCode) {
+		return Log.function(name).code(log -> {
 			Pos pos = new Pos(name, 1, 1);
 			if(name == null) {
 				return PStream.val(Result.failure("name for the code is null"));
@@ -218,10 +244,10 @@ public class SimpleTokenizer<TT>{
 			if(sourceCode == null) {
 				return PStream.val(Result.failure("The source code  is null"));
 			}
-			if(sourceCode.isEmpty()) {
+			if(sourceCode.length() == 0) {
 				return PList.val(Result.empty("No Source"));
 			}
-			Result<Tuple3<String, Pos, TokenFound<TT>>> initToken = processNextToken(pos, sourceCode);
+			Result<Tuple3<PString, Pos, TokenFound<TT>>> initToken = processNextToken(pos, PString.of(sourceCode));
 
 			PStream<Result<Token<TT>>> resultStream = PStream
 				//Make a sequence using the Previews processed result
@@ -243,31 +269,31 @@ public class SimpleTokenizer<TT>{
 		});
 	}
 
-	private Result<Tuple3<String, Pos, TokenFound<TT>>> processNextToken(Pos thisPos, String code) {
+	private Result<Tuple3<PString, Pos, TokenFound<TT>>> processNextToken(Pos thisPos, PString code) {
 		return findToken(code)
 			.flatMapFailure(f -> Result.failure(new TokenizerException(thisPos, f.getException())))
 			.verify(found -> found.skipLength != 0,
 					found -> new TokenizerException(thisPos, "Found a match with length 0. Type=" + found.type)
 			)
 			.map(found -> {
-				String skipString = code.substring(0, found.skipLength);
-				int    nlCount    = newLineCount(skipString);
-				Pos    newPos     = thisPos;
+				PString skipString = code.substring(0, found.skipLength);
+				int     nlCount    = skipString.lineCount() - 1;
+				Pos     newPos     = thisPos;
 				if(nlCount > 0) {
-					int lastNl = skipString.lastIndexOf('\n');
+					int lastNl = skipString.getLineStart(nlCount + 1) - 1;
 					newPos = newPos.withLineNumber(newPos.lineNumber + nlCount);
 					newPos = newPos.withColumn(found.skipLength - lastNl);
 				}
 				else {
 					newPos = newPos.withColumn(newPos.column + found.skipLength);
 				}
-				String newCode = code.substring(found.skipLength);
+				PString newCode = code.substring(found.skipLength);
 				return Tuple3.of(newCode, newPos, found);
 			});
 
 	}
 
-	private Result<TokenFound<TT>> findToken(String code) {
+	private Result<TokenFound<TT>> findToken(PString code) {
 		return Result.function().code(log -> {
 			if(code.isEmpty()) {
 				return Result.empty("code string is empty");
@@ -282,14 +308,4 @@ public class SimpleTokenizer<TT>{
 		});
 	}
 
-	private int newLineCount(String txt) {
-		int count = 0;
-		for(int i = 0; i < txt.length(); i++) {
-			if(txt.charAt(i) == '\n') {
-				count++;
-			}
-		}
-		return count;
-	}
-
 }
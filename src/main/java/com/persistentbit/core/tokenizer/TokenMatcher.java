@@ -31,7 +31,17 @@ public interface TokenMatcher<TT>{
    * @return This mapped token matcher.
    */
   default TokenMatcher<TT> map(Function<TokenFound<TT>, Result<TokenFound<TT>>> mapper) {
-	  return code -> TokenMatcher.this.tryParse(code).flatMap(found -> mapper.apply(found));
+	  return new TokenMatcher<TT>(){
+		  @Override
+		  public Result<TokenFound<TT>> tryParse(String code) {
+			  return TokenMatcher.this.tryParse(code).flatMap(mapper);
+		  }
+
+		  @Override
+		  public Result<TokenFound<TT>> tryParse(CharSequence code) {
+			  return TokenMatcher.this.tryParse(code).flatMap(mapper);
+		  }
+	  };
   }
 
   /**
@@ -44,4 +54,19 @@ public interface TokenMatcher<TT>{
    * @return The parsed token or empty
    */
   Result<TokenFound<TT>> tryParse(String code);
+
+  /**
+   * Try parsing the beginning of the supplied code, without converting the code to a String.<br>
+   * The {@link SimpleTokenizer} calls this version with the remaining source code as a
+   * {@link com.persistentbit.core.collections.PString}.
+   * The default implementation converts the code to a String, so matchers should override this
+   * method when they can work on a CharSequence.
+   *
+   * @param code The code to parse
+   *
+   * @return The parsed token or empty
+   */
+  default Result<TokenFound<TT>> tryParse(CharSequence code) {
+	  return tryParse(code == null ? null : code.toString());
+  }
 }
@@ -4,6 +4,7 @@ import com.persistentbit.core.Immutable;
 import com.persistentbit.core.Nullable;
 import com.persistentbit.core.function.Function2;
 import com.persistentbit.core.properties.FieldNames;
+import com.persistentbit.core.utils.Interner;
 
 import java.io.Serializable;
 import java.util.Optional;
@@ -70,6 +71,15 @@ public class Tuple2<T1, T2> implements Comparable<Tuple2<T1, T2>>, Serializable{
 	return result;
   }
 
+  /**
+   * Returns the interned instance when {@link Interner#setInternOnDeserialization(boolean)} is enabled.
+   *
+   * @return The deserialized or interned instance
+   */
+  protected Object readResolve() {
+	return Interner.onDeserialization(this);
+  }
+
   @Override
   public String toString() {
 	return "(" + _1 + "," + _2 + ")";
@@ -24,6 +24,9 @@ public class BaseValueClass{
   @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
   @Override
   public boolean equals(Object obj) {
+	if(obj == this) {
+	  return true;
+	}
 	ImTools im = ImTools.get(this.getClass());
 	return im.equalsAll(this, obj);
   }
@@ -34,6 +37,16 @@ public class BaseValueClass{
 	return im.toStringAllIgnoreNulls(this);
   }
 
+  /**
+   * Used when a subclass is {@link java.io.Serializable}:
+   * returns the interned instance when {@link Interner#setInternOnDeserialization(boolean)} is enabled.
+   *
+   * @return The deserialized or interned instance
+   */
+  protected Object readResolve() {
+	return Interner.onDeserialization(this);
+  }
+
   protected <T extends BaseValueClass> T copyWith(String propertyName, Object value) {
 	ImTools im = ImTools.get(this.getClass());
 	return (T) im.copyWith(this, propertyName, value);
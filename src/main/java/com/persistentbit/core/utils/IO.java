@@ -2,6 +2,7 @@ package com.persistentbit.core.utils;
 
 import com.persistentbit.core.Nothing;
 import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PString;
 import com.persistentbit.core.logging.Log;
 import com.persistentbit.core.result.Result;
 
@@ -177,6 +178,48 @@ public final class IO {
         );
     }
 
+    /**
+     * Read a Reader stream into a {@link PString}.<br>
+     * The text is read in chunks that are used as the chunks of the PString,
+     * so the text is never copied into one big String.<br>
+     * The given Reader is automatically closed.<br>
+     *
+     * @param fin the input Reader
+     * @return The PString content from the Reader
+     */
+    public static Result<PString> readTextStreamToPString(Reader fin) {
+        return Result.function().code(l -> {
+            if (fin == null) {
+                return Result.failure("Reader is null");
+            }
+            try (Reader in = fin) {
+                PString res = PString.empty();
+                char[] buffer = new char[PString.maxChunkSize];
+                int c;
+                while ((c = in.read(buffer)) != -1) {
+                    res = res.concat(new String(buffer, 0, c));
+                }
+                return Result.success(res);
+            } catch (IOException e) {
+                return Result.failure(e);
+            }
+        });
+    }
+
+    /**
+     * Reads a text file into a {@link PString}
+     *
+     * @param f The file to read
+     * @param charset The character encoding
+     * @return PString with content of the text file
+     * @see #readTextStreamToPString(Reader)
+     */
+    public static Result<PString> readTextFileToPString(File f,Charset charset) {
+        return Result.function(f).code(l ->
+                fileToReader(f,charset).flatMap(IO::readTextStreamToPString)
+        );
+    }
+
 
     public static Result<PList<String>> readLines(String text) {
         return Result.function(StringUtils.present(text, 40)).code(l -> {
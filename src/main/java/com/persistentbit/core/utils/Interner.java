@@ -0,0 +1,229 @@
+package com.persistentbit.core.utils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Canonicalization table for immutable values (hash-consing).<br>
+ * {@link #intern(Object)} returns one shared instance for all equal values, so that
+ * equal values share memory and equals can short-circuit on identity.<br>
+ * The table only holds weak references: a canonical instance that is no longer used
+ * elsewhere is removed by the garbage collector.<br>
+ * The table is split in stripes with their own lock, so concurrent interning scales.<br>
+ * Only intern immutable values with a value based equals and hashCode,
+ * like {@link BaseValueClass} instances, tuples and persistent collections.
+ * A value is only replaced by an equal value of the same class.<br>
+ * With {@link #setInternOnDeserialization(boolean)}, deserialized PLists, Tuple2s and
+ * BaseValueClass instances are interned in the {@link #global()} interner.
+ *
+ * @param <T> The type of the values
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public final class Interner<T>{
+
+	public static final int defaultStripes = 16;
+
+	private static final Interner<Object> global = new Interner<>(defaultStripes);
+
+	private static volatile boolean internOnDeserialization;
+
+	private final Stripe[] stripes;
+	private final int      stripeMask;
+
+	private Interner(int stripes) {
+		if(stripes < 1 || Integer.bitCount(stripes) != 1) {
+			throw new IllegalArgumentException("stripes must be a power of 2: " + stripes);
+		}
+		this.stripes = new Stripe[stripes];
+		for(int t = 0; t < stripes; t++) {
+			this.stripes[t] = new Stripe();
+		}
+		this.stripeMask = stripes - 1;
+	}
+
+	public static <T> Interner<T> create() {
+		return create(defaultStripes);
+	}
+
+	/**
+	 * Create a new interner
+	 *
+	 * @param stripes The number of independently locked stripes: a power of 2
+	 * @param <T>     The type of the values
+	 *
+	 * @return The new interner
+	 */
+	public static <T> Interner<T> create(int stripes) {
+		return new Interner<>(stripes);
+	}
+
+	/**
+	 * @return The interner shared by the whole application
+	 */
+	public static Interner<Object> global() {
+		return global;
+	}
+
+	/**
+	 * Enable or disable interning of deserialized values in the {@link #global()} interner.
+	 *
+	 * @param enabled true to intern deserialized values
+	 */
+	public static void setInternOnDeserialization(boolean enabled) {
+		internOnDeserialization = enabled;
+	}
+
+	public static boolean isInternOnDeserialization() {
+		return internOnDeserialization;
+	}
+
+	/**
+	 * Called from readResolve methods of deserialized values
+	 *
+	 * @param value The deserialized value
+	 * @param <T>   The type of the value
+	 *
+	 * @return The canonical value when interning on deserialization is enabled, else the value
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T onDeserialization(T value) {
+		return internOnDeserialization ? (T) global.intern(value) : value;
+	}
+
+	/**
+	 * Get the canonical instance for a value
+	 *
+	 * @param value The value (null returns null)
+	 *
+	 * @return The first interned value equal to the given value or the value itself
+	 */
+	@SuppressWarnings("unchecked")
+	public T intern(T value) {
+		if(value == null) {
+			return null;
+		}
+		int hash = spread(value.hashCode());
+		return (T) stripes[hash & stripeMask].intern(value, hash);
+	}
+
+	/**
+	 * @return The number of canonical values that are not garbage collected
+	 */
+	public int size() {
+		int res = 0;
+		for(Stripe s : stripes) {
+			res += s.size();
+		}
+		return res;
+	}
+
+	private static int spread(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		return h ^ (h >>> 13);
+	}
+
+	@Override
+	public String toString() {
+		return "Interner[stripes=" + stripes.length + ", size=" + size() + "]";
+	}
+
+	private static final class Entry extends WeakReference<Object>{
+
+		final int   hash;
+		Entry next;
+
+		Entry(Object value, int hash, ReferenceQueue<Object> queue, Entry next) {
+			super(value, queue);
+			this.hash = hash;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * Hash table with weak keys, guarded by its own lock
+	 */
+	private static final class Stripe{
+
+		private final ReentrantLock          lock  = new ReentrantLock();
+		private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+		private       Entry[]                table = new Entry[16];
+		private       int                    count;
+
+		Object intern(Object value, int hash) {
+			lock.lock();
+			try {
+				expunge();
+				//The low bits select the stripe, so use the high bits for the bucket
+				int idx = (hash >>> 8) & (table.length - 1);
+				for(Entry e = table[idx]; e != null; e = e.next) {
+					if(e.hash == hash) {
+						Object existing = e.get();
+						//Equal values of another class are not shared: the caller expects its own type back
+						if(existing != null && existing.getClass() == value.getClass() && Objects.equals(existing, value)) {
+							return existing;
+						}
+					}
+				}
+				table[idx] = new Entry(value, hash, queue, table[idx]);
+				if(++count > table.length * 3 / 4) {
+					resize();
+				}
+				return value;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		int size() {
+			lock.lock();
+			try {
+				expunge();
+				return count;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void expunge() {
+			Reference<?> ref;
+			while((ref = queue.poll()) != null) {
+				Entry removed = (Entry) ref;
+				int   idx     = (removed.hash >>> 8) & (table.length - 1);
+				Entry prev    = null;
+				for(Entry e = table[idx]; e != null; prev = e, e = e.next) {
+					if(e == removed) {
+						if(prev == null) {
+							table[idx] = e.next;
+						}
+						else {
+							prev.next = e.next;
+						}
+						count--;
+						break;
+					}
+				}
+			}
+		}
+
+		private void resize() {
+			Entry[] newTable = new Entry[table.length * 2];
+			for(Entry head : table) {
+				Entry e = head;
+				while(e != null) {
+					Entry next = e.next;
+					int   idx  = (e.hash >>> 8) & (newTable.length - 1);
+					e.next = newTable[idx];
+					newTable[idx] = e;
+					e = next;
+				}
+			}
+			table = newTable;
+		}
+	}
+}
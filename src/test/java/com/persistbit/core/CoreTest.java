@@ -7,6 +7,9 @@ import com.persistentbit.core.logging.printing.LogPrintStream;
 import com.persistentbit.core.testing.TestCase;
 import com.persistentbit.core.testing.TestRunner;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * TODO: Add comment
  *
@@ -24,4 +27,26 @@ public abstract class CoreTest {
     static public void runTests(Class testClass){
         TestRunner.runAndPrint(testLogPrint, testClass);
     }
+
+    /**
+     * Run the same code in a number of new threads and wait until all threads are done.
+     *
+     * @param threads The number of threads
+     * @param code    The code to run in every thread
+     */
+    static public void runThreads(int threads, Runnable code){
+        List<Thread> all = new ArrayList<>();
+        for(int t = 0; t < threads; t++){
+            Thread thread = new Thread(code);
+            all.add(thread);
+            thread.start();
+        }
+        for(Thread thread : all){
+            try{
+                thread.join();
+            } catch(InterruptedException e){
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
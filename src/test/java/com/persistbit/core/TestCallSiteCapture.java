@@ -0,0 +1,67 @@
+package com.persistbit.core;
+
+import com.persistentbit.core.logging.CallSiteCapture;
+import com.persistentbit.core.logging.entries.LogContext;
+import com.persistentbit.core.logging.entries.LogEntry;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.testing.TestCase;
+
+/**
+ * Tests for {@link CallSiteCapture}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestCallSiteCapture{
+
+	static LogContext loggedFunction() {
+		LogEntry log = Result.function().code(l -> Result.success(1)).getLog();
+		return log.getContext().get();
+	}
+
+	static LogContext withPolicy(CallSiteCapture.Policy policy) {
+		CallSiteCapture.Policy old = CallSiteCapture.getPolicy();
+		CallSiteCapture.setPolicy(policy);
+		try {
+			return loggedFunction();
+		} finally {
+			CallSiteCapture.setPolicy(old);
+		}
+	}
+
+	static final TestCase policies = TestCase.name("Call site capture policies").code(tr -> {
+		LogContext exact = withPolicy(CallSiteCapture.Policy.exact);
+		tr.isEquals(exact.getClassName(), TestCallSiteCapture.class.getName());
+		tr.isEquals(exact.getMethodName(), "loggedFunction");
+		tr.isEquals(exact.getFileName(), "TestCallSiteCapture.java");
+
+		LogContext lazy = withPolicy(CallSiteCapture.Policy.lazy);
+		tr.isEquals(lazy.toString(), exact.toString());
+		tr.isEquals(lazy.withMethodName("renamed").getSourceLine(), exact.getSourceLine());
+		tr.isEquals(lazy.withMethodName("renamed").getMethodName(), "renamed");
+
+		LogContext off = withPolicy(CallSiteCapture.Policy.off);
+		tr.isEquals(off.getClassName(), "?");
+		tr.isTrue(off.getTimestamp() > 0);
+
+		int oldRate = CallSiteCapture.getSampleRate();
+		CallSiteCapture.setSampleRate(1);
+		try {
+			tr.isEquals(withPolicy(CallSiteCapture.Policy.sampled).toString(), exact.toString());
+		} finally {
+			CallSiteCapture.setSampleRate(oldRate);
+		}
+		tr.throwsException(() -> {
+			CallSiteCapture.setSampleRate(0);
+			return null;
+		});
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestCallSiteCapture.class);
+	}
+
+	public static void main(String[] args) {
+		new TestCallSiteCapture().testAll();
+	}
+}
@@ -0,0 +1,73 @@
+package com.persistbit.core;
+
+import com.persistentbit.core.logging.FunctionLogging;
+import com.persistentbit.core.logging.entries.LogEntry;
+import com.persistentbit.core.logging.entries.LogEntryFunction;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.testing.TestCase;
+
+/**
+ * Tests for the {@link FunctionLogging.ValueCapture} modes
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestFunctionLogging{
+
+	static Result<String> append(StringBuilder sb, String text) {
+		return Result.function(sb, text).code(l -> Result.success(sb.append(text).toString()));
+	}
+
+	static Result<String> fail(StringBuilder sb) {
+		return Result.function(sb).code(l -> Result.failure("failed"));
+	}
+
+	static LogEntryFunction functionLog(LogEntry log) {
+		return (LogEntryFunction) log;
+	}
+
+	static final TestCase valueCapture = TestCase.name("Logged function value capture").code(tr -> {
+		FunctionLogging.ValueCapture old = FunctionLogging.getValueCapture();
+		try {
+			FunctionLogging.setValueCapture(FunctionLogging.ValueCapture.eager);
+			StringBuilder    sb    = new StringBuilder("a");
+			LogEntryFunction eager = functionLog(append(sb, "b").getLog());
+			sb.append("c");
+			tr.isEquals(eager.getParams().get(), "a, b");
+			tr.isEquals(eager.getResult().get(), "Success(ab)");
+			tr.isTrue(eager.getTimestampDone().isPresent());
+
+			FunctionLogging.setValueCapture(FunctionLogging.ValueCapture.deferred);
+			sb = new StringBuilder("a");
+			LogEntryFunction deferred = functionLog(append(sb, "b").getLog());
+			sb.append("c");
+			//Rendered when asked for, so we see the changed StringBuilder
+			tr.isEquals(deferred.getParams().get(), "abc, b");
+			tr.isEquals(deferred.getResult().get(), "Success(ab)");
+			tr.isTrue(deferred.getTimestampDone().isPresent());
+			tr.isTrue(deferred.materialize().materialize().getParams().equals(deferred.getParams()));
+
+			//A failure renders the values immediately
+			sb = new StringBuilder("x");
+			Result<String> failure = fail(sb);
+			sb.append("y");
+			tr.isEquals(functionLog(failure.getLog()).getParams().get(), "x");
+
+			FunctionLogging.setValueCapture(FunctionLogging.ValueCapture.none);
+			LogEntryFunction none = functionLog(append(new StringBuilder(), "b").getLog());
+			tr.isFalse(none.getParams().isPresent());
+			tr.isFalse(none.getResult().isPresent());
+			tr.isTrue(none.getTimestampDone().isPresent());
+		} finally {
+			FunctionLogging.setValueCapture(old);
+		}
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestFunctionLogging.class);
+	}
+
+	public static void main(String[] args) {
+		new TestFunctionLogging().testAll();
+	}
+}
@@ -0,0 +1,150 @@
+package com.persistbit.core;
+
+import com.persistentbit.core.Lazy;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.result.ResultLazy;
+import com.persistentbit.core.testing.TestCase;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link Lazy} and {@link ResultLazy}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestLazy{
+
+	static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	static final TestCase lazy = TestCase.name("Lazy is initialized once").code(tr -> {
+		AtomicInteger calls = new AtomicInteger();
+		Lazy<String>  lazy  = new Lazy<>(() -> {
+			calls.incrementAndGet();
+			sleep(10);
+			return "value";
+		});
+		tr.isFalse(lazy.isInitialized());
+		ExecutorService exec = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch done = new CountDownLatch(8);
+			for(int t = 0; t < 8; t++) {
+				exec.execute(() -> {
+					lazy.get();
+					done.countDown();
+				});
+			}
+			tr.isTrue(done.await(10, TimeUnit.SECONDS));
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		} finally {
+			exec.shutdown();
+		}
+		tr.isEquals(lazy.get(), "value");
+		tr.isEquals(calls.get(), 1);
+		tr.isTrue(lazy.isInitialized());
+		tr.isEquals(new Lazy<String>(() -> null).get(), null);
+	});
+
+	static final TestCase expiring = TestCase.name("Expiring Lazy").code(tr -> {
+		AtomicInteger          calls = new AtomicInteger();
+		Lazy.Expiring<Integer> lazy  = Lazy.expiring(Duration.ofMillis(50), calls::incrementAndGet);
+		tr.isEquals(lazy.get(), 1);
+		tr.isEquals(lazy.get(), 1);
+		sleep(70);
+		tr.isEquals(lazy.get(), 2);
+		lazy.invalidate();
+		tr.isEquals(lazy.get(), 3);
+		tr.throwsException(() -> Lazy.expiring(Duration.ZERO, calls::incrementAndGet));
+	});
+
+	static final TestCase refreshAhead = TestCase.name("Refresh-ahead Lazy").code(tr -> {
+		ExecutorService exec  = Executors.newSingleThreadExecutor();
+		AtomicInteger   calls = new AtomicInteger();
+		try {
+			Lazy.Expiring<Integer> lazy = Lazy.refreshAhead(
+				Duration.ofMillis(500), Duration.ofMillis(400), exec, calls::incrementAndGet
+			);
+			tr.isEquals(lazy.get(), 1);
+			sleep(150);
+			//In the refresh window: returns the current value and reloads in the background
+			tr.isEquals(lazy.get(), 1);
+			for(int t = 0; t < 100 && lazy.get() == 1; t++) {
+				sleep(5);
+			}
+			tr.isEquals(lazy.get(), 2);
+			tr.isEquals(calls.get(), 2);
+		} finally {
+			exec.shutdown();
+		}
+		tr.throwsException(() -> Lazy.refreshAhead(Duration.ofMillis(1), Duration.ofMillis(2), Runnable::run, () -> 1));
+	});
+
+	static final TestCase resultLazy = TestCase.name("ResultLazy caches the result").code(tr -> {
+		AtomicInteger       calls = new AtomicInteger();
+		ResultLazy<Integer> lazy  = Result.lazy(() -> Result.failure("failed " + calls.incrementAndGet()));
+		tr.isFalse(lazy.isComplete());
+		tr.isFailure(lazy);
+		tr.isFailure(lazy.map(v -> v + 1));
+		tr.isEquals(calls.get(), 1);
+		tr.isTrue(lazy.isComplete());
+	});
+
+	static final TestCase retrying = TestCase.name("Retrying ResultLazy").code(tr -> {
+		//Backoffs are long compared to the sleeps, so a slow test machine does not change the outcome
+		AtomicInteger       calls = new AtomicInteger();
+		ResultLazy<Integer> lazy  = ResultLazy.retrying(() -> {
+			int call = calls.incrementAndGet();
+			return call < 3 ? Result.failure("failed " + call) : Result.success(call);
+		}, Duration.ofMillis(500), Duration.ofMillis(700));
+		Result<Integer> mapped = lazy.map(v -> v * 10);
+		tr.isFailure(lazy);
+		tr.isFailure(lazy);
+		tr.isEquals(calls.get(), 1);
+		sleep(1000);
+		tr.isFailure(lazy);
+		tr.isEquals(calls.get(), 2);
+		sleep(1200);
+		tr.isEquals(lazy.orElseThrow(), 3);
+		tr.isEquals(mapped.orElseThrow(), 30);
+		sleep(100);
+		tr.isEquals(lazy.orElseThrow(), 3);
+		tr.isEquals(calls.get(), 3);
+		tr.throwsException(() -> ResultLazy.retrying(() -> Result.success(1), Duration.ofMillis(2), Duration.ofMillis(1)));
+	});
+
+	static final TestCase retryingThrows = TestCase.name("Retrying ResultLazy with a throwing supplier").code(tr -> {
+		AtomicInteger       calls = new AtomicInteger();
+		ResultLazy<Integer> lazy  = ResultLazy.retrying(() -> {
+			if(calls.incrementAndGet() == 1) {
+				throw new IllegalStateException("not yet");
+			}
+			return Result.success(1);
+		}, Duration.ofMillis(500), Duration.ofMillis(500));
+		tr.isFailure(lazy);
+		tr.isFailure(lazy);
+		tr.isEquals(calls.get(), 1);
+		sleep(1000);
+		tr.isEquals(lazy.orElseThrow(), 1);
+		tr.isEquals(calls.get(), 2);
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestLazy.class);
+	}
+
+	public static void main(String[] args) {
+		new TestLazy().testAll();
+	}
+}
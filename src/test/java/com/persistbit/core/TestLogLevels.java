@@ -0,0 +1,88 @@
+package com.persistbit.core;
+
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.logging.CallSiteCapture;
+import com.persistentbit.core.logging.LogLevels;
+import com.persistentbit.core.logging.LogMessageLevel;
+import com.persistentbit.core.logging.entries.LogEntry;
+import com.persistentbit.core.logging.entries.LogEntryFunction;
+import com.persistentbit.core.logging.entries.LogEntryGroup;
+import com.persistentbit.core.logging.entries.LogEntryMessage;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.testing.TestCase;
+
+/**
+ * Tests for {@link LogLevels}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestLogLevels{
+
+	static Result<Integer> logAll() {
+		return Result.function().code(l -> {
+			l.info("info");
+			l.important("important");
+			l.warning("warning");
+			l.error("error");
+			return Result.success(1);
+		});
+	}
+
+	static PList<LogMessageLevel> loggedLevels() {
+		LogEntry logs = ((LogEntryFunction) logAll().getLog()).getLogs();
+		return ((LogEntryGroup) logs).getEntries().map(e -> ((LogEntryMessage) e).getLevel()).plist();
+	}
+
+	static final TestCase thresholds = TestCase.name("Log level thresholds").code(tr -> {
+		try {
+			tr.isEquals(loggedLevels().size(), 4);
+			LogLevels.setThreshold(LogMessageLevel.warning);
+			tr.isEquals(loggedLevels(), PList.val(LogMessageLevel.warning, LogMessageLevel.error));
+			LogLevels.setOff();
+			tr.isEquals(loggedLevels().size(), 0);
+
+			//Package override
+			LogLevels.setThreshold("com.persistbit", LogMessageLevel.important);
+			tr.isEquals(loggedLevels().size(), 3);
+			//The most specific override wins
+			LogLevels.setThreshold(TestLogLevels.class.getName(), LogMessageLevel.error);
+			tr.isEquals(loggedLevels(), PList.val(LogMessageLevel.error));
+			tr.isFalse(LogLevels.isEnabled(LogMessageLevel.warning, TestLogLevels.class.getName()));
+			tr.isFalse(LogLevels.isEnabled(LogMessageLevel.warning, TestCase.class.getName()));
+			LogLevels.removeThreshold(TestLogLevels.class.getName());
+			tr.isEquals(loggedLevels().size(), 3);
+			tr.isFalse(LogLevels.isEnabled(LogMessageLevel.error, "other.package.Class"));
+			tr.isFalse(LogLevels.isEnabled(LogMessageLevel.error, null));
+		} finally {
+			LogLevels.reset();
+		}
+		tr.isEquals(loggedLevels().size(), 4);
+	});
+
+	static final TestCase overridesWithoutCallSite = TestCase.name("Log level overrides without call site").code(tr -> {
+		CallSiteCapture.Policy policy = CallSiteCapture.getPolicy();
+		try {
+			LogLevels.setThreshold(TestLogLevels.class.getName(), LogMessageLevel.error);
+			for(CallSiteCapture.Policy p : CallSiteCapture.Policy.values()) {
+				CallSiteCapture.setPolicy(p);
+				tr.isEquals(loggedLevels(), PList.val(LogMessageLevel.error));
+			}
+			CallSiteCapture.setPolicy(CallSiteCapture.Policy.off);
+			LogLevels.removeThreshold(TestLogLevels.class.getName());
+			LogLevels.setThreshold("com.persistbit", LogMessageLevel.warning);
+			tr.isEquals(loggedLevels(), PList.val(LogMessageLevel.warning, LogMessageLevel.error));
+		} finally {
+			CallSiteCapture.setPolicy(policy);
+			LogLevels.reset();
+		}
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestLogLevels.class);
+	}
+
+	public static void main(String[] args) {
+		new TestLogLevels().testAll();
+	}
+}
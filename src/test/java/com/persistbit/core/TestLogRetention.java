@@ -0,0 +1,110 @@
+package com.persistbit.core;
+
+import com.persistentbit.core.logging.entries.LogEntry;
+import com.persistentbit.core.logging.entries.LogEntryFunction;
+import com.persistentbit.core.logging.entries.LogEntryGroup;
+import com.persistentbit.core.logging.entries.LogEntrySummary;
+import com.persistentbit.core.logging.entries.LogRetention;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.testing.TestCase;
+
+/**
+ * Tests for {@link LogRetention}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestLogRetention{
+
+	static Result<Integer> step(int value) {
+		return Result.function(value).code(l -> {
+			l.info("step", value);
+			return Result.success(value + 1);
+		});
+	}
+
+	static Result<Integer> nested(int depth, boolean error) {
+		return Result.function(depth).code(l -> {
+			if(depth == 0) {
+				if(error) {
+					l.error("deepest");
+				}
+				return Result.success(0);
+			}
+			return nested(depth - 1, error);
+		});
+	}
+
+	//Count all entries, including the ones dropped in summaries
+	static int count(LogEntry entry) {
+		if(entry instanceof LogEntrySummary) {
+			return ((LogEntrySummary) entry).getDroppedEntries();
+		}
+		if(entry instanceof LogEntryGroup) {
+			return ((LogEntryGroup) entry).getEntries().map(TestLogRetention::count).fold(0, (a, b) -> a + b);
+		}
+		if(entry instanceof LogEntryFunction) {
+			return 1 + count(((LogEntryFunction) entry).getLogs());
+		}
+		return entry.isEmpty() ? 0 : 1;
+	}
+
+	static int size(LogEntry entry) {
+		if(entry instanceof LogEntryGroup) {
+			return ((LogEntryGroup) entry).getEntries().map(TestLogRetention::size).fold(0, (a, b) -> a + b);
+		}
+		if(entry instanceof LogEntryFunction) {
+			return 1 + size(((LogEntryFunction) entry).getLogs());
+		}
+		return entry.isEmpty() ? 0 : 1;
+	}
+
+	static Result<Integer> chain(int steps) {
+		Result<Integer> res = step(0);
+		for(int t = 1; t < steps; t++) {
+			res = res.flatMap(TestLogRetention::step);
+		}
+		return res;
+	}
+
+	static final TestCase maxEntries = TestCase.name("Ring buffer of log entries").code(tr -> {
+		tr.isEquals(size(chain(1000).getLog()), 2000);
+		LogRetention.setMaxEntries(10);
+		try {
+			Result<Integer> res = chain(1000);
+			tr.isEquals(res.orElseThrow(), 1000);
+			tr.isTrue(size(res.getLog()) <= 50);
+			tr.isEquals(count(res.getLog()), 2000);
+			tr.isTrue(res.getLog().toString().contains("entries dropped"));
+		} finally {
+			LogRetention.setMaxEntries(0);
+		}
+	});
+
+	static final TestCase maxDepth = TestCase.name("Maximum log depth").code(tr -> {
+		tr.isEquals(((LogEntryFunction) nested(20, false).getLog()).getDepth(), 21);
+		LogRetention.setMaxDepth(3);
+		try {
+			LogEntry log = nested(20, false).getLog();
+			tr.isTrue(((LogEntryFunction) log).getDepth() <= 4);
+			tr.isEquals(count(log), 21);
+			//Subtrees with errors are kept
+			LogEntry withError = nested(20, true).getLog();
+			tr.isEquals(size(withError), 22);
+		} finally {
+			LogRetention.setMaxDepth(0);
+		}
+		tr.throwsException(() -> {
+			LogRetention.setMaxDepth(-1);
+			return null;
+		});
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestLogRetention.class);
+	}
+
+	public static void main(String[] args) {
+		new TestLogRetention().testAll();
+	}
+}
@@ -1,10 +1,15 @@
 package com.persistbit.core;
 
 import com.persistentbit.core.Nothing;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PStream;
 import com.persistentbit.core.logging.LogMessageLevel;
 import com.persistentbit.core.logging.entries.LogContext;
 import com.persistentbit.core.logging.entries.LogEntryMessage;
+import com.persistentbit.core.result.Empty;
+import com.persistentbit.core.result.Failure;
 import com.persistentbit.core.result.Result;
+import com.persistentbit.core.result.ResultException;
 import com.persistentbit.core.testing.TestCase;
 import com.persistentbit.core.testing.TestCode;
 import com.persistentbit.core.testing.TestRunner;
@@ -70,6 +75,67 @@ public class TestResult{
 		tr.warning("TODO test flatMapFailure/flatMapEmpty");
 	});
 
+	static final TestCase testLazyCause = TestCase.name("Lazy Empty/Failure causes").code(tr -> {
+		tr.isTrue(Result.empty() == Result.empty());
+		Empty<String> emptyString = Result.empty();
+		tr.isTrue((Object) emptyString.map(String::length) == emptyString);
+
+		int[]            calls   = new int[1];
+		Failure<Nothing> failure = Result.failure(() -> { calls[0]++; return "lazy error"; });
+		Empty<Nothing>   empty   = Result.empty(() -> { calls[0]++; return "lazy empty"; });
+		tr.isEquals(calls[0], 0);
+		tr.isEquals(failure.toString(), "Failure(lazy error)");
+		tr.isEquals(empty.toString(), "Empty(lazy empty)");
+		Throwable cause = failure.getException();
+		tr.isTrue(cause instanceof ResultException);
+		tr.isEquals(cause.getMessage(), "lazy error");
+		tr.isEquals(cause.getStackTrace().length, 0);
+		tr.isTrue(failure.getException() == cause);
+		tr.throwsException(empty::orElseThrow, e -> e.getCause().getCause().getMessage().equals("lazy empty"));
+
+		Result.setDebug(true);
+		try {
+			Failure<Nothing> debugFailure = Result.failure("debug error");
+			tr.isTrue(debugFailure.getException().getStackTrace().length > 0);
+			tr.isFalse(Result.empty() == Result.empty());
+		} finally {
+			Result.setDebug(false);
+		}
+	});
+
+	static Result<Integer> logged(int value) {
+		return Result.success(value)
+			.mapLog(l -> l.append(LogEntryMessage.of(LogMessageLevel.info, LogContext.unknown(), "value " + value)));
+	}
+
+	static final TestCase testTraverse = TestCase.name("Result traverse/sequence").code(tr -> {
+		PList<Integer>         values  = PList.val(1, 2, 3, 4, 5);
+		Result<PList<Integer>> res     = Result.traverse(values, TestResult::logged);
+		Result<PList<Integer>> chained = Result.success(PList.empty());
+		for(int v : values) {
+			chained = chained.flatMap(list -> logged(v).map(list::plus));
+		}
+		tr.isEquals(res.orElseThrow(), values);
+		//Same log as a chain of flatMaps, without the timestamps
+		tr.isEquals(res.getLog().toString().replaceAll("….*", ""), chained.getLog().toString().replaceAll("….*", ""));
+		tr.isEquals(Result.sequence(values.map(Result::success)).orElseThrow(), values);
+		tr.isEquals(Result.traverse(PList.<Integer>empty(), TestResult::logged).orElseThrow(), PList.empty());
+
+		//Stops at the first failure in an infinite stream
+		int[]                  calls  = new int[1];
+		Result<PList<Integer>> failed = Result.traverse(PStream.sequence(1), v -> {
+			calls[0]++;
+			return v == 3 ? Result.failure("three") : logged(v);
+		});
+		tr.isFailure(failed);
+		tr.isEquals(calls[0], 3);
+		tr.isTrue(failed.getLog().toString().contains("value 2"));
+		tr.isTrue(Result.traverse(values, v -> v == 2 ? Result.<Integer>empty() : logged(v)).isEmpty());
+		tr.isFailure(Result.traverse(values, v -> {
+			throw new IllegalStateException("boom");
+		}));
+	});
+
 	private static void testGetOpt(TestRunner tr, Result<Nothing> success, Result<Nothing> failure, Result<Nothing> empty){
 		tr.isTrue(success.getOpt().isPresent());
 		tr.isFalse(failure.getOpt().isPresent());
@@ -0,0 +1,224 @@
+package com.persistbit.core;
+
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PStream;
+import com.persistentbit.core.result.Failure;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.result.ResultAsync;
+import com.persistentbit.core.testing.TestCase;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests for {@link ResultAsync}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestResultAsync{
+
+	static ExecutorService singleThread(String name) {
+		return Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, name);
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	static <T> Throwable failureCause(Result<T> result) {
+		return ((Failure<T>) result.completed()).getException();
+	}
+
+	static final TestCase executor = TestCase.name("ResultAsync keeps its executor").code(tr -> {
+		ExecutorService exec = singleThread("async-test");
+		try {
+			Result<String> res = Result.async(exec, () -> Result.success(1))
+				.map(v -> Thread.currentThread().getName())
+				.flatMap(name -> Result.success(name + ":" + Thread.currentThread().getName()));
+			tr.isEquals(res.orElseThrow(), "async-test:async-test");
+
+			//flatMap into a ResultAsync on the same single thread would deadlock when blocking
+			Result<Integer> nested = Result.async(exec, () -> Result.success(1))
+				.flatMap(v -> Result.async(exec, () -> Result.success(v + 1)))
+				.flatMap(v -> Result.async(exec, () -> Result.success(v * 10)));
+			tr.isEquals(((ResultAsync<Integer>) nested).timeout(Duration.ofSeconds(10)).orElseThrow(), 20);
+		} finally {
+			exec.shutdown();
+		}
+	});
+
+	static final TestCase timeoutAndCancel = TestCase.name("ResultAsync timeout and cancel").code(tr -> {
+		ResultAsync<Integer> never = ResultAsync.of(new CompletableFuture<>());
+		tr.isFalse(never.isComplete());
+		tr.isEquals(never.toString(), "ResultAsync(<not done>)");
+		Result<Integer> timedOut = never.timeout(Duration.ofMillis(20));
+		tr.isTrue(timedOut.isError());
+		tr.isTrue(failureCause(timedOut) instanceof TimeoutException);
+
+		Result<Integer> mapped = never.map(v -> v + 1);
+		tr.isTrue(never.cancel());
+		tr.isTrue(never.isError());
+		tr.isTrue(failureCause(never) instanceof CancellationException);
+		tr.isTrue(mapped.isError());
+
+		ResultAsync<Integer> fast = ResultAsync.of(() -> Result.success(1));
+		tr.isEquals(fast.timeout(Duration.ofSeconds(10)).orElseThrow(), 1);
+	});
+
+	static final TestCase cancelNotStarted = TestCase.name("ResultAsync cancel before the supplier runs").code(tr -> {
+		ExecutorService exec    = singleThread("cancel-test");
+		CountDownLatch  release = new CountDownLatch(1);
+		AtomicBoolean   ran     = new AtomicBoolean();
+		try {
+			exec.execute(() -> {
+				try {
+					release.await();
+				} catch(InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			ResultAsync<Integer> queued = ResultAsync.of(exec, () -> {
+				ran.set(true);
+				return Result.success(1);
+			});
+			tr.isTrue(queued.cancel());
+			release.countDown();
+			tr.isTrue(failureCause(queued) instanceof CancellationException);
+			//Wait until the queued task is done
+			tr.isTrue(ResultAsync.of(exec, () -> Result.success(2)).orElseThrow() == 2);
+			tr.isFalse(ran.get());
+		} finally {
+			exec.shutdown();
+		}
+	});
+
+	static final TestCase onComplete = TestCase.name("ResultAsync onComplete").code(tr -> {
+		CountDownLatch             latch = new CountDownLatch(1);
+		AtomicReference<Result<?>> found = new AtomicReference<>();
+		CompletableFuture<Result<String>> future = new CompletableFuture<>();
+		ResultAsync.of(future).onComplete(r -> {
+			found.set(r);
+			latch.countDown();
+		});
+		tr.isTrue(found.get() == null);
+		future.complete(Result.success("done"));
+		try {
+			tr.isTrue(latch.await(10, TimeUnit.SECONDS));
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		tr.isEquals(found.get(), Result.success("done"));
+		tr.isEquals(ResultAsync.of(future).toCompletableFuture().join(), Result.success("done"));
+	});
+
+	static final TestCase combine = TestCase.name("ResultAsync combine").code(tr -> {
+		PList<Result<Integer>> results = PList.empty();
+		for(int t = 0; t < 20; t++) {
+			int value = t;
+			results = results.plus(t % 2 == 0 ? Result.async(() -> Result.success(value)) : Result.success(value));
+		}
+		tr.isEquals(ResultAsync.combineAll(results).orElseThrow(), PList.val(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19));
+		tr.isTrue(ResultAsync.combineAll(results.plus(Result.async(Result::empty))).isEmpty());
+		tr.isTrue(ResultAsync.combineAll(results.plus(Result.failure("x")).plus(Result.empty())).isError());
+		tr.isEquals(ResultAsync.combineAll(PList.<Result<Integer>>empty()).orElseThrow(), PList.empty());
+
+		Result<Integer> a = Result.async(() -> Result.success(1));
+		tr.isEquals(a.combine(Result.async(() -> Result.success("b")), Result.success(3L)).orElseThrow()._2, "b");
+		tr.isEquals(Result.success(1).combine(a).orElseThrow()._2, 1);
+	});
+
+	static final TestCase traverseAsync = TestCase.name("ResultAsync traverse with bounded parallelism").code(tr -> {
+		ExecutorService exec     = Executors.newCachedThreadPool();
+		AtomicInteger   inFlight = new AtomicInteger();
+		AtomicInteger   maxSeen  = new AtomicInteger();
+		try {
+			ResultAsync<PList<Integer>> res = Result.traverseAsync(exec, 3, PStream.range(0, 30), v -> {
+				maxSeen.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(30 - v);
+				} catch(InterruptedException e) {
+					return Result.failure(e);
+				} finally {
+					inFlight.decrementAndGet();
+				}
+				return v % 2 == 0 ? Result.success(v * 10) : Result.async(exec, () -> Result.success(v * 10));
+			});
+			tr.isEquals(res.timeout(Duration.ofSeconds(10)).orElseThrow(), PStream.range(0, 30).map(v -> v * 10).plist());
+			tr.isTrue(maxSeen.get() <= 3);
+
+			//No new elements are started after a failure.
+			//Elements after 5 block until the result is done, so only 1 of them can take the other slot
+			AtomicInteger               started    = new AtomicInteger();
+			CountDownLatch              failedDone = new CountDownLatch(1);
+			ResultAsync<PList<Integer>> failed     = Result.traverseAsync(exec, 2, PStream.sequence(0), v -> {
+				started.incrementAndGet();
+				if(v > 5) {
+					try {
+						failedDone.await(10, TimeUnit.SECONDS);
+					} catch(InterruptedException e) {
+						return Result.failure(e);
+					}
+				}
+				return v == 5 ? Result.failure("five") : Result.success(v);
+			});
+			tr.isFailure(failed.timeout(Duration.ofSeconds(10)));
+			failedDone.countDown();
+			tr.isTrue(started.get() <= 7);
+			tr.isTrue(Result.traverseAsync(2, PList.val(1, 2, 3), v -> Result.<Integer>empty()).isEmpty());
+			tr.throwsException(() -> Result.traverseAsync(exec, 0, PList.val(1), Result::success));
+		} finally {
+			exec.shutdown();
+		}
+	});
+
+	static final TestCase traverseAsyncDirect = TestCase.name("ResultAsync traverse without recursion").code(tr -> {
+		//A direct executor completes every mapping while it is started
+		ResultAsync<PList<Integer>> res = Result.traverseAsync(Runnable::run, 4, PStream.range(0, 50_000), Result::success);
+		tr.isEquals(res.timeout(Duration.ofSeconds(30)).orElseThrow().size(), 50_000);
+		tr.isEquals(res.orElseThrow().lastOpt().get(), 49_999);
+	});
+
+	static final TestCase traverseAsyncCancel = TestCase.name("ResultAsync traverse cancel").code(tr -> {
+		ExecutorService exec    = Executors.newCachedThreadPool();
+		CountDownLatch  release = new CountDownLatch(1);
+		AtomicInteger   started = new AtomicInteger();
+		try {
+			ResultAsync<PList<Integer>> res = Result.traverseAsync(exec, 2, PStream.range(0, 50), v -> {
+				started.incrementAndGet();
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch(InterruptedException e) {
+					return Result.failure(e);
+				}
+				return Result.success(v);
+			});
+			tr.isTrue(res.cancel());
+			release.countDown();
+			tr.isTrue(failureCause(res) instanceof CancellationException);
+			Thread.sleep(100);
+			tr.isTrue(started.get() <= 2);
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		} finally {
+			exec.shutdown();
+		}
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestResultAsync.class);
+	}
+
+	public static void main(String[] args) {
+		new TestResultAsync().testAll();
+	}
+}
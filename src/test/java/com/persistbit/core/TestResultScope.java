@@ -0,0 +1,125 @@
+package com.persistbit.core;
+
+import com.persistentbit.core.Nothing;
+import com.persistentbit.core.result.AsyncBackend;
+import com.persistentbit.core.result.Failure;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.result.ResultAsync;
+import com.persistentbit.core.result.ResultScope;
+import com.persistentbit.core.testing.TestCase;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests for {@link ResultScope} and {@link AsyncBackend}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestResultScope{
+
+	static Result<Integer> sleep(int value, long ms) {
+		try {
+			Thread.sleep(ms);
+			return Result.success(value);
+		} catch(InterruptedException e) {
+			return Result.failure(e);
+		}
+	}
+
+	static final TestCase backend = TestCase.name("Async backend selection").code(tr -> {
+		AsyncBackend.Kind kind = AsyncBackend.getKind();
+		try {
+			AsyncBackend.Kind selected = AsyncBackend.use(AsyncBackend.Kind.virtual);
+			tr.isEquals(selected, AsyncBackend.isVirtualSupported() ? AsyncBackend.Kind.virtual : AsyncBackend.Kind.platform);
+			tr.isEquals(AsyncBackend.newVirtualExecutor().isPresent(), AsyncBackend.isVirtualSupported());
+			tr.isEquals(Result.async(() -> Result.success(1)).map(v -> v + 1).orElseThrow(), 2);
+
+			tr.isEquals(AsyncBackend.use(AsyncBackend.Kind.platform), AsyncBackend.Kind.platform);
+			tr.isTrue(AsyncBackend.getExecutor() == ForkJoinPool.commonPool());
+			tr.throwsException(() -> {
+				AsyncBackend.setExecutor(null);
+				return null;
+			});
+		} finally {
+			AsyncBackend.use(kind);
+		}
+	});
+
+	static final TestCase fanOut = TestCase.name("ResultScope fan-out/fan-in").code(tr -> {
+		ExecutorService exec = Executors.newCachedThreadPool();
+		try(ResultScope scope = ResultScope.open(exec)) {
+			ResultAsync<Integer> a = scope.fork(() -> sleep(1, 20));
+			ResultAsync<String>  b = scope.fork(() -> Result.success("b"));
+			tr.isEquals(scope.join(), Result.success(Nothing.inst));
+			tr.isEquals(a.combine(b).orElseThrow()._1, 1);
+		} finally {
+			exec.shutdown();
+		}
+	});
+
+	static final TestCase cancelOnFailure = TestCase.name("ResultScope cancels on failure").code(tr -> {
+		ExecutorService exec        = Executors.newCachedThreadPool();
+		CountDownLatch  started     = new CountDownLatch(1);
+		AtomicBoolean   interrupted = new AtomicBoolean();
+		try(ResultScope scope = ResultScope.open(exec)) {
+			ResultAsync<Integer> slow = scope.fork(() -> {
+				started.countDown();
+				Result<Integer> r = sleep(1, 10_000);
+				interrupted.set(r.isError());
+				return r;
+			});
+			tr.isTrue(started.await(10, TimeUnit.SECONDS));
+			ResultAsync<Integer> failing = scope.fork(() -> Result.failure("boom"));
+			Result<Nothing>      joined  = scope.join();
+			tr.isTrue(joined.isError());
+			tr.isEquals(((Failure<Nothing>) joined).getException().getMessage(), "boom");
+			tr.isTrue(failing.isError());
+			tr.isTrue(slow.isError());
+			tr.isTrue(((Failure<Integer>) slow.completed()).getException() instanceof CancellationException);
+			//Forks after a failure are cancelled
+			tr.isTrue(scope.fork(() -> Result.success(1)).isError());
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		} finally {
+			exec.shutdown();
+		}
+		tr.isTrue(interrupted.get());
+	});
+
+	static final TestCase closeCancels = TestCase.name("Closing a ResultScope stops the forks").code(tr -> {
+		ExecutorService      exec    = Executors.newCachedThreadPool();
+		CountDownLatch       started = new CountDownLatch(1);
+		AtomicBoolean        done    = new AtomicBoolean();
+		ResultAsync<Integer> running;
+		try(ResultScope scope = ResultScope.open(exec)) {
+			running = scope.fork(() -> {
+				started.countDown();
+				Result<Integer> r = sleep(1, 10_000);
+				done.set(true);
+				return r;
+			});
+			tr.isTrue(started.await(10, TimeUnit.SECONDS));
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		} finally {
+			exec.shutdown();
+		}
+		tr.isTrue(done.get());
+		tr.isTrue(running.isError());
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestResultScope.class);
+	}
+
+	public static void main(String[] args) {
+		new TestResultScope().testAll();
+	}
+}
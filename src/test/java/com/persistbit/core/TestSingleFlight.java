@@ -0,0 +1,155 @@
+package com.persistbit.core;
+
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.collections.PSet;
+import com.persistentbit.core.result.Failure;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.result.ResultAsync;
+import com.persistentbit.core.result.SingleFlight;
+import com.persistentbit.core.testing.TestCase;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests for {@link SingleFlight}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestSingleFlight{
+
+	static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	static final TestCase collapse = TestCase.name("SingleFlight collapses concurrent calls").code(tr -> {
+		ExecutorService exec    = Executors.newCachedThreadPool();
+		CountDownLatch  release = new CountDownLatch(1);
+		AtomicInteger   loads   = new AtomicInteger();
+		try {
+			SingleFlight<String, Integer> flight = SingleFlight.of(exec, key -> {
+				loads.incrementAndGet();
+				await(release);
+				return Result.success(key.length());
+			});
+			PList<Result<Integer>> results = PList.empty();
+			for(int t = 0; t < 5; t++) {
+				results = results.plus(flight.apply("abc"));
+			}
+			Result<Integer> other = flight.apply("other");
+			release.countDown();
+			for(Result<Integer> r : results) {
+				tr.isEquals(r.orElseThrow(), 3);
+			}
+			tr.isEquals(other.orElseThrow(), 5);
+			tr.isEquals(loads.get(), 2);
+			tr.isEquals(flight.getCallCount(), 6L);
+			tr.isEquals(flight.getCollapsedCount(), 4L);
+			tr.isEquals(flight.getLoadCount(), 2L);
+		} finally {
+			exec.shutdown();
+		}
+	});
+
+	static final TestCase cache = TestCase.name("SingleFlight result cache").code(tr -> {
+		AtomicInteger loads = new AtomicInteger();
+		SingleFlight<Integer, Integer> flight = SingleFlight.<Integer, Integer>of(Runnable::run, key -> {
+			loads.incrementAndGet();
+			return key < 0 ? Result.failure("negative") : Result.success(key * 2);
+		}).withCache(Duration.ofMillis(100));
+		tr.isEquals(flight.apply(1).orElseThrow(), 2);
+		tr.isEquals(flight.apply(1).orElseThrow(), 2);
+		tr.isEquals(flight.getCacheHitCount(), 1L);
+		tr.isEquals(loads.get(), 1);
+
+		//Failures are not cached
+		tr.isFailure(flight.apply(-1));
+		tr.isFailure(flight.apply(-1));
+		tr.isEquals(loads.get(), 3);
+
+		flight.invalidate(1);
+		tr.isEquals(flight.apply(1).orElseThrow(), 2);
+		tr.isEquals(loads.get(), 4);
+		try {
+			Thread.sleep(150);
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		flight.cleanUp();
+		tr.isEquals(flight.apply(1).orElseThrow(), 2);
+		tr.isEquals(loads.get(), 5);
+	});
+
+	static final TestCase batched = TestCase.name("Batched SingleFlight").code(tr -> {
+		AtomicInteger                  batches = new AtomicInteger();
+		AtomicReference<PSet<Integer>> keys    = new AtomicReference<>();
+		SingleFlight<Integer, String> flight = SingleFlight.batched(Duration.ofMillis(50), (PSet<Integer> set) -> {
+			batches.incrementAndGet();
+			keys.set(set);
+			PMap<Integer, String> res = PMap.empty();
+			for(Integer key : set) {
+				if(key != 3) {
+					res = res.put(key, "v" + key);
+				}
+			}
+			return Result.success(res);
+		});
+		Result<String> r1  = flight.apply(1);
+		Result<String> r2  = flight.apply(2);
+		Result<String> r3  = flight.apply(3);
+		Result<String> r1b = flight.apply(1);
+		tr.isEquals(r1.orElseThrow(), "v1");
+		tr.isEquals(r2.orElseThrow(), "v2");
+		tr.isTrue(r3.isEmpty());
+		tr.isEquals(r1b.orElseThrow(), "v1");
+		tr.isEquals(batches.get(), 1);
+		tr.isEquals(keys.get(), PSet.val(1, 2, 3));
+		tr.isEquals(flight.getCollapsedCount(), 1L);
+
+		SingleFlight<Integer, String> failing = SingleFlight.batched(Duration.ofMillis(1), set -> Result.failure("db down"));
+		tr.isFailure(failing.apply(1));
+	});
+
+	static boolean failedWith(Result<String> result, Class<? extends Throwable> cause) {
+		Result<String> r = ((ResultAsync<String>) result).timeout(Duration.ofSeconds(10)).completed();
+		return r instanceof Failure && cause.isInstance(((Failure<String>) r).getException());
+	}
+
+	static final TestCase batchedErrors = TestCase.name("Batched SingleFlight completes failed batches").code(tr -> {
+		//An Error from the batch loader
+		SingleFlight<Integer, String> throwing = SingleFlight.batched(Runnable::run, Duration.ofMillis(1), set -> {
+			throw new AssertionError("batch loader error");
+		});
+		tr.isTrue(failedWith(throwing.apply(1), AssertionError.class));
+		tr.isTrue(failedWith(throwing.apply(1), AssertionError.class));
+
+		//A rejected batch
+		ExecutorService exec = Executors.newSingleThreadExecutor();
+		exec.shutdown();
+		SingleFlight<Integer, String> rejected = SingleFlight.batched(exec, Duration.ofMillis(1),
+			set -> Result.success(PMap.<Integer, String>empty())
+		);
+		tr.isTrue(failedWith(rejected.apply(1), RejectedExecutionException.class));
+		tr.isTrue(failedWith(rejected.apply(1), RejectedExecutionException.class));
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestSingleFlight.class);
+	}
+
+	public static void main(String[] args) {
+		new TestSingleFlight().testAll();
+	}
+}
@@ -0,0 +1,204 @@
+package com.persistbit.core.collections;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.DurablePMap;
+import com.persistentbit.core.collections.DurablePMapStore;
+import com.persistentbit.core.collections.ElementCodec;
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.testing.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link DurablePMapStore} and {@link DurablePMap}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestDurablePMap{
+
+	static File tempFile() {
+		try {
+			File f = File.createTempFile("durablepmap", ".db");
+			f.delete();
+			f.deleteOnExit();
+			return f;
+		} catch(IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	static DurablePMapStore<String, Integer> open(File f, boolean sync) {
+		return DurablePMapStore.open(f, ElementCodec.forString(), ElementCodec.forInt(), sync);
+	}
+
+	static final TestCase compareWithPMap = TestCase.name("DurablePMap same as PMap").code(tr -> {
+		File                   f   = tempFile();
+		PMap<String, Integer>  ref = PMap.empty();
+		Random                 r   = new Random(1);
+		try(DurablePMapStore<String, Integer> store = open(f, false)) {
+			tr.isTrue(store.latest().isEmpty());
+			for(int t = 0; t < 20_000; t++) {
+				String key = "key" + r.nextInt(5000);
+				if(r.nextInt(4) == 0) {
+					store.removeKey(key);
+					ref = ref.removeKey(key);
+				}
+				else {
+					store.put(key, t);
+					ref = ref.put(key, t);
+				}
+			}
+			DurablePMap<String, Integer> latest = store.latest();
+			tr.isEquals(latest.size(), ref.size());
+			tr.isEquals(latest, ref);
+			tr.isEquals(ref, latest.pmap());
+			tr.isEquals(latest.hashCode(), ref.hashCode());
+			tr.isEquals(latest.get("key1"), ref.get("key1"));
+			tr.isEquals(latest.getOrDefault("nokey", -1), -1);
+			tr.isTrue(latest.containsKey(12) == false);
+			tr.isEquals(latest.put("x", 1), ref.put("x", 1));
+		}
+		//Reopen
+		try(DurablePMapStore<String, Integer> store = open(f, false)) {
+			tr.isEquals(store.latest(), ref);
+			tr.isEquals(store.latest().getVersion(), store.versions().size() * 1L);
+		}
+	});
+
+	static final TestCase collisions = TestCase.name("DurablePMap hash collisions").code(tr -> {
+		//Keys with the same hash code in the store
+		String a1 = "key29979", a2 = "key376344";
+		String b1 = "key29978", b2 = "key376345";
+		try(DurablePMapStore<String, Integer> store = open(tempFile(), false)) {
+			store.put(a1, 1);
+			store.put(a2, 2);
+			store.put(b1, 3);
+			store.put(b2, 4);
+			store.put("other", 5);
+			tr.isEquals(store.latest().pmap(), PMap.<String, Integer>empty()
+				.put(a1, 1).put(a2, 2).put(b1, 3).put(b2, 4).put("other", 5));
+			store.put(a2, 20);
+			tr.isEquals(store.latest().get(a2), 20);
+			tr.isEquals(store.latest().size(), 5);
+			store.removeKey(a1);
+			store.removeKey(b2);
+			tr.isEquals(store.latest().pmap(), PMap.<String, Integer>empty().put(a2, 20).put(b1, 3).put("other", 5));
+			store.removeKey(a2);
+			store.removeKey(b1);
+			store.removeKey("other");
+			tr.isTrue(store.latest().isEmpty());
+		}
+	});
+
+	static final TestCase versions = TestCase.name("DurablePMap versions and compaction").code(tr -> {
+		File f = tempFile();
+		try(DurablePMapStore<String, Integer> store = open(f, true)) {
+			DurablePMap<String, Integer> v1 = store.put("a", 1);
+			DurablePMap<String, Integer> v2 = store.put("b", 2);
+			DurablePMap<String, Integer> v3 = store.removeKey("a");
+			tr.isEquals(store.removeKey("nokey").getVersion(), v3.getVersion());
+			tr.isEquals(v1.pmap(), PMap.<String, Integer>empty().put("a", 1));
+			tr.isEquals(v2.size(), 2);
+			tr.isEquals(v3.pmap(), PMap.<String, Integer>empty().put("b", 2));
+			tr.isEquals(v3.previous().get().getVersion(), v2.getVersion());
+			tr.isEquals(store.version(v1.getVersion()).get(), v1);
+			tr.isEquals(store.versions().size(), 3);
+			for(int t = 0; t < 1000; t++) {
+				store.put("a", t);
+			}
+			long before = f.length();
+			DurablePMap<String, Integer> compacted = store.compact();
+			tr.isTrue(f.length() < before);
+			tr.isEquals(compacted, store.latest());
+			tr.isEquals(compacted.getVersion(), 1003L);
+			tr.isEquals(compacted.get("a"), 999);
+			tr.isTrue(compacted.previous().isPresent() == false);
+			//Old views stay readable
+			tr.isEquals(v1.get("a"), 1);
+			store.put("c", 3);
+		}
+		try(DurablePMapStore<String, Integer> store = open(f, true)) {
+			tr.isEquals(store.latest().getVersion(), 1004L);
+			tr.isEquals(store.latest().pmap(), PMap.<String, Integer>empty().put("a", 999).put("b", 2).put("c", 3));
+			tr.isEquals(store.versions().size(), 2);
+		}
+	});
+
+	static final TestCase groupCommit = TestCase.name("DurablePMap concurrent writers").code(tr -> {
+		File          f       = tempFile();
+		AtomicInteger threads = new AtomicInteger();
+		AtomicInteger errors  = new AtomicInteger();
+		try(DurablePMapStore<String, Integer> store = open(f, true)) {
+			CoreTest.runThreads(8, () -> {
+				int id = threads.incrementAndGet();
+				for(int t = 0; t < 100; t++) {
+					DurablePMap<String, Integer> v = store.put(id + "-" + t, t);
+					if(v.get(id + "-" + t) != t) {
+						errors.incrementAndGet();
+					}
+				}
+			});
+			tr.isEquals(store.latest().size(), 800);
+			tr.isEquals(errors.get(), 0);
+		}
+		try(DurablePMapStore<String, Integer> store = open(f, true)) {
+			tr.isEquals(store.latest().size(), 800);
+			tr.isEquals(store.latest().getVersion(), 800L);
+			tr.isEquals(store.latest().values().fold(0, (a, b) -> a + b), 8 * 99 * 100 / 2);
+		}
+	});
+
+	static final TestCase tornHeader = TestCase.name("DurablePMap torn header write").code(tr -> {
+		File f = tempFile();
+		try(DurablePMapStore<String, Integer> store = open(f, true)) {
+			for(int t = 0; t < 5; t++) {
+				store.put("k" + t, t);
+			}
+		}
+		//No zeros from growing the mapping after closing
+		tr.isTrue(f.length() < 8192);
+		try(RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+			raf.seek(8);
+			long seq0 = raf.readLong();
+			raf.seek(64 + 8);
+			long seq1 = raf.readLong();
+			//Corrupt the crc of the last header write
+			raf.seek((seq0 > seq1 ? 0 : 64) + 40);
+			raf.writeLong(0);
+		} catch(IOException e) {
+			throw new RuntimeException(e);
+		}
+		try(DurablePMapStore<String, Integer> store = open(f, true)) {
+			tr.isEquals(store.latest().getVersion(), 4L);
+			tr.isEquals(store.latest().size(), 4);
+			store.put("k4", 4);
+		}
+		try(DurablePMapStore<String, Integer> store = open(f, true)) {
+			tr.isEquals(store.latest().getVersion(), 5L);
+		}
+	});
+
+	static final TestCase closedStore = TestCase.name("DurablePMap closed store").code(tr -> {
+		DurablePMapStore<String, Integer> store = open(tempFile(), false);
+		store.putAll(PMap.<String, Integer>empty().put("a", 1).put("b", 2));
+		DurablePMap<String, Integer> v = store.latest();
+		store.close();
+		tr.isTrue(store.isClosed());
+		tr.isEquals(v.get("b"), 2);
+		tr.isEquals(v.keys().sorted().toString(", "), "a, b");
+		tr.throwsException(() -> store.put("c", 3), e -> e instanceof IllegalStateException);
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestDurablePMap.class);
+	}
+
+	public static void main(String[] args) {
+		new TestDurablePMap().testAll();
+	}
+}
@@ -0,0 +1,143 @@
+package com.persistbit.core.collections;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.*;
+import com.persistentbit.core.testing.TestCase;
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link PBitSet}, {@link PEnumSet} and {@link PEnumMap}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestEnumCollections{
+
+	static final TestCase bitSet = TestCase.name("PBitSet").code(tr -> {
+		Random  r   = new Random(1234);
+		BitSet  ref = new BitSet();
+		PBitSet set = PBitSet.empty();
+		for(int t = 0; t < 2000; t++) {
+			int v = r.nextInt(300);
+			if(r.nextInt(3) == 0) {
+				ref.clear(v);
+				set = set.minus(v);
+			}
+			else {
+				ref.set(v);
+				set = set.plus(v);
+			}
+			tr.isEquals(set.size(), ref.cardinality());
+		}
+		for(int t = 0; t < 310; t++) {
+			tr.isEquals(set.contains(t), ref.get(t));
+			tr.isEquals(set.contains((Object) t), ref.get(t));
+		}
+		tr.isEquals(set.plist(), PStream.from(ref.stream().boxed().toArray(Integer[]::new)).plist());
+		tr.isEquals(set.min(), Optional.of(ref.nextSetBit(0)));
+		tr.isEquals(set.max(), Optional.of(ref.length() - 1));
+		tr.isEquals(set, set.pset());
+		tr.isEquals(set.pset(), set.pset());
+		tr.isEquals(set.hashCode(), ref.stream().sum());
+		tr.isTrue(set.plus(set.nextSetBit(0)) == set);
+		tr.isFalse(set.contains("1"));
+
+		PBitSet a = PBitSet.range(0, 100);
+		PBitSet b = PBitSet.range(60, 200);
+		tr.isEquals(a.size(), 100);
+		tr.isEquals(PBitSet.range(64, 128).plist(), PStream.range(64, 64).plist());
+		tr.isEquals(a.union(b), PBitSet.range(0, 200));
+		tr.isEquals(a.intersection(b), PBitSet.range(60, 100));
+		tr.isEquals(a.difference(b), PBitSet.range(0, 60));
+		tr.isEquals(b.difference(a), PBitSet.range(100, 200));
+		tr.isEquals(PBitSet.val(1, 130).intersection(PBitSet.val(1, 2)), PBitSet.val(1));
+		//No trailing empty words: equal after shrinking
+		tr.isEquals(PBitSet.val(1, 130).minus(130), PBitSet.val(1));
+		tr.isEquals(PBitSet.val(1, 130).minus(130).hashCode(), PBitSet.val(1).hashCode());
+		//Symmetric equals with the same hashCode as PSet
+		tr.isEquals(PBitSet.val(3, 70), PSet.val(3, 70));
+		tr.isEquals(PSet.val(3, 70), PBitSet.val(3, 70));
+		tr.isEquals(PSet.val(3, 70).hashCode(), PBitSet.val(3, 70).hashCode());
+		tr.isFalse(PSet.val(3, 71).equals(PBitSet.val(3, 70)));
+		tr.isEquals(a.filter(i -> i % 2 == 0).size(), 50);
+		tr.isTrue(a.filter(i -> i % 2 == 0) instanceof PBitSet);
+		tr.throwsException(() -> PBitSet.empty().plus(-1));
+		tr.throwsException(() -> PBitSet.empty().plus((Integer) null));
+	});
+
+	static final TestCase enumSet = TestCase.name("PEnumSet").code(tr -> {
+		PEnumSet<TimeUnit> set = PEnumSet.val(TimeUnit.SECONDS, TimeUnit.DAYS);
+		tr.isEquals(set.size(), 2);
+		tr.isTrue(set.contains(TimeUnit.DAYS));
+		tr.isFalse(set.contains(TimeUnit.HOURS));
+		tr.isFalse(set.contains("DAYS"));
+		tr.isFalse(set.contains(null));
+		tr.isEquals(set.plus(TimeUnit.NANOSECONDS).plist(),
+					PList.val(TimeUnit.NANOSECONDS, TimeUnit.SECONDS, TimeUnit.DAYS)
+		);
+		tr.isTrue(set.plus(TimeUnit.DAYS) == set);
+		tr.isEquals(set.minus(TimeUnit.DAYS), PEnumSet.val(TimeUnit.SECONDS));
+		tr.isEquals(set, PSet.val(TimeUnit.DAYS, TimeUnit.SECONDS));
+		tr.isEquals(PSet.val(TimeUnit.DAYS, TimeUnit.SECONDS), set.pset());
+		//Symmetric equals with the same hashCode as PSet
+		tr.isEquals(PSet.val(TimeUnit.DAYS, TimeUnit.SECONDS), set);
+		tr.isEquals(PSet.val(TimeUnit.DAYS, TimeUnit.SECONDS).hashCode(), set.hashCode());
+		tr.isEquals(POrderedSet.<TimeUnit>empty().plus(TimeUnit.SECONDS).plus(TimeUnit.DAYS), set);
+		tr.isEquals(set, POrderedSet.<TimeUnit>empty().plus(TimeUnit.DAYS).plus(TimeUnit.SECONDS));
+		tr.isEquals(set.complement().size(), TimeUnit.values().length - 2);
+		tr.isEquals(set.union(set.complement()), PEnumSet.allOf(TimeUnit.class));
+		tr.isEquals(set.intersection(PEnumSet.val(TimeUnit.DAYS, TimeUnit.HOURS)), PEnumSet.val(TimeUnit.DAYS));
+		tr.isEquals(PEnumSet.allOf(TimeUnit.class).difference(set), set.complement());
+		tr.isEquals(set.filter(u -> u == TimeUnit.DAYS).getEnumType(), TimeUnit.class);
+		tr.throwsException(() -> set.plus(null));
+
+		//More than 64 constants
+		PEnumSet<Character.UnicodeScript> scripts = PEnumSet.allOf(Character.UnicodeScript.class);
+		tr.isTrue(scripts.size() > 64);
+		tr.isEquals(scripts.plist(), PList.val(Character.UnicodeScript.values()));
+		PEnumSet<Character.UnicodeScript> last = PEnumSet.val(Character.UnicodeScript.UNKNOWN);
+		tr.isEquals(scripts.difference(last).size(), scripts.size() - 1);
+		tr.isEquals(last.complement().plus(Character.UnicodeScript.UNKNOWN), scripts);
+	});
+
+	static final TestCase enumMap = TestCase.name("PEnumMap").code(tr -> {
+		PEnumMap<TimeUnit, String> map = PEnumMap.empty(TimeUnit.class);
+		map = map.put(TimeUnit.DAYS, "d").put(TimeUnit.SECONDS, "s").put(TimeUnit.HOURS, null);
+		tr.isEquals(map.size(), 3);
+		tr.isEquals(map.get(TimeUnit.DAYS), "d");
+		tr.isEquals(map.get(TimeUnit.HOURS), null);
+		tr.isTrue(map.containsKey(TimeUnit.HOURS));
+		tr.isFalse(map.containsKey(TimeUnit.MINUTES));
+		tr.isFalse(map.containsKey("DAYS"));
+		tr.isEquals(map.getOrDefault(TimeUnit.MINUTES, "?"), "?");
+		tr.isEquals(map.getOpt(TimeUnit.HOURS), Optional.empty());
+		tr.isTrue(map.put(TimeUnit.DAYS, "d") == map);
+		tr.isEquals(map.keys().plist(), PList.val(TimeUnit.SECONDS, TimeUnit.HOURS, TimeUnit.DAYS));
+		tr.isEquals(map.values().plist(), PList.val("s", null, "d"));
+
+		PMap<TimeUnit, String> pmap = PMap.<TimeUnit, String>empty()
+			.put(TimeUnit.DAYS, "d").put(TimeUnit.SECONDS, "s").put(TimeUnit.HOURS, null);
+		tr.isEquals(map, pmap);
+		tr.isEquals(map.hashCode(), pmap.hashCode());
+		tr.isEquals(map.removeKey(TimeUnit.HOURS).size(), 2);
+		tr.isFalse(map.removeKey(TimeUnit.HOURS).containsKey(TimeUnit.HOURS));
+		tr.isTrue(map.removeKey(TimeUnit.MINUTES) == map);
+		tr.isEquals(map.mapValues(v -> v == null ? 0 : v.length()).get(TimeUnit.HOURS), 0);
+		tr.isEquals(map.mapKeyValues(e -> Tuple2.of(e._1.name(), e._2)).get("DAYS"), "d");
+		tr.isEquals(map.filter(e -> e._2 != null).keys(), PEnumSet.val(TimeUnit.DAYS, TimeUnit.SECONDS));
+		tr.isEquals(map.map().get(TimeUnit.SECONDS), "s");
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestEnumCollections.class);
+	}
+
+	public static void main(String[] args) {
+		new TestEnumCollections().testAll();
+	}
+}
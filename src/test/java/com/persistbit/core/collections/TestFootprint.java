@@ -0,0 +1,79 @@
+package com.persistbit.core.collections;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.Footprint;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.collections.PSet;
+import com.persistentbit.core.testing.TestCase;
+
+/**
+ * Tests for {@link Footprint}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestFootprint{
+
+	static final TestCase listFootprint = TestCase.name("Footprint of a PList").code(tr -> {
+		PList<Integer> v1 = PList.empty();
+		for(int t = 0; t < 1000; t++) {
+			v1 = v1.plus(t);
+		}
+		Footprint fp = Footprint.of(v1);
+		//992 elements in 31 leaves + 1 root, 8 elements in the tail
+		tr.isEquals(fp.getNodeCounts().get("PList.Node"), 32);
+		tr.isEquals(fp.getNodeCounts().get("PList.tail"), 1);
+		tr.isEquals(fp.getDepth(), 2);
+		tr.isEquals(fp.getElementCount(), 1000);
+		tr.isEquals(fp.getFillFactor(), 1023.0 / 1024);
+		tr.isEquals(fp.getSharedBytes(), 0L);
+		tr.isEquals(Footprint.of(v1, Footprint.Estimator.ignore()).getElementBytes(), 0L);
+		tr.isEquals(Footprint.of(v1, Footprint.Estimator.fixed(100)).getElementBytes(), 100_000L);
+		tr.isEquals(fp.getRetainedBytes(), fp.getNodeBytes() + fp.getElementBytes());
+
+		//put copies the path to one leaf: new list object, new root, new leaf and the new element
+		PList<Integer> v2 = v1.put(10, -1);
+		Footprint      fp2 = Footprint.of(v2, Footprint.Estimator.standard(), v1);
+		tr.isEquals(fp2.getUnsharedBytes(), 32L + 2 * 160L + 16L);
+		tr.isEquals(fp2.getSharedBytes(), fp2.getRetainedBytes() - fp2.getUnsharedBytes());
+	});
+
+	static final TestCase mapFootprint = TestCase.name("Footprint of a PMap and PSet").code(tr -> {
+		PMap<String, Integer> small = PMap.<String, Integer>empty().put("a", 1).put("b", 2).put(null, 3);
+		Footprint             fp    = Footprint.of(small);
+		tr.isEquals(fp.getNodeCounts().get("BitmapIndexedNode"), 1);
+		tr.isEquals(fp.getDepth(), 1);
+		tr.isEquals(fp.getElementCount(), 5);
+
+		PMap<Integer, Integer> big = PMap.empty();
+		for(int t = 0; t < 10_000; t++) {
+			Integer v = t;
+			big = big.put(v, v);
+		}
+		fp = Footprint.of(big);
+		tr.isTrue(fp.getDepth() >= 2);
+		tr.isTrue(fp.getFillFactor() > 0 && fp.getFillFactor() <= 1);
+		//Keys and values are the same Integer objects
+		tr.isEquals(fp.getElementCount(), 10_000);
+
+		PSet<String> s1 = PSet.empty();
+		for(int t = 0; t < 1000; t++) {
+			s1 = s1.plus("element" + t);
+		}
+		PSet<String> s2 = s1.plus("new");
+		fp = Footprint.of(s2, Footprint.Estimator.standard(), s1);
+		tr.isTrue(fp.getNodeCounts().get("PSet") == 1);
+		tr.isTrue(fp.getSharedBytes() > fp.getRetainedBytes() * 0.9);
+		tr.isTrue(fp.getUnsharedBytes() > 0);
+		tr.isEquals(Footprint.of(s1, Footprint.Estimator.standard(), s1).getUnsharedBytes(), 0L);
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestFootprint.class);
+	}
+
+	public static void main(String[] args) {
+		new TestFootprint().testAll();
+	}
+}
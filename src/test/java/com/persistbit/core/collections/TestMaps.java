@@ -21,11 +21,57 @@ public class TestMaps{
 	});
 
 
+	public static final TestCase smallMapTest = TestCase.name("Test PMap/PSet growing and shrinking").code(t -> {
+		Map<String, Integer> refMap = new HashMap<>();
+		PMap<String, Integer> pmap  = PMap.empty();
+		for(int i = 0; i < 20; i++) {
+			refMap.put("k" + i, i);
+			pmap = pmap.put("k" + i, i);
+			t.isEquals(pmap.size(), refMap.size());
+			t.isEquals(pmap.put("k" + i, i), pmap);
+			t.isEquals(pmap.map(), refMap);
+		}
+		pmap = pmap.put(null, -1);
+		t.isEquals(pmap.get(null), -1);
+		t.isEquals(pmap.removeKey(null).containsKey(null), false);
+		for(int i = 0; i < 20; i++) {
+			refMap.remove("k" + i);
+			pmap = pmap.removeKey("k" + i);
+			t.isEquals(pmap.size(), refMap.size() + 1);
+			t.isEquals(pmap.get("k" + i), null);
+		}
+		t.isEquals(pmap.removeKey(null).isEmpty(), true);
+
+		//Same content with a different internal layout must be equal with the same hashCode
+		PMap<Integer, Integer> big = PMap.empty();
+		for(int i = 0; i < 100; i++) {
+			big = big.put(i, i);
+		}
+		PMap<Integer, Integer> small  = PMap.<Integer, Integer>empty().put(3, 3).put(1, 1).put(2, 2);
+		PMap<Integer, Integer> shrunk = big.filter(e -> e._1 >= 1 && e._1 <= 3);
+		for(int i = 0; i < 100; i++) {
+			if(i < 1 || i > 3) {
+				big = big.removeKey(i);
+			}
+		}
+		t.isEquals(big, small);
+		t.isEquals(big.hashCode(), small.hashCode());
+		t.isEquals(shrunk.hashCode(), small.hashCode());
+		t.isEquals(PSet.val(1, 2, 3), PStream.range(0, 100).pset().filter(i -> i >= 1 && i <= 3));
+		t.isEquals(PSet.val(1, 2, 3).hashCode(), PStream.range(1, 3).pset().hashCode());
+		t.isEquals(PSet.val(1, 2, 3).hashCode(), new HashSet<>(Arrays.asList(1, 2, 3)).hashCode());
+		t.isFalse(PSet.val(1, 2, 3).hashCode() == PSet.val(4, 5, 6).hashCode());
+		t.isFalse(PSet.val("a").hashCode() == PSet.val("b").hashCode());
+	});
 
 	public void testAll() {
 		CoreTest.runTests(TestMaps.class);
 	}
 
+	public static void main(String[] args) {
+		new TestMaps().testAll();
+	}
+
 
 
 	private static Result<Nothing> doAddRemove(IPMap<Integer, String> empty) {
@@ -50,17 +96,24 @@ public class TestMaps{
 			PSet<Integer> psetKeys = pstreamKeys.pset();
 			//System.out.println(psetKeys);
 			Set<Integer> pKeys = psetKeys.toSet();
-			assert refMap.size() == pmap.size();
+			if(refMap.size() != pmap.size()) {
+				throw new RuntimeException("Size differs: " + refMap.size() + " <> " + pmap.size());
+			}
 
 			if(pmap instanceof POrderedMap) {
 				//Lets check if the order is ok...
 				Iterator<Integer> refIter = refMap.keySet().iterator();
 				Iterator<Integer> pIter   = pmap.keys().iterator();
 				while(refIter.hasNext() && pIter.hasNext()) {
-					assert Objects.equals(refIter.next(), pIter.next());
-
+					Integer refKey = refIter.next();
+					Integer pKey   = pIter.next();
+					if(Objects.equals(refKey, pKey) == false) {
+						throw new RuntimeException("Order differs: " + refKey + " <> " + pKey);
+					}
+				}
+				if(refIter.hasNext() != pIter.hasNext()) {
+					throw new RuntimeException("Different number of keys");
 				}
-				assert refIter.hasNext() == pIter.hasNext();
 			}
 
 			if(refKeys.equals(pKeys) == false) {
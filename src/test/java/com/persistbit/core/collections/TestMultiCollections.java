@@ -0,0 +1,150 @@
+package com.persistbit.core.collections;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.*;
+import com.persistentbit.core.testing.TestCase;
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.io.*;
+import java.util.Random;
+
+/**
+ * Tests for {@link PMultiMap} and {@link PBag}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestMultiCollections{
+
+	static final TestCase multiMapList = TestCase.name("PMultiMap list-valued").code(tr -> {
+		PMultiMap<String, Integer> m = PMultiMap.<String, Integer>empty()
+			.put("a", 1).put("b", 2).put("a", 3).put("a", 1);
+		tr.isEquals(m.size(), 4);
+		tr.isEquals(m.keyCount(), 2);
+		tr.isEquals(m.get("a"), PList.val(1, 3, 1));
+		tr.isEquals(m.get("c"), PList.empty());
+		tr.isTrue(m.containsEntry("b", 2));
+		tr.isTrue(m.containsEntry("b", 3) == false);
+		tr.isEquals(m.remove("a", 1).get("a"), PList.val(3, 1));
+		tr.isEquals(m.remove("b", 2).containsKey("b"), false);
+		tr.isTrue(m.remove("x", 1) == m);
+		tr.isEquals(m.removeKey("a").size(), 1);
+		tr.isEquals(m.putAll("c", PList.val(7, 8)).get("c"), PList.val(7, 8));
+		tr.isEquals(m.plusAll(PList.val(Tuple2.of("a", 5), Tuple2.of("d", 6))).size(), 6);
+		tr.isEquals(m.filter(t -> t._2 == 1).size(), 2);
+		tr.isEquals(m, PMultiMap.<String, Integer>empty().plusAll(m));
+		PList<Integer>              values = PStream.range(0, 100).plist();
+		PMultiMap<String, Integer> big    = PMultiMap.<String, Integer>empty().putAll("a", values);
+		for(int i : new int[]{0, 1, 31, 32, 33, 49, 50, 51, 64, 98, 99}) {
+			tr.isEquals(big.remove("a", i).get("a"), values.filter(v -> v != i).plist());
+		}
+	});
+
+	static final TestCase multiMapSet = TestCase.name("PMultiMap set-valued").code(tr -> {
+		PMultiMap<String, Integer> m = PMultiMap.<String, Integer>emptySetValued()
+			.put("a", 1).put("a", 2).put("a", 1);
+		tr.isTrue(m.isSetValued());
+		tr.isEquals(m.size(), 2);
+		tr.isEquals(m.get("a"), PSet.val(1, 2));
+		tr.isTrue(m.put("a", 2) == m);
+		tr.isEquals(m.remove("a", 2).get("a"), PSet.val(1));
+		tr.isTrue(m.remove("a", 1).remove("a", 2).isEmpty());
+		tr.isTrue(m.filter(t -> t._2 == 1).isSetValued());
+	});
+
+	static final TestCase groupByMulti = TestCase.name("PStream.groupByMulti").code(tr -> {
+		PStream<Integer>            numbers = PStream.range(0, 1000).plist();
+		PMultiMap<Integer, Integer> m       = numbers.groupByMulti(i -> i % 10);
+		tr.isEquals(m.size(), 1000);
+		tr.isEquals(m.keyCount(), 10);
+		tr.isEquals(m.get(3), numbers.filter(i -> i % 10 == 3).plist());
+		for(Tuple2<Integer, PList<Integer>> group : numbers.groupBy(i -> i % 10)) {
+			tr.isEquals(m.get(group._1), group._2);
+		}
+		PMultiMap<Boolean, String> strings = numbers.groupByMulti(i -> i % 2 == 0, i -> "" + i);
+		tr.isEquals(strings.get(true).size(), 500);
+		tr.isEquals(strings.get(false).headOpt().orElse(null), "1");
+		tr.isTrue(PStream.<Integer>val().groupByMulti(i -> i).isEmpty());
+	});
+
+	static final TestCase bag = TestCase.name("PBag").code(tr -> {
+		PBag<String> b = PBag.val("a", "b", "a", "c", "a");
+		tr.isEquals(b.size(), 5);
+		tr.isEquals(b.distinctSize(), 3);
+		tr.isEquals(b.occurrences("a"), 3);
+		tr.isEquals(b.occurrences("x"), 0);
+		tr.isEquals(b.minus("a").occurrences("a"), 2);
+		tr.isEquals(b.minus("a", 10).contains("a"), false);
+		tr.isEquals(b.minus("a", 10).size(), 2);
+		tr.isEquals(b.plus("b", 4).occurrences("b"), 5);
+		tr.isEquals(b.plist().sorted(), PList.val("a", "a", "a", "b", "c"));
+		tr.isEquals(b.pset(), PSet.val("a", "b", "c"));
+		tr.isEquals(b.merge(PBag.val("c", "d")).occurrences("c"), 2);
+		tr.isEquals(b.merge(PBag.val("c", "d")).size(), 7);
+		tr.isEquals(b.filter(s -> s.equals("a")).size(), 3);
+		tr.isEquals(b, PBag.val("c", "a", "b", "a", "a"));
+		tr.isTrue(b.equals(PBag.val("a", "b", "c")) == false);
+		tr.isTrue(b.minus("x") == b);
+	});
+
+	static final TestCase countBy = TestCase.name("PStream.countBy and pbag").code(tr -> {
+		Random        r      = new Random(1);
+		PList<Integer> values = PStream.repeatValue(0).map(i -> r.nextInt(20)).limit(10000).plist();
+		PBag<Integer> bag    = values.pbag();
+		tr.isEquals(bag.size(), 10000);
+		for(int t = 0; t < 20; t++) {
+			int v = t;
+			tr.isEquals(bag.occurrences(v), values.count(i -> i == v));
+		}
+		PBag<Boolean> even = values.countBy(i -> i % 2 == 0);
+		tr.isEquals(even.occurrences(true), values.count(i -> i % 2 == 0));
+		tr.isEquals(even.distinctSize(), 2);
+		tr.isEquals(values.pbag().plusAll(values).occurrences(3), bag.occurrences(3) * 2);
+	});
+
+	static final TestCase serializable = TestCase.name("Serializable PMultiMap and PBag").code(tr -> {
+		PMultiMap<String, Integer> list = PMultiMap.<String, Integer>empty().put("a", 2).put("a", 1).put("a", 2).put("b", 3);
+		PMultiMap<String, Integer> copyList = copy(list);
+		tr.isEquals(copyList, list);
+		tr.isEquals(copyList.get("a"), PList.val(2, 1, 2));
+		tr.isEquals(copyList.size(), 4);
+		tr.isFalse(copyList.isSetValued());
+
+		PMultiMap<String, Integer> set     = PMultiMap.<String, Integer>emptySetValued().put("a", 2).put("a", 2);
+		PMultiMap<String, Integer> copySet = copy(set);
+		tr.isEquals(copySet, set);
+		tr.isTrue(copySet.isSetValued());
+		tr.isEquals(copySet.put("a", 2).size(), 1);
+
+		PBag<String> bag     = PBag.val("a", "b", "a", null);
+		PBag<String> copyBag = copy(bag);
+		tr.isEquals(copyBag, bag);
+		tr.isEquals(copyBag.occurrences("a"), 2);
+		tr.isEquals(copyBag.occurrences(null), 1);
+		tr.isEquals(copyBag.plus("a").occurrences("a"), 3);
+		tr.isEquals(copy(PBag.empty()).size(), 0);
+	});
+
+	@SuppressWarnings("unchecked")
+	private static <T> T copy(T value) {
+		try {
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			try(ObjectOutputStream out = new ObjectOutputStream(bout)) {
+				out.writeObject(value);
+			}
+			try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+				return (T) in.readObject();
+			}
+		} catch(IOException | ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public void testAll() {
+		CoreTest.runTests(TestMultiCollections.class);
+	}
+
+	public static void main(String[] args) {
+		new TestMultiCollections().testAll();
+	}
+}
@@ -0,0 +1,98 @@
+package com.persistbit.core.collections;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.OffHeapArena;
+import com.persistentbit.core.collections.OffHeapPList;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.RecordCodec;
+import com.persistentbit.core.testing.TestCase;
+
+import java.util.Random;
+
+/**
+ * Tests for {@link OffHeapPList}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestOffHeapPList{
+
+	static final TestCase compareWithPList = TestCase.name("OffHeapPList same as PList").code(tr -> {
+		OffHeapPList<Long> off = OffHeapPList.empty(RecordCodec.forLong(), OffHeapArena.managed(), 32);
+		PList<Long>        ref = PList.empty();
+		for(long t = 0; t < 100_000; t++) {
+			off = off.plus(t * 3);
+			ref = ref.plus(t * 3);
+		}
+		tr.isEquals(off.size(), ref.size());
+		tr.isEquals(off, ref);
+		tr.isEquals(off.hashCode(), ref.hashCode());
+		Random r = new Random(1);
+		for(int t = 0; t < 10_000; t++) {
+			int  i = r.nextInt(ref.size());
+			long v = r.nextLong();
+			tr.isEquals(off.get(i), ref.get(i));
+			off = off.put(i, v);
+			ref = ref.put(i, v);
+		}
+		tr.isEquals(off, ref);
+		tr.isEquals(off.lastOpt().get(), ref.lastOpt().get());
+		tr.isEquals(off.filter(v -> v % 2 == 0).plist(), ref.filter(v -> v % 2 == 0));
+		tr.isEquals(OffHeapPList.from(RecordCodec.forInt(), PList.val(1, 2, 3)).plist(), PList.val(1, 2, 3));
+		tr.isTrue(OffHeapPList.empty(RecordCodec.forInt()).isEmpty());
+	});
+
+	static final TestCase versions = TestCase.name("OffHeapPList versions are independent").code(tr -> {
+		OffHeapPList<Integer> a = OffHeapPList.empty(RecordCodec.forInt(), OffHeapArena.managed(), 32);
+		for(int t = 0; t < 100; t++) {
+			a = a.plus(t);
+		}
+		OffHeapPList<Integer> b = a.put(10, -1).put(99, -2);
+		tr.isEquals(a.get(10), 10);
+		tr.isEquals(a.get(99), 99);
+		tr.isEquals(b.get(10), -1);
+		tr.isEquals(b.get(99), -2);
+
+		//Two appends on the same version
+		OffHeapPList<Integer> a1 = a.plus(1000);
+		OffHeapPList<Integer> a2 = a.plus(2000);
+		tr.isEquals(a1.get(100), 1000);
+		tr.isEquals(a2.get(100), 2000);
+		tr.isEquals(a.size(), 100);
+
+		//dropLast then plus must not change the original
+		OffHeapPList<Integer> c = a.dropLast().plus(-3);
+		tr.isEquals(a.get(99), 99);
+		tr.isEquals(c.get(99), -3);
+
+		OffHeapPList<Integer> d = a;
+		PList<Integer>        r = a.plist();
+		while(d.isEmpty() == false) {
+			d = d.dropLast();
+			r = r.dropLast();
+			tr.isEquals(d, r);
+		}
+		tr.isEquals(d.plus(5).plist(), PList.val(5));
+	});
+
+	static final TestCase arenaClose = TestCase.name("OffHeapPList arena close").code(tr -> {
+		OffHeapArena          arena = OffHeapArena.create();
+		OffHeapPList<Integer> l     = OffHeapPList.empty(RecordCodec.forInt(), arena);
+		l = l.plusAll(PList.val(1, 2, 3));
+		tr.isEquals(l.get(2), 3);
+		tr.isTrue(arena.getAllocatedBytes() > 0);
+		arena.close();
+		tr.isTrue(arena.isClosed());
+		OffHeapPList<Integer> closed = l;
+		tr.throwsException(() -> closed.get(0), e -> e instanceof IllegalStateException);
+		tr.throwsException(() -> closed.plus(4), e -> e instanceof IllegalStateException);
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestOffHeapPList.class);
+	}
+
+	public static void main(String[] args) {
+		new TestOffHeapPList().testAll();
+	}
+}
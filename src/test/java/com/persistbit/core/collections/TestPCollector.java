@@ -0,0 +1,104 @@
+package com.persistbit.core.collections;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.*;
+import com.persistentbit.core.testing.TestCase;
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.util.stream.Collectors;
+
+/**
+ * Tests for {@link PCollector} and {@link PStream#collect(PCollector)}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestPCollector{
+
+	static final TestCase listBuilder = TestCase.name("PList builder").code(tr -> {
+		for(int size : new int[]{0, 1, 31, 32, 33, 64, 65, 1024, 1056, 1057, 33 * 1024 + 1, 40_000}) {
+			PList.Builder<Integer> b = PList.builder();
+			PList<Integer>         l = PList.empty();
+			for(int t = 0; t < size; t++) {
+				b.add(t);
+				l = l.plus(t);
+			}
+			PList<Integer> built = b.build();
+			tr.isEquals(built.size(), size);
+			tr.isEquals(built, l);
+			//The built list must behave like a list created with plus
+			tr.isEquals(built.plus(-1), l.plus(-1));
+			tr.isEquals(built.plus(-1).dropLast(), l);
+			if(size > 0) {
+				tr.isEquals(built.put(size - 1, -2).get(size - 1), -2);
+				tr.isEquals(built.dropLast(), l.dropLast());
+				tr.isEquals(built.get(size / 2), size / 2);
+			}
+		}
+		PList.Builder<Integer> b1 = PList.builder();
+		PList.Builder<Integer> b2 = PList.builder();
+		for(int t = 0; t < 100; t++) {
+			b1.add(t);
+			b2.add(t + 100);
+		}
+		tr.isEquals(b1.addAll(b2).build(), PStream.sequence(0).limit(200).plist());
+		tr.isEquals(b1.addAll(PList.<Integer>builder()).size(), 200);
+		PList.Builder<Integer> full = PList.builder();
+		for(int t = 0; t < 64; t++) {
+			full.add(t);
+		}
+		tr.isEquals(full.addAll(b2).build(), PStream.sequence(0).limit(64).plusAll(PStream.sequence(100).limit(100))
+			.plist());
+	});
+
+	static final TestCase collect = TestCase.name("PStream collect").code(tr -> {
+		PList<String> words = PList.val("a", "bb", "cc", "ddd", "a", null);
+		tr.isEquals(words.collect(PCollector.toPList()), words);
+		tr.isEquals(words.collect(PCollector.toPSet()), PSet.val("a", "bb", "cc", "ddd", null));
+		tr.isEquals(words.collect(PCollector.toPOrderedSet()).plist(), PList.val("a", "bb", "cc", "ddd", null));
+		tr.isEquals(words.filterNulls().collect(PCollector.groupingBy(String::length)),
+					PMap.<Integer, PList<String>>empty()
+						.put(1, PList.val("a", "a"))
+						.put(2, PList.val("bb", "cc"))
+						.put(3, PList.val("ddd"))
+		);
+		tr.isEquals(words.filterNulls().collect(PCollector.groupingBy(String::length, PCollector.joining(","))),
+					PMap.<Integer, String>empty().put(1, "a,a").put(2, "bb,cc").put(3, "ddd")
+		);
+		tr.isEquals(words.collect(PCollector.joining("[", ",", "]")), "[a,bb,cc,ddd,a,null]");
+		tr.isEquals(PList.<String>empty().collect(PCollector.joining(",")), "");
+		tr.isEquals(PList.val(Tuple2.of(1, "a"), Tuple2.of(2, "b"), Tuple2.of(1, "c")).collect(PCollector.toPMap()),
+					PMap.<Integer, String>empty().put(1, "c").put(2, "b")
+		);
+		tr.isEquals(words.filterNulls().collect(PCollector.mapping(String::length, PCollector.toPSet())),
+					PSet.val(1, 2, 3)
+		);
+		tr.isEquals(words.collect(PCollector.from(Collectors.counting())), 6L);
+		tr.isEquals(words.groupBy(w -> w == null ? 0 : w.length(), w -> w).get(0), PList.val((String) null));
+		tr.throwsException(() -> PStream.sequence(0).collect(PCollector.toPList()));
+	});
+
+	static final TestCase collectParallel = TestCase.name("PStream collectParallel").code(tr -> {
+		PStream<Integer> numbers = PStream.sequence(0).limit(100_000);
+		PList<Integer>   list    = numbers.plist();
+		tr.isEquals(numbers.collectParallel(PCollector.toPList()), list);
+		tr.isEquals(numbers.collectParallel(PCollector.toPOrderedSet()).plist(), list);
+		tr.isEquals(numbers.collectParallel(PCollector.groupingBy(i -> i % 7)), numbers.groupBy(i -> i % 7));
+		tr.isEquals(numbers.limit(10).collectParallel(PCollector.joining(",")), "0,1,2,3,4,5,6,7,8,9");
+		tr.isEquals(PList.<Integer>empty().collectParallel(PCollector.toPList()), PList.empty());
+		tr.throwsException(() -> numbers.collectParallel(PCollector.toPMap(i -> {
+			if(i == 50_000) {
+				throw new IllegalStateException("fail");
+			}
+			return i;
+		}, i -> i)), e -> e instanceof IllegalStateException);
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestPCollector.class);
+	}
+
+	public static void main(String[] args) {
+		new TestPCollector().testAll();
+	}
+}
@@ -6,7 +6,12 @@ import com.persistentbit.core.testing.TestCase;
 import com.persistentbit.core.testing.TestRunner;
 import com.persistentbit.core.tuples.Tuple2;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 
 /**
  * User: petermuys
@@ -139,6 +144,74 @@ public class TestPStream{
 		expectInfinite(() -> s.count((i) -> true));
 	});
 
+	static final TestCase sortedExternal = TestCase.name("sortedExternal").code(tr -> {
+		PList<Integer> values = PStream.sequence(7, i -> (i * 31 + 11) % 1009).limit(5000).plist();
+		PList<Integer> expected = values.sorted().plist();
+		for(int budget : new int[]{1, 7, 100, 4999, 5000, 10000}) {
+			PStreamSortedExternal<Integer> sorted =
+				values.sortedExternal(Integer::compare, ElementCodec.forInt(), budget);
+			tr.isEquals(sorted.plist(), expected);
+			tr.isEquals(sorted.plist(), expected);
+		}
+		createStreamVersions(init).forEach(s ->
+			tr.isEquals(s.sortedExternal(Integer::compare, ElementCodec.forInt(), 3).plist(), s.sorted().plist())
+		);
+		PList<String> strings = PList.val("b", "aa", "c", "a", "bb", "ab");
+		tr.isEquals(
+			strings.sortedExternal(Comparator.comparing(String::length), ElementCodec.forString(), 2).plist(),
+			PList.val("b", "c", "a", "aa", "bb", "ab")
+		);
+		try(PStreamSortedExternal<Integer> sorted = values.sortedExternal(Integer::compare, ElementCodec.serializable(), 10)) {
+			Iterator<Integer> iter = sorted.iterator();
+			tr.isEquals(iter.next(), expected.head());
+		}
+		expectException(() -> values.sortedExternal(Integer::compare, ElementCodec.forInt(), 0), IllegalArgumentException.class);
+		expectInfinite(() -> PStream.sequence(0).sortedExternal(Integer::compare, ElementCodec.forInt(), 10));
+	});
+
+	static File tempDirectory() {
+		try {
+			File dir = Files.createTempDirectory("pstream-sort-test").toFile();
+			dir.deleteOnExit();
+			return dir;
+		} catch(IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	static final TestCase sortedExternalTempFiles = TestCase.name("sortedExternal deletes its temp files").code(tr -> {
+		File           dir      = tempDirectory();
+		PList<Integer> values   = PStream.sequence(7, i -> (i * 31 + 11) % 1009).limit(1000).plist();
+		PList<Integer> expected = values.sorted().plist();
+		PStreamSortedExternal<Integer> sorted =
+			values.sortedExternal(Integer::compare, ElementCodec.forInt(), 10).withTempDirectory(dir);
+		tr.isEquals(sorted.size(), 1000);
+		tr.isFalse(sorted.isEmpty());
+		tr.isEquals(dir.list().length, 0);
+		//Exhausted iterator
+		tr.isEquals(sorted.plist(), expected);
+		tr.isEquals(dir.list().length, 0);
+		//Closed stream
+		Iterator<Integer> iter = sorted.iterator();
+		tr.isEquals(iter.next(), expected.head());
+		tr.isTrue(dir.list().length > 0);
+		sorted.close();
+		tr.isEquals(dir.list().length, 0);
+		//Dropped iterator
+		tr.isEquals(sorted.iterator().next(), expected.head());
+		tr.isTrue(dir.list().length > 0);
+		for(int t = 0; t < 100 && dir.list().length > 0; t++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch(InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		tr.isEquals(dir.list().length, 0);
+		dir.delete();
+	});
+
 	static final TestCase pstream = TestCase.name("PStream functions").code(tr -> {
 		createStreamVersions(init).forEach(s -> testStream(tr, s));
 		PSet<Integer> pi = PSet.forInt().plusAll(init);
@@ -224,6 +297,55 @@ public class TestPStream{
 
 
 
+	static final TestCase reverseIteration = TestCase.name("reverse iteration").code(tr -> {
+		for(int size : new int[]{0, 1, 31, 32, 33, 1024, 1057, 40_000}) {
+			PList<Integer> list = PStream.sequence(0).limit(size).plist();
+			PList<Integer> rev  = PList.empty();
+			for(int t = size - 1; t >= 0; t--) {
+				rev = rev.plus(t);
+			}
+			tr.isEquals(PStream.from(list::reverseIterator).plist(), rev);
+			tr.isEquals(list.reversed(), rev);
+			tr.isEquals(list.lazy().reversed().plist(), rev);
+			tr.isEquals(list.lazy().reversed().reversed().plist(), list);
+			//Lazy sources are buffered in chunks
+			tr.isEquals(PStream.sequence(0).limit(size).reversed().plist(), rev);
+			tr.isEquals(list.llist().plist(), list);
+			tr.isEquals(list.lazy().foldRight(0, i -> r -> i + r), list.fold(0, (a, b) -> a + b));
+			if(size > 10) {
+				Iterator<Integer> ranged = list.reversedRangedIterator(5, size - 3);
+				PList<Integer>    res    = PList.empty();
+				while(ranged.hasNext()) {
+					res = res.plus(ranged.next());
+				}
+				PList<Integer> expected = PList.empty();
+				for(int t = size - 4; t >= 5; t--) {
+					expected = expected.plus(t);
+				}
+				tr.isEquals(res, expected);
+			}
+		}
+		tr.isEquals(PStream.val(1, 2, 3).foldRight("0", i -> s -> "(" + i + " + " + s + ")"), "(1 + (2 + (3 + 0)))");
+		tr.isEquals(PStream.from(new Integer[]{1, 2, 3}).reversed().plist(), PList.val(3, 2, 1));
+		tr.isEquals(PStream.from(Collections.singletonList(1)).reversed().plist(), PList.val(1));
+		tr.isEquals(PByteList.from(new byte[]{1, 2, 3}).reversed(), PByteList.from(new byte[]{3, 2, 1}));
+		tr.isEquals(PStream.val(1, 2).plusAll(PStream.val(3, 4)).reversed().plist(), PList.val(4, 3, 2, 1));
+		tr.isEquals(LList.<Integer>empty().prepend(2).prepend(1).cons(3).plist(), PList.val(1, 2, 3));
+	});
+
+	static final TestCase reversedLazyReadOnce = TestCase.name("reversed lazy stream reads the source once").code(tr -> {
+		int[] reads = new int[1];
+		PStream<Integer> src = PList.val(1, 2, 3).lazy().map(i -> {
+			reads[0]++;
+			return i;
+		});
+		PStream<Integer> rev = src.reversed();
+		tr.isEquals(rev.plist(), PList.val(3, 2, 1));
+		tr.isEquals(rev.plist(), PList.val(3, 2, 1));
+		tr.isEquals(rev.size(), 3);
+		tr.isEquals(reads[0], 3);
+	});
+
 	public void testAll() {
 		CoreTest.runTests(TestPStream.class);
 	}
@@ -0,0 +1,136 @@
+package com.persistbit.core.collections;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.PString;
+import com.persistentbit.core.testing.TestCase;
+import com.persistentbit.core.utils.IO;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tests for {@link PString}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestPString{
+
+	static final TestCase edits = TestCase.name("PString edits").code(tr -> {
+		Random        r   = new Random(42);
+		StringBuilder ref = new StringBuilder();
+		PString       str = PString.empty();
+		for(int t = 0; t < 3000; t++) {
+			int    pos  = ref.length() == 0 ? 0 : r.nextInt(ref.length() + 1);
+			String text = randomText(r, r.nextInt(3) == 0 ? 2000 : 20);
+			switch(r.nextInt(4)) {
+				case 0:
+					ref.insert(pos, text);
+					str = str.insert(pos, text);
+					break;
+				case 1:
+					int end = Math.min(ref.length(), pos + r.nextInt(500));
+					ref.delete(pos, end);
+					str = str.delete(pos, end);
+					break;
+				case 2:
+					ref.append(text);
+					str = str.concat(PString.of(text));
+					break;
+				default:
+					int to = Math.min(ref.length(), pos + r.nextInt(50));
+					ref.replace(pos, to, text);
+					str = str.replace(pos, to, text);
+					break;
+			}
+			tr.isEquals(str.length(), ref.length());
+		}
+		tr.isEquals(str.toString(), ref.toString());
+		tr.isEquals(str.hashCode(), ref.toString().hashCode());
+		tr.isEquals(str, PString.of(ref));
+		tr.isEquals(str.compareTo(PString.of(ref)), 0);
+		for(int t = 0; t < 1000; t++) {
+			int start = r.nextInt(ref.length());
+			int end   = start + r.nextInt(ref.length() - start);
+			tr.isEquals(str.subSequence(start, end).toString(), ref.substring(start, end));
+			tr.isEquals(str.charAt(start), ref.charAt(start));
+		}
+		tr.isEquals(str.indexOf('\n', 10), ref.indexOf("\n", 10));
+		tr.isTrue(str.substring(0) == str);
+		tr.isEquals(str.substring(5, 5), PString.empty());
+		PString result = str;
+		tr.throwsException(() -> result.charAt(ref.length()));
+		tr.throwsException(() -> result.subSequence(10, 5));
+		tr.throwsException(() -> result.insert(-1, "x"));
+	});
+
+	static final TestCase lines = TestCase.name("PString lines").code(tr -> {
+		StringBuilder sb = new StringBuilder();
+		for(int t = 0; t < 10_000; t++) {
+			sb.append("line ").append(t).append('\n');
+		}
+		String  text = sb.toString();
+		PString str  = PString.of(text);
+		tr.isEquals(str.lineCount(), 10_001);
+		tr.isEquals(str.getLineNumber(0), 1);
+		tr.isEquals(str.getLineNumber(text.length()), 10_001);
+		for(int line = 1; line <= 10_000; line += 77) {
+			int start = text.indexOf("line " + (line - 1) + "\n");
+			tr.isEquals(str.getLineStart(line), start);
+			tr.isEquals(str.getLineNumber(start + 2), line);
+			tr.isEquals(str.getColumn(start + 2), 3);
+		}
+		tr.isEquals(str.getLineStart(10_001), text.length());
+		PString edited = str.insert(0, "a\nb\n");
+		tr.isEquals(edited.lineCount(), 10_003);
+		tr.isEquals(edited.getLineStart(3), 4);
+		tr.throwsException(() -> str.getLineStart(0));
+		tr.isEquals(PString.empty().lineCount(), 1);
+		tr.isEquals(PString.empty().getLineStart(1), 0);
+	});
+
+	static final TestCase charSequence = TestCase.name("PString as CharSequence").code(tr -> {
+		StringBuilder sb = new StringBuilder();
+		for(int t = 0; t < 20_000; t++) {
+			sb.append("word").append(t).append(' ');
+		}
+		PString str = PString.of(sb).insert(0, "start ");
+		Matcher m   = Pattern.compile("word(\\d+)").matcher(str);
+		int     count = 0;
+		while(m.find()) {
+			tr.isEquals(m.group(1), Integer.toString(count));
+			count++;
+		}
+		tr.isEquals(count, 20_000);
+
+		StringWriter writer = new StringWriter();
+		try {
+			str.writeTo(writer);
+		} catch(IOException e) {
+			throw new RuntimeException(e);
+		}
+		tr.isEquals(writer.toString(), "start " + sb);
+		tr.isEquals(IO.readTextStreamToPString(new StringReader(sb.toString())).orElseThrow(), PString.of(sb));
+	});
+
+	private static String randomText(Random r, int maxLength) {
+		int           length = r.nextInt(maxLength + 1);
+		StringBuilder sb     = new StringBuilder(length);
+		for(int t = 0; t < length; t++) {
+			sb.append(r.nextInt(10) == 0 ? '\n' : (char) ('a' + r.nextInt(26)));
+		}
+		return sb.toString();
+	}
+
+	public void testAll() {
+		CoreTest.runTests(TestPString.class);
+	}
+
+	public static void main(String[] args) {
+		new TestPString().testAll();
+	}
+}
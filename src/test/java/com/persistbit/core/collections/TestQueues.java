@@ -0,0 +1,124 @@
+package com.persistbit.core.collections;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.*;
+import com.persistentbit.core.testing.TestCase;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Tests for {@link PQueue}, {@link PDeque} and {@link PPriorityQueue}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestQueues{
+
+	static final TestCase queue = TestCase.name("PQueue").code(tr -> {
+		PQueue<Integer> q = PQueue.val(1, 2, 3);
+		tr.isEquals(q.head(), 1);
+		tr.isEquals(q.tail().plus(4).plist(), PList.val(2, 3, 4));
+		tr.isEquals(q.plist(), PList.val(1, 2, 3));
+		tr.isEquals(q.size(), 3);
+		tr.isTrue(PQueue.empty().isEmpty());
+		tr.isTrue(PQueue.empty().dequeue().isPresent() == false);
+		tr.isEquals(q.dequeue().get()._1, 1);
+		tr.isEquals(q.filter(i -> i != 2), PQueue.val(1, 3));
+
+		Deque<Integer> ref = new ArrayDeque<>();
+		PQueue<Integer> p  = PQueue.empty();
+		Random          r  = new Random(1);
+		for(int t = 0; t < 20000; t++) {
+			if(r.nextInt(3) == 0 && ref.isEmpty() == false) {
+				tr.isEquals(p.head(), ref.pollFirst());
+				p = p.tail();
+			}
+			else {
+				ref.addLast(t);
+				p = p.plus(t);
+			}
+		}
+		tr.isEquals(p.plist(), PList.from(ref));
+		tr.isEquals(p.size(), ref.size());
+	});
+
+	static final TestCase deque = TestCase.name("PDeque").code(tr -> {
+		PDeque<Integer> d = PDeque.val(2, 3).plusFirst(1).plus(4);
+		tr.isEquals(d.plist(), PList.val(1, 2, 3, 4));
+		tr.isEquals(d.head(), 1);
+		tr.isEquals(d.last(), 4);
+		tr.isEquals(d.tail().dropLast().plist(), PList.val(2, 3));
+		tr.isEquals(d.reversed().plist(), PList.val(4, 3, 2, 1));
+		tr.isEquals(d.beforeLastOpt().get(), 3);
+
+		Deque<Integer> ref = new ArrayDeque<>();
+		PDeque<Integer> p  = PDeque.empty();
+		Random          r  = new Random(2);
+		for(int t = 0; t < 20000; t++) {
+			switch(r.nextInt(4)) {
+				case 0:
+					ref.addFirst(t);
+					p = p.plusFirst(t);
+					break;
+				case 1:
+					ref.addLast(t);
+					p = p.plus(t);
+					break;
+				case 2:
+					if(ref.isEmpty() == false) {
+						tr.isEquals(p.head(), ref.pollFirst());
+						p = p.tail();
+					}
+					break;
+				default:
+					if(ref.isEmpty() == false) {
+						tr.isEquals(p.last(), ref.pollLast());
+						p = p.dropLast();
+					}
+			}
+		}
+		tr.isEquals(p.plist(), PList.from(ref));
+	});
+
+	static final TestCase priorityQueue = TestCase.name("PPriorityQueue").code(tr -> {
+		PPriorityQueue<Integer> q = PPriorityQueue.val(5, 1, 4, 2, 3);
+		tr.isEquals(q.head(), 1);
+		tr.isEquals(q.plist(), PList.val(1, 2, 3, 4, 5));
+		tr.isEquals(q.tail().tail().head(), 3);
+		tr.isEquals(q.plus(0).head(), 0);
+		tr.isEquals(q.merge(PPriorityQueue.val(0, 6)).plist(), PList.val(0, 1, 2, 3, 4, 5, 6));
+		PPriorityQueue<String> byLength = PPriorityQueue.<String>empty(Comparator.comparing(String::length))
+			.plusAll(PList.val("ccc", "a", "bb"));
+		tr.isEquals(byLength.plist(), PList.val("a", "bb", "ccc"));
+		tr.isEquals(byLength.filter(s -> s.length() > 1).head(), "bb");
+
+		PriorityQueue<Integer>  ref = new PriorityQueue<>();
+		PPriorityQueue<Integer> p   = PPriorityQueue.empty();
+		Random                  r   = new Random(3);
+		for(int t = 0; t < 20000; t++) {
+			if(r.nextInt(3) == 0 && ref.isEmpty() == false) {
+				tr.isEquals(p.head(), ref.poll());
+				p = p.tail();
+			}
+			else {
+				int v = r.nextInt(1000);
+				ref.add(v);
+				p = p.plus(v);
+			}
+		}
+		tr.isEquals(p.size(), ref.size());
+		tr.isEquals(p.plist(), PList.from(ref).sorted().plist());
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestQueues.class);
+	}
+
+	public static void main(String[] args) {
+		new TestQueues().testAll();
+	}
+}
@@ -0,0 +1,91 @@
+package com.persistbit.core.concurrent;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.concurrent.PAtom;
+import com.persistentbit.core.concurrent.StripedPAtomMap;
+import com.persistentbit.core.testing.TestCase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Tests for {@link PAtom} and {@link StripedPAtomMap}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestPAtom{
+
+	static final TestCase swapAndCas = TestCase.name("PAtom swap, compareAndSet and reset").code(tr -> {
+		PAtom<PList<Integer>> atom = PAtom.of(PList.empty());
+		tr.isEquals(atom.swap(l -> l.plus(1)), PList.val(1));
+		PList<Integer> current = atom.get();
+		tr.isTrue(atom.compareAndSet(current, current.plus(2)));
+		tr.isTrue(atom.compareAndSet(current, current.plus(3)) == false);
+		tr.isEquals(atom.get(), PList.val(1, 2));
+		tr.isEquals(atom.reset(PList.empty()), PList.val(1, 2));
+		tr.isTrue(atom.get().isEmpty());
+	});
+
+	static final TestCase watchers = TestCase.name("PAtom watchers").code(tr -> {
+		PAtom<Integer>                 atom    = PAtom.of(0);
+		AtomicReference<PList<String>> changes = new AtomicReference<>(PList.empty());
+		BiConsumer<Integer, Integer>   watcher = (o, n) -> changes.updateAndGet(l -> l.plus(o + "->" + n));
+		atom.addWatcher(watcher);
+		atom.swap(i -> i + 1);
+		atom.compareAndSet(1, 5);
+		atom.compareAndSet(1, 6);
+		atom.reset(10);
+		atom.removeWatcher(watcher);
+		atom.swap(i -> i + 1);
+		tr.isEquals(changes.get(), PList.val("0->1", "1->5", "5->10"));
+		tr.isEquals(atom.get(), 11);
+	});
+
+	static final TestCase contention = TestCase.name("PAtom under contention").code(tr -> {
+		PAtom<PMap<Integer, Integer>> atom    = PAtom.of(PMap.empty());
+		AtomicInteger                 calls   = new AtomicInteger();
+		int                           threads = 8;
+		int                           count   = 2000;
+		atom.addWatcher((o, n) -> calls.incrementAndGet());
+		CoreTest.runThreads(threads, () -> {
+			for(int t = 0; t < count; t++) {
+				int key = t % 10;
+				atom.swap(m -> m.put(key, m.getOrDefault(key, 0) + 1));
+			}
+		});
+		tr.isEquals(atom.get().values().fold(0, (a, b) -> a + b), threads * count);
+		tr.isEquals(calls.get(), threads * count);
+	});
+
+	static final TestCase striped = TestCase.name("StripedPAtomMap").code(tr -> {
+		StripedPAtomMap<Integer, Integer> map = StripedPAtomMap.create(5);
+		tr.isEquals(map.getStripeCount(), 8);
+		int threads = 8;
+		int count   = 2000;
+		CoreTest.runThreads(threads, () -> {
+			for(int t = 0; t < count; t++) {
+				map.update(t % 100, v -> v == null ? 1 : v + 1);
+			}
+		});
+		tr.isEquals(map.size(), 100);
+		tr.isEquals(map.snapshot().values().fold(0, (a, b) -> a + b), threads * count);
+		tr.isEquals(map.get(7), threads * count / 100);
+		map.update(7, v -> null);
+		tr.isTrue(map.containsKey(7) == false);
+		map.put(7, 1).remove(8);
+		tr.isEquals(map.getOpt(7).orElse(null), 1);
+		tr.isEquals(map.size(), 99);
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestPAtom.class);
+	}
+
+	public static void main(String[] args) {
+		new TestPAtom().testAll();
+	}
+}
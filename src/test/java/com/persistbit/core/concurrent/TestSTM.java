@@ -0,0 +1,151 @@
+package com.persistbit.core.concurrent;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.concurrent.STM;
+import com.persistentbit.core.concurrent.STMRef;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.testing.TestCase;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests for {@link STM} and {@link STMRef}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestSTM{
+
+	static final TestCase commitAndAbort = TestCase.name("STM commit and abort").code(tr -> {
+		STMRef<PMap<String, Integer>> map  = STMRef.of(PMap.empty());
+		STMRef<PList<String>>         list = STMRef.of(PList.empty());
+		Result<Integer> res = STM.transaction(tx -> {
+			tx.alter(map, m -> m.put("a", 1));
+			tx.alter(list, l -> l.plus("a"));
+			tr.isEquals(tx.get(map).get("a"), 1);
+			tr.isEquals(map.get().get("a"), null);
+			return Result.success(tx.get(list).size());
+		});
+		tr.isEquals(res.orElseThrow(), 1);
+		tr.isEquals(map.get().get("a"), 1);
+		tr.isEquals(list.get(), PList.val("a"));
+
+		tr.isTrue(STM.transaction(tx -> {
+			tx.set(list, PList.empty());
+			return Result.failure("abort");
+		}).isError());
+		tr.isTrue(STM.<Integer>transaction(tx -> {
+			tx.set(list, PList.empty());
+			throw new IllegalStateException("abort");
+		}).isError());
+		tr.isTrue(STM.<Integer>transaction(tx -> {
+			tx.set(list, PList.empty());
+			return Result.empty();
+		}).isEmpty());
+		tr.isEquals(list.get(), PList.val("a"));
+	});
+
+	static final TestCase commuteRules = TestCase.name("STM commute").code(tr -> {
+		STMRef<Integer> counter = STMRef.of(0);
+		tr.isEquals(STM.transaction(tx -> {
+			tx.commute(counter, i -> i + 1);
+			return Result.success(tx.commute(counter, i -> i + 1));
+		}).orElseThrow(), 2);
+		tr.isEquals(counter.get(), 2);
+		tr.isTrue(STM.transaction(tx -> {
+			tx.commute(counter, i -> i + 1);
+			return Result.success(tx.set(counter, 10));
+		}).isError());
+		tr.isEquals(STM.transaction(tx -> {
+			tx.set(counter, 10);
+			return Result.success(tx.commute(counter, i -> i + 1));
+		}).orElseThrow(), 11);
+		tr.isEquals(counter.get(), 11);
+	});
+
+	static final TestCase bankTransfers = TestCase.name("STM concurrent transfers keep the total").code(tr -> {
+		int               accountCount = 10;
+		int               initial      = 1000;
+		STMRef<Integer>[] accounts     = new STMRef[accountCount];
+		for(int t = 0; t < accountCount; t++) {
+			accounts[t] = STMRef.of(initial);
+		}
+		STMRef<Integer> transfers    = STMRef.of(0);
+		AtomicBoolean   inconsistent = new AtomicBoolean();
+		AtomicBoolean   stop         = new AtomicBoolean();
+		Thread reader = new Thread(() -> {
+			while(stop.get() == false) {
+				int total = STM.transaction(tx -> {
+					int sum = 0;
+					for(STMRef<Integer> a : accounts) {
+						sum += tx.get(a);
+					}
+					return Result.success(sum);
+				}).orElseThrow();
+				if(total != accountCount * initial) {
+					inconsistent.set(true);
+				}
+			}
+		});
+		reader.start();
+		CoreTest.runThreads(8, () -> {
+			Random r = new Random(Thread.currentThread().getId());
+			for(int t = 0; t < 2000; t++) {
+				int from   = r.nextInt(accountCount);
+				int to     = r.nextInt(accountCount);
+				int amount = r.nextInt(50);
+				STM.transaction(tx -> {
+					if(tx.get(accounts[from]) < amount) {
+						return Result.empty("not enough money");
+					}
+					tx.alter(accounts[from], v -> v - amount);
+					tx.alter(accounts[to], v -> v + amount);
+					tx.commute(transfers, i -> i + 1);
+					return Result.success(amount);
+				});
+			}
+		});
+		stop.set(true);
+		try {
+			reader.join();
+		} catch(InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		int total = 0;
+		for(STMRef<Integer> a : accounts) {
+			tr.isTrue(a.get() >= 0);
+			total += a.get();
+		}
+		tr.isEquals(total, accountCount * initial);
+		tr.isTrue(inconsistent.get() == false);
+		tr.isTrue(transfers.get() > 0);
+	});
+
+	static final TestCase commuteCounter = TestCase.name("STM concurrent commute").code(tr -> {
+		STMRef<Integer>             counter   = STMRef.of(0);
+		STMRef<PMap<Long, Integer>> perThread = STMRef.of(PMap.empty());
+		CoreTest.runThreads(8, () -> {
+			long id = Thread.currentThread().getId();
+			for(int t = 0; t < 1000; t++) {
+				STM.transaction(tx -> {
+					tx.commute(counter, i -> i + 1);
+					tx.commute(perThread, m -> m.put(id, m.getOrDefault(id, 0) + 1));
+					return Result.success(true);
+				});
+			}
+		});
+		tr.isEquals(counter.get(), 8000);
+		tr.isEquals(perThread.get().values().fold(0, (a, b) -> a + b), 8000);
+	});
+
+	public void testAll() {
+		CoreTest.runTests(TestSTM.class);
+	}
+
+	public static void main(String[] args) {
+		new TestSTM().testAll();
+	}
+}
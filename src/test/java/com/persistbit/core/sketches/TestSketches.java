@@ -0,0 +1,91 @@
+package com.persistbit.core.sketches;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PStream;
+import com.persistentbit.core.sketches.HyperLogLog;
+import com.persistentbit.core.sketches.QuantileSketch;
+import com.persistentbit.core.sketches.TopK;
+import com.persistentbit.core.testing.TestCase;
+import com.persistentbit.core.tuples.Tuple2;
+
+import java.io.*;
+
+/**
+ * Tests for the approximate PStream terminals
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestSketches{
+
+	static final TestCase hyperLogLog = TestCase.name("HyperLogLog").code(tr -> {
+		tr.isEquals(PStream.val().countDistinctApprox().estimate(), 0L);
+		tr.isEquals(PStream.val(1, 2, 3, 2, 1).countDistinctApprox().estimate(), 3L);
+		HyperLogLog all = PStream.range(0, 200000).map(i -> i % 100000).countDistinctApprox();
+		tr.isTrue(Math.abs(all.estimate() - 100000) < 3000);
+
+		HyperLogLog left  = PStream.range(0, 60000).countDistinctApprox();
+		HyperLogLog right = PStream.range(40000, 60000).countDistinctApprox();
+		tr.isEquals(left.merge(right), PStream.range(0, 100000).countDistinctApprox());
+		tr.isEquals(copy(all), all);
+	});
+
+	static final TestCase topK = TestCase.name("TopK").code(tr -> {
+		PStream<Integer> skewed = PStream.range(0, 50000).map(i -> i % 10 < 5 ? i % 3 : i);
+		TopK<Integer>    top    = skewed.topK(3, i -> i);
+		tr.isEquals(top.top().map(t -> t._1).pset(), PList.val(0, 1, 2).pset());
+		tr.isTrue(top.estimate(0) >= skewed.count(i -> i == 0));
+		tr.isEquals(top.getTotalCount(), 50000L);
+
+		TopK<String> words = PStream.val("a", "b", "a", "c", "a", "b").topK(2, s -> s);
+		tr.isEquals(words.top(), PList.val(Tuple2.of("a", 3L), Tuple2.of("b", 2L)));
+		tr.isEquals(words.merge(words).top(), PList.val(Tuple2.of("a", 6L), Tuple2.of("b", 4L)));
+		tr.isEquals(copy(words), words);
+		tr.isEquals(copy(words).hashCode(), words.hashCode());
+		tr.isEquals(PStream.val("a", "b", "a", "c", "a", "b").topK(2, s -> s), words);
+		tr.isFalse(words.merge(words).equals(words));
+		tr.isEquals(words.toString(), "TopK[k=2, totalCount=6, top=(a,3), (b,2)]");
+	});
+
+	static final TestCase quantiles = TestCase.name("Quantiles").code(tr -> {
+		tr.isTrue(Double.isNaN(PStream.<Integer>val().quantilesApprox(i -> i).quantile(0.5)));
+		QuantileSketch q = PStream.range(0, 100001).quantilesApprox(i -> i);
+		tr.isEquals(q.getCount(), 100001L);
+		tr.isEquals(q.quantile(0), 0.0);
+		tr.isEquals(q.quantile(1), 100000.0);
+		tr.isTrue(Math.abs(q.quantile(0.5) - 50000) < 2000);
+		tr.isTrue(Math.abs(q.quantile(0.99) - 99000) < 2000);
+		tr.isTrue(Math.abs(q.rank(25000) - 0.25) < 0.02);
+
+		QuantileSketch low    = PStream.range(0, 50000).quantilesApprox(i -> i);
+		QuantileSketch high   = PStream.range(50000, 50001).quantilesApprox(i -> i);
+		QuantileSketch merged = low.merge(high);
+		tr.isEquals(merged.getCount(), 100001L);
+		tr.isTrue(Math.abs(merged.quantile(0.5) - 50000) < 2000);
+		tr.isEquals(copy(q).quantile(0.5), q.quantile(0.5));
+	});
+
+	@SuppressWarnings("unchecked")
+	private static <T> T copy(T value) {
+		try {
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			try(ObjectOutputStream out = new ObjectOutputStream(bout)) {
+				out.writeObject(value);
+			}
+			try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+				return (T) in.readObject();
+			}
+		} catch(IOException | ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public void testAll() {
+		CoreTest.runTests(TestSketches.class);
+	}
+
+	public static void main(String[] args) {
+		new TestSketches().testAll();
+	}
+}
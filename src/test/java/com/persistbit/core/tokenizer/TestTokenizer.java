@@ -3,6 +3,7 @@ package com.persistbit.core.tokenizer;
 import com.persistbit.core.CoreTest;
 import com.persistentbit.core.Nothing;
 import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PString;
 import com.persistentbit.core.collections.PStream;
 import com.persistentbit.core.result.Result;
 import com.persistentbit.core.testing.TestCase;
@@ -63,6 +64,22 @@ public class TestTokenizer{
 
 	});
 
+	static final TestCase testTokenizePString = TestCase.name("Tokenize a PString").code(tr -> {
+		SimpleTokenizer<Integer> tokenizer = createTokenizer();
+		StringBuilder            sb        = new StringBuilder();
+		for(int t = 0; t < 5000; t++) {
+			sb.append("sin(x").append(t).append(")\n  + 'str'\n");
+		}
+		PString               code   = PString.of(sb.toString());
+		PList<Token<Integer>> tokens = tokenizer.tokenizeToResult("big", code).orElseThrow();
+		tr.isEquals(tokens.size(), 5000 * 6);
+		tr.isEquals(tokens, tokenizer.tokenizeToResult("big", sb.toString()).orElseThrow());
+		Token<Integer> last = tokens.lastOpt().get();
+		tr.isEquals(last.pos.lineNumber, 10000);
+		tr.isEquals(last.pos.column, 10);
+		tr.isEquals(last.text, "'str'");
+	});
+
 	private static void testTok(TestRunner tr, String text, Integer... tokenTypes) {
 		SimpleTokenizer<Integer>        tokenizer = createTokenizer();
 		PStream<Result<Token<Integer>>> tokens    = tokenizer.tokenize("test", text);
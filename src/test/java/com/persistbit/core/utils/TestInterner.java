@@ -0,0 +1,169 @@
+package com.persistbit.core.utils;
+
+import com.persistbit.core.CoreTest;
+import com.persistentbit.core.collections.ElementCodec;
+import com.persistentbit.core.collections.LList;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.testing.TestCase;
+import com.persistentbit.core.tuples.Tuple2;
+import com.persistentbit.core.utils.BaseValueClass;
+import com.persistentbit.core.utils.Interner;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link Interner}
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class TestInterner{
+
+	public static class Point extends BaseValueClass implements Serializable{
+
+		private final int x;
+		private final int y;
+
+		public Point(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	static final TestCase intern = TestCase.name("Interner returns canonical instances").code(tr -> {
+		Interner<Object>        interner = Interner.create(4);
+		Tuple2<String, Integer> t1       = Tuple2.of("a", 1000);
+		Tuple2<String, Integer> t2       = Tuple2.of("a", 1000);
+		tr.isTrue(t1 != t2);
+		tr.isTrue(interner.intern(t1) == t1);
+		tr.isTrue(interner.intern(t2) == t1);
+		PList<String> l1 = PList.val("a", "b");
+		tr.isTrue(interner.intern(PList.val("a", "b")) != l1);
+		tr.isTrue(interner.intern(l1) == interner.intern(PList.val("a", "b")));
+		Object p = interner.intern(new Point(1, 2));
+		tr.isTrue(interner.intern(new Point(1, 2)) == p);
+		tr.isTrue(interner.intern(new Point(2, 1)) != p);
+		tr.isTrue(interner.intern(null) == null);
+		tr.isEquals(interner.size(), 4);
+		tr.throwsException(() -> Interner.create(3));
+
+		Interner<String>     strings = Interner.create();
+		ElementCodec<String> codec   = ElementCodec.interning(ElementCodec.forString(), strings);
+		try {
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			DataOutputStream      out  = new DataOutputStream(bout);
+			codec.write(out, "hello");
+			codec.write(out, "hello");
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(bout.toByteArray()));
+			tr.isTrue(codec.read(in) == codec.read(in));
+		} catch(IOException e) {
+			throw new RuntimeException(e);
+		}
+	});
+
+	static final TestCase weak = TestCase.name("Interner does not keep values alive").code(tr -> {
+		Interner<String> interner = Interner.create();
+		for(int t = 0; t < 10_000; t++) {
+			interner.intern(new String("value" + t));
+		}
+		String keep = interner.intern(new String("value1"));
+		for(int t = 0; t < 20 && interner.size() > 1; t++) {
+			System.gc();
+			try {
+				Thread.sleep(20);
+			} catch(InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		tr.isEquals(interner.size(), 1);
+		tr.isTrue(interner.intern(new String("value1")) == keep);
+	});
+
+	static final TestCase concurrent = TestCase.name("Interner concurrent").code(tr -> {
+		Interner<Tuple2<Integer, Integer>> interner = Interner.create();
+		Object[][]                         results  = new Object[8][1000];
+		AtomicInteger                      threads  = new AtomicInteger();
+		CoreTest.runThreads(8, () -> {
+			int id = threads.getAndIncrement();
+			for(int t = 0; t < 1000; t++) {
+				results[id][t] = interner.intern(Tuple2.of(t, t * 2));
+			}
+		});
+		for(int t = 0; t < 1000; t++) {
+			for(int i = 1; i < 8; i++) {
+				tr.isTrue(results[i][t] == results[0][t]);
+			}
+		}
+		tr.isEquals(interner.size(), 1000);
+	});
+
+	static final TestCase deserialization = TestCase.name("Interner on deserialization").code(tr -> {
+		PList<Object> value = PList.val(Tuple2.of("a", 1000), new Point(1, 2));
+		byte[]        bytes;
+		try {
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			try(ObjectOutputStream out = new ObjectOutputStream(bout)) {
+				out.writeObject(value);
+			}
+			bytes = bout.toByteArray();
+		} catch(IOException e) {
+			throw new RuntimeException(e);
+		}
+		tr.isTrue(read(bytes) != read(bytes));
+		Interner.setInternOnDeserialization(true);
+		try {
+			PList<Object> r1 = read(bytes);
+			PList<Object> r2 = read(bytes);
+			tr.isEquals(r1, value);
+			tr.isTrue(r1 == r2);
+			tr.isTrue(r1.get(0) == Interner.global().intern(Tuple2.of("a", 1000)));
+			tr.isTrue(r1.get(1) == Interner.global().intern(new Point(1, 2)));
+		} finally {
+			Interner.setInternOnDeserialization(false);
+		}
+	});
+
+	static final TestCase deserializationOtherClass = TestCase.name("Interner keeps the class of the value").code(tr -> {
+		PList<Object> value = PList.val("other", "class");
+		LList<Object> equal = LList.empty().prepend("class").prepend("other");
+		tr.isEquals(value, equal);
+		tr.isTrue(Interner.global().intern(equal) == equal);
+		tr.isTrue(Interner.global().intern(value) == value);
+		byte[] bytes;
+		try {
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			try(ObjectOutputStream out = new ObjectOutputStream(bout)) {
+				out.writeObject(value);
+			}
+			bytes = bout.toByteArray();
+		} catch(IOException e) {
+			throw new RuntimeException(e);
+		}
+		Interner.setInternOnDeserialization(true);
+		try {
+			PList<Object> r = read(bytes);
+			tr.isTrue(r == value);
+		} finally {
+			Interner.setInternOnDeserialization(false);
+		}
+		tr.isTrue(Interner.global().intern(LList.empty().prepend("class").prepend("other")) == equal);
+	});
+
+	@SuppressWarnings("unchecked")
+	private static PList<Object> read(byte[] bytes) {
+		try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return (PList<Object>) in.readObject();
+		} catch(IOException | ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public void testAll() {
+		CoreTest.runTests(TestInterner.class);
+	}
+
+	public static void main(String[] args) {
+		new TestInterner().testAll();
+	}
+}
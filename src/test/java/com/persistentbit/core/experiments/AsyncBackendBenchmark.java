@@ -0,0 +1,58 @@
+package com.persistentbit.core.experiments;
+
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.result.AsyncBackend;
+import com.persistentbit.core.result.Result;
+import com.persistentbit.core.result.ResultAsync;
+
+/**
+ * Compares the throughput of the {@link AsyncBackend} backends for async results that block on IO.<br>
+ * Every task simulates a blocking IO call with a sleep.
+ * On a JVM without virtual threads, only the platform backend is measured.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class AsyncBackendBenchmark{
+
+	private static final int  count   = 2_000;
+	private static final long blockMs = 10;
+
+	static Result<Integer> blockingIo(int value) {
+		try {
+			Thread.sleep(blockMs);
+			return Result.success(value);
+		} catch(InterruptedException e) {
+			return Result.failure(e);
+		}
+	}
+
+	static void run(AsyncBackend.Kind kind) {
+		if(AsyncBackend.use(kind) != kind) {
+			System.out.println(kind + "\tnot supported on this JVM");
+			return;
+		}
+		long                   start   = System.nanoTime();
+		PList<Result<Integer>> results = PList.empty();
+		for(int t = 0; t < count; t++) {
+			int value = t;
+			results = results.plus(Result.async(() -> blockingIo(value)).map(v -> v * 2));
+		}
+		int  sum  = ResultAsync.combineAll(results).orElseThrow().fold(0, (a, b) -> a + b);
+		long done = System.nanoTime();
+		double seconds = (done - start) / 1_000_000_000.0;
+		System.out.println(String.format("%s\t%.0f tasks/s\t(%d)", kind, count / seconds, sum));
+	}
+
+	public static void main(String... args) {
+		AsyncBackend.Kind initial = AsyncBackend.getKind();
+		try {
+			for(int run = 0; run < 3; run++) {
+				run(AsyncBackend.Kind.platform);
+				run(AsyncBackend.Kind.virtual);
+			}
+		} finally {
+			AsyncBackend.use(initial);
+		}
+	}
+}
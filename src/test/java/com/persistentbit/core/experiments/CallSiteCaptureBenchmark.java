@@ -0,0 +1,46 @@
+package com.persistentbit.core.experiments;
+
+import com.persistentbit.core.logging.CallSiteCapture;
+import com.persistentbit.core.result.Result;
+
+/**
+ * Compares the {@link CallSiteCapture.Policy} options for a small logged function
+ * called through {@link Result#function(Object...)}.<br>
+ * Prints the time per call and the time to print the location of the last log,
+ * which is when a lazy call site gets resolved.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class CallSiteCaptureBenchmark{
+
+	private static final int count = 1_000_000;
+
+	static Result<Integer> add(int a, int b) {
+		return Result.function(a, b).code(l -> Result.success(a + b));
+	}
+
+	static void run(CallSiteCapture.Policy policy) {
+		CallSiteCapture.setPolicy(policy);
+		long            start = System.nanoTime();
+		Result<Integer> last  = null;
+		for(int t = 0; t < count; t++) {
+			last = add(t, 1);
+		}
+		long   done     = System.nanoTime();
+		String location = last.getLog().getContext().map(Object::toString).orElse("");
+		long   resolved = System.nanoTime();
+		System.out.println(String.format("%s\t%d ns/call\tresolve %d us\t%s",
+			policy, (done - start) / count, (resolved - done) / 1000, location
+		));
+	}
+
+	public static void main(String... args) {
+		CallSiteCapture.setSampleRate(100);
+		for(int run = 0; run < 3; run++) {
+			for(CallSiteCapture.Policy policy : CallSiteCapture.Policy.values()) {
+				run(policy);
+			}
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.persistentbit.core.experiments;
+
+import com.persistentbit.core.Lazy;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Measures the read throughput of an initialized {@link Lazy} from multiple threads,
+ * compared with an expiring lazy and with a synchronized supplier.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class LazyBenchmark{
+
+	private static final int threads = Runtime.getRuntime().availableProcessors();
+	private static final int reads   = 10_000_000;
+
+	static final class SynchronizedLazy<T> implements Supplier<T>{
+
+		private final Supplier<T> supplier;
+		private       T           value;
+		private       boolean     gotValue;
+
+		SynchronizedLazy(Supplier<T> supplier) {
+			this.supplier = supplier;
+		}
+
+		@Override
+		public synchronized T get() {
+			if(gotValue == false) {
+				value = supplier.get();
+				gotValue = true;
+			}
+			return value;
+		}
+	}
+
+	static void run(String name, Supplier<Integer> lazy) throws Exception {
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		try {
+			long           start   = System.nanoTime();
+			Future<Long>[] results = new Future[threads];
+			for(int t = 0; t < threads; t++) {
+				results[t] = exec.submit(() -> {
+					long sum = 0;
+					for(int r = 0; r < reads; r++) {
+						sum += lazy.get();
+					}
+					return sum;
+				});
+			}
+			long sum = 0;
+			for(Future<Long> f : results) {
+				sum += f.get();
+			}
+			long done = System.nanoTime();
+			System.out.println(String.format("%s\t%.1f M reads/s\t(%d)", name, threads * (double) reads * 1000 / (done - start), sum));
+		} finally {
+			exec.shutdown();
+		}
+	}
+
+	public static void main(String... args) throws Exception {
+		for(int run = 0; run < 3; run++) {
+			run("synchronized", new SynchronizedLazy<>(() -> 1));
+			run("Lazy", new Lazy<>(() -> 1));
+			run("Lazy.expiring", Lazy.expiring(Duration.ofHours(1), () -> 1));
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.persistentbit.core.experiments;
+
+import com.persistentbit.core.logging.LogLevels;
+import com.persistentbit.core.logging.LogMessageLevel;
+import com.persistentbit.core.result.Result;
+
+/**
+ * Shows the overhead of the log messages in a logged function for every
+ * global {@link LogLevels} threshold.<br>
+ * The function logs one message of every level.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class LogLevelBenchmark{
+
+	private static final int count = 1_000_000;
+
+	static Result<Integer> logged(int value) {
+		return Result.function().code(l -> {
+			l.info("value", value);
+			l.important("important");
+			l.warning("warning");
+			l.error("error");
+			return Result.success(value);
+		});
+	}
+
+	static void run(String name) {
+		long start = System.nanoTime();
+		long sum   = 0;
+		for(int t = 0; t < count; t++) {
+			sum += logged(t).orElseThrow();
+		}
+		long done = System.nanoTime();
+		System.out.println(String.format("%s\t%d ns/call\t(%d)", name, (done - start) / count, sum));
+	}
+
+	public static void main(String... args) {
+		for(int run = 0; run < 3; run++) {
+			for(LogMessageLevel level : LogMessageLevel.values()) {
+				LogLevels.setThreshold(level);
+				run(level.name());
+			}
+			LogLevels.setOff();
+			run("off");
+			LogLevels.reset();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.persistentbit.core.experiments;
+
+import com.persistentbit.core.collections.OffHeapArena;
+import com.persistentbit.core.collections.OffHeapPList;
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.RecordCodec;
+
+/**
+ * Compares a {@link PList} of boxed longs with an {@link OffHeapPList} of longs:
+ * build time, used heap and iteration time.<br>
+ * Run with a fixed heap (ex. -Xms4g -Xmx4g -XX:MaxDirectMemorySize=1g) and
+ * with -verbose:gc to see the difference in gc pauses.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class OffHeapPListBenchmark{
+
+	private static final int count = 10_000_000;
+
+	static long sum(Iterable<Long> values) {
+		long sum = 0;
+		for(Long v : values) {
+			sum += v;
+		}
+		return sum;
+	}
+
+	static void report(String name, long start, long heapBefore, Iterable<Long> values) {
+		long built = System.nanoTime();
+		long heap  = SmallCollectionsMemory.usedMemory() - heapBefore;
+		long sum   = 0;
+		long iter  = System.nanoTime();
+		for(int t = 0; t < 5; t++) {
+			sum += sum(values);
+		}
+		long done = System.nanoTime();
+		System.out.println(String.format("%s\tbuild %d ms\theap %d MB\titerate %d ms\t(%d)",
+			name, (built - start) / 1_000_000, heap / (1024 * 1024), (done - iter) / 5_000_000, sum
+		));
+	}
+
+	public static void main(String... args) {
+		for(int run = 0; run < 3; run++) {
+			long        heapBefore = SmallCollectionsMemory.usedMemory();
+			long        start      = System.nanoTime();
+			PList<Long> list       = PList.empty();
+			for(long t = 0; t < count; t++) {
+				list = list.plus(t);
+			}
+			report("PList", start, heapBefore, list);
+			list = null;
+
+			try(OffHeapArena arena = OffHeapArena.create()) {
+				heapBefore = SmallCollectionsMemory.usedMemory();
+				start = System.nanoTime();
+				OffHeapPList<Long> off = OffHeapPList.empty(RecordCodec.forLong(), arena);
+				for(long t = 0; t < count; t++) {
+					off = off.plus(t);
+				}
+				report("OffHeapPList", start, heapBefore, off);
+				System.out.println("\toff-heap " + arena.getAllocatedBytes() / (1024 * 1024) + " MB");
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.persistentbit.core.experiments;
+
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.concurrent.PAtom;
+import com.persistentbit.core.concurrent.StripedPAtomMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * Contention benchmark for updating a shared PMap from many threads:
+ * synchronized block, plain AtomicReference retry loop, {@link PAtom} with backoff
+ * and {@link StripedPAtomMap}.<br>
+ * Usage: PAtomContention [threads] [updatesPerThread] [keys]
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class PAtomContention{
+
+	static double run(String name, int threads, int updates, IntConsumer update) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread>   all   = new ArrayList<>();
+		for(int t = 0; t < threads; t++) {
+			int    offset = t * 7919;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+				} catch(InterruptedException e) {
+					return;
+				}
+				for(int i = 0; i < updates; i++) {
+					update.accept(offset + i);
+				}
+			});
+			all.add(thread);
+			thread.start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		for(Thread thread : all) {
+			thread.join();
+		}
+		double seconds = (System.nanoTime() - begin) / 1e9;
+		double opsSec  = threads * (double) updates / seconds;
+		System.out.println(String.format("%-28s %12.0f updates/sec", name, opsSec));
+		return opsSec;
+	}
+
+	public static void main(String... args) throws InterruptedException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+		int updates = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+		int keys    = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+		System.out.println("threads=" + threads + ", updates/thread=" + updates + ", keys=" + keys);
+		for(int round = 0; round < 3; round++) {
+			System.out.println("Round " + (round + 1));
+
+			Object                         lock   = new Object();
+			PMap<Integer, Integer>[]       synced = new PMap[]{PMap.empty()};
+			run("synchronized", threads, updates, i -> {
+				synchronized(lock) {
+					synced[0] = synced[0].put(i % keys, i);
+				}
+			});
+
+			AtomicReference<PMap<Integer, Integer>> ref = new AtomicReference<>(PMap.empty());
+			run("AtomicReference loop", threads, updates, i -> {
+				while(true) {
+					PMap<Integer, Integer> current = ref.get();
+					if(ref.compareAndSet(current, current.put(i % keys, i))) {
+						return;
+					}
+				}
+			});
+
+			PAtom<PMap<Integer, Integer>> atom = PAtom.of(PMap.empty());
+			run("PAtom", threads, updates, i -> atom.swap(m -> m.put(i % keys, i)));
+			System.out.println("  PAtom retries: " + atom.getRetryCount());
+
+			StripedPAtomMap<Integer, Integer> striped = StripedPAtomMap.create(64);
+			run("StripedPAtomMap(64)", threads, updates, i -> striped.put(i % keys, i));
+			System.out.println("  Striped retries: " + striped.getRetryCount());
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.persistentbit.core.experiments;
+
+import com.persistentbit.core.collections.PList;
+import com.persistentbit.core.collections.PMap;
+import com.persistentbit.core.collections.PSet;
+
+import java.util.function.IntFunction;
+
+/**
+ * Memory per instance for small PMap, PSet and PList instances.<br>
+ * Keeps a large number of instances with the same size alive and measures the used heap.
+ * Run with a fixed heap (ex. -Xms1g -Xmx1g) for stable numbers.
+ *
+ * @author Peter Muys
+ * @since 19/10/2026
+ */
+public class SmallCollectionsMemory{
+
+	private static final int instances = 100_000;
+
+	static long usedMemory() {
+		Runtime rt = Runtime.getRuntime();
+		for(int t = 0; t < 4; t++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+
+	static double bytesPerInstance(IntFunction<Object> create) {
+		Object[] keep   = new Object[instances];
+		long     before = usedMemory();
+		for(int t = 0; t < instances; t++) {
+			keep[t] = create.apply(t);
+		}
+		long after = usedMemory();
+		if(keep[instances - 1] == null) {
+			throw new IllegalStateException();
+		}
+		return (double) (after - before) / instances;
+	}
+
+	public static void main(String... args) {
+		//Shared keys and values, so we only measure the collection overhead
+		String[] shared = new String[32];
+		for(int t = 0; t < shared.length; t++) {
+			shared[t] = "attribute" + t;
+			shared[t].hashCode();
+		}
+		System.out.println("size\tPMap\tPSet\tPList");
+		for(int size = 0; size <= 16; size++) {
+			int n = size;
+			double map = bytesPerInstance(i -> {
+				PMap<String, String> m = PMap.empty();
+				for(int t = 0; t < n; t++) {
+					m = m.put(shared[t], shared[t]);
+				}
+				return m;
+			});
+			double set = bytesPerInstance(i -> {
+				PSet<String> s = PSet.empty();
+				for(int t = 0; t < n; t++) {
+					s = s.plus(shared[t]);
+				}
+				return s;
+			});
+			double list = bytesPerInstance(i -> {
+				PList<String> l = PList.empty();
+				for(int t = 0; t < n; t++) {
+					l = l.plus(shared[t]);
+				}
+				return l;
+			});
+			System.out.println(String.format("%d\t%.1f\t%.1f\t%.1f", size, map, set, list));
+		}
+	}
+}